@@ -19,6 +19,7 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
+import org.dashbuilder.config.Config;
 import org.dashbuilder.dataprovider.csv.CSVDataSetProvider;
 import org.dashbuilder.dataprovider.csv.CSVFileStorage;
 import org.dashbuilder.dataset.def.DataSetDef;
@@ -34,10 +35,12 @@ public class CSVDataSetProviderCDI extends CSVDataSetProvider {
 
     @Inject
     public CSVDataSetProviderCDI(StaticDataSetProviderCDI staticDataSetProvider,
-                                 CSVFileStorage csvStorage) {
+                                 CSVFileStorage csvStorage,
+                                 @Config("4194304" /* 4 Mb */) int csvParallelChunkSize) {
 
         super(staticDataSetProvider,
                 csvStorage);
+        setParallelChunkSize(csvParallelChunkSize);
     }
 
     // Listen to changes on the data set definition registry
@@ -21,11 +21,13 @@ import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
 import org.dashbuilder.DataSetCore;
+import org.dashbuilder.config.Config;
 import org.dashbuilder.dataprovider.backend.elasticsearch.ElasticSearchDataSetProvider;
 import org.dashbuilder.dataset.def.DataSetDef;
 import org.dashbuilder.dataset.events.DataSetDefModifiedEvent;
 import org.dashbuilder.dataset.events.DataSetDefRemovedEvent;
 import org.dashbuilder.dataset.events.DataSetStaleEvent;
+import org.dashbuilder.scheduler.SchedulerCDI;
 
 @ApplicationScoped
 public class ElasticSearchDataSetProviderCDI extends ElasticSearchDataSetProvider {
@@ -34,11 +36,17 @@ public class ElasticSearchDataSetProviderCDI extends ElasticSearchDataSetProvide
     }
 
     @Inject
-    public ElasticSearchDataSetProviderCDI(StaticDataSetProviderCDI staticDataSetProvider) {
+    public ElasticSearchDataSetProviderCDI(StaticDataSetProviderCDI staticDataSetProvider,
+                                           SchedulerCDI scheduler,
+                                           @Config("1000") int elasticSearchBulkLoadSize,
+                                           @Config("60") int elasticSearchHealthCheckSeconds) {
 
         super(staticDataSetProvider,
                 DataSetCore.get().getIntervalBuilderLocator(),
                 DataSetCore.get().getIntervalBuilderDynamicDate());
+
+        super.setBulkLoadBatchSize(elasticSearchBulkLoadSize);
+        super.scheduleHealthCheck(scheduler, elasticSearchHealthCheckSeconds);
     }
 
     @PreDestroy
@@ -20,8 +20,10 @@ import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
 import org.dashbuilder.DataSetCore;
+import org.dashbuilder.config.Config;
 import org.dashbuilder.dataprovider.sql.SQLDataSetProvider;
 import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.def.SQLDataSetDef;
 import org.dashbuilder.dataset.events.DataSetDefModifiedEvent;
 import org.dashbuilder.dataset.events.DataSetDefRemovedEvent;
 import org.dashbuilder.dataset.events.DataSetStaleEvent;
@@ -34,7 +36,10 @@ public class SQLDataSetProviderCDI extends SQLDataSetProvider {
 
     @Inject
     public SQLDataSetProviderCDI(StaticDataSetProviderCDI staticDataSetProvider,
-                                 SQLDataSourceLocatorCDI sqlDataSourceLocator) {
+                                 SQLDataSourceLocatorCDI sqlDataSourceLocator,
+                                 @Config("true") boolean sqlCountOverEnabled,
+                                 @Config("1000") int sqlFetchSize,
+                                 @Config("true") boolean sqlRowEstimateEnabled) {
 
         super(staticDataSetProvider,
                 DataSetCore.get().getIntervalBuilderLocator(),
@@ -42,6 +47,9 @@ public class SQLDataSetProviderCDI extends SQLDataSetProvider {
                 DataSetCore.get().getSharedDataSetOpEngine());
 
         super.setDataSourceLocator(sqlDataSourceLocator);
+        super.setCountOverEnabled(sqlCountOverEnabled);
+        super.setFetchSize(sqlFetchSize);
+        super.setRowEstimateEnabled(sqlRowEstimateEnabled);
     }
 
     // Listen to changes on the data set definition registry
@@ -50,7 +58,9 @@ public class SQLDataSetProviderCDI extends SQLDataSetProvider {
         DataSetDef def = event.getDataSetDef();
         if (DataSetProviderType.SQL.equals(def.getProvider())) {
             String uuid = def.getUUID();
-            staticDataSetProvider.removeDataSet(uuid);
+            _removeCachedResults(uuid);
+            _removeCachedColumns((SQLDataSetDef) def);
+            _removeCachedDataSet((SQLDataSetDef) def, true);
         }
     }
 
@@ -59,7 +69,9 @@ public class SQLDataSetProviderCDI extends SQLDataSetProvider {
         if (DataSetProviderType.SQL.equals(def.getProvider())) {
             String uuid = def.getUUID();
             _metadataMap.remove(uuid);
-            staticDataSetProvider.removeDataSet(uuid);
+            _removeCachedResults(uuid);
+            _removeCachedColumns((SQLDataSetDef) def);
+            _removeCachedDataSet((SQLDataSetDef) def, false);
         }
     }
 
@@ -68,7 +80,9 @@ public class SQLDataSetProviderCDI extends SQLDataSetProvider {
         if (DataSetProviderType.SQL.equals(def.getProvider())) {
             String uuid = def.getUUID();
             _metadataMap.remove(uuid);
-            staticDataSetProvider.removeDataSet(uuid);
+            _removeCachedResults(uuid);
+            _removeCachedColumns((SQLDataSetDef) def);
+            _removeCachedDataSet((SQLDataSetDef) def, false);
         }
     }
 }
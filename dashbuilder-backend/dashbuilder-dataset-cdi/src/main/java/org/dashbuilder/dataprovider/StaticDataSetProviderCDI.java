@@ -16,8 +16,10 @@
 package org.dashbuilder.dataprovider;
 
 import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
 
 import org.dashbuilder.DataSetCore;
+import org.dashbuilder.config.Config;
 
 @ApplicationScoped
 public class StaticDataSetProviderCDI extends StaticDataSetProvider {
@@ -25,4 +27,12 @@ public class StaticDataSetProviderCDI extends StaticDataSetProvider {
     public StaticDataSetProviderCDI() {
         super(DataSetCore.get().getSharedDataSetOpEngine());
     }
+
+    @Inject
+    public StaticDataSetProviderCDI(@Config("-1") long indexRegistryMaxMemory,
+                                    @Config("100000") int filterParallelThreshold) {
+        this();
+        DataSetCore.get().setIndexRegistryMaxMemory(indexRegistryMaxMemory);
+        DataSetCore.get().setFilterParallelThreshold(filterParallelThreshold);
+    }
 }
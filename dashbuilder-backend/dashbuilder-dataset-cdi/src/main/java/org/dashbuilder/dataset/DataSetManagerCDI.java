@@ -15,13 +15,19 @@
  */
 package org.dashbuilder.dataset;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 
 import org.dashbuilder.DataSetCore;
 import org.dashbuilder.config.Config;
 import org.dashbuilder.dataprovider.DataSetProviderRegistryCDI;
 import org.dashbuilder.dataprovider.StaticDataSetProviderCDI;
+import org.dashbuilder.dataset.events.DataSetDefModifiedEvent;
+import org.dashbuilder.dataset.events.DataSetDefRegisteredEvent;
+import org.dashbuilder.dataset.events.DataSetDefRemovedEvent;
+import org.dashbuilder.dataset.events.DataSetStaleEvent;
 
 @ApplicationScoped
 public class DataSetManagerCDI extends DataSetManagerImpl {
@@ -34,12 +40,48 @@ public class DataSetManagerCDI extends DataSetManagerImpl {
                              DataSetDefRegistryCDI dataSetDefRegistry,
                              DataSetProviderRegistryCDI dataSetProviderRegistry,
                              @Config("true") boolean dataSetPushEnabled,
-                             @Config("1024") int dataSetPushMaxSize) {
+                             @Config("1024") int dataSetPushMaxSize,
+                             @Config("10485760") long dataSetLookupCacheMaxMemory,
+                             @Config("8") int dataSetLookupMaxThreads,
+                             @Config("4") int dataSetLookupMaxPerSource) {
 
         super(dataSetDefRegistry,
                 dataSetProviderRegistry,
                 staticDataSetProvider,
                 dataSetPushEnabled,
                 dataSetPushMaxSize);
+
+        if (dataSetLookupCacheMaxMemory > 0) {
+            this.lookupCache = new DataSetLookupCache(dataSetLookupCacheMaxMemory);
+        }
+        if (dataSetLookupMaxThreads > 0) {
+            this.lookupExecutor = new DataSetLookupExecutor(dataSetLookupMaxThreads, Math.max(1, dataSetLookupMaxPerSource));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (lookupExecutor != null) {
+            lookupExecutor.shutdown();
+        }
+    }
+
+    // Listen to changes on the data set definition registry
+
+    protected void onDataSetStaleEvent(@Observes DataSetStaleEvent event) {
+        invalidateLookupCache(event.getDataSetDef().getUUID());
+    }
+
+    protected void onDataSetDefRegisteredEvent(@Observes DataSetDefRegisteredEvent event) {
+        invalidateLookupCache(event.getDataSetDef().getUUID());
+    }
+
+    protected void onDataSetDefRemovedEvent(@Observes DataSetDefRemovedEvent event) {
+        invalidateLookupCache(event.getDataSetDef().getUUID());
+    }
+
+    protected void onDataSetDefModifiedEvent(@Observes DataSetDefModifiedEvent event) {
+        invalidateLookupCache(event.getOldDataSetDef().getUUID());
+        invalidateLookupCache(event.getNewDataSetDef().getUUID());
     }
 }
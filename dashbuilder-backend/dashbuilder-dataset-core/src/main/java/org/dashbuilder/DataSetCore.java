@@ -50,6 +50,12 @@ public abstract class DataSetCore extends AbstractDataSetCore {
 
     public abstract int getDataSetPushMaxSize();
 
+    public abstract long getIndexRegistryMaxMemory();
+
+    public abstract long getLookupCacheMaxMemory();
+
+    public abstract int getFilterParallelThreshold();
+
     public abstract Scheduler getScheduler();
 
     public abstract DataSetDefRegistry getDataSetDefRegistry();
@@ -70,6 +76,12 @@ public abstract class DataSetCore extends AbstractDataSetCore {
 
     public abstract void setDataSetPushMaxSize(int dataSetPushMaxSize);
 
+    public abstract void setIndexRegistryMaxMemory(long indexRegistryMaxMemory);
+
+    public abstract void setLookupCacheMaxMemory(long lookupCacheMaxMemory);
+
+    public abstract void setFilterParallelThreshold(int filterParallelThreshold);
+
     public abstract void setScheduler(Scheduler scheduler);
 
     public abstract void setDataSetDefRegistry(DataSetDefRegistry dataSetDefRegistry);
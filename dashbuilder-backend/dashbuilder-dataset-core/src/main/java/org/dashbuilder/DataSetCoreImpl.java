@@ -20,16 +20,25 @@ import org.dashbuilder.dataprovider.DataSetProviderRegistry;
 import org.dashbuilder.dataprovider.DataSetProviderRegistryImpl;
 import org.dashbuilder.dataprovider.StaticDataSetProvider;
 import org.dashbuilder.dataset.ChronometerImpl;
+import org.dashbuilder.dataset.CoreFunctionCompilerImpl;
 import org.dashbuilder.dataset.DataSetDefDeployer;
 import org.dashbuilder.dataset.DataSetDefRegistryImpl;
+import org.dashbuilder.dataset.DataSetIndexBuildCoordinatorImpl;
+import org.dashbuilder.dataset.DataSetLookupCache;
 import org.dashbuilder.dataset.DataSetManager;
 import org.dashbuilder.dataset.DataSetManagerImpl;
 import org.dashbuilder.dataset.IntervalBuilderDynamicDate;
 import org.dashbuilder.dataset.IntervalBuilderLocatorImpl;
+import org.dashbuilder.dataset.ParallelFilterAlgorithm;
 import org.dashbuilder.dataset.UUIDGeneratorImpl;
 import org.dashbuilder.dataset.def.DataSetDefRegistry;
 import org.dashbuilder.dataset.engine.Chronometer;
+import org.dashbuilder.dataset.engine.filter.DataSetFilterAlgorithm;
+import org.dashbuilder.dataset.engine.group.IntervalBuilderDynamicLabel;
 import org.dashbuilder.dataset.engine.group.IntervalBuilderLocator;
+import org.dashbuilder.dataset.engine.index.BoundedDataSetIndexRegistry;
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexBuildCoordinator;
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexRegistry;
 import org.dashbuilder.dataset.json.DataSetDefJSONMarshaller;
 import org.dashbuilder.dataset.uuid.UUIDGenerator;
 import org.dashbuilder.scheduler.Scheduler;
@@ -40,11 +49,15 @@ public class DataSetCoreImpl extends DataSetCore {
     private static final String DATA_SET_DEF_REGISTRY = "DataSetDefRegistry";
     private boolean dataSetPushEnabled = false;
     private int dataSetPushMaxSize = 1024;
+    private long indexRegistryMaxMemory = -1;
+    private long lookupCacheMaxMemory = -1;
+    private int filterParallelThreshold = ParallelFilterAlgorithm.DEFAULT_PARALLEL_THRESHOLD;
     private Scheduler scheduler;
     private DataSetDefRegistry dataSetDefRegistry;
     private DataSetProviderRegistry dataSetProviderRegistry;
     private DataSetDefDeployer dataSetDefDeployer;
     private DataSetManagerImpl dataSetManagerImpl;
+    private DataSetLookupCache dataSetLookupCache;
     private BeanDataSetProvider beanDataSetProvider;
     private StaticDataSetProvider staticDataSetProvider;
     private IntervalBuilderLocatorImpl intervalBuilderLocator;
@@ -65,6 +78,32 @@ public class DataSetCoreImpl extends DataSetCore {
         return getIntervalBuilderLocatorImpl();
     }
 
+    @Override
+    public IntervalBuilderDynamicLabel newIntervalBuilderDynamicLabel() {
+        IntervalBuilderDynamicLabel intervalBuilder = super.newIntervalBuilderDynamicLabel();
+        intervalBuilder.setDictionaryEncodingEnabled(true);
+        return intervalBuilder;
+    }
+
+    @Override
+    public DataSetIndexRegistry newIndexRegistry() {
+        return new BoundedDataSetIndexRegistry(
+                checkNotNull(getUuidGenerator(), "UUIDGenerator"),
+                indexRegistryMaxMemory);
+    }
+
+    @Override
+    public DataSetIndexBuildCoordinator newIndexBuildCoordinator() {
+        return new DataSetIndexBuildCoordinatorImpl();
+    }
+
+    @Override
+    public DataSetFilterAlgorithm newFilterAlgorithm() {
+        ParallelFilterAlgorithm filterAlgorithm = new ParallelFilterAlgorithm(filterParallelThreshold);
+        filterAlgorithm.setFunctionCompiler(new CoreFunctionCompilerImpl());
+        return filterAlgorithm;
+    }
+
     @Override
     public Chronometer newChronometer() {
         return getChronometerImpl();
@@ -85,6 +124,18 @@ public class DataSetCoreImpl extends DataSetCore {
         return dataSetPushMaxSize;
     }
 
+    public long getIndexRegistryMaxMemory() {
+        return indexRegistryMaxMemory;
+    }
+
+    public long getLookupCacheMaxMemory() {
+        return lookupCacheMaxMemory;
+    }
+
+    public int getFilterParallelThreshold() {
+        return filterParallelThreshold;
+    }
+
     public DataSetManagerImpl getDataSetManagerImpl() {
         if (dataSetManagerImpl == null) {
             dataSetManagerImpl = new DataSetManagerImpl(
@@ -93,10 +144,19 @@ public class DataSetCoreImpl extends DataSetCore {
                     checkNotNull(getStaticDataSetProvider(), STATIC_DATA_SET_PROVIDER),
                     dataSetPushEnabled, dataSetPushMaxSize);
 
+            dataSetManagerImpl.setLookupCache(getDataSetLookupCache());
         }
         return dataSetManagerImpl;
     }
 
+    public DataSetLookupCache getDataSetLookupCache() {
+        if (dataSetLookupCache == null && lookupCacheMaxMemory > 0) {
+            dataSetLookupCache = new DataSetLookupCache(lookupCacheMaxMemory);
+            getDataSetDefRegistry().addListener(dataSetLookupCache);
+        }
+        return dataSetLookupCache;
+    }
+
     public DataSetDefRegistry getDataSetDefRegistry() {
         if (dataSetDefRegistry == null) {
             dataSetDefRegistry = new DataSetDefRegistryImpl(
@@ -197,6 +257,32 @@ public class DataSetCoreImpl extends DataSetCore {
         this.dataSetPushMaxSize = dataSetPushMaxSize;
     }
 
+    public void setIndexRegistryMaxMemory(long indexRegistryMaxMemory) {
+        this.indexRegistryMaxMemory = indexRegistryMaxMemory;
+        DataSetIndexRegistry indexRegistry = getIndexRegistry();
+        if (indexRegistry instanceof BoundedDataSetIndexRegistry) {
+            ((BoundedDataSetIndexRegistry) indexRegistry).setMaxMemory(indexRegistryMaxMemory);
+        }
+    }
+
+    public void setLookupCacheMaxMemory(long lookupCacheMaxMemory) {
+        this.lookupCacheMaxMemory = lookupCacheMaxMemory;
+        if (dataSetLookupCache != null) {
+            dataSetLookupCache.setMaxMemory(lookupCacheMaxMemory);
+        }
+        if (dataSetManagerImpl != null) {
+            dataSetManagerImpl.setLookupCache(getDataSetLookupCache());
+        }
+    }
+
+    public void setFilterParallelThreshold(int filterParallelThreshold) {
+        this.filterParallelThreshold = filterParallelThreshold;
+        DataSetFilterAlgorithm filterAlgorithm = getFilterAlgorithm();
+        if (filterAlgorithm instanceof ParallelFilterAlgorithm) {
+            ((ParallelFilterAlgorithm) filterAlgorithm).setParallelThreshold(filterParallelThreshold);
+        }
+    }
+
     public void setScheduler(Scheduler scheduler) {
         this.scheduler = scheduler;
     }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider;
+
+import java.util.List;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.def.DataSetDef;
+
+/**
+ * Interface implemented by those providers able to send several lookups to the storage in a single request,
+ * so the lookups of a batch (see {@link org.dashbuilder.dataset.DataSetManager#lookupDataSets(DataSetLookup[])})
+ * cost just one round trip.
+ */
+public interface DataSetBatchProvider {
+
+    /**
+     * Check if a lookup can be sent within a batch. Lookups not worth joining with others (because they are not
+     * resolved by the storage, for instance) are run on their own, concurrently with the batch.
+     * @param def The definition of the data set to lookup.
+     * @param lookup The lookup.
+     */
+    boolean isBatchLookup(DataSetDef def, DataSetLookup lookup);
+
+    /**
+     * Lookup several data sets at once.
+     * @param defs The definitions of the data sets to lookup.
+     * @param lookups The lookups, one per definition.
+     * @return The lookup results, in the same order as the lookups.
+     */
+    List<DataSet> lookupDataSets(List<DataSetDef> defs, List<DataSetLookup> lookups) throws Exception;
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider;
+
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetRowHandler;
+import org.dashbuilder.dataset.def.DataSetDef;
+
+/**
+ * Interface implemented by those providers able to pass the rows of a lookup straight from the storage to the
+ * caller instead of building a data set instance.
+ */
+public interface DataSetStreamProvider {
+
+    /**
+     * Stream the rows of the given lookup.
+     * @return false if the lookup can't be streamed (i.e: it requires some in-memory processing). No row is
+     * passed to the handler in such case, and the caller must go for a regular lookup instead.
+     */
+    boolean streamDataSet(DataSetDef def, DataSetLookup lookup, DataSetRowHandler handler) throws Exception;
+}
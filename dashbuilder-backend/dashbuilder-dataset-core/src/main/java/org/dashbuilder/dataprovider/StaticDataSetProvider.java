@@ -19,6 +19,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetMetadata;
+import org.dashbuilder.dataset.columnar.ColumnarDataSet;
 import org.dashbuilder.dataset.def.DataSetDef;
 import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
 import org.dashbuilder.dataset.engine.index.DataSetIndex;
@@ -59,6 +60,24 @@ public class StaticDataSetProvider implements DataSetProvider {
         dataSetOpEngine.getIndexRegistry().put(dataSet);
     }
 
+    /**
+     * Append rows to a registered data set. A new version of the data set is registered, so that any lookup in
+     * progress keeps working on the previous one. The label dictionaries of the data set index are extended with
+     * the new rows, while any other sub-index is rebuilt on demand.
+     *
+     * @param uuid The data set unique identifier.
+     * @param rows The rows to append, with the same columns as the registered data set.
+     * @return The new data set version or <tt>null</tt> if no data set is registered under the given <tt>uuid</tt>.
+     */
+    public DataSet appendRows(String uuid, DataSet rows) {
+        DataSetIndex index = dataSetOpEngine.getIndexRegistry().get(uuid);
+        if (index == null) return null;
+
+        ColumnarDataSet dataSet = ColumnarDataSet.from(index.getDataSet()).append(rows);
+        dataSetOpEngine.getIndexRegistry().append(dataSet);
+        return dataSet;
+    }
+
     public DataSet removeDataSet(String uuid) {
         DataSetIndex index = dataSetOpEngine.getIndexRegistry().remove(uuid);
         return (index == null ? null : index.getDataSet());
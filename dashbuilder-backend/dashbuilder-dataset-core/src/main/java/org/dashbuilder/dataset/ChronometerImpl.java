@@ -19,23 +19,30 @@ import org.dashbuilder.dataset.engine.Chronometer;
 
 public class ChronometerImpl implements Chronometer {
 
-    protected Long startTime;
-    protected Long stopTime;
+    // The instance is shared by concurrent threads, so every thread keeps its own start & stop times
+    protected ThreadLocal<Long[]> times = new ThreadLocal<Long[]>() {
+        protected Long[] initialValue() {
+            return new Long[2];
+        }
+    };
 
     public long start() {
-        startTime = System.nanoTime();
-        stopTime = null;
-        return startTime;
+        Long[] t = times.get();
+        t[0] = System.nanoTime();
+        t[1] = null;
+        return t[0];
     }
 
     public long stop() {
-        stopTime = System.nanoTime();
-        return stopTime;
+        Long[] t = times.get();
+        t[1] = System.nanoTime();
+        return t[1];
     }
 
     public long elapsedTime() {
-        long stop = stopTime != null ? stopTime : System.nanoTime();
-        return stop - startTime;
+        Long[] t = times.get();
+        long stop = t[1] != null ? t[1] : System.nanoTime();
+        return stop - t[0];
     }
 
     public String formatElapsedTime(long millis) {
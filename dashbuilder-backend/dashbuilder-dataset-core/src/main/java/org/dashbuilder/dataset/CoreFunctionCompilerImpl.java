@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.dashbuilder.dataset.columnar.ColumnarDataColumn;
+import org.dashbuilder.dataset.columnar.DateColumn;
+import org.dashbuilder.dataset.columnar.NumberColumn;
+import org.dashbuilder.dataset.engine.filter.CoreFunctionCompiler;
+import org.dashbuilder.dataset.engine.filter.DataSetFilterContext;
+import org.dashbuilder.dataset.engine.filter.DataSetFunction;
+import org.dashbuilder.dataset.engine.filter.IsNullFunction;
+import org.dashbuilder.dataset.engine.filter.LikeToFunction;
+import org.dashbuilder.dataset.engine.filter.RangeFunction;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionFilter;
+
+/**
+ * Server side function compiler. Regular expressions are compiled into a {@link Pattern} and the functions on
+ * columnar data sets read the values straight from the primitive column storage.
+ */
+public class CoreFunctionCompilerImpl extends CoreFunctionCompiler {
+
+    @Override
+    protected DataSetFunction newIsNullFunction(DataSetFilterContext ctx, CoreFunctionFilter filter, DataColumn column, boolean negate) {
+        if (column instanceof ColumnarDataColumn) {
+            return new ColumnarIsNullFunction(ctx, filter, (ColumnarDataColumn) column, negate);
+        }
+        return super.newIsNullFunction(ctx, filter, column, negate);
+    }
+
+    @Override
+    protected DataSetFunction newLikeToFunction(DataSetFilterContext ctx, CoreFunctionFilter filter, DataColumn column, String pattern, boolean caseSensitive) {
+        return new PatternLikeToFunction(ctx, filter, column.getValues(), pattern, caseSensitive);
+    }
+
+    @Override
+    protected RangeFunction newRangeFunction(DataSetFilterContext ctx, CoreFunctionFilter filter, DataColumn column, boolean passNull) {
+        if (column instanceof NumberColumn || column instanceof DateColumn) {
+            return new ColumnarRangeFunction(ctx, filter, (ColumnarDataColumn) column, passNull);
+        }
+        return super.newRangeFunction(ctx, filter, column, passNull);
+    }
+
+    public static class ColumnarIsNullFunction extends IsNullFunction {
+
+        protected ColumnarDataColumn column;
+
+        public ColumnarIsNullFunction(DataSetFilterContext ctx, ColumnFilter filter, ColumnarDataColumn column, boolean negate) {
+            super(ctx, filter, column.getValues(), negate);
+            this.column = column;
+        }
+
+        @Override
+        public boolean pass() {
+            return column.isNull(context.getCurrentRow()) != negate;
+        }
+    }
+
+    public static class ColumnarRangeFunction extends RangeFunction {
+
+        protected ColumnarDataColumn column;
+        protected NumberColumn numberColumn;
+        protected DateColumn dateColumn;
+
+        public ColumnarRangeFunction(DataSetFilterContext ctx, ColumnFilter filter, ColumnarDataColumn column, boolean passNull) {
+            super(ctx, filter, column.getValues(), column instanceof DateColumn, passNull);
+            this.column = column;
+            this.numberColumn = column instanceof NumberColumn ? (NumberColumn) column : null;
+            this.dateColumn = column instanceof DateColumn ? (DateColumn) column : null;
+        }
+
+        @Override
+        public boolean pass() {
+            int row = context.getCurrentRow();
+            if (column.isNull(row)) {
+                return passNull;
+            }
+            return inRange(numberColumn != null ? numberColumn.getDouble(row) : dateColumn.getTime(row));
+        }
+    }
+
+    public static class PatternLikeToFunction extends LikeToFunction {
+
+        protected Pattern compiledRegex;
+
+        public PatternLikeToFunction(DataSetFilterContext ctx, ColumnFilter filter, List values, String pattern, boolean caseSensitive) {
+            super(ctx, filter, values, pattern, caseSensitive);
+            this.compiledRegex = Pattern.compile(regex);
+        }
+
+        @Override
+        public boolean matchRegex(String str) {
+            return compiledRegex.matcher(str).matches();
+        }
+    }
+}
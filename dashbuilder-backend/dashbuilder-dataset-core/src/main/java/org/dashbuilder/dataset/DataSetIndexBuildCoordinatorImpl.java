@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.dashbuilder.dataset.engine.index.DataSetIndexElement;
+import org.dashbuilder.dataset.engine.index.DataSetIndexNode;
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexBuild;
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexBuildCoordinator;
+
+/**
+ * Coordinator for concurrent environments. The first thread requesting a missing index builds it, while any other
+ * thread asking for the same index (same node & key) waits for it instead of building its own copy.
+ */
+public class DataSetIndexBuildCoordinatorImpl implements DataSetIndexBuildCoordinator {
+
+    /**
+     * The builds in progress. Only a few of them are expected at a time, so a list is enough.
+     */
+    protected final List<PendingBuild> pendingBuilds = new ArrayList<PendingBuild>();
+
+    public <T extends DataSetIndexElement> T getOrBuild(DataSetIndexNode node, Object key, final DataSetIndexBuild<T> build) {
+        T index = build.lookup();
+        if (index != null) {
+            return index;
+        }
+
+        PendingBuild pending;
+        boolean owner = false;
+        synchronized (pendingBuilds) {
+            pending = getPendingBuild(node, key);
+            if (pending == null) {
+                // The index could have been completed after the first lookup
+                index = build.lookup();
+                if (index != null) {
+                    return index;
+                }
+                pending = new PendingBuild(node, key, new FutureTask<DataSetIndexElement>(new Callable<DataSetIndexElement>() {
+                    public DataSetIndexElement call() throws Exception {
+                        return build.build();
+                    }
+                }));
+                pendingBuilds.add(pending);
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            try {
+                pending.task.run();
+            } finally {
+                synchronized (pendingBuilds) {
+                    pendingBuilds.remove(pending);
+                }
+            }
+        }
+        return (T) getResult(pending.task);
+    }
+
+    protected PendingBuild getPendingBuild(DataSetIndexNode node, Object key) {
+        for (PendingBuild pending : pendingBuilds) {
+            if (pending.node == node && pending.key.equals(key)) {
+                return pending;
+            }
+        }
+        return null;
+    }
+
+    protected DataSetIndexElement getResult(FutureTask<DataSetIndexElement> task) {
+        try {
+            return task.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an index build", e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    protected static class PendingBuild {
+
+        DataSetIndexNode node;
+        Object key;
+        FutureTask<DataSetIndexElement> task;
+
+        PendingBuild(DataSetIndexNode node, Object key, FutureTask<DataSetIndexElement> task) {
+            this.node = node;
+            this.key = key;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.dashbuilder.dataprovider.DataSetProviderType;
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.def.DataSetDefRegistryListener;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionFilter;
+import org.dashbuilder.dataset.filter.CustomFunctionFilter;
+import org.dashbuilder.dataset.filter.DataSetFilter;
+import org.dashbuilder.dataset.filter.LogicalExprFilter;
+import org.dashbuilder.dataset.group.ColumnGroup;
+import org.dashbuilder.dataset.group.DataSetGroup;
+
+/**
+ * A memory bounded cache of data set lookup results.
+ *
+ * <p>Entries are keyed by a normalized copy of the lookup request and evicted in LRU order once the estimated
+ * size of the cached data sets exceeds the max memory setting. All the entries of a data set are discarded as soon
+ * as its definition is modified, removed or becomes stale, so the cache must be registered as a listener of the
+ * data set definition registry (or get its events forwarded).</p>
+ *
+ * <p>Cached data sets are shared among all the callers, so they must be treated as read-only.</p>
+ */
+public class DataSetLookupCache implements DataSetDefRegistryListener {
+
+    protected long maxMemory;
+    protected long memoryUsed = 0;
+    protected long hits = 0;
+    protected long misses = 0;
+    protected Map<Key, DataSet> entryMap = new LinkedHashMap<Key, DataSet>(16, 0.75f, true);
+    protected Map<String, Long> versionMap = new HashMap<String, Long>();
+
+    public DataSetLookupCache(long maxMemory) {
+        this.maxMemory = maxMemory;
+    }
+
+    public synchronized long getMaxMemory() {
+        return maxMemory;
+    }
+
+    /**
+     * Changes the memory limit. A zero or negative value disables the cache.
+     */
+    public synchronized void setMaxMemory(long maxMemory) {
+        this.maxMemory = maxMemory;
+        if (maxMemory <= 0) {
+            clear();
+        } else {
+            evict();
+        }
+    }
+
+    public synchronized long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    public synchronized int size() {
+        return entryMap.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the cache key for the given lookup request.
+     *
+     * @param def The definition of the target data set.
+     * @param lookup The lookup request, once preprocessed.
+     * @return The key or null if the lookup results can't be cached.
+     */
+    public synchronized Key createKey(DataSetDef def, DataSetLookup lookup) {
+        if (!isCacheable(def, lookup)) {
+            return null;
+        }
+        String uuid = lookup.getDataSetUUID();
+        return new Key(uuid, normalize(lookup), getVersion(uuid));
+    }
+
+    public synchronized DataSet get(Key key) {
+        DataSet dataSet = entryMap.get(key);
+        if (dataSet != null) hits++;
+        else misses++;
+        return dataSet;
+    }
+
+    public synchronized void put(Key key, DataSet dataSet) {
+        if (dataSet == null || maxMemory <= 0) {
+            return;
+        }
+        // Discard the results of the lookups started before the last invalidation
+        if (key.version != getVersion(key.uuid)) {
+            return;
+        }
+        long size = dataSet.getEstimatedSize();
+        if (size > maxMemory) {
+            return;
+        }
+        DataSet old = entryMap.put(key, dataSet);
+        if (old != null) {
+            memoryUsed -= old.getEstimatedSize();
+        }
+        memoryUsed += size;
+        evict();
+    }
+
+    /**
+     * Discard all the cached lookups on the given data set.
+     */
+    public synchronized void invalidate(String uuid) {
+        if (uuid == null) {
+            return;
+        }
+        versionMap.put(uuid, getVersion(uuid) + 1);
+        Iterator<Map.Entry<Key, DataSet>> it = entryMap.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, DataSet> entry = it.next();
+            if (uuid.equals(entry.getKey().uuid)) {
+                memoryUsed -= entry.getValue().getEstimatedSize();
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        for (String uuid : versionMap.keySet()) {
+            versionMap.put(uuid, versionMap.get(uuid) + 1);
+        }
+        entryMap.clear();
+        memoryUsed = 0;
+    }
+
+    protected void evict() {
+        Iterator<DataSet> it = entryMap.values().iterator();
+        while (memoryUsed > maxMemory && it.hasNext()) {
+            DataSet dataSet = it.next();
+            memoryUsed -= dataSet.getEstimatedSize();
+            it.remove();
+        }
+    }
+
+    protected long getVersion(String uuid) {
+        Long version = versionMap.get(uuid);
+        return version != null ? version : 0;
+    }
+
+    /**
+     * Only the results of data sets whose contents can't change without notice are cached, this is, those
+     * held in memory or refreshed on every refresh period, since they always fire an stale event on data changes.
+     * Data sets refreshed only when their row count changes (<code>refreshAlways=false</code>) are not cached,
+     * since an update keeping the row count fires no stale event.
+     */
+    protected boolean isCacheable(DataSetDef def, DataSetLookup lookup) {
+        if (maxMemory <= 0 || def == null || lookup == null) {
+            return false;
+        }
+        if (lookup.testMode() || lookup.getDataSetUUID() == null || lookup.isEmpty()) {
+            return false;
+        }
+        for (DataSetFilter filterOp : lookup.getOperationList(DataSetFilter.class)) {
+            if (hasCustomFunction(filterOp.getColumnFilterList())) {
+                return false;
+            }
+        }
+        if (!StringUtils.isBlank(def.getRefreshTime()) && def.isRefreshAlways()) {
+            return true;
+        }
+        DataSetProviderType type = def.getProvider();
+        if (DataSetProviderType.STATIC.equals(type) || DataSetProviderType.BEAN.equals(type)) {
+            return true;
+        }
+        // CSV files are reloaded as soon as they change, no matter the cache settings
+        return def.isCacheEnabled() && !DataSetProviderType.CSV.equals(type);
+    }
+
+    protected boolean hasCustomFunction(List<ColumnFilter> filterList) {
+        for (ColumnFilter columnFilter : filterList) {
+            if (columnFilter instanceof CustomFunctionFilter) {
+                return true;
+            }
+            if (columnFilter instanceof LogicalExprFilter
+                    && hasCustomFunction(((LogicalExprFilter) columnFilter).getLogicalTerms())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get a copy of the lookup without the settings having no effect on the lookup results.
+     */
+    protected DataSetLookup normalize(DataSetLookup lookup) {
+        DataSetLookup result = lookup.cloneInstance();
+        if (result.getRowOffset() < 0) {
+            result.setRowOffset(0);
+        }
+        if (result.getNumberOfRows() <= 0) {
+            result.setNumberOfRows(-1);
+        }
+        Iterator<DataSetOp> it = result.getOperationList().iterator();
+        while (it.hasNext()) {
+            DataSetOp op = it.next();
+            if (op instanceof DataSetFilter && ((DataSetFilter) op).getColumnFilterList().isEmpty()) {
+                it.remove();
+            }
+        }
+        return result;
+    }
+
+    // Listen to changes on the data set definition registry
+
+    public void onDataSetDefStale(DataSetDef def) {
+        invalidate(def.getUUID());
+    }
+
+    public void onDataSetDefModified(DataSetDef oldDef, DataSetDef newDef) {
+        invalidate(oldDef.getUUID());
+        invalidate(newDef.getUUID());
+    }
+
+    public void onDataSetDefRegistered(DataSetDef newDef) {
+        invalidate(newDef.getUUID());
+    }
+
+    public void onDataSetDefRemoved(DataSetDef oldDef) {
+        invalidate(oldDef.getUUID());
+    }
+
+    /**
+     * The key of a cache entry. Since the equals implementation of the lookup classes treats null fields as
+     * wildcards, keys are only considered equal if the lookups are equal in both directions. The group settings
+     * not taken into account by {@link ColumnGroup#equals(Object)} are compared as well, and so are the order of
+     * the group functions, the selected intervals and the filter parameters, which the lookup classes ignore.
+     */
+    public static class Key {
+
+        protected String uuid;
+        protected DataSetLookup lookup;
+        protected long version;
+        protected int hash;
+
+        protected Key(String uuid, DataSetLookup lookup, long version) {
+            this.uuid = uuid;
+            this.lookup = lookup;
+            this.version = version;
+            this.hash = lookup.hashCode();
+        }
+
+        public DataSetLookup getLookup() {
+            return lookup;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            if (hash != other.hash || !lookup.equals(other.lookup) || !other.lookup.equals(lookup)) {
+                return false;
+            }
+            List<DataSetGroup> groupOps = lookup.getOperationList(DataSetGroup.class);
+            List<DataSetGroup> otherGroupOps = other.lookup.getOperationList(DataSetGroup.class);
+            for (int i = 0; i < groupOps.size(); i++) {
+                ColumnGroup cg = groupOps.get(i).getColumnGroup();
+                ColumnGroup otherCg = otherGroupOps.get(i).getColumnGroup();
+                if (cg != null && otherCg != null && (cg.isAscendingOrder() != otherCg.isAscendingOrder()
+                        || cg.getFirstMonthOfYear() != otherCg.getFirstMonthOfYear()
+                        || cg.getFirstDayOfWeek() != otherCg.getFirstDayOfWeek())) {
+                    return false;
+                }
+                if (!sameOrder(groupOps.get(i).getGroupFunctions(), otherGroupOps.get(i).getGroupFunctions())
+                        || !sameOrder(groupOps.get(i).getSelectedIntervalList(), otherGroupOps.get(i).getSelectedIntervalList())) {
+                    return false;
+                }
+            }
+            List<DataSetFilter> filterOps = lookup.getOperationList(DataSetFilter.class);
+            List<DataSetFilter> otherFilterOps = other.lookup.getOperationList(DataSetFilter.class);
+            for (int i = 0; i < filterOps.size(); i++) {
+                if (!sameParameters(filterOps.get(i).getColumnFilterList(), otherFilterOps.get(i).getColumnFilterList())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        protected boolean sameOrder(List<?> list, List<?> otherList) {
+            if (list.size() != otherList.size()) {
+                return false;
+            }
+            for (int i = 0; i < list.size(); i++) {
+                Object el = list.get(i);
+                Object otherEl = otherList.get(i);
+                if (el == null || otherEl == null) {
+                    if (el != otherEl) return false;
+                }
+                else if (!el.equals(otherEl) || !otherEl.equals(el)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Check the filter parameters are given in the same order, i.e: the bounds of a BETWEEN filter.
+         */
+        protected boolean sameParameters(List<ColumnFilter> filterList, List<ColumnFilter> otherFilterList) {
+            if (filterList.size() != otherFilterList.size()) {
+                return false;
+            }
+            for (int i = 0; i < filterList.size(); i++) {
+                ColumnFilter filter = filterList.get(i);
+                ColumnFilter otherFilter = otherFilterList.get(i);
+                if (filter instanceof CoreFunctionFilter && otherFilter instanceof CoreFunctionFilter
+                        && !sameOrder(((CoreFunctionFilter) filter).getParameters(), ((CoreFunctionFilter) otherFilter).getParameters())) {
+                    return false;
+                }
+                if (filter instanceof LogicalExprFilter && otherFilter instanceof LogicalExprFilter
+                        && !sameParameters(((LogicalExprFilter) filter).getLogicalTerms(), ((LogicalExprFilter) otherFilter).getLogicalTerms())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.def.ElasticSearchDataSetDef;
+import org.dashbuilder.dataset.def.SQLDataSetDef;
+
+/**
+ * A thread pool for running the lookups of a batch request (see {@link DataSetManager#lookupDataSets(DataSetLookup[])})
+ * concurrently.
+ *
+ * <p>The number of lookups running at the same time against the same data source (see {@link #getSourceKey(DataSetDef)})
+ * is bounded, so a slow database can't take all the threads of the pool and delay the lookups on any other data source.
+ * Lookups beyond such limit are queued and run as soon as a previous lookup on the same data source finishes.</p>
+ */
+public class DataSetLookupExecutor {
+
+    protected ThreadPoolExecutor executor;
+    protected int maxLookupsPerSource;
+    protected Map<String, SourceQueue> queueMap = new HashMap<String, SourceQueue>();
+
+    /**
+     * @param maxThreads The size of the thread pool.
+     * @param maxLookupsPerSource Max. number of lookups running at the same time against the same data source.
+     */
+    public DataSetLookupExecutor(int maxThreads, int maxLookupsPerSource) {
+        this.maxLookupsPerSource = maxLookupsPerSource;
+        this.executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new LookupThreadFactory());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public int getMaxThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int getMaxLookupsPerSource() {
+        return maxLookupsPerSource;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Schedule a lookup for execution.
+     * @param def The definition of the data set to lookup.
+     * @param lookup The task carrying out the lookup (or a batch of lookups on the same data source).
+     * @return The future result of the lookup.
+     */
+    public <T> Future<T> submit(DataSetDef def, Callable<T> lookup) {
+        String sourceKey = getSourceKey(def);
+        FutureTask<T> task = new FutureTask<T>(lookup);
+        synchronized (queueMap) {
+            SourceQueue queue = queueMap.get(sourceKey);
+            if (queue == null) {
+                queue = new SourceQueue();
+                queueMap.put(sourceKey, queue);
+            }
+            if (queue.running >= maxLookupsPerSource) {
+                queue.waiting.add(task);
+                return task;
+            }
+            queue.running++;
+        }
+        executor.execute(new SourceTask(sourceKey, task));
+        return task;
+    }
+
+    /**
+     * Get the data source the given data set is read from. Data sets with no external storage are grouped
+     * by its provider type.
+     */
+    protected String getSourceKey(DataSetDef def) {
+        if (def instanceof SQLDataSetDef) {
+            return "sql:" + ((SQLDataSetDef) def).getDataSource();
+        }
+        if (def instanceof ElasticSearchDataSetDef) {
+            return "elasticsearch:" + ((ElasticSearchDataSetDef) def).getServerURL();
+        }
+        return String.valueOf(def.getProvider());
+    }
+
+    /**
+     * Called once a lookup finishes in order to run the next one waiting on the same data source (if any).
+     */
+    protected Runnable next(String sourceKey) {
+        synchronized (queueMap) {
+            SourceQueue queue = queueMap.get(sourceKey);
+            Runnable next = queue.waiting.poll();
+            if (next == null && --queue.running == 0) {
+                queueMap.remove(sourceKey);
+            }
+            return next;
+        }
+    }
+
+    protected static class SourceQueue {
+
+        int running = 0;
+        Queue<Runnable> waiting = new LinkedList<Runnable>();
+    }
+
+    protected class SourceTask implements Runnable {
+
+        String sourceKey;
+        Runnable task;
+
+        SourceTask(String sourceKey, Runnable task) {
+            this.sourceKey = sourceKey;
+            this.task = task;
+        }
+
+        public void run() {
+            try {
+                task.run();
+            } finally {
+                Runnable next = next(sourceKey);
+                if (next != null) {
+                    executor.execute(new SourceTask(sourceKey, next));
+                }
+            }
+        }
+    }
+
+    protected static class LookupThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "dataset-lookup-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -15,12 +15,21 @@
  */
 package org.dashbuilder.dataset;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.StringUtils;
+import org.dashbuilder.dataprovider.DataSetBatchProvider;
 import org.dashbuilder.dataprovider.DataSetProvider;
 import org.dashbuilder.dataprovider.DataSetProviderRegistry;
 import org.dashbuilder.dataprovider.DataSetProviderType;
+import org.dashbuilder.dataprovider.DataSetStreamProvider;
 import org.dashbuilder.dataprovider.StaticDataSetProvider;
 import org.dashbuilder.dataset.exception.DataSetLookupException;
 import org.dashbuilder.dataset.def.DataSetDef;
@@ -42,6 +51,8 @@ public class DataSetManagerImpl implements DataSetManager {
     protected StaticDataSetProvider staticDataSetProvider;
     protected boolean pushEnabled = false;
     protected int pushMaxSize = 1024;
+    protected DataSetLookupCache lookupCache;
+    protected DataSetLookupExecutor lookupExecutor;
     protected Logger log = LoggerFactory.getLogger(DataSetManagerImpl.class);
 
     public DataSetManagerImpl() {
@@ -80,6 +91,29 @@ public class DataSetManagerImpl implements DataSetManager {
         return staticDataSetProvider;
     }
 
+    public DataSetLookupCache getLookupCache() {
+        return lookupCache;
+    }
+
+    /**
+     * Set the cache for the lookup results, or null to disable it.
+     */
+    public void setLookupCache(DataSetLookupCache lookupCache) {
+        this.lookupCache = lookupCache;
+    }
+
+    public DataSetLookupExecutor getLookupExecutor() {
+        return lookupExecutor;
+    }
+
+    /**
+     * Set the thread pool used to run the lookups of a batch request concurrently, or null to run them one
+     * after the other.
+     */
+    public void setLookupExecutor(DataSetLookupExecutor lookupExecutor) {
+        this.lookupExecutor = lookupExecutor;
+    }
+
     public DataSet createDataSet(String uuid) {
         DataSet dataSet = DataSetFactory.newEmptyDataSet();
         dataSet.setUUID(uuid);
@@ -114,6 +148,7 @@ public class DataSetManagerImpl implements DataSetManager {
             // Register the data set after the definition. It's mandatory to do this right after since
             // the registerDataSetDef will delete any old existing data set matching the given UUID.
             staticDataSetProvider.registerDataSet(dataSet);
+            invalidateLookupCache(dataSet.getUUID());
         }
     }
 
@@ -130,10 +165,24 @@ public class DataSetManagerImpl implements DataSetManager {
         }
 
         dataSetDefRegistry.removeDataSetDef(uuid);
-        return staticDataSetProvider.removeDataSet(uuid);
+        DataSet dataSet = staticDataSetProvider.removeDataSet(uuid);
+        invalidateLookupCache(uuid);
+        return dataSet;
     }
 
     public DataSet lookupDataSet(DataSetLookup lookup) {
+        DataSetDef dataSetDef = prepareLookup(lookup);
+        if (dataSetDef == null) {
+            return null;
+        }
+        return executeLookup(dataSetDef, lookup);
+    }
+
+    /**
+     * Get the definition of the target data set and apply its preprocessors to the lookup.
+     * @return null if the lookup has no target data set.
+     */
+    protected DataSetDef prepareLookup(DataSetLookup lookup) {
         String uuid = lookup.getDataSetUUID();
         if (StringUtils.isBlank(uuid)) {
             return null;
@@ -149,9 +198,28 @@ public class DataSetManagerImpl implements DataSetManager {
                 p.preprocess(lookup);
             }
         }
+        return dataSetDef;
+    }
+
+    protected DataSet executeLookup(DataSetDef dataSetDef, DataSetLookup lookup) {
+        String uuid = dataSetDef.getUUID();
+
+        // The key must be taken before the lookup is passed to the provider, which may modify it
+        DataSetLookupCache.Key cacheKey = lookupCache != null ? lookupCache.createKey(dataSetDef, lookup) : null;
+        if (cacheKey != null) {
+            DataSet cached = lookupCache.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
         try {
-            return resolveProvider(dataSetDef)
+            DataSet dataSet = resolveProvider(dataSetDef)
                     .lookupDataSet(dataSetDef, lookup);
+
+            if (cacheKey != null) {
+                lookupCache.put(cacheKey, dataSet);
+            }
+            return dataSet;
         } catch (Exception e) {
             throw new DataSetLookupException(uuid, "Can't lookup on specified data set: " + lookup.getDataSetUUID(), e);
         }
@@ -159,12 +227,208 @@ public class DataSetManagerImpl implements DataSetManager {
 
     public DataSet[] lookupDataSets(DataSetLookup[] lookup) {
         DataSet[] result = new DataSet[lookup.length];
+        if (lookupExecutor == null || lookup.length < 2) {
+            for (int i = 0; i < lookup.length; i++) {
+                result[i] = lookupDataSet(lookup[i]);
+            }
+            return result;
+        }
+
+        // Preprocessors run in the calling thread, as they might depend on its context (the user logged in, ...)
+        DataSetDef[] defs = new DataSetDef[lookup.length];
         for (int i = 0; i < lookup.length; i++) {
-            result[i] = lookupDataSet(lookup[i]);
+            defs[i] = prepareLookup(lookup[i]);
+        }
+
+        // Identical lookups are run just once (lookups must not be compared once the providers start modifying them)
+        int[] sameAs = new int[lookup.length];
+        for (int i = 0; i < lookup.length; i++) {
+            sameAs[i] = i;
+            for (int j = 0; j < i && sameAs[i] == i; j++) {
+                if (defs[i] != null && sameAs[j] == j && lookup[i].equals(lookup[j])) {
+                    sameAs[i] = j;
+                }
+            }
+        }
+
+        // Lookups on providers able to run several lookups in a single request are sent together, one batch
+        // per data source so every batch is bounded by the limit of lookups on its own source
+        Map<List<Object>, List<Integer>> batchMap = new LinkedHashMap<List<Object>, List<Integer>>();
+        Future<DataSet>[] futures = new Future[lookup.length];
+        for (int i = 0; i < lookup.length; i++) {
+            if (defs[i] != null && sameAs[i] == i) {
+                DataSetProvider dataSetProvider = resolveProvider(defs[i]);
+                if (dataSetProvider instanceof DataSetBatchProvider
+                        && ((DataSetBatchProvider) dataSetProvider).isBatchLookup(defs[i], lookup[i])) {
+                    List<Object> batchKey = Arrays.<Object>asList(dataSetProvider, lookupExecutor.getSourceKey(defs[i]));
+                    List<Integer> batch = batchMap.get(batchKey);
+                    if (batch == null) {
+                        batch = new ArrayList<Integer>();
+                        batchMap.put(batchKey, batch);
+                    }
+                    batch.add(i);
+                } else {
+                    futures[i] = lookupExecutor.submit(defs[i], createLookupTask(defs[i], lookup[i]));
+                }
+            }
+        }
+        Future<DataSet[]>[] batchFutures = new Future[lookup.length];
+        int[] batchIndex = new int[lookup.length];
+        for (Map.Entry<List<Object>, List<Integer>> entry : batchMap.entrySet()) {
+            List<Integer> batch = entry.getValue();
+            if (batch.size() == 1) {
+                int i = batch.get(0);
+                futures[i] = lookupExecutor.submit(defs[i], createLookupTask(defs[i], lookup[i]));
+                continue;
+            }
+            List<DataSetDef> batchDefs = new ArrayList<DataSetDef>(batch.size());
+            List<DataSetLookup> batchLookups = new ArrayList<DataSetLookup>(batch.size());
+            for (int i : batch) {
+                batchIndex[i] = batchDefs.size();
+                batchDefs.add(defs[i]);
+                batchLookups.add(lookup[i]);
+            }
+            DataSetBatchProvider batchProvider = (DataSetBatchProvider) entry.getKey().get(0);
+            Future<DataSet[]> future = lookupExecutor.submit(batchDefs.get(0), createBatchTask(batchProvider, batchDefs, batchLookups));
+            for (int i : batch) {
+                batchFutures[i] = future;
+            }
+        }
+        try {
+            for (int i = 0; i < lookup.length; i++) {
+                int j = sameAs[i];
+                if (futures[j] != null) {
+                    result[i] = futures[j].get();
+                } else if (batchFutures[j] != null) {
+                    result[i] = batchFutures[j].get()[batchIndex[j]];
+                }
+            }
+            return result;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the lookup results", e);
+        } finally {
+            for (Future<DataSet> future : futures) {
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+            for (Future<DataSet[]> future : batchFutures) {
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+    }
+
+    protected Callable<DataSet> createLookupTask(final DataSetDef dataSetDef, final DataSetLookup lookup) {
+        return new Callable<DataSet>() {
+            public DataSet call() throws Exception {
+                return executeLookup(dataSetDef, lookup);
+            }
+        };
+    }
+
+    protected Callable<DataSet[]> createBatchTask(final DataSetBatchProvider provider,
+                                                  final List<DataSetDef> defs,
+                                                  final List<DataSetLookup> lookups) {
+        return new Callable<DataSet[]>() {
+            public DataSet[] call() throws Exception {
+                return executeLookupBatch(provider, defs, lookups);
+            }
+        };
+    }
+
+    /**
+     * Run a batch of lookups on the same provider. Lookups already in the lookup cache are not sent to the provider.
+     * If the batch fails, every lookup is run on its own, so the failure is reported by the lookup causing it.
+     */
+    protected DataSet[] executeLookupBatch(DataSetBatchProvider provider, List<DataSetDef> defs, List<DataSetLookup> lookups) {
+        DataSet[] result = new DataSet[defs.size()];
+        DataSetLookupCache.Key[] cacheKeys = new DataSetLookupCache.Key[defs.size()];
+        List<Integer> pending = new ArrayList<Integer>();
+        List<DataSetDef> pendingDefs = new ArrayList<DataSetDef>();
+        List<DataSetLookup> pendingLookups = new ArrayList<DataSetLookup>();
+        for (int i = 0; i < defs.size(); i++) {
+            DataSetDef dataSetDef = defs.get(i);
+            DataSetLookup lookup = lookups.get(i);
+            cacheKeys[i] = lookupCache != null ? lookupCache.createKey(dataSetDef, lookup) : null;
+            result[i] = cacheKeys[i] != null ? lookupCache.get(cacheKeys[i]) : null;
+            if (result[i] == null) {
+                pending.add(i);
+                pendingDefs.add(dataSetDef);
+                // Keep the original lookup untouched in case it has to be run again on its own
+                pendingLookups.add(lookup.cloneInstance());
+            }
+        }
+        if (pending.isEmpty()) {
+            return result;
+        }
+
+        List<DataSet> dataSets;
+        try {
+            dataSets = provider.lookupDataSets(pendingDefs, pendingLookups);
+        } catch (Exception e) {
+            log.warn("Batch lookup failed, running the lookups one by one", e);
+            for (int i : pending) {
+                result[i] = executeLookup(defs.get(i), lookups.get(i));
+            }
+            return result;
+        }
+        for (int k = 0; k < pending.size(); k++) {
+            int i = pending.get(k);
+            result[i] = dataSets.get(k);
+            if (cacheKeys[i] != null) {
+                lookupCache.put(cacheKeys[i], result[i]);
+            }
         }
         return result;
     }
 
+    /**
+     * Pass the rows of a lookup to the given handler. Providers implementing {@link DataSetStreamProvider} read
+     * the rows straight from the storage, so the memory used does not depend on the number of rows. For the
+     * rest, the rows of a regular lookup are passed instead.
+     */
+    public void streamDataSet(DataSetLookup lookup, DataSetRowHandler handler) {
+        DataSetDef dataSetDef = prepareLookup(lookup);
+        if (dataSetDef == null) {
+            throw new IllegalArgumentException("Missing data set UUID in the lookup");
+        }
+        try {
+            DataSetProvider dataSetProvider = resolveProvider(dataSetDef);
+            if (dataSetProvider instanceof DataSetStreamProvider
+                    && ((DataSetStreamProvider) dataSetProvider).streamDataSet(dataSetDef, lookup, handler)) {
+                return;
+            }
+            DataSet dataSet = executeLookup(dataSetDef, lookup);
+            streamDataSet(dataSet, handler);
+        } catch (DataSetLookupException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DataSetLookupException(dataSetDef.getUUID(), "Can't stream the specified data set: " + lookup.getDataSetUUID(), e);
+        }
+    }
+
+    /**
+     * Pass the rows of an existing data set to the given handler.
+     */
+    public void streamDataSet(DataSet dataSet, DataSetRowHandler handler) throws Exception {
+        handler.columns(dataSet.getColumns());
+        Object[] row = new Object[dataSet.getColumns().size()];
+        for (int i = 0; i < dataSet.getRowCount(); i++) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] = dataSet.getValueAt(i, j);
+            }
+            handler.row(row);
+        }
+    }
+
     public DataSetMetadata getDataSetMetadata(String uuid) {
         if (StringUtils.isBlank(uuid)) {
             return null;
@@ -183,6 +447,12 @@ public class DataSetManagerImpl implements DataSetManager {
         }
     }
 
+    protected void invalidateLookupCache(String uuid) {
+        if (lookupCache != null) {
+            lookupCache.invalidate(uuid);
+        }
+    }
+
     public DataSetProvider resolveProvider(DataSetDef dataSetDef) {
         // Get the target data set provider
         DataSetProviderType type = dataSetDef.getProvider();
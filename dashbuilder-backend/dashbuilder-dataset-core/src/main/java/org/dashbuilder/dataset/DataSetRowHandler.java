@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.List;
+
+/**
+ * Receives the rows of a data set lookup one at a time, so they can be processed (i.e: exported) without
+ * keeping the whole data set in memory.
+ *
+ * @see DataSetManagerImpl#streamDataSet(DataSetLookup, DataSetRowHandler)
+ */
+public interface DataSetRowHandler {
+
+    /**
+     * Called once before any row with the definition of the columns. Column values must not be read, as they
+     * might not be available.
+     */
+    void columns(List<DataColumn> columns) throws Exception;
+
+    /**
+     * Called for every row, in the lookup order. The array is reused between calls, so implementations must
+     * copy any value they want to keep.
+     */
+    void row(Object[] values) throws Exception;
+}
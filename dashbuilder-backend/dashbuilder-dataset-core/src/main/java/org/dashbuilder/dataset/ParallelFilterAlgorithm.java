@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.dashbuilder.dataset.engine.filter.DataSetFilterContext;
+import org.dashbuilder.dataset.engine.filter.DataSetFunction;
+import org.dashbuilder.dataset.engine.filter.DefaultFilterAlgorithm;
+import org.dashbuilder.dataset.engine.rows.IntRowList;
+import org.dashbuilder.dataset.engine.rows.RowList;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+
+/**
+ * Filter algorithm for the server side. When the number of rows to filter reaches the parallel threshold,
+ * the rows are split into chunks which are evaluated concurrently on a fork-join pool. The results of every
+ * chunk are then merged in row order.
+ */
+public class ParallelFilterAlgorithm extends DefaultFilterAlgorithm {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 100000;
+
+    /**
+     * Number of chunks per pool thread, so that threads finishing earlier can pick up the remaining work.
+     */
+    protected static final int CHUNKS_PER_THREAD = 4;
+
+    protected ForkJoinPool pool;
+    protected volatile int parallelThreshold;
+
+    public ParallelFilterAlgorithm() {
+        this(DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public ParallelFilterAlgorithm(int parallelThreshold) {
+        this(parallelThreshold, ForkJoinPool.commonPool());
+    }
+
+    public ParallelFilterAlgorithm(int parallelThreshold, ForkJoinPool pool) {
+        this.parallelThreshold = parallelThreshold;
+        this.pool = pool;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Min. number of rows to filter in parallel. A zero or negative value disables the parallel mode.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    @Override
+    protected RowList filterRows(final DataSet dataSet, List<Integer> rows, final ColumnFilter columnFilter) {
+        int rowCount = rows == null ? dataSet.getRowCount() : rows.size();
+        int threshold = parallelThreshold;
+        if (threshold <= 0 || rowCount < threshold || pool.getParallelism() < 2) {
+            return super.filterRows(dataSet, rows, columnFilter);
+        }
+
+        // Every chunk gets its own filter context & function since both hold the current row
+        final int[] targetRows = rows == null ? null : RowList.valueOf(rows).toRowArray();
+        int chunkCount = pool.getParallelism() * CHUNKS_PER_THREAD;
+        int chunkSize = (rowCount + chunkCount - 1) / chunkCount;
+        List<Callable<IntRowList>> chunks = new ArrayList<Callable<IntRowList>>(chunkCount);
+        for (int from = 0; from < rowCount; from += chunkSize) {
+            final int chunkFrom = from;
+            final int chunkTo = Math.min(from + chunkSize, rowCount);
+            chunks.add(new Callable<IntRowList>() {
+                public IntRowList call() throws Exception {
+                    return filterChunk(dataSet, columnFilter, targetRows, chunkFrom, chunkTo);
+                }
+            });
+        }
+
+        List<IntRowList> chunkResults = new ArrayList<IntRowList>(chunks.size());
+        int resultSize = 0;
+        for (Future<IntRowList> future : pool.invokeAll(chunks)) {
+            IntRowList chunkResult = getResult(future);
+            chunkResults.add(chunkResult);
+            resultSize += chunkResult.size();
+        }
+        IntRowList result = new IntRowList(resultSize);
+        for (IntRowList chunkResult : chunkResults) {
+            result.addAll(chunkResult);
+        }
+        return RowList.compact(result);
+    }
+
+    /**
+     * Filter the rows in the range [from, to). If the target rows are given then the range refers to
+     * positions in that array.
+     */
+    protected IntRowList filterChunk(DataSet dataSet, ColumnFilter columnFilter, int[] targetRows, int from, int to) {
+        DataSetFilterContext filterContext = new DataSetFilterContext(dataSet);
+        DataSetFunction filterFunction = buildFunction(filterContext, columnFilter);
+        IntRowList result = new IntRowList();
+        for (int i = from; i < to; i++) {
+            int row = targetRows == null ? i : targetRows[i];
+            filterContext.setCurrentRow(row);
+            if (filterFunction.pass()) {
+                result.addRow(row);
+            }
+        }
+        return result;
+    }
+
+    protected IntRowList getResult(Future<IntRowList> future) {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a filter chunk", e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new RuntimeException(cause);
+        }
+    }
+}
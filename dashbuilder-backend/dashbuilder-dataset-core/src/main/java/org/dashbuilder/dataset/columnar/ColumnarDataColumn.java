@@ -0,0 +1,304 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.columnar;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.impl.DataColumnImpl;
+
+/**
+ * Base class for the columns of a {@link ColumnarDataSet}. Values are kept in a primitive array (provided by
+ * every subclass) plus a null bitmap. The {@link #getValues()} list is just a view on top of that storage, so
+ * any component working on the {@link DataColumn} interface keeps working unchanged.
+ *
+ * <p>Cloning a columnar column (see {@link #cloneEmpty()} and {@link #cloneInstance()}) returns a regular
+ * {@link DataColumnImpl} instance, so the data sets derived from a columnar one can be sent to the client.</p>
+ */
+public abstract class ColumnarDataColumn extends DataColumnImpl {
+
+    protected static final int DEFAULT_CAPACITY = 16;
+
+    protected int size = 0;
+    protected long[] nulls;
+
+    protected ColumnarDataColumn(String id, ColumnType columnType, int capacity) {
+        super(id, columnType);
+        this.nulls = new long[bitmapLength(capacity)];
+        this.values = new ColumnValues();
+    }
+
+    /**
+     * Creates a brand new columnar column for the given type.
+     * @param id The column identifier
+     * @param type The column type
+     * @param capacity The initial number of rows to allocate room for.
+     */
+    public static ColumnarDataColumn create(String id, ColumnType type, int capacity) {
+        if (ColumnType.NUMBER.equals(type)) {
+            return new NumberColumn(id, capacity);
+        }
+        if (ColumnType.DATE.equals(type)) {
+            return new DateColumn(id, capacity);
+        }
+        if (ColumnType.TEXT.equals(type)) {
+            return new TextColumn(id, capacity);
+        }
+        return new LabelColumn(id, capacity);
+    }
+
+    /**
+     * Creates a columnar copy (definition & values) of the given column.
+     */
+    public static ColumnarDataColumn create(DataColumn column) {
+        return create(column, column.getValues().size());
+    }
+
+    /**
+     * Creates a columnar copy (definition & values) of the given column.
+     * @param capacity The number of rows to allocate room for, useful when more rows are to be added to the copy.
+     */
+    public static ColumnarDataColumn create(DataColumn column, int capacity) {
+        List values = column.getValues();
+        ColumnarDataColumn result = create(column.getId(), column.getColumnType(), Math.max(capacity, values.size()));
+        result.setColumnGroup(column.getColumnGroup());
+        result.setIntervalType(column.getIntervalType());
+        result.setMinValue(column.getMinValue());
+        result.setMaxValue(column.getMaxValue());
+        result.setGroupFunction(column.getGroupFunction());
+        result.setValues(values);
+        return result;
+    }
+
+    @Override
+    public void setColumnType(ColumnType columnType) {
+        if (this.columnType != null && !this.columnType.equals(columnType)) {
+            throw new IllegalArgumentException("The type of a columnar column can't be changed: " + getId());
+        }
+        super.setColumnType(columnType);
+    }
+
+    @Override
+    public List getValues() {
+        return values;
+    }
+
+    /**
+     * Replaces the column contents by the given values.
+     */
+    @Override
+    public void setValues(List newValues) {
+        if (newValues == values) {
+            return;
+        }
+        clear();
+        if (newValues != null) {
+            ensureCapacity(newValues.size());
+            for (Object value : newValues) {
+                add(value);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isNull(int row) {
+        checkRow(row);
+        return (nulls[row >> 6] & (1L << row)) != 0;
+    }
+
+    public Object get(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        return getNotNull(row);
+    }
+
+    public void set(int row, Object value) {
+        checkRow(row);
+        _set(row, value);
+    }
+
+    public void add(Object value) {
+        ensureCapacity(size + 1);
+        _set(size++, value);
+    }
+
+    public void add(int row, Object value) {
+        if (row < 0 || row > size) {
+            throw new IndexOutOfBoundsException("The row index " + row + " is out of bounds: " + size);
+        }
+        ensureCapacity(size + 1);
+        shift(row, size, row + 1);
+        shiftNulls(row, 1);
+        size++;
+        _set(row, value);
+    }
+
+    public void remove(int row) {
+        checkRow(row);
+        shift(row + 1, size, row);
+        shiftNulls(row + 1, -1);
+        size--;
+        setNull(size, false);
+    }
+
+    public void clear() {
+        size = 0;
+        Arrays.fill(nulls, 0L);
+    }
+
+    public void ensureCapacity(int capacity) {
+        int current = capacity();
+        if (capacity > current) {
+            int newCapacity = Math.max(capacity, Math.max(DEFAULT_CAPACITY, current + (current >> 1)));
+            resize(newCapacity);
+            nulls = Arrays.copyOf(nulls, bitmapLength(newCapacity));
+        }
+    }
+
+    /**
+     * Releases any unused storage room.
+     */
+    public void trimToSize() {
+        if (capacity() > size) {
+            resize(size);
+            nulls = Arrays.copyOf(nulls, bitmapLength(size));
+        }
+    }
+
+    public long getEstimatedSize() {
+        return nulls.length * 8L + (long) capacity() * getBytesPerValue();
+    }
+
+    protected void setNull(int row, boolean isNull) {
+        if (isNull) nulls[row >> 6] |= (1L << row);
+        else nulls[row >> 6] &= ~(1L << row);
+    }
+
+    protected void _set(int row, Object value) {
+        setNull(row, value == null);
+        setNotNull(row, value);
+    }
+
+    protected void shiftNulls(int from, int offset) {
+        if (offset > 0) {
+            for (int i = size - 1; i >= from; i--) {
+                setNull(i + offset, (nulls[i >> 6] & (1L << i)) != 0);
+            }
+        } else {
+            for (int i = from; i < size; i++) {
+                setNull(i + offset, (nulls[i >> 6] & (1L << i)) != 0);
+            }
+        }
+    }
+
+    protected void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("The row index " + row + " is out of bounds: " + (size-1));
+        }
+    }
+
+    protected static int bitmapLength(int capacity) {
+        return (capacity + 63) >> 6;
+    }
+
+    /**
+     * Current storage capacity (in rows).
+     */
+    protected abstract int capacity();
+
+    /**
+     * Reallocate the value storage so it can hold the given number of rows.
+     */
+    protected abstract void resize(int capacity);
+
+    /**
+     * Move the values stored in the range [from, to) to the position <tt>dest</tt>.
+     */
+    protected abstract void shift(int from, int to, int dest);
+
+    /**
+     * Read a value at a row whose null bit is not set.
+     */
+    protected abstract Object getNotNull(int row);
+
+    /**
+     * Store a value at the given row. For <tt>null</tt> values implementations must store any neutral value.
+     */
+    protected abstract void setNotNull(int row, Object value);
+
+    /**
+     * The (estimated) number of bytes each row value takes in the primitive storage.
+     */
+    protected abstract int getBytesPerValue();
+
+    /**
+     * A list view on top of the column storage.
+     */
+    protected class ColumnValues extends AbstractList implements RandomAccess {
+
+        @Override
+        public Object get(int index) {
+            return ColumnarDataColumn.this.get(index);
+        }
+
+        @Override
+        public Object set(int index, Object element) {
+            Object old = ColumnarDataColumn.this.get(index);
+            ColumnarDataColumn.this.set(index, element);
+            return old;
+        }
+
+        @Override
+        public boolean add(Object element) {
+            ColumnarDataColumn.this.add(element);
+            modCount++;
+            return true;
+        }
+
+        @Override
+        public void add(int index, Object element) {
+            ColumnarDataColumn.this.add(index, element);
+            modCount++;
+        }
+
+        @Override
+        public Object remove(int index) {
+            Object old = ColumnarDataColumn.this.get(index);
+            ColumnarDataColumn.this.remove(index);
+            modCount++;
+            return old;
+        }
+
+        @Override
+        public void clear() {
+            ColumnarDataColumn.this.clear();
+            modCount++;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
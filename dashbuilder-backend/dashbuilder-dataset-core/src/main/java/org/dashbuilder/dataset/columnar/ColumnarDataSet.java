@@ -0,0 +1,167 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.columnar;
+
+import java.util.List;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.impl.DataColumnImpl;
+import org.dashbuilder.dataset.impl.DataSetImpl;
+
+/**
+ * Server side data set implementation which stores its columns in primitive arrays instead of lists of boxed
+ * objects (see {@link ColumnarDataColumn}). It's intended for large data sets kept in memory, like the ones
+ * registered into the {@link org.dashbuilder.dataprovider.StaticDataSetProvider} or the cached SQL data sets.
+ *
+ * <p>Any data set derived from a columnar one (trim, clone, ...) is a regular {@link DataSetImpl} instance,
+ * so the results of a lookup can be sent to the client as usual.</p>
+ */
+public class ColumnarDataSet extends DataSetImpl {
+
+    protected int initialCapacity = ColumnarDataColumn.DEFAULT_CAPACITY;
+
+    public ColumnarDataSet() {
+    }
+
+    /**
+     * @param initialCapacity The number of rows to allocate room for in every new column.
+     */
+    public ColumnarDataSet(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+    }
+
+    /**
+     * Creates a columnar copy of the given data set.
+     */
+    public static ColumnarDataSet from(DataSet dataSet) {
+        if (dataSet instanceof ColumnarDataSet) {
+            return (ColumnarDataSet) dataSet;
+        }
+        ColumnarDataSet result = new ColumnarDataSet(dataSet.getRowCount());
+        result.setUUID(dataSet.getUUID());
+        result.setDefinition(dataSet.getDefinition());
+        result.setCreationDate(dataSet.getCreationDate());
+        for (DataColumn column : dataSet.getColumns()) {
+            result.addColumn(column);
+        }
+        return result;
+    }
+
+    @Override
+    public DataSet addColumn(String id, ColumnType type, List values) {
+        ColumnarDataColumn column = ColumnarDataColumn.create(id, type, values != null ? values.size() : initialCapacity);
+        column.setDataSet(this);
+        if (values != null) column.setValues(values);
+        columns.add(column);
+        return this;
+    }
+
+    /**
+     * Add a column. Non columnar columns are converted (definition & values are copied).
+     */
+    @Override
+    public DataSet addColumn(DataColumn column) {
+        ColumnarDataColumn columnar = column instanceof ColumnarDataColumn
+                ? (ColumnarDataColumn) column
+                : ColumnarDataColumn.create(column);
+
+        columnar.setDataSet(this);
+        columns.add(columnar);
+        return this;
+    }
+
+    @Override
+    public void setColumns(List<DataColumn> columnList) {
+        columns.clear();
+        for (DataColumn column : columnList) {
+            addColumn(column);
+        }
+    }
+
+    @Override
+    public ColumnarDataColumn getColumnByIndex(int index) {
+        return (ColumnarDataColumn) super.getColumnByIndex(index);
+    }
+
+    /**
+     * Creates a copy of this data set with the rows of the given one appended at the end. Columns are matched
+     * by position. This instance is left untouched, so it can still be read while the copy is being built.
+     */
+    public ColumnarDataSet append(DataSet rows) {
+        if (rows.getColumns().size() != columns.size()) {
+            throw new IllegalArgumentException("The rows to append do not match the data set columns: "
+                    + rows.getColumns().size() + " != " + columns.size());
+        }
+        int rowCount = getRowCount() + rows.getRowCount();
+        ColumnarDataSet result = new ColumnarDataSet(rowCount);
+        result.setUUID(uuid);
+        result.setDefinition(definition);
+        result.setCreationDate(creationDate);
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnarDataColumn column = ColumnarDataColumn.create(columns.get(i), rowCount);
+            for (Object value : rows.getColumnByIndex(i).getValues()) {
+                column.add(value);
+            }
+            result.addColumn(column);
+        }
+        return result;
+    }
+
+    /**
+     * Make sure every column has room for the given number of rows.
+     */
+    public void ensureCapacity(int rows) {
+        for (DataColumnImpl column : columns) {
+            ((ColumnarDataColumn) column).ensureCapacity(rows);
+        }
+    }
+
+    /**
+     * Releases any unused storage room. To be called once the data set has been fully loaded.
+     */
+    public void trimToSize() {
+        for (DataColumnImpl column : columns) {
+            ((ColumnarDataColumn) column).trimToSize();
+        }
+    }
+
+    /**
+     * Unlike {@link DataSetImpl} this implementation never returns itself, so that columnar instances
+     * never leave the server.
+     */
+    @Override
+    public DataSet trim(int offset, int rows) {
+        if (offset == 0 && (rows <= 0 || rows >= getRowCount())) {
+            DataSetImpl other = cloneInstance();
+            other.setUUID(uuid);
+            other.setDefinition(definition);
+            other.setCreationDate(creationDate);
+            return other;
+        }
+        return super.trim(offset, rows);
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        long result = 0;
+        for (DataColumnImpl column : columns) {
+            result += ((ColumnarDataColumn) column).getEstimatedSize();
+        }
+        return result;
+    }
+}
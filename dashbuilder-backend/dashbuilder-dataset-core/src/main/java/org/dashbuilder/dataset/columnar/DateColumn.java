@@ -0,0 +1,97 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.columnar;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import org.dashbuilder.dataset.ColumnType;
+
+/**
+ * A date column backed by a <tt>long[]</tt> holding the epoch milliseconds of every date.
+ */
+public class DateColumn extends ColumnarDataColumn {
+
+    protected long[] data;
+
+    public DateColumn(String id, int capacity) {
+        super(id, ColumnType.DATE, capacity);
+        this.data = new long[capacity];
+    }
+
+    /**
+     * Get the epoch milliseconds at the given row. Null values are returned as <tt>0</tt>,
+     * so {@link #isNull(int)} must be checked first when nulls are relevant.
+     */
+    public long getTime(int row) {
+        checkRow(row);
+        return data[row];
+    }
+
+    public void setTime(int row, long millis) {
+        checkRow(row);
+        setNull(row, false);
+        data[row] = millis;
+    }
+
+    public void addTime(long millis) {
+        ensureCapacity(size + 1);
+        setNull(size, false);
+        data[size++] = millis;
+    }
+
+    /**
+     * Direct access to the underlying storage. Only the first {@link #size()} positions are meaningful.
+     */
+    public long[] getData() {
+        return data;
+    }
+
+    protected int capacity() {
+        return data.length;
+    }
+
+    protected void resize(int capacity) {
+        data = Arrays.copyOf(data, capacity);
+    }
+
+    protected void shift(int from, int to, int dest) {
+        System.arraycopy(data, from, data, dest, to - from);
+    }
+
+    protected Object getNotNull(int row) {
+        return new Date(data[row]);
+    }
+
+    protected void setNotNull(int row, Object value) {
+        if (value == null) {
+            data[row] = 0L;
+        }
+        else if (value instanceof Date) {
+            data[row] = ((Date) value).getTime();
+        }
+        else if (value instanceof Number) {
+            data[row] = ((Number) value).longValue();
+        }
+        else {
+            throw new IllegalArgumentException("Not a java.util.Date: " + value + " (" + value.getClass().getName() + ")");
+        }
+    }
+
+    protected int getBytesPerValue() {
+        return 8;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.columnar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.engine.group.LabelDictionary;
+import org.dashbuilder.dataset.impl.MemSizeEstimator;
+
+/**
+ * A dictionary encoded label column. Every distinct label is stored once and rows just keep an <tt>int</tt> code
+ * pointing to the dictionary entry (or <tt>-1</tt> for null values).
+ *
+ * <p>As a {@link LabelDictionary}, group operations on this column work straight on the label codes.</p>
+ */
+public class LabelColumn extends ColumnarDataColumn implements LabelDictionary {
+
+    protected int[] codes;
+    protected List<String> dictionary = new ArrayList<String>();
+    protected Map<String, Integer> dictionaryCodes = new HashMap<String, Integer>();
+    protected long dictionarySize = 0;
+
+    public LabelColumn(String id, int capacity) {
+        super(id, ColumnType.LABEL, capacity);
+        this.codes = new int[capacity];
+    }
+
+    /**
+     * Get the dictionary code of the label at the given row.
+     * @return A position within {@link #getDictionary()} or {@link #NULL_CODE}
+     */
+    public int getCode(int row) {
+        checkRow(row);
+        return codes[row];
+    }
+
+    /**
+     * Direct access to the row codes. Only the first {@link #size()} positions are meaningful.
+     */
+    public int[] getCodes() {
+        return codes;
+    }
+
+    /**
+     * The distinct labels in order of appearance.
+     */
+    public List<String> getDictionary() {
+        return Collections.unmodifiableList(dictionary);
+    }
+
+    public String getLabel(int code) {
+        return dictionary.get(code);
+    }
+
+    public int getLabelCount() {
+        return dictionary.size();
+    }
+
+    /**
+     * Get the code for the given label.
+     * @return The label code or <tt>-1</tt> if the label is not in the dictionary.
+     */
+    public int lookupCode(String label) {
+        if (label == null) {
+            return NULL_CODE;
+        }
+        Integer code = dictionaryCodes.get(label);
+        return code == null ? NULL_CODE : code;
+    }
+
+    public long getEstimatedSize() {
+        return super.getEstimatedSize() + dictionarySize;
+    }
+
+    protected int encode(String label) {
+        Integer code = dictionaryCodes.get(label);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(label);
+            dictionaryCodes.put(label, code);
+            dictionarySize += MemSizeEstimator.sizeOfString(label) + MemSizeEstimator.sizeOfInteger * 2;
+        }
+        return code;
+    }
+
+    protected int capacity() {
+        return codes.length;
+    }
+
+    protected void resize(int capacity) {
+        codes = Arrays.copyOf(codes, capacity);
+    }
+
+    protected void shift(int from, int to, int dest) {
+        System.arraycopy(codes, from, codes, dest, to - from);
+    }
+
+    protected Object getNotNull(int row) {
+        return dictionary.get(codes[row]);
+    }
+
+    protected void setNotNull(int row, Object value) {
+        codes[row] = value == null ? NULL_CODE : encode(value.toString());
+    }
+
+    protected int getBytesPerValue() {
+        return 4;
+    }
+}
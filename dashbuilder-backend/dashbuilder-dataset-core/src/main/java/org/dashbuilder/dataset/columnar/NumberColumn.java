@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.columnar;
+
+import java.util.Arrays;
+
+import org.dashbuilder.dataset.ColumnType;
+
+/**
+ * A numeric column backed by a <tt>double[]</tt>.
+ */
+public class NumberColumn extends ColumnarDataColumn {
+
+    protected double[] data;
+
+    public NumberColumn(String id, int capacity) {
+        super(id, ColumnType.NUMBER, capacity);
+        this.data = new double[capacity];
+    }
+
+    /**
+     * Get the primitive value at the given row. Null values are returned as <tt>0</tt>,
+     * so {@link #isNull(int)} must be checked first when nulls are relevant.
+     */
+    public double getDouble(int row) {
+        checkRow(row);
+        return data[row];
+    }
+
+    public void setDouble(int row, double value) {
+        checkRow(row);
+        setNull(row, false);
+        data[row] = value;
+    }
+
+    public void addDouble(double value) {
+        ensureCapacity(size + 1);
+        setNull(size, false);
+        data[size++] = value;
+    }
+
+    /**
+     * Direct access to the underlying storage. Only the first {@link #size()} positions are meaningful.
+     */
+    public double[] getData() {
+        return data;
+    }
+
+    protected int capacity() {
+        return data.length;
+    }
+
+    protected void resize(int capacity) {
+        data = Arrays.copyOf(data, capacity);
+    }
+
+    protected void shift(int from, int to, int dest) {
+        System.arraycopy(data, from, data, dest, to - from);
+    }
+
+    protected Object getNotNull(int row) {
+        return data[row];
+    }
+
+    protected void setNotNull(int row, Object value) {
+        data[row] = toDouble(value);
+    }
+
+    protected int getBytesPerValue() {
+        return 8;
+    }
+
+    public static double toDouble(Object value) {
+        if (value == null) {
+            return 0d;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return Double.parseDouble(value.toString());
+    }
+}
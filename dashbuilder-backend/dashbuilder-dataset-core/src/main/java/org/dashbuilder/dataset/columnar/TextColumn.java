@@ -0,0 +1,85 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.columnar;
+
+import java.util.Arrays;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.impl.MemSizeEstimator;
+
+/**
+ * A text column. Text values are usually unique so they are kept as plain strings, no dictionary encoding.
+ */
+public class TextColumn extends ColumnarDataColumn {
+
+    protected String[] data;
+    protected long textSize = 0;
+
+    public TextColumn(String id, int capacity) {
+        super(id, ColumnType.TEXT, capacity);
+        this.data = new String[capacity];
+    }
+
+    public String getString(int row) {
+        checkRow(row);
+        return data[row];
+    }
+
+    public void clear() {
+        Arrays.fill(data, 0, size, null);
+        textSize = 0;
+        super.clear();
+    }
+
+    public void remove(int row) {
+        textSize -= MemSizeEstimator.sizeOfString(getString(row));
+        super.remove(row);
+    }
+
+    public long getEstimatedSize() {
+        return super.getEstimatedSize() + textSize;
+    }
+
+    protected int capacity() {
+        return data.length;
+    }
+
+    protected void resize(int capacity) {
+        data = Arrays.copyOf(data, capacity);
+    }
+
+    protected void shift(int from, int to, int dest) {
+        System.arraycopy(data, from, data, dest, to - from);
+
+        // Release the slot left behind so that it's not accounted twice
+        if (dest > from) data[from] = null;
+        else data[dest + to - from] = null;
+    }
+
+    protected Object getNotNull(int row) {
+        return data[row];
+    }
+
+    protected void setNotNull(int row, Object value) {
+        String str = value == null ? null : value.toString();
+        textSize += MemSizeEstimator.sizeOfString(str) - MemSizeEstimator.sizeOfString(data[row]);
+        data[row] = str;
+    }
+
+    protected int getBytesPerValue() {
+        return MemSizeEstimator.sizeOfInteger;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.dashbuilder.dataset.columnar.ColumnarDataSet;
+import org.dashbuilder.dataset.engine.filter.CoreFunction;
+import org.dashbuilder.dataset.engine.filter.DataSetFilterContext;
+import org.dashbuilder.dataset.engine.filter.DataSetFunction;
+import org.dashbuilder.dataset.engine.filter.EqualsToFunction;
+import org.dashbuilder.dataset.engine.filter.LikeToFunction;
+import org.dashbuilder.dataset.engine.filter.RangeFunction;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionFilter;
+import org.junit.Test;
+
+import static org.dashbuilder.dataset.ExpenseReportsData.*;
+import static org.dashbuilder.dataset.filter.FilterFactory.*;
+import static org.fest.assertions.api.Assertions.*;
+import static org.junit.Assert.*;
+
+public class CoreFunctionCompilerTest {
+
+    CoreFunctionCompilerImpl compiler = new CoreFunctionCompilerImpl();
+
+    protected List<ColumnFilter> getFilters() throws Exception {
+        Date date = new SimpleDateFormat("MM/dd/yy HH:mm").parse("06/12/12 12:00");
+        return Arrays.asList(
+                isNull(COLUMN_CITY),
+                notNull(COLUMN_AMOUNT),
+                equalsTo(COLUMN_CITY, "Barcelona"),
+                notEqualsTo(COLUMN_DEPARTMENT, "Sales"),
+                in(COLUMN_EMPLOYEE, Arrays.asList("Jerri Preble", "Neva Hunger", "Roxie Foraker")),
+                notIn(COLUMN_CITY, Arrays.asList("London", "Brno")),
+                equalsTo(COLUMN_AMOUNT, 800.24d),
+                greaterThan(COLUMN_AMOUNT, 500d),
+                greaterOrEqualsTo(COLUMN_AMOUNT, 233.49d),
+                lowerThan(COLUMN_AMOUNT, 300d),
+                lowerOrEqualsTo(COLUMN_AMOUNT, 1.1d),
+                between(COLUMN_AMOUNT, 200d, 400d),
+                greaterThan(COLUMN_DATE, date),
+                lowerOrEqualsTo(COLUMN_DATE, date),
+                between(COLUMN_DATE, date, new Date()),
+                timeFrame(COLUMN_DATE, "begin[year March] till now"),
+                likeTo(COLUMN_CITY, "%on%"),
+                likeTo(COLUMN_CITY, "Bar%"),
+                likeTo(COLUMN_EMPLOYEE, "%L. P%a"),
+                likeTo(COLUMN_EMPLOYEE, "%P. adam%", false),
+                likeTo(COLUMN_CITY, "_ondon"),
+                likeTo(COLUMN_CITY, "[BM]%"));
+    }
+
+    @Test
+    public void testSameResults() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        assertSameResults(dataSet);
+        assertSameResults(ColumnarDataSet.from(dataSet));
+    }
+
+    protected void assertSameResults(DataSet dataSet) throws Exception {
+        DataSetFilterContext ctx = new DataSetFilterContext(dataSet);
+        for (ColumnFilter filter : getFilters()) {
+            DataSetFunction compiled = compiler.compile(ctx, (CoreFunctionFilter) filter);
+            CoreFunction expected = new CoreFunction(ctx, (CoreFunctionFilter) filter);
+            for (int row = 0; row < dataSet.getRowCount(); row++) {
+                ctx.setCurrentRow(row);
+                assertEquals(filter + " row " + row, expected.pass(), compiled.pass());
+            }
+        }
+    }
+
+    @Test
+    public void testSpecializedFunctions() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        DataSetFilterContext ctx = new DataSetFilterContext(dataSet);
+        assertThat(compiler.compile(ctx, (CoreFunctionFilter) in(COLUMN_CITY, Arrays.asList("London", "Brno"))) instanceof EqualsToFunction).isTrue();
+        assertThat(compiler.compile(ctx, (CoreFunctionFilter) greaterThan(COLUMN_AMOUNT, 500d)) instanceof RangeFunction).isTrue();
+        assertThat(compiler.compile(ctx, (CoreFunctionFilter) likeTo(COLUMN_CITY, "%on%")) instanceof LikeToFunction).isTrue();
+
+        // Comparisons on text columns are not specialized
+        assertThat(compiler.compile(ctx, (CoreFunctionFilter) greaterThan(COLUMN_CITY, "London")) instanceof CoreFunction).isTrue();
+    }
+}
@@ -15,6 +15,14 @@
  */
 package org.dashbuilder.dataset;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import org.dashbuilder.DataSetCore;
 import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
 import org.dashbuilder.dataset.engine.index.DataSetIndex;
@@ -176,4 +184,38 @@ public class DataSetIndexTest {
         // The index size must not be greater than the 20% of the dataset's size
         assertThat(stats.getIndexSize()).isLessThan(dataSet.getEstimatedSize()/5);
     }
+
+    @Test
+    public void testConcurrentBuilds() throws Exception {
+
+        // Run the same lookups from several threads at the same time.
+        int threads = 8;
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+        try {
+            for (int i = 0; i < threads * 4; i++) {
+                results.add(executor.submit(new Callable<Integer>() {
+                    public Integer call() throws Exception {
+                        startSignal.await();
+                        dataSetOpEngine.execute(EXPENSE_REPORTS, groupByDeptAndCount.getOperationList());
+                        dataSetOpEngine.execute(EXPENSE_REPORTS, sortByAmountDesc.getOperationList());
+                        return dataSetOpEngine.execute(EXPENSE_REPORTS, filterByCityAndDept.getOperationList()).getRowCount();
+                    }
+                }));
+            }
+            startSignal.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get()).isEqualTo(3);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Every index must be built just once.
+        DataSetIndexStats stats = dataSetOpEngine.getIndexRegistry().get(EXPENSE_REPORTS).getStats();
+        assertThat(stats.getNumberOfGroupOps()).isEqualTo(1);
+        assertThat(stats.getNumberOfSortOps()).isEqualTo(2);
+        assertThat(stats.getNumberOfFilterOps()).isEqualTo(2);
+    }
 }
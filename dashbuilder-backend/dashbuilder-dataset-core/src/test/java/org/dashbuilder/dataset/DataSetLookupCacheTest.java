@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataprovider.DataSetProviderType;
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.filter.FilterFactory;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.dashbuilder.dataset.ExpenseReportsData.*;
+import static org.fest.assertions.api.Assertions.*;
+import static org.junit.Assert.*;
+
+public class DataSetLookupCacheTest {
+
+    public static final String EXPENSE_REPORTS = "expense_reports_cached";
+
+    DataSetCore dataSetCore = DataSetCore.get();
+    DataSetLookupCache lookupCache;
+    DataSetManagerImpl dataSetManager;
+
+    @Before
+    public void setUp() throws Exception {
+        lookupCache = new DataSetLookupCache(1024 * 1024);
+        dataSetManager = new DataSetManagerImpl(
+                dataSetCore.getDataSetDefRegistry(),
+                dataSetCore.getDataSetProviderRegistry(),
+                dataSetCore.getStaticDataSetProvider(),
+                false, 1024);
+        dataSetManager.setLookupCache(lookupCache);
+
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(EXPENSE_REPORTS);
+        dataSetManager.registerDataSet(dataSet);
+    }
+
+    protected DataSetLookup groupByCity() {
+        return DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_AMOUNT, FilterFactory.greaterThan(100))
+                .group(COLUMN_CITY)
+                .column(COLUMN_CITY)
+                .column(COLUMN_AMOUNT, AggregateFunctionType.SUM)
+                .sort(COLUMN_CITY, SortOrder.ASCENDING)
+                .buildLookup();
+    }
+
+    @Test
+    public void testLookupHashCode() throws Exception {
+        DataSetLookup lookup1 = groupByCity();
+        DataSetLookup lookup2 = groupByCity();
+        assertThat(lookup1).isEqualTo(lookup2);
+        assertThat(lookup1.hashCode()).isEqualTo(lookup2.hashCode());
+        assertThat(lookup1.cloneInstance().hashCode()).isEqualTo(lookup1.hashCode());
+    }
+
+    @Test
+    public void testCacheHit() throws Exception {
+        DataSet result1 = dataSetManager.lookupDataSet(groupByCity());
+        DataSet result2 = dataSetManager.lookupDataSet(groupByCity());
+        assertSame(result1, result2);
+        assertThat(lookupCache.size()).isEqualTo(1);
+        assertThat(lookupCache.getHits()).isEqualTo(1);
+
+        // Paging settings are part of the key
+        DataSetLookup paged = groupByCity();
+        paged.setNumberOfRows(1);
+        DataSet result3 = dataSetManager.lookupDataSet(paged);
+        assertNotSame(result1, result3);
+        assertThat(result3.getRowCount()).isEqualTo(1);
+        assertThat(lookupCache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testInvalidation() throws Exception {
+        DataSet result1 = dataSetManager.lookupDataSet(groupByCity());
+
+        // Stale data sets
+        DataSetDef def = dataSetCore.getDataSetDefRegistry().getDataSetDef(EXPENSE_REPORTS);
+        lookupCache.onDataSetDefStale(def);
+        assertThat(lookupCache.size()).isEqualTo(0);
+        DataSet result2 = dataSetManager.lookupDataSet(groupByCity());
+        assertNotSame(result1, result2);
+
+        // Data set re-registration
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(EXPENSE_REPORTS);
+        dataSetManager.registerDataSet(dataSet);
+        assertThat(lookupCache.size()).isEqualTo(0);
+        DataSet result3 = dataSetManager.lookupDataSet(groupByCity());
+        assertNotSame(result2, result3);
+    }
+
+    @Test
+    public void testMemoryBound() throws Exception {
+        DataSet result = dataSetManager.lookupDataSet(groupByCity());
+        long size = result.getEstimatedSize();
+        lookupCache.setMaxMemory(size);
+
+        DataSetLookup other = groupByCity();
+        other.setNumberOfRows(2);
+        dataSetManager.lookupDataSet(other);
+        assertThat(lookupCache.size()).isEqualTo(1);
+        assertThat(lookupCache.getMemoryUsed()).isLessThanOrEqualTo(size);
+
+        // The least recently used entry has been discarded
+        assertNotSame(result, dataSetManager.lookupDataSet(groupByCity()));
+    }
+
+    @Test
+    public void testNotCacheable() throws Exception {
+        DataSetLookup lookup = groupByCity();
+        lookup.setTestMode(true);
+        dataSetManager.lookupDataSet(lookup);
+        assertThat(lookupCache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testKeyOrder() throws Exception {
+        DataSetDef def = dataSetCore.getDataSetDefRegistry().getDataSetDef(EXPENSE_REPORTS);
+        DataSetLookup cityAmount = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .group(COLUMN_CITY)
+                .column(COLUMN_CITY)
+                .column(COLUMN_AMOUNT, AggregateFunctionType.SUM)
+                .buildLookup();
+        DataSetLookup amountCity = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .group(COLUMN_CITY)
+                .column(COLUMN_AMOUNT, AggregateFunctionType.SUM)
+                .column(COLUMN_CITY)
+                .buildLookup();
+        assertThat(lookupCache.createKey(def, cityAmount)).isNotEqualTo(lookupCache.createKey(def, amountCity));
+
+        DataSetLookup between1 = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_AMOUNT, FilterFactory.between(100, 200))
+                .buildLookup();
+        DataSetLookup between2 = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_AMOUNT, FilterFactory.between(200, 100))
+                .buildLookup();
+        assertThat(lookupCache.createKey(def, between1)).isNotEqualTo(lookupCache.createKey(def, between2));
+        assertThat(lookupCache.createKey(def, between1)).isEqualTo(lookupCache.createKey(def, between1.cloneInstance()));
+    }
+
+    @Test
+    public void testRefreshPolicy() throws Exception {
+        DataSetDef def = new DataSetDef();
+        def.setUUID(EXPENSE_REPORTS);
+        def.setProvider(DataSetProviderType.SQL);
+        def.setRefreshTime("1minute");
+        assertNull(lookupCache.createKey(def, groupByCity()));
+
+        def.setRefreshAlways(true);
+        assertNotNull(lookupCache.createKey(def, groupByCity()));
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataprovider.DataSetBatchProvider;
+import org.dashbuilder.dataprovider.DataSetProvider;
+import org.dashbuilder.dataprovider.DataSetProviderType;
+import org.dashbuilder.dataprovider.StaticDataSetProvider;
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.def.SQLDataSetDef;
+import org.dashbuilder.dataset.filter.FilterFactory;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.dashbuilder.dataset.ExpenseReportsData.*;
+import static org.junit.Assert.*;
+
+public class DataSetLookupExecutorTest {
+
+    public static final String EXPENSE_REPORTS = "expense_reports_batch";
+    public static final String EXPENSE_REPORTS_COPY = "expense_reports_batch_copy";
+
+    DataSetCore dataSetCore = DataSetCore.get();
+    DataSetLookupExecutor lookupExecutor;
+    DataSetManagerImpl dataSetManager;
+
+    @Before
+    public void setUp() throws Exception {
+        lookupExecutor = new DataSetLookupExecutor(4, 1);
+        dataSetManager = new DataSetManagerImpl(
+                dataSetCore.getDataSetDefRegistry(),
+                dataSetCore.getDataSetProviderRegistry(),
+                dataSetCore.getStaticDataSetProvider(),
+                false, 1024);
+        dataSetManager.setLookupExecutor(lookupExecutor);
+
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(EXPENSE_REPORTS);
+        dataSetManager.registerDataSet(dataSet);
+
+        DataSet copy = ExpenseReportsData.INSTANCE.toDataSet();
+        copy.setUUID(EXPENSE_REPORTS_COPY);
+        dataSetManager.registerDataSet(copy);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        lookupExecutor.shutdown();
+    }
+
+    protected DataSetLookup groupBy(String columnId) {
+        return groupBy(EXPENSE_REPORTS, columnId);
+    }
+
+    protected DataSetLookup groupBy(String uuid, String columnId) {
+        return DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(uuid)
+                .filter(COLUMN_AMOUNT, FilterFactory.greaterThan(100))
+                .group(columnId)
+                .column(columnId)
+                .column(COLUMN_AMOUNT, AggregateFunctionType.SUM)
+                .sort(columnId, SortOrder.ASCENDING)
+                .buildLookup();
+    }
+
+    @Test
+    public void testBatchLookup() throws Exception {
+        DataSet[] result = dataSetManager.lookupDataSets(new DataSetLookup[] {
+                groupBy(COLUMN_CITY),
+                groupBy(COLUMN_DEPARTMENT),
+                groupBy(COLUMN_CITY),
+                groupBy(COLUMN_EMPLOYEE)});
+
+        assertEquals(result.length, 4);
+        assertEquals(result[0].getRowCount(), dataSetManager.lookupDataSet(groupBy(COLUMN_CITY)).getRowCount());
+        assertEquals(result[1].getRowCount(), dataSetManager.lookupDataSet(groupBy(COLUMN_DEPARTMENT)).getRowCount());
+        assertEquals(result[3].getRowCount(), dataSetManager.lookupDataSet(groupBy(COLUMN_EMPLOYEE)).getRowCount());
+
+        // Identical lookups are run just once
+        assertSame(result[0], result[2]);
+    }
+
+    @Test
+    public void testBatchProvider() throws Exception {
+        final StaticDataSetProvider staticProvider = dataSetCore.getStaticDataSetProvider();
+        final AtomicInteger batches = new AtomicInteger(0);
+        final AtomicInteger batchSize = new AtomicInteger(0);
+        final DataSetProvider batchProvider = new BatchDataSetProvider(staticProvider) {
+            public List<DataSet> lookupDataSets(List<DataSetDef> defs, List<DataSetLookup> lookups) throws Exception {
+                batches.incrementAndGet();
+                batchSize.set(defs.size());
+                return super.lookupDataSets(defs, lookups);
+            }
+        };
+        DataSetManagerImpl batchManager = new DataSetManagerImpl(
+                dataSetCore.getDataSetDefRegistry(),
+                dataSetCore.getDataSetProviderRegistry(),
+                staticProvider,
+                false, 1024) {
+
+            public DataSetProvider resolveProvider(DataSetDef dataSetDef) {
+                return batchProvider;
+            }
+        };
+        batchManager.setLookupExecutor(lookupExecutor);
+
+        DataSet[] result = batchManager.lookupDataSets(new DataSetLookup[] {
+                groupBy(COLUMN_CITY),
+                groupBy(COLUMN_DEPARTMENT),
+                groupBy(COLUMN_CITY),
+                groupBy(COLUMN_EMPLOYEE)});
+
+        // Identical lookups are sent just once, all the others in a single batch
+        assertEquals(batches.get(), 1);
+        assertEquals(batchSize.get(), 3);
+        assertSame(result[0], result[2]);
+        assertEquals(result[1].getRowCount(), dataSetManager.lookupDataSet(groupBy(COLUMN_DEPARTMENT)).getRowCount());
+        assertEquals(result[3].getRowCount(), dataSetManager.lookupDataSet(groupBy(COLUMN_EMPLOYEE)).getRowCount());
+    }
+
+    @Test
+    public void testBatchPerSource() throws Exception {
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+        DataSetManagerImpl batchManager = createBatchManager(new BatchDataSetProvider(dataSetCore.getStaticDataSetProvider()) {
+            public List<DataSet> lookupDataSets(List<DataSetDef> defs, List<DataSetLookup> lookups) throws Exception {
+                batchSizes.add(defs.size());
+                return super.lookupDataSets(defs, lookups);
+            }
+        });
+
+        // Every data set is read from its own source
+        DataSetLookupExecutor uuidExecutor = new DataSetLookupExecutor(4, 1) {
+            protected String getSourceKey(DataSetDef def) {
+                return def.getUUID();
+            }
+        };
+        batchManager.setLookupExecutor(uuidExecutor);
+        try {
+            DataSet[] result = batchManager.lookupDataSets(new DataSetLookup[] {
+                    groupBy(EXPENSE_REPORTS, COLUMN_CITY),
+                    groupBy(EXPENSE_REPORTS_COPY, COLUMN_CITY),
+                    groupBy(EXPENSE_REPORTS, COLUMN_DEPARTMENT),
+                    groupBy(EXPENSE_REPORTS_COPY, COLUMN_DEPARTMENT)});
+
+            assertEquals(batchSizes.size(), 2);
+            assertEquals(batchSizes.get(0).intValue(), 2);
+            assertEquals(batchSizes.get(1).intValue(), 2);
+            assertEquals(result[1].getRowCount(), result[0].getRowCount());
+            assertEquals(result[3].getRowCount(), result[2].getRowCount());
+        } finally {
+            uuidExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNonBatchLookups() throws Exception {
+        final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+        DataSetManagerImpl batchManager = createBatchManager(new BatchDataSetProvider(dataSetCore.getStaticDataSetProvider()) {
+            public boolean isBatchLookup(DataSetDef def, DataSetLookup lookup) {
+                return !EXPENSE_REPORTS_COPY.equals(def.getUUID());
+            }
+
+            public List<DataSet> lookupDataSets(List<DataSetDef> defs, List<DataSetLookup> lookups) throws Exception {
+                batchSizes.add(defs.size());
+                return super.lookupDataSets(defs, lookups);
+            }
+        });
+        batchManager.setLookupExecutor(lookupExecutor);
+
+        DataSet[] result = batchManager.lookupDataSets(new DataSetLookup[] {
+                groupBy(EXPENSE_REPORTS, COLUMN_CITY),
+                groupBy(EXPENSE_REPORTS_COPY, COLUMN_CITY),
+                groupBy(EXPENSE_REPORTS, COLUMN_DEPARTMENT),
+                groupBy(EXPENSE_REPORTS_COPY, COLUMN_DEPARTMENT)});
+
+        // The lookups on the copy are run on their own
+        assertEquals(batchSizes.size(), 1);
+        assertEquals(batchSizes.get(0).intValue(), 2);
+        assertEquals(result[1].getRowCount(), result[0].getRowCount());
+        assertEquals(result[3].getRowCount(), result[2].getRowCount());
+    }
+
+    protected DataSetManagerImpl createBatchManager(final DataSetProvider batchProvider) {
+        return new DataSetManagerImpl(
+                dataSetCore.getDataSetDefRegistry(),
+                dataSetCore.getDataSetProviderRegistry(),
+                dataSetCore.getStaticDataSetProvider(),
+                false, 1024) {
+
+            public DataSetProvider resolveProvider(DataSetDef dataSetDef) {
+                return batchProvider;
+            }
+        };
+    }
+
+    @Test
+    public void testLookupsPerSource() throws Exception {
+        final AtomicInteger running = new AtomicInteger(0);
+        final AtomicInteger maxRunning = new AtomicInteger(0);
+        Callable<DataSet> lookup = new Callable<DataSet>() {
+            public DataSet call() throws Exception {
+                int current = running.incrementAndGet();
+                maxRunning.set(Math.max(maxRunning.get(), current));
+                Thread.sleep(20);
+                running.decrementAndGet();
+                return null;
+            }
+        };
+        SQLDataSetDef def = new SQLDataSetDef();
+        def.setDataSource("slow");
+        Future<DataSet> f1 = lookupExecutor.submit(def, lookup);
+        Future<DataSet> f2 = lookupExecutor.submit(def, lookup);
+        Future<DataSet> f3 = lookupExecutor.submit(def, lookup);
+        f1.get(); f2.get(); f3.get();
+        assertEquals(maxRunning.get(), 1);
+    }
+
+    @Test
+    public void testSourcesRunConcurrently() throws Exception {
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        Callable<DataSet> lookup = new Callable<DataSet>() {
+            public DataSet call() throws Exception {
+                // Never returns if the other lookup is not running at the same time
+                barrier.await(5, TimeUnit.SECONDS);
+                return null;
+            }
+        };
+        SQLDataSetDef def1 = new SQLDataSetDef();
+        def1.setDataSource("ds1");
+        SQLDataSetDef def2 = new SQLDataSetDef();
+        def2.setDataSource("ds2");
+        Future<DataSet> f1 = lookupExecutor.submit(def1, lookup);
+        Future<DataSet> f2 = lookupExecutor.submit(def2, lookup);
+        f1.get();
+        f2.get();
+    }
+
+    static class BatchDataSetProvider implements DataSetProvider, DataSetBatchProvider {
+
+        StaticDataSetProvider staticProvider;
+
+        BatchDataSetProvider(StaticDataSetProvider staticProvider) {
+            this.staticProvider = staticProvider;
+        }
+
+        public DataSetProviderType getType() {
+            return staticProvider.getType();
+        }
+
+        public DataSetMetadata getDataSetMetadata(DataSetDef def) throws Exception {
+            return staticProvider.getDataSetMetadata(def);
+        }
+
+        public DataSet lookupDataSet(DataSetDef def, DataSetLookup lookup) throws Exception {
+            return staticProvider.lookupDataSet(def, lookup);
+        }
+
+        public boolean isDataSetOutdated(DataSetDef def) {
+            return staticProvider.isDataSetOutdated(def);
+        }
+
+        public boolean isBatchLookup(DataSetDef def, DataSetLookup lookup) {
+            return true;
+        }
+
+        public List<DataSet> lookupDataSets(List<DataSetDef> defs, List<DataSetLookup> lookups) throws Exception {
+            List<DataSet> result = new ArrayList<DataSet>();
+            for (int i = 0; i < defs.size(); i++) {
+                result.add(staticProvider.lookupDataSet(defs.get(i), lookups.get(i)));
+            }
+            return result;
+        }
+    }
+}
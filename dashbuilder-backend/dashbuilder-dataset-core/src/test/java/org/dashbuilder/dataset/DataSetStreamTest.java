@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.filter.FilterFactory;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.dashbuilder.dataset.ExpenseReportsData.*;
+import static org.junit.Assert.*;
+
+public class DataSetStreamTest {
+
+    public static final String EXPENSE_REPORTS = "expense_reports_stream";
+
+    DataSetCore dataSetCore = DataSetCore.get();
+    DataSetManagerImpl dataSetManager;
+
+    @Before
+    public void setUp() throws Exception {
+        dataSetManager = new DataSetManagerImpl(
+                dataSetCore.getDataSetDefRegistry(),
+                dataSetCore.getDataSetProviderRegistry(),
+                dataSetCore.getStaticDataSetProvider(),
+                false, 1024);
+
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(EXPENSE_REPORTS);
+        dataSetManager.registerDataSet(dataSet);
+    }
+
+    protected DataSetLookup filterByCity() {
+        return DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_CITY, FilterFactory.equalsTo("Barcelona"))
+                .sort(COLUMN_ID, SortOrder.DESCENDING)
+                .buildLookup();
+    }
+
+    @Test
+    public void testStreamLookup() throws Exception {
+        final List<String> columnIds = new ArrayList<String>();
+        final List<Object[]> rows = new ArrayList<Object[]>();
+        dataSetManager.streamDataSet(filterByCity(), new DataSetRowHandler() {
+            public void columns(List<DataColumn> columns) {
+                for (DataColumn column : columns) {
+                    columnIds.add(column.getId());
+                }
+            }
+            public void row(Object[] values) {
+                rows.add(values.clone());
+            }
+        });
+
+        DataSet dataSet = dataSetManager.lookupDataSet(filterByCity());
+        assertEquals(columnIds.size(), dataSet.getColumns().size());
+        assertEquals(columnIds.get(0), dataSet.getColumnByIndex(0).getId());
+        assertEquals(rows.size(), dataSet.getRowCount());
+        for (int i = 0; i < rows.size(); i++) {
+            for (int j = 0; j < columnIds.size(); j++) {
+                assertEquals(rows.get(i)[j], dataSet.getValueAt(i, j));
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.dashbuilder.dataset.engine.rows.IntRowList;
+import org.dashbuilder.dataset.engine.rows.RowList;
+import org.dashbuilder.dataset.engine.rows.RowSet;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.dashbuilder.dataset.ExpenseReportsData.*;
+import static org.dashbuilder.dataset.filter.FilterFactory.*;
+import static org.fest.assertions.api.Assertions.*;
+import static org.junit.Assert.*;
+
+public class ParallelFilterAlgorithmTest {
+
+    DataSet dataSet;
+    ForkJoinPool pool = new ForkJoinPool(4);
+    ParallelFilterAlgorithm sequential = new ParallelFilterAlgorithm(0, pool);
+    ParallelFilterAlgorithm parallel = new ParallelFilterAlgorithm(1, pool);
+
+    List<ColumnFilter> filters = Arrays.asList(
+            equalsTo(COLUMN_CITY, "Barcelona"),
+            greaterThan(COLUMN_AMOUNT, 500),
+            likeTo(COLUMN_EMPLOYEE, "%an%"),
+            OR(equalsTo(COLUMN_DEPARTMENT, "Sales"), lowerThan(COLUMN_AMOUNT, 100)),
+            NOT(COLUMN_CITY, equalsTo("Madrid")));
+
+    @Before
+    public void setUp() throws Exception {
+        dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void testAllRows() throws Exception {
+        for (ColumnFilter filter : filters) {
+            RowList expected = sequential.filterRows(dataSet, null, filter);
+            RowList result = parallel.filterRows(dataSet, null, filter);
+            assertThat(result instanceof RowSet).isTrue();
+            assertArrayEquals(expected.toRowArray(), result.toRowArray());
+        }
+    }
+
+    @Test
+    public void testTargetRows() throws Exception {
+        RowSet targetRows = (RowSet) RowList.compact(IntRowList.range(10, 40));
+        for (ColumnFilter filter : filters) {
+            RowList expected = sequential.filterRows(dataSet, targetRows, filter);
+            RowList result = parallel.filterRows(dataSet, targetRows, filter);
+            assertArrayEquals(expected.toRowArray(), result.toRowArray());
+        }
+    }
+
+    @Test
+    public void testRowOrderKept() throws Exception {
+        IntRowList targetRows = IntRowList.range(0, dataSet.getRowCount()).reverse();
+        for (ColumnFilter filter : filters) {
+            RowList expected = sequential.filterRows(dataSet, targetRows, filter);
+            RowList result = parallel.filterRows(dataSet, targetRows, filter);
+            assertArrayEquals(expected.toRowArray(), result.toRowArray());
+        }
+    }
+}
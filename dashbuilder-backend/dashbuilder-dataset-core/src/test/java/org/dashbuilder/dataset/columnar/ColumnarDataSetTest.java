@@ -0,0 +1,219 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.columnar;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataprovider.StaticDataSetProvider;
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFormatter;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetLookupFactory;
+import org.dashbuilder.dataset.DataSetManager;
+import org.dashbuilder.dataset.ExpenseReportsData;
+import org.dashbuilder.dataset.impl.DataSetImpl;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.dashbuilder.dataset.ExpenseReportsData.*;
+import static org.dashbuilder.dataset.filter.FilterFactory.*;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.*;
+import static org.dashbuilder.dataset.group.DateIntervalType.*;
+import static org.junit.Assert.*;
+
+public class ColumnarDataSetTest {
+
+    public static final String EXPENSE_REPORTS = "expense_reports";
+    public static final String EXPENSE_REPORTS_COLUMNAR = "expense_reports_columnar";
+
+    DataSetManager dataSetManager = DataSetCore.get().getDataSetManager();
+    DataSetFormatter dataSetFormatter = new DataSetFormatter();
+
+    @Before
+    public void setUp() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(EXPENSE_REPORTS);
+        dataSetManager.registerDataSet(dataSet);
+
+        ColumnarDataSet columnar = ColumnarDataSet.from(ExpenseReportsData.INSTANCE.toDataSet());
+        columnar.setUUID(EXPENSE_REPORTS_COLUMNAR);
+        dataSetManager.registerDataSet(columnar);
+    }
+
+    @Test
+    public void testColumnTypes() throws Exception {
+        ColumnarDataSet columnar = ColumnarDataSet.from(ExpenseReportsData.INSTANCE.toDataSet());
+        assertTrue(columnar.getColumnById(COLUMN_ID) instanceof NumberColumn);
+        assertTrue(columnar.getColumnById(COLUMN_CITY) instanceof LabelColumn);
+        assertTrue(columnar.getColumnById(COLUMN_DATE) instanceof DateColumn);
+        assertTrue(columnar.getColumnById(COLUMN_AMOUNT) instanceof NumberColumn);
+        assertEquals(columnar.getRowCount(), 50);
+        assertEquals(columnar.getValueAt(0, 1), "Barcelona");
+        assertEquals(columnar.getValueAt(0, 5), 120.35d);
+
+        LabelColumn cities = (LabelColumn) columnar.getColumnById(COLUMN_CITY);
+        assertEquals(cities.getDictionary().size(), 6);
+        assertEquals(cities.getCode(0), cities.lookupCode("Barcelona"));
+    }
+
+    @Test
+    public void testNullValues() throws Exception {
+        ColumnarDataSet dataSet = new ColumnarDataSet();
+        dataSet.addColumn("number", ColumnType.NUMBER);
+        dataSet.addColumn("date", ColumnType.DATE);
+        dataSet.addColumn("label", ColumnType.LABEL);
+        dataSet.addColumn("text", ColumnType.TEXT);
+
+        Date date = new Date();
+        dataSet.addValues(1d, date, "A", "text");
+        dataSet.addValues(null, null, null, null);
+        dataSet.addValues(3, date, "A", "text");
+
+        assertEquals(dataSet.getRowCount(), 3);
+        assertNull(dataSet.getValueAt(1, 0));
+        assertNull(dataSet.getValueAt(1, 1));
+        assertNull(dataSet.getValueAt(1, 2));
+        assertNull(dataSet.getValueAt(1, 3));
+        assertEquals(dataSet.getValueAt(2, 0), 3d);
+        assertEquals(dataSet.getValueAt(2, 1), date);
+        assertEquals(((LabelColumn) dataSet.getColumnByIndex(2)).getDictionary().size(), 1);
+
+        dataSet.setValueAt(1, 0, 2d);
+        assertEquals(dataSet.getValueAt(1, 0), 2d);
+    }
+
+    @Test
+    public void testInsertAndRemove() throws Exception {
+        ColumnarDataSet dataSet = new ColumnarDataSet(2);
+        dataSet.addColumn("number", ColumnType.NUMBER);
+        dataSet.addColumn("label", ColumnType.LABEL);
+        for (int i = 0; i < 100; i++) {
+            dataSet.addValues(i % 3 == 0 ? null : (double) i, "L" + (i % 5));
+        }
+        dataSet.addValuesAt(0, -1d, null);
+        assertEquals(dataSet.getRowCount(), 101);
+        assertEquals(dataSet.getValueAt(0, 0), -1d);
+        assertNull(dataSet.getValueAt(0, 1));
+        assertNull(dataSet.getValueAt(1, 0));
+        assertEquals(dataSet.getValueAt(2, 0), 1d);
+        assertNull(dataSet.getValueAt(100, 0));
+
+        dataSet.getColumnByIndex(0).getValues().remove(0);
+        dataSet.getColumnByIndex(1).getValues().remove(0);
+        assertEquals(dataSet.getRowCount(), 100);
+        assertNull(dataSet.getValueAt(0, 0));
+        assertEquals(dataSet.getValueAt(0, 1), "L0");
+        assertEquals(dataSet.getValueAt(64, 0), 64d);
+        assertNull(dataSet.getValueAt(99, 0));
+    }
+
+    @Test
+    public void testTrimReturnsPlainDataSets() throws Exception {
+        ColumnarDataSet columnar = ColumnarDataSet.from(ExpenseReportsData.INSTANCE.toDataSet());
+        DataSet trimmed = columnar.trim(0, 10);
+        assertEquals(trimmed.getClass(), DataSetImpl.class);
+        assertEquals(trimmed.getRowCount(), 10);
+
+        DataSet whole = columnar.trim(0, -1);
+        assertEquals(whole.getClass(), DataSetImpl.class);
+        assertEquals(whole.getRowCount(), 50);
+
+        DataSet rows = columnar.trim(Arrays.asList(1, 3, 5));
+        assertEquals(rows.getClass(), DataSetImpl.class);
+        assertEquals(rows.getValueAt(1, 0), columnar.getValueAt(3, 0));
+    }
+
+    @Test
+    public void testEstimatedSize() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        ColumnarDataSet columnar = ColumnarDataSet.from(dataSet);
+        columnar.trimToSize();
+        assertTrue(columnar.getEstimatedSize() < dataSet.getEstimatedSize());
+    }
+
+    @Test
+    public void testAppendRows() throws Exception {
+        StaticDataSetProvider staticProvider = DataSetCore.get().getStaticDataSetProvider();
+        DataSet before = staticProvider.lookupDataSet(EXPENSE_REPORTS_COLUMNAR, null);
+        DataSet rows = ExpenseReportsData.INSTANCE.toDataSet().trim(0, 10);
+
+        // A new version is registered, the previous one is left untouched
+        DataSet after = staticProvider.appendRows(EXPENSE_REPORTS_COLUMNAR, rows);
+        assertTrue(after instanceof ColumnarDataSet);
+        assertSame(after, staticProvider.lookupDataSet(EXPENSE_REPORTS_COLUMNAR, null));
+        assertEquals(before.getRowCount(), 50);
+        assertEquals(after.getRowCount(), 60);
+        assertEquals(after.getValueAt(50, 0), before.getValueAt(0, 0));
+        assertEquals(after.getValueAt(59, 2), before.getValueAt(9, 2));
+
+        DataSet result = dataSetManager.lookupDataSet(DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS_COLUMNAR)
+                .filter(COLUMN_CITY, equalsTo(COLUMN_CITY, "Barcelona"))
+                .buildLookup());
+        assertEquals(result.getRowCount(), 12);
+    }
+
+    @Test
+    public void testLookupsMatchBoxedDataSet() throws Exception {
+        assertSameResult(DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_AMOUNT, greaterThan(500))
+                .sort(COLUMN_ID, SortOrder.ASCENDING)
+                .buildLookup());
+
+        assertSameResult(DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_CITY, OR(equalsTo(COLUMN_CITY, "Barcelona"), likeTo(COLUMN_CITY, "%York%")))
+                .group(COLUMN_DEPARTMENT)
+                .column(COLUMN_DEPARTMENT)
+                .column(COUNT, "occurrences")
+                .column(COLUMN_AMOUNT, SUM, "total")
+                .buildLookup());
+
+        assertSameResult(DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .group(COLUMN_DATE).dynamic(10, MONTH, true)
+                .column(COLUMN_DATE)
+                .column(COLUMN_AMOUNT, AVERAGE, "avg")
+                .buildLookup());
+
+        assertSameResult(DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .sort(COLUMN_AMOUNT, SortOrder.DESCENDING)
+                .rowNumber(10)
+                .buildLookup());
+    }
+
+    protected void assertSameResult(DataSetLookup lookup) {
+        DataSetLookup columnarLookup = lookup.cloneInstance();
+        columnarLookup.setDataSetUUID(EXPENSE_REPORTS_COLUMNAR);
+
+        DataSet expected = dataSetManager.lookupDataSet(lookup);
+        DataSet result = dataSetManager.lookupDataSet(columnarLookup);
+
+        assertEquals(expected.getRowCount(), result.getRowCount());
+        assertEquals(expected.getColumns().size(), result.getColumns().size());
+        for (int i = 0; i < expected.getRowCount(); i++) {
+            for (int j = 0; j < expected.getColumns().size(); j++) {
+                assertEquals(dataSetFormatter.formatValueAt(expected, i, j), dataSetFormatter.formatValueAt(result, i, j));
+            }
+        }
+    }
+}
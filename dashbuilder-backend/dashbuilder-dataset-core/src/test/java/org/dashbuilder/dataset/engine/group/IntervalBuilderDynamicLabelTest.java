@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.group;
+
+import java.util.Arrays;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFormatter;
+import org.dashbuilder.dataset.DataSetLookupFactory;
+import org.dashbuilder.dataset.DataSetManager;
+import org.dashbuilder.dataset.ExpenseReportsData;
+import org.dashbuilder.dataset.columnar.ColumnarDataSet;
+import org.dashbuilder.dataset.engine.index.DataSetIndex;
+import org.dashbuilder.dataset.group.ColumnGroup;
+import org.dashbuilder.dataset.group.GroupStrategy;
+import org.dashbuilder.dataset.impl.DataColumnImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.dashbuilder.dataset.Assertions.*;
+import static org.dashbuilder.dataset.ExpenseReportsData.*;
+import static org.dashbuilder.dataset.filter.FilterFactory.*;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.*;
+import static org.junit.Assert.*;
+
+public class IntervalBuilderDynamicLabelTest {
+
+    public static final String EXPENSE_REPORTS = "expense_reports";
+    public static final String EXPENSE_REPORTS_COLUMNAR = "expense_reports_columnar";
+
+    DataSetManager dataSetManager = DataSetCore.get().getDataSetManager();
+    DataSetFormatter dataSetFormatter = new DataSetFormatter();
+
+    @Before
+    public void setUp() throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(EXPENSE_REPORTS);
+        dataSetManager.registerDataSet(dataSet);
+
+        ColumnarDataSet columnar = ColumnarDataSet.from(ExpenseReportsData.INSTANCE.toDataSet());
+        columnar.setUUID(EXPENSE_REPORTS_COLUMNAR);
+        dataSetManager.registerDataSet(columnar);
+    }
+
+    @Test
+    public void testIntervalOrder() throws Exception {
+        DataColumnImpl column = new DataColumnImpl("label", ColumnType.LABEL);
+        column.setColumnGroup(new ColumnGroup("label", "label", GroupStrategy.DYNAMIC));
+        column.setValues(Arrays.asList("b", "a", null, "b", 1, "1"));
+
+        IntervalList intervals = new IntervalBuilderDynamicLabel().build(column);
+        assertEquals(4, intervals.size());
+        assertEquals("b", intervals.get(0).getName());
+        assertEquals(Arrays.asList(0, 3), intervals.get(0).getRows());
+        assertEquals("a", intervals.get(1).getName());
+        assertNull(intervals.get(2).getName());
+        assertEquals(Arrays.asList(2), intervals.get(2).getRows());
+        assertEquals("1", intervals.get(3).getName());
+        assertEquals(Arrays.asList(4, 5), intervals.get(3).getRows());
+        assertSame(intervals.get(1), intervals.locateInterval("a"));
+        assertSame(intervals.get(2), intervals.locateInterval(null));
+    }
+
+    @Test
+    public void testDictionaryEncoding() throws Exception {
+        String[][] expected = new String[][] {
+                {"Barcelona", "2.00"},
+                {"Madrid", "2.00"},
+                {"Brno", "4.00"},
+                {"Westford", "3.00"},
+                {"Raleigh", "2.00"},
+                {"London", "4.00"}
+        };
+        for (String uuid : new String[] {EXPENSE_REPORTS, EXPENSE_REPORTS_COLUMNAR}) {
+            DataSet result = dataSetManager.lookupDataSet(
+                    DataSetLookupFactory.newDataSetLookupBuilder()
+                    .dataset(uuid)
+                    .filter(COLUMN_AMOUNT, greaterThan(500))
+                    .group(COLUMN_CITY)
+                    .column(COLUMN_CITY)
+                    .column(COUNT, "#items")
+                    .buildLookup());
+
+            assertDataSetValues(result, dataSetFormatter, expected, 0);
+        }
+        // The codes of plain columns are kept by the data set index for further reuse
+        DataSetIndex index = DataSetCore.get().getIndexRegistry().get(EXPENSE_REPORTS);
+        LabelDictionary dictionary = index.getLabelDictionary(COLUMN_CITY);
+        assertEquals(6, dictionary.getLabelCount());
+        assertEquals("Barcelona", dictionary.getLabel(dictionary.getCode(0)));
+        assertSame(dictionary, index.getLabelDictionary(COLUMN_CITY));
+    }
+}
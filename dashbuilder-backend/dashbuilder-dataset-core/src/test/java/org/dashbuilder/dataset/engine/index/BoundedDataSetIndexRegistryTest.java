@@ -0,0 +1,171 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dashbuilder.dataprovider.DataSetProviderType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.ExpenseReportsData;
+import org.dashbuilder.dataset.UUIDGeneratorImpl;
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.engine.group.ColumnLabelDictionary;
+import org.dashbuilder.dataset.engine.group.LabelDictionary;
+import org.dashbuilder.dataset.filter.ColumnFilter;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.dashbuilder.dataset.ExpenseReportsData.*;
+import static org.dashbuilder.dataset.filter.FilterFactory.*;
+import static org.junit.Assert.*;
+
+public class BoundedDataSetIndexRegistryTest {
+
+    BoundedDataSetIndexRegistry indexRegistry;
+
+    @Before
+    public void setUp() throws Exception {
+        indexRegistry = new BoundedDataSetIndexRegistry(new UUIDGeneratorImpl(), -1);
+    }
+
+    @Test
+    public void testNoLimit() throws Exception {
+        indexRegistry.put(createDataSet("static", null));
+        indexRegistry.put(createDataSet("sql", DataSetProviderType.SQL));
+
+        assertNotNull(indexRegistry.get("static"));
+        assertNotNull(indexRegistry.get("sql"));
+        assertTrue(indexRegistry.getMemoryUsed() > 0);
+    }
+
+    @Test
+    public void testSubIndexEviction() throws Exception {
+        indexRegistry.put(createDataSet("sql", DataSetProviderType.SQL));
+        DataSetIndex index = indexRegistry.get("sql");
+        ColumnFilter cheapFilter = equalsTo(COLUMN_CITY, "Barcelona");
+        ColumnFilter costlyFilter = equalsTo(COLUMN_CITY, "Madrid");
+        index.indexFilter(cheapFilter, rows(0, 20), 10);
+        index.indexFilter(costlyFilter, rows(20, 40), 10000);
+        long memoryUsed = indexRegistry.getMemoryUsed();
+
+        // Only the cheapest index to rebuild is discarded
+        indexRegistry.setMaxMemory(memoryUsed - 1);
+        assertSame(index, indexRegistry.get("sql"));
+        assertNull(index.getFilterIndex(cheapFilter));
+        assertNotNull(index.getFilterIndex(costlyFilter));
+        assertTrue(indexRegistry.getMemoryUsed() < memoryUsed);
+    }
+
+    @Test
+    public void testSubIndexEvictionOnGet() throws Exception {
+        indexRegistry.put(createDataSet("sql", DataSetProviderType.SQL));
+        indexRegistry.setMaxMemory(indexRegistry.getMemoryUsed() + 1);
+
+        // A modified index tree is checked on the next access
+        DataSetIndex index = indexRegistry.get("sql");
+        ColumnFilter filter = equalsTo(COLUMN_CITY, "Barcelona");
+        index.indexFilter(filter, rows(0, 20), 10);
+        assertSame(index, indexRegistry.get("sql"));
+        assertNull(index.getFilterIndex(filter));
+    }
+
+    @Test
+    public void testStaticDataSetOverBudget() throws Exception {
+        indexRegistry.put(createDataSet("static", null));
+        indexRegistry.setMaxMemory(1);
+        DataSetIndex index = indexRegistry.get("static");
+        ColumnFilter filter = equalsTo(COLUMN_CITY, "Barcelona");
+        index.indexFilter(filter, rows(0, 20), 10);
+
+        // Discarding the sub-indexes can't meet the budget, so they're kept
+        for (int i = 0; i < 3; i++) {
+            assertSame(index, indexRegistry.get("static"));
+            assertNotNull(index.getFilterIndex(filter));
+        }
+        assertTrue(indexRegistry.getMemoryUsed() > 1);
+    }
+
+    @Test
+    public void testDataSetEviction() throws Exception {
+        indexRegistry.put(createDataSet("static", null));
+        indexRegistry.put(createDataSet("sql1", DataSetProviderType.SQL));
+        indexRegistry.put(createDataSet("sql2", DataSetProviderType.SQL));
+        long dataSetSize = indexRegistry.getMemoryUsed() / 3;
+
+        // The least recently used data set is evicted
+        indexRegistry.get("sql1");
+        indexRegistry.setMaxMemory(dataSetSize * 2 + 1);
+        assertNotNull(indexRegistry.get("static"));
+        assertNotNull(indexRegistry.get("sql1"));
+        assertNull(indexRegistry.get("sql2"));
+
+        // Static data sets and the data set being accessed are never evicted
+        indexRegistry.setMaxMemory(1);
+        assertNotNull(indexRegistry.get("static"));
+        assertNull(indexRegistry.get("sql1"));
+        indexRegistry.put(createDataSet("sql2", DataSetProviderType.SQL));
+        assertNotNull(indexRegistry.get("sql2"));
+        assertNotNull(indexRegistry.get("static"));
+    }
+
+    @Test
+    public void testAppendKeepsLabelDictionaries() throws Exception {
+        DataSet firstRows = createDataSet("sql", DataSetProviderType.SQL).trim(0, 40);
+        firstRows.setUUID("sql");
+        indexRegistry.put(firstRows);
+        DataSetIndex index = indexRegistry.get("sql");
+        ColumnFilter filter = equalsTo(COLUMN_CITY, "Barcelona");
+        index.indexFilter(filter, rows(0, 6), 10);
+        index.getLabelDictionary(COLUMN_CITY);
+        assertEquals(index.labelDictionaries.get(COLUMN_CITY).getRowCount(), 40);
+
+        // The dictionaries are extended with the new rows, any other index is discarded
+        DataSet dataSet = createDataSet("sql", DataSetProviderType.SQL);
+        DataSetIndex newIndex = indexRegistry.append(dataSet);
+        assertNotSame(index, newIndex);
+        assertSame(newIndex, indexRegistry.get("sql"));
+        assertNull(newIndex.getFilterIndex(filter));
+        assertEquals(newIndex.labelDictionaries.get(COLUMN_CITY).getRowCount(), 50);
+
+        LabelDictionary expected = ColumnLabelDictionary.encode(dataSet.getColumnById(COLUMN_CITY).getValues());
+        LabelDictionary result = newIndex.getLabelDictionary(COLUMN_CITY);
+        assertEquals(result.getLabelCount(), expected.getLabelCount());
+        for (int row = 0; row < 50; row++) {
+            assertEquals(result.getCode(row), expected.getCode(row));
+        }
+    }
+
+    private DataSet createDataSet(String uuid, DataSetProviderType provider) throws Exception {
+        DataSet dataSet = ExpenseReportsData.INSTANCE.toDataSet();
+        dataSet.setUUID(uuid);
+        if (provider != null) {
+            DataSetDef def = new DataSetDef();
+            def.setUUID(uuid);
+            def.setProvider(provider);
+            dataSet.setDefinition(def);
+        }
+        return dataSet;
+    }
+
+    private List<Integer> rows(int from, int to) {
+        List<Integer> rows = new ArrayList<Integer>();
+        for (int i = from; i < to; i++) {
+            rows.add(i);
+        }
+        return rows;
+    }
+}
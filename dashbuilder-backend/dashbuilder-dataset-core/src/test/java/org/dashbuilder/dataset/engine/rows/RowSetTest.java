@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.rows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RowSetTest {
+
+    @Test
+    public void testRepresentation() throws Exception {
+        RowSet sparse = RowSet.of(new int[] {3, 500, 1000}, 3);
+        assertTrue(sparse instanceof ArrayRowSet);
+        assertEquals(Arrays.asList(3, 500, 1000), sparse);
+
+        RowSet dense = RowSet.of(range(0, 200, 2), 100);
+        assertTrue(dense instanceof BitmapRowSet);
+        assertEquals(100, dense.size());
+        assertEquals(198, dense.getLastRow());
+        assertTrue(dense.containsRow(150));
+        assertFalse(dense.containsRow(151));
+        assertFalse(dense.containsRow(5000));
+        assertTrue(dense.getEstimatedSize() < 100 * 4);
+    }
+
+    @Test
+    public void testBitmapPositionalAccess() throws Exception {
+        int[] rows = range(1, 3000, 3);
+        RowSet bitmap = BitmapRowSet.of(rows, rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            assertEquals(rows[i], bitmap.getRow(i));
+        }
+        assertArrayEquals(rows, bitmap.toRowArray());
+
+        RowSet all = RowSet.all(70);
+        assertEquals(70, all.size());
+        assertEquals(69, all.getLastRow());
+        assertEquals(69, all.getRow(69));
+    }
+
+    @Test
+    public void testSetOperations() throws Exception {
+        RowSet even = RowSet.of(range(0, 100, 2), 50);
+        RowSet third = RowSet.of(range(0, 100, 3), 34);
+        RowSet sparse = RowSet.of(new int[] {1, 2, 3, 97}, 4);
+
+        assertEquals(expected(0, 100, 6), even.and(third));
+        assertEquals(expected(0, 100, 6), third.and(even));
+        assertEquals(Arrays.asList(2), even.and(sparse));
+        assertEquals(Arrays.asList(1, 3, 97), sparse.andNot(even));
+        assertEquals(50, even.not(100).size());
+        assertFalse(even.not(100).containsRow(10));
+        assertTrue(even.not(100).containsRow(11));
+
+        List<Integer> union = new ArrayList<Integer>();
+        for (int i = 0; i < 100; i++) {
+            if (i % 2 == 0 || i % 3 == 0) union.add(i);
+        }
+        assertEquals(union, even.or(third));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 97, 200), sparse.or(RowSet.of(new int[] {2, 4, 200}, 3)));
+        assertTrue(even.andNot(even).isEmpty());
+    }
+
+    @Test
+    public void testRowListSort() throws Exception {
+        final int[] keys = {5, 1, 3, 1, 5, 0, 3, 2, 1, 4, 0, 5, 2, 3, 4, 1, 0, 2, 5, 3};
+        IntRowList rows = IntRowList.range(0, keys.length);
+        rows.sortRows(new RowComparator() {
+            public int compareRows(int row1, int row2) {
+                return keys[row1] - keys[row2];
+            }
+        });
+        // Stable: rows with the same key keep their relative order
+        assertEquals(Arrays.asList(5, 10, 16, 1, 3, 8, 15, 7, 12, 17, 2, 6, 13, 19, 9, 14, 0, 4, 11, 18), rows);
+        assertFalse(rows.isAscending());
+        assertEquals(Arrays.asList(18, 11, 4, 0), rows.reverse().subList(0, 4));
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        RowList ascending = RowList.valueOf(Arrays.asList(1, 5, 9));
+        assertTrue(ascending instanceof RowSet);
+
+        RowList unordered = RowList.valueOf(Arrays.asList(9, 5, 1));
+        assertTrue(unordered instanceof IntRowList);
+        assertEquals(Arrays.asList(9, 5, 1), unordered);
+    }
+
+    private static int[] range(int from, int to, int step) {
+        int[] result = new int[(to - from + step - 1) / step];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = from + i * step;
+        }
+        return result;
+    }
+
+    private static List<Integer> expected(int from, int to, int step) {
+        List<Integer> result = new ArrayList<Integer>();
+        for (int row : range(from, to, step)) {
+            result.add(row);
+        }
+        return result;
+    }
+}
@@ -16,6 +16,7 @@
 package org.dashbuilder.dataprovider.csv;
 
 import java.io.File;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.lang3.StringUtils;
 import org.dashbuilder.DataSetCore;
@@ -36,6 +37,7 @@ public class CSVDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
 
     protected StaticDataSetProvider staticDataSetProvider;
     protected CSVFileStorage csvStorage;
+    protected int parallelChunkSize = CSVParallelParser.DEFAULT_CHUNK_SIZE;
     protected Logger log = LoggerFactory.getLogger(CSVDataSetProvider.class);
 
     private static CSVDataSetProvider SINGLETON = null;
@@ -60,6 +62,18 @@ public class CSVDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         this.csvStorage = csvStorage;
     }
 
+    public int getParallelChunkSize() {
+        return parallelChunkSize;
+    }
+
+    /**
+     * Size in bytes of the chunks CSV files are split into for parsing them in parallel.
+     * A zero or negative value means sequential parsing.
+     */
+    public void setParallelChunkSize(int parallelChunkSize) {
+        this.parallelChunkSize = parallelChunkSize;
+    }
+
     public DataSetProviderType getType() {
         return DataSetProviderType.CSV;
     }
@@ -79,7 +93,7 @@ public class CSVDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         // If the lookup request is in test mode or the data set not exists or is outdated then load from the CSV file
         CSVDataSetDef csvDef = (CSVDataSetDef) def;
         if ((lookup != null && lookup.testMode()) || dataSet == null || hasCSVFileChanged(dataSet, csvDef)) {
-            CSVParser csvParser = new CSVParser(csvDef, csvStorage);
+            CSVParser csvParser = newCSVParser(csvDef);
             dataSet = csvParser.load();
             dataSet.setUUID(def.getUUID());
             dataSet.setDefinition(def);
@@ -101,6 +115,13 @@ public class CSVDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         return dataSet;
     }
 
+    protected CSVParser newCSVParser(CSVDataSetDef def) {
+        if (parallelChunkSize > 0) {
+            return new CSVParallelParser(def, csvStorage, ForkJoinPool.commonPool(), parallelChunkSize);
+        }
+        return new CSVParser(def, csvStorage);
+    }
+
     public boolean isDataSetOutdated(DataSetDef def) {
         // If no data set is registered then no way for having stale data.
         DataSet dataSet = staticDataSetProvider.lookupDataSet(def, null);
@@ -0,0 +1,782 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.csv;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.apache.commons.lang3.StringUtils;
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.columnar.ColumnarDataColumn;
+import org.dashbuilder.dataset.columnar.ColumnarDataSet;
+import org.dashbuilder.dataset.columnar.DateColumn;
+import org.dashbuilder.dataset.columnar.NumberColumn;
+import org.dashbuilder.dataset.def.CSVDataSetDef;
+
+/**
+ * A {@link CSVParser} intended for large files. The CSV content is read in chunks of (at least) the given size, every
+ * chunk ending at a record boundary. The chunks are parsed concurrently on a fork-join pool, while the reading thread
+ * goes on with the next ones, and finally appended in order to a {@link ColumnarDataSet} whose columns are pre-sized
+ * from the record density of the first chunk.
+ *
+ * <p>The resulting data set is exactly the same the {@link CSVParser} would return:</p>
+ * <ul>
+ *     <li>Records are split and tokenized following the opencsv rules. Records opencsv would parse differently from
+ *     a plain CSV grammar (escape characters, misplaced quotes, quoted line breaks, ...) are handed to opencsv.</li>
+ *     <li>Plain numbers and numeric dates are parsed by the {@link FastNumberParser} & {@link FastDateParser},
+ *     falling back to the per column decimal & date formats for anything else.</li>
+ *     <li>Loading stops at the first record whose number of values doesn't match the header.</li>
+ * </ul>
+ *
+ * <p>Chunks are split on bytes, so the content charset must encode the separator, quote & line break characters
+ * as single bytes never appearing inside other characters (UTF-8 or any single byte charset). Otherwise, this
+ * parser just falls back to the sequential parsing.</p>
+ */
+public class CSVParallelParser extends CSVParser {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Max. number of chunks per pool thread either being parsed or waiting to be merged.
+     */
+    protected static final int PENDING_CHUNKS_PER_THREAD = 2;
+
+    protected ForkJoinPool pool;
+    protected int chunkSize;
+    protected Charset charset = Charset.defaultCharset();
+
+    public CSVParallelParser(CSVDataSetDef def, CSVFileStorage csvFileStorage) {
+        this(def, csvFileStorage, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public CSVParallelParser(CSVDataSetDef def, CSVFileStorage csvFileStorage, ForkJoinPool pool, int chunkSize) {
+        super(def, csvFileStorage);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be greater than zero: " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public Charset getCharset() {
+        return charset;
+    }
+
+    public void setCharset(Charset charset) {
+        this.charset = charset;
+    }
+
+    @Override
+    protected DataSet load() throws Exception {
+        if (!isChunkingSupported()) {
+            return super.load();
+        }
+        InputStream is = getCSVInputStream();
+        try {
+            return load(is, getCSVContentLength());
+        } finally {
+            is.close();
+        }
+    }
+
+    /**
+     * Check if records can be split from the raw bytes.
+     */
+    protected boolean isChunkingSupported() {
+        Character separator = dataSetDef.getSeparatorChar();
+        Character quote = dataSetDef.getQuoteChar();
+        Character escape = dataSetDef.getEscapeChar();
+        if (separator == null || quote == null || escape == null
+                || separator.equals(quote) || separator.equals(escape) || quote.equals(escape)) {
+            return false;
+        }
+        if (!StandardCharsets.UTF_8.equals(charset)) {
+            if (!charset.canEncode() || charset.newEncoder().maxBytesPerChar() != 1) {
+                return false;
+            }
+        }
+        return isSingleByte(separator) && isSingleByte(quote) && isSingleByte(escape)
+                && isSingleByte('\n') && isSingleByte('\r');
+    }
+
+    private boolean isSingleByte(char c) {
+        if (c >= 0x80) return false;
+        byte[] bytes = String.valueOf(c).getBytes(charset);
+        return bytes.length == 1 && bytes[0] == c;
+    }
+
+    /**
+     * The CSV content length in bytes or -1 if not known.
+     */
+    protected long getCSVContentLength() {
+        if (!StringUtils.isBlank(dataSetDef.getFileURL())) {
+            return -1;
+        }
+        String path = dataSetDef.getFilePath();
+        if (!StringUtils.isBlank(path)) {
+            File f = new File(path);
+            if (f.exists()) {
+                return f.length();
+            }
+        }
+        return -1;
+    }
+
+    protected DataSet load(InputStream is, long contentLength) throws Exception {
+        ChunkReader reader = new ChunkReader(is);
+
+        String[] header = reader.nextRecord();
+        if (header == null) throw new IOException("CSV has no header: " + dataSetDef);
+
+        String[] firstRow = reader.nextRecord();
+        if (firstRow != null && firstRow.length < header.length) {
+            String exceptionMessage = String.format("CSV parse error : The first row has fewer columns (%d) than the header (%d)"
+                    , firstRow.length, header.length);
+            // Fail fast - see DASHBUILDE-172
+            throw new IllegalArgumentException(exceptionMessage);
+        }
+
+        // Build the data set structure
+        List<Integer> columnIdxList = new ArrayList<Integer>();
+        ColumnarDataSet dataSet = new ColumnarDataSet();
+        for (int i = 0; i < header.length; i++) {
+            String columnId = header[i];
+            if (isColumnIncluded(columnId)) {
+                ColumnType type = ColumnType.LABEL;
+                if (firstRow != null) type = calculateType(columnId, firstRow[i]);
+                dataSet.addColumn(columnId, type);
+                columnIdxList.add(i);
+            }
+        }
+        if (firstRow == null) {
+            return dataSet;
+        }
+
+        int[] columnIdxs = new int[columnIdxList.size()];
+        ColumnType[] columnTypes = new ColumnType[columnIdxs.length];
+        for (int i = 0; i < columnIdxs.length; i++) {
+            columnIdxs[i] = columnIdxList.get(i);
+            columnTypes[i] = dataSet.getColumnByIndex(i).getColumnType();
+        }
+
+        // The first row is parsed in place
+        ChunkParser firstRowParser = new ChunkParser(null, 1, header.length, dataSet, columnIdxs, columnTypes);
+        firstRowParser.parseRow(firstRow, 0);
+        append(dataSet, firstRowParser.getResult());
+
+        // Parse the remaining rows concurrently, but merge them in order
+        Deque<Future<ParsedChunk>> pending = new ArrayDeque<Future<ParsedChunk>>();
+        int maxPending = Math.max(1, pool.getParallelism() * PENDING_CHUNKS_PER_THREAD);
+        boolean stopped = false;
+        try {
+            Chunk chunk = reader.nextChunk();
+            if (chunk != null && contentLength > 0) {
+                dataSet.ensureCapacity(estimateRows(chunk, reader.getBytesRead(), contentLength));
+            }
+            while (chunk != null && !stopped) {
+                if (pending.size() >= maxPending) {
+                    stopped = !append(dataSet, getResult(pending.poll()));
+                }
+                if (!stopped) {
+                    ChunkParser parser = new ChunkParser(chunk, chunk.records, header.length, dataSet, columnIdxs, columnTypes);
+                    pending.add(pool.submit(parser));
+                    chunk = reader.nextChunk();
+                }
+            }
+            while (!pending.isEmpty() && !stopped) {
+                stopped = !append(dataSet, getResult(pending.poll()));
+            }
+        } finally {
+            for (Future<ParsedChunk> future : pending) {
+                future.cancel(false);
+            }
+        }
+        dataSet.trimToSize();
+        return dataSet;
+    }
+
+    protected int estimateRows(Chunk firstChunk, long bytesRead, long contentLength) {
+        int chunkBytes = firstChunk.to - firstChunk.from;
+        if (chunkBytes <= 0 || contentLength <= bytesRead) {
+            return firstChunk.records + 1;
+        }
+        double bytesPerRecord = (double) chunkBytes / firstChunk.records;
+        double estimate = 1 + firstChunk.records + (contentLength - bytesRead) / bytesPerRecord;
+        // Leave some room for records shorter than the sampled ones
+        return (int) Math.min(Integer.MAX_VALUE - 8, estimate * 1.05);
+    }
+
+    protected ParsedChunk getResult(Future<ParsedChunk> future) throws Exception {
+        ParsedChunk chunk;
+        try {
+            chunk = future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a CSV chunk", e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new RuntimeException(cause);
+        }
+        if (chunk.error != null) {
+            throw chunk.error;
+        }
+        return chunk;
+    }
+
+    /**
+     * Appends the rows of a parsed chunk to the data set.
+     * @return false if the chunk contains a record with a number of values not matching the header, so loading must stop.
+     */
+    protected boolean append(ColumnarDataSet dataSet, ParsedChunk chunk) {
+        for (int c = 0; c < chunk.values.length; c++) {
+            ColumnarDataColumn column = dataSet.getColumnByIndex(c);
+            Object values = chunk.values[c];
+            BitSet nulls = chunk.nulls[c];
+            if (values instanceof double[]) {
+                NumberColumn numberColumn = (NumberColumn) column;
+                double[] numbers = (double[]) values;
+                for (int r = 0; r < chunk.rows; r++) {
+                    if (nulls.get(r)) numberColumn.add(null);
+                    else numberColumn.addDouble(numbers[r]);
+                }
+            }
+            else if (values instanceof long[]) {
+                DateColumn dateColumn = (DateColumn) column;
+                long[] times = (long[]) values;
+                for (int r = 0; r < chunk.rows; r++) {
+                    if (nulls.get(r)) dateColumn.add(null);
+                    else dateColumn.addTime(times[r]);
+                }
+            }
+            else {
+                String[] strings = (String[]) values;
+                for (int r = 0; r < chunk.rows; r++) {
+                    column.add(strings[r]);
+                }
+            }
+        }
+        return !chunk.stopped;
+    }
+
+    /**
+     * A block of complete records.
+     */
+    protected static class Chunk {
+
+        byte[] bytes;
+        int from;
+        int to;
+        int records;
+        boolean inField;
+
+        Chunk(byte[] bytes, int from, int to, int records, boolean inField) {
+            this.bytes = bytes;
+            this.from = from;
+            this.to = to;
+            this.records = records;
+            this.inField = inField;
+        }
+    }
+
+    /**
+     * The column values of a chunk once parsed.
+     */
+    protected static class ParsedChunk {
+
+        int rows = 0;
+        boolean stopped = false;
+        Exception error;
+        Object[] values;
+        BitSet[] nulls;
+    }
+
+    /**
+     * Reads the CSV content, splitting it into chunks of complete records.
+     */
+    protected class ChunkReader {
+
+        InputStream is;
+        RecordTokenizer tokenizer = new RecordTokenizer();
+        byte[] buffer;
+        int start = 0;
+        int limit = 0;
+        boolean eof = false;
+        long bytesRead = 0;
+
+        ChunkReader(InputStream is) {
+            this.is = is;
+            this.buffer = new byte[chunkSize];
+        }
+
+        long getBytesRead() {
+            return bytesRead;
+        }
+
+        /**
+         * Reads & tokenizes a single record.
+         * @return The record values or null if no more records are available.
+         */
+        String[] nextRecord() throws IOException {
+            while (true) {
+                boolean inField = tokenizer.inField;
+                int end = tokenizer.findRecordEnd(buffer, start, limit, eof);
+                if (end >= 0) {
+                    String[] record = tokenizer.tokenize(buffer, start, end, inField);
+                    start = end;
+                    return record;
+                }
+                if (eof) {
+                    return null;
+                }
+                fill();
+            }
+        }
+
+        /**
+         * Get the next block of complete records. The chunk bytes are not modified afterwards.
+         * @return The chunk or null if no more records are available.
+         */
+        Chunk nextChunk() throws IOException {
+            while (true) {
+                boolean inField = tokenizer.inField;
+                int records = 0;
+                int end = start;
+                int next;
+                while ((next = tokenizer.findRecordEnd(buffer, end, limit, eof)) >= 0) {
+                    end = next;
+                    records++;
+                }
+                if (records > 0) {
+                    Chunk chunk = new Chunk(buffer, start, end, records, inField);
+                    // The chunk keeps the current buffer, so continue on a new one
+                    byte[] newBuffer = new byte[Math.max(chunkSize, limit - end)];
+                    System.arraycopy(buffer, end, newBuffer, 0, limit - end);
+                    buffer = newBuffer;
+                    limit = limit - end;
+                    start = 0;
+                    return chunk;
+                }
+                if (eof) {
+                    return null;
+                }
+                fill();
+            }
+        }
+
+        /**
+         * Read more content, moving the unprocessed bytes to the beginning of the buffer (or to a bigger one).
+         */
+        void fill() throws IOException {
+            int remaining = limit - start;
+            if (remaining == buffer.length) {
+                buffer = Arrays.copyOfRange(buffer, start, start + Math.max(buffer.length * 2, 1024));
+            } else if (start > 0) {
+                System.arraycopy(buffer, start, buffer, 0, remaining);
+            }
+            start = 0;
+            limit = remaining;
+            while (limit < buffer.length) {
+                int n = is.read(buffer, limit, buffer.length - limit);
+                if (n < 0) {
+                    eof = true;
+                    break;
+                }
+                limit += n;
+                bytesRead += n;
+            }
+        }
+    }
+
+    /**
+     * Splits the records and their values. Records following a plain CSV grammar are tokenized right from the
+     * bytes, the rest are handed to opencsv.
+     */
+    protected class RecordTokenizer {
+
+        final byte separator = (byte) dataSetDef.getSeparatorChar().charValue();
+        final byte quote = (byte) dataSetDef.getQuoteChar().charValue();
+        final byte escape = (byte) dataSetDef.getEscapeChar().charValue();
+
+        String[] tokens = new String[16];
+        int tokenCount = 0;
+        byte[] scratch = new byte[64];
+
+        /**
+         * The opencsv's parser keeps this flag from one line to the next, and it changes the way a line starting with
+         * a quote or escape character is parsed. So it must be tracked along the whole content.
+         */
+        boolean inField = false;
+
+        /**
+         * Find where the record starting at the given position ends. It follows the opencsv's multi-line rules: a line
+         * break ends the record unless it's found within a quoted value.
+         * @return The position right after the record's line break or -1 if more content is needed to find it.
+         */
+        int findRecordEnd(byte[] b, int pos, int limit, boolean eof) {
+            if (pos >= limit) {
+                return -1;
+            }
+            boolean inQuotes = false;
+            boolean inField = this.inField;
+            for (int i = pos; i < limit; i++) {
+                byte c = b[i];
+                if (c == escape) {
+                    if (inQuotes || inField) {
+                        if (i + 1 >= limit) {
+                            if (!eof) return -1;
+                        }
+                        else if (b[i + 1] == quote || b[i + 1] == escape) {
+                            i++;
+                        }
+                    }
+                }
+                else if (c == quote) {
+                    if (inQuotes || inField) {
+                        if (i + 1 >= limit) {
+                            if (!eof) return -1;
+                            inQuotes = !inQuotes;
+                        }
+                        else if (b[i + 1] == quote) {
+                            i++;
+                        }
+                        else {
+                            inQuotes = !inQuotes;
+                        }
+                    } else {
+                        inQuotes = true;
+                    }
+                    inField = !inField;
+                }
+                else if (c == separator) {
+                    inField = inQuotes;
+                }
+                else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        if (i + 1 >= limit) {
+                            if (!eof) return -1;
+                        }
+                        else if (b[i + 1] == '\n') {
+                            i++;
+                        }
+                    }
+                    if (!inQuotes) {
+                        this.inField = inField;
+                        return i + 1;
+                    }
+                }
+                else {
+                    inField = true;
+                }
+            }
+            if (!eof) {
+                return -1;
+            }
+            this.inField = inField;
+            return limit;
+        }
+
+        /**
+         * Get the values of the record within the given range.
+         * @param inField The parser state before the record.
+         * @return The record values or null if the record is an unterminated quoted value (only possible at the end).
+         */
+        String[] tokenize(byte[] b, int from, int to, boolean inField) throws IOException {
+            int end = to;
+            if (end - from >= 2 && b[end - 2] == '\r' && b[end - 1] == '\n') end -= 2;
+            else if (end > from && (b[end - 1] == '\n' || b[end - 1] == '\r')) end--;
+
+            // Within a field, opencsv reads a leading pair of quotes as an escaped quote
+            boolean plain = !inField || end - from < 2 || b[from] != quote || b[from + 1] != quote;
+            if (!plain || !tokenizePlain(b, from, end)) {
+                return tokenizeOpenCSV(new String(b, from, end - from, charset), inField);
+            }
+            return Arrays.copyOf(tokens, tokenCount);
+        }
+
+        /**
+         * Tokenize records made up of unquoted values or quoted values with doubled quotes only.
+         * @return false if the record doesn't follow such grammar
+         */
+        boolean tokenizePlain(byte[] b, int from, int end) {
+            tokenCount = 0;
+            int pos = from;
+            while (true) {
+                if (pos < end && b[pos] == quote) {
+                    int j = pos + 1;
+                    boolean doubledQuotes = false;
+                    while (true) {
+                        if (j >= end) return false;
+                        byte c = b[j];
+                        if (c == quote) {
+                            if (j + 1 < end && b[j + 1] == quote) {
+                                doubledQuotes = true;
+                                j += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        if (c == escape || c == '\n' || c == '\r') return false;
+                        j++;
+                    }
+                    addToken(doubledQuotes ? unquote(b, pos + 1, j) : new String(b, pos + 1, j - pos - 1, charset));
+                    pos = j + 1;
+                    if (pos == end) return true;
+                    if (b[pos] != separator) return false;
+                    pos++;
+                } else {
+                    int j = pos;
+                    while (j < end && b[j] != separator) {
+                        byte c = b[j];
+                        if (c == quote || c == escape || c == '\n' || c == '\r') return false;
+                        j++;
+                    }
+                    addToken(new String(b, pos, j - pos, charset));
+                    if (j == end) return true;
+                    pos = j + 1;
+                }
+            }
+        }
+
+        void addToken(String token) {
+            if (tokenCount == tokens.length) {
+                tokens = Arrays.copyOf(tokens, tokenCount * 2);
+            }
+            tokens[tokenCount++] = token;
+        }
+
+        String unquote(byte[] b, int from, int to) {
+            if (scratch.length < to - from) {
+                scratch = new byte[to - from];
+            }
+            int length = 0;
+            for (int i = from; i < to; i++) {
+                scratch[length++] = b[i];
+                if (b[i] == quote) i++;
+            }
+            return new String(scratch, 0, length, charset);
+        }
+
+        /**
+         * Tokenize the record just like the opencsv's <tt>CSVReader</tt> does, one line at a time.
+         */
+        String[] tokenizeOpenCSV(String record, boolean inField) throws IOException {
+            au.com.bytecode.opencsv.CSVParser parser = new au.com.bytecode.opencsv.CSVParser(
+                    (char) separator, (char) quote, (char) escape);
+
+            // Bring the parser to the given state: a single separator leaves it out of a field, any other char within
+            char primer = (char) separator;
+            if (inField) {
+                primer = 'a';
+                while (primer == separator || primer == quote || primer == escape) primer++;
+            }
+            parser.parseLineMulti(String.valueOf(primer));
+
+            String[] result = null;
+            int length = record.length();
+            int lineStart = 0;
+            while (lineStart <= length) {
+                int lineEnd = lineStart;
+                while (lineEnd < length && record.charAt(lineEnd) != '\n' && record.charAt(lineEnd) != '\r') {
+                    lineEnd++;
+                }
+                String[] r = parser.parseLineMulti(record.substring(lineStart, lineEnd));
+                if (r.length > 0) {
+                    if (result == null) {
+                        result = r;
+                    } else {
+                        String[] t = new String[result.length + r.length];
+                        System.arraycopy(result, 0, t, 0, result.length);
+                        System.arraycopy(r, 0, t, result.length, r.length);
+                        result = t;
+                    }
+                }
+                if (lineEnd == length) break;
+                lineStart = lineEnd + 1;
+                if (record.charAt(lineEnd) == '\r' && lineStart < length && record.charAt(lineStart) == '\n') {
+                    lineStart++;
+                }
+            }
+            // Null if the record is just an unterminated quoted value, as the CSVReader does at the end of the content
+            return result;
+        }
+    }
+
+    /**
+     * Parses the records of a chunk into primitive column arrays.
+     */
+    protected class ChunkParser implements Callable<ParsedChunk> {
+
+        Chunk chunk;
+        int headerLength;
+        int[] columnIdxs;
+        ColumnType[] columnTypes;
+        String[] columnIds;
+        ParsedChunk result = new ParsedChunk();
+
+        FastNumberParser[] numberParsers;
+        FastDateParser[] dateParsers;
+        DecimalFormat[] numberFormats;
+        DateFormat[] dateFormats;
+        boolean[] epochDates;
+        boolean[] initialized;
+
+        ChunkParser(Chunk chunk, int records, int headerLength,
+                    DataSet dataSet, int[] columnIdxs, ColumnType[] columnTypes) {
+            this.chunk = chunk;
+            this.headerLength = headerLength;
+            this.columnIdxs = columnIdxs;
+            this.columnTypes = columnTypes;
+
+            int columns = columnIdxs.length;
+            this.columnIds = new String[columns];
+            this.numberParsers = new FastNumberParser[columns];
+            this.dateParsers = new FastDateParser[columns];
+            this.numberFormats = new DecimalFormat[columns];
+            this.dateFormats = new DateFormat[columns];
+            this.epochDates = new boolean[columns];
+            this.initialized = new boolean[columns];
+            result.values = new Object[columns];
+            result.nulls = new BitSet[columns];
+            for (int c = 0; c < columns; c++) {
+                columnIds[c] = dataSet.getColumnByIndex(c).getId();
+                result.nulls[c] = new BitSet(records);
+                if (ColumnType.NUMBER.equals(columnTypes[c])) result.values[c] = new double[records];
+                else if (ColumnType.DATE.equals(columnTypes[c])) result.values[c] = new long[records];
+                else result.values[c] = new String[records];
+            }
+        }
+
+        ParsedChunk getResult() {
+            return result;
+        }
+
+        @Override
+        public ParsedChunk call() {
+            RecordTokenizer tokenizer = new RecordTokenizer();
+            tokenizer.inField = chunk.inField;
+            int pos = chunk.from;
+            int row = 0;
+            try {
+                while (pos < chunk.to) {
+                    boolean inField = tokenizer.inField;
+                    int end = tokenizer.findRecordEnd(chunk.bytes, pos, chunk.to, true);
+                    String[] line = tokenizer.tokenize(chunk.bytes, pos, end, inField);
+                    if (line == null || line.length != headerLength) {
+                        result.stopped = true;
+                        break;
+                    }
+                    parseRow(line, row++);
+                    pos = end;
+                }
+            } catch (Exception e) {
+                // Raised when merging the chunk, so it is ignored if loading stops at a previous chunk
+                result.error = e;
+            }
+            return result;
+        }
+
+        void parseRow(String[] line, int row) throws Exception {
+            for (int c = 0; c < columnIdxs.length; c++) {
+                String valueStr = line[columnIdxs[c]];
+                if (StringUtils.isBlank(valueStr)) {
+                    result.nulls[c].set(row);
+                }
+                else if (ColumnType.NUMBER.equals(columnTypes[c])) {
+                    ((double[]) result.values[c])[row] = parseNumber(c, valueStr);
+                }
+                else if (ColumnType.DATE.equals(columnTypes[c])) {
+                    ((long[]) result.values[c])[row] = parseDate(c, valueStr);
+                }
+                else {
+                    ((String[]) result.values[c])[row] = valueStr;
+                }
+            }
+            result.rows = row + 1;
+        }
+
+        double parseNumber(int c, String value) throws Exception {
+            if (!initialized[c]) {
+                numberFormats[c] = createNumberFormat(columnIds[c]);
+                numberParsers[c] = FastNumberParser.create(numberFormats[c]);
+                initialized[c] = true;
+            }
+            if (numberParsers[c] != null) {
+                double number = numberParsers[c].parse(value);
+                if (!Double.isNaN(number)) {
+                    return number;
+                }
+            }
+            try {
+                return numberFormats[c].parse(value).doubleValue();
+            } catch (ParseException e) {
+                throw parseValueError(value, e);
+            }
+        }
+
+        long parseDate(int c, String value) throws Exception {
+            if (!initialized[c]) {
+                String pattern = dataSetDef.getPattern(columnIds[c]);
+                epochDates[c] = pattern != null && DATE_FORMAT_EPOCH.equalsIgnoreCase(pattern);
+                if (!epochDates[c]) {
+                    dateFormats[c] = createDateFormat(columnIds[c]);
+                    dateParsers[c] = FastDateParser.create(dataSetDef.getDatePattern(columnIds[c]));
+                }
+                initialized[c] = true;
+            }
+            // Handle special date pattern "epoch"
+            if (epochDates[c]) {
+                Double _epoch = Double.parseDouble(value);
+                return _epoch.longValue() * 1000;
+            }
+            if (dateParsers[c] != null) {
+                long time = dateParsers[c].parse(value);
+                if (time != Long.MIN_VALUE) {
+                    return time;
+                }
+            }
+            try {
+                return dateFormats[c].parse(value).getTime();
+            } catch (ParseException e) {
+                throw parseValueError(value, e);
+            }
+        }
+    }
+}
@@ -185,15 +185,19 @@ public class CSVParser {
                 return value;
             }
         } catch (ParseException e) {
-            String msg = "Error parsing value: " + value + ", " + e.getMessage() + ". Check column\u0027s data type consistency!";
-            throw new Exception(msg);
+            throw parseValueError(value, e);
         }
     }
 
+    protected Exception parseValueError(String value, ParseException e) {
+        String msg = "Error parsing value: " + value + ", " + e.getMessage() + ". Check column\u0027s data type consistency!";
+        return new Exception(msg);
+    }
+
     protected DateFormat getDateFormat(String columnId) {
         DateFormat format = _dateFormatMap.get(columnId);
         if (format == null) {
-            format = new SimpleDateFormat(dataSetDef.getDatePattern(columnId));
+            format = createDateFormat(columnId);
             _dateFormatMap.put(columnId, format);
         }
         return format;
@@ -202,12 +206,20 @@ public class CSVParser {
     protected DecimalFormat getNumberFormat(String columnId) {
         DecimalFormat format = _numberFormatMap.get(columnId);
         if (format == null) {
-            DecimalFormatSymbols numberSymbols = new DecimalFormatSymbols();
-            numberSymbols.setGroupingSeparator(dataSetDef.getNumberGroupSeparator(columnId));
-            numberSymbols.setDecimalSeparator(dataSetDef.getNumberDecimalSeparator(columnId));
-            format = new DecimalFormat(dataSetDef.getNumberPattern(columnId), numberSymbols);
+            format = createNumberFormat(columnId);
             _numberFormatMap.put(columnId, format);
         }
         return format;
     }
+
+    protected DateFormat createDateFormat(String columnId) {
+        return new SimpleDateFormat(dataSetDef.getDatePattern(columnId));
+    }
+
+    protected DecimalFormat createNumberFormat(String columnId) {
+        DecimalFormatSymbols numberSymbols = new DecimalFormatSymbols();
+        numberSymbols.setGroupingSeparator(dataSetDef.getNumberGroupSeparator(columnId));
+        numberSymbols.setDecimalSeparator(dataSetDef.getNumberDecimalSeparator(columnId));
+        return new DecimalFormat(dataSetDef.getNumberPattern(columnId), numberSymbols);
+    }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.csv;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Parses dates made up of numeric fields only (years, months, days, hours, minutes, seconds & milliseconds)
+ * without going through {@link SimpleDateFormat}. The parsed fields are set into a (lenient) calendar just like
+ * {@link SimpleDateFormat} does, so the resulting time is always the same. Values not fully matching the pattern
+ * are reported as {@link Long#MIN_VALUE}, so callers must then fall back to the date format.
+ *
+ * <p>Instances are not thread safe.</p>
+ */
+public class FastDateParser {
+
+    // A field is never parsed from more digits than those that fit into an int
+    private static final int MAX_FIELD_DIGITS = 9;
+
+    private List<Segment> segments;
+    private Calendar calendar = Calendar.getInstance();
+
+    protected FastDateParser(List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Creates a parser for the given {@link SimpleDateFormat} pattern.
+     * @return The parser or null if the pattern contains any non supported field (text fields, 2-digit years, ...)
+     */
+    public static FastDateParser create(String pattern) {
+        if (pattern == null) {
+            return null;
+        }
+        List<Segment> segments = new ArrayList<Segment>();
+        StringBuilder literal = new StringBuilder();
+        int length = pattern.length();
+        for (int i = 0; i < length; i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                // Quoted text. Two single quotes stand for a single quote.
+                if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+                    literal.append('\'');
+                    i++;
+                    continue;
+                }
+                int end = i + 1;
+                while (true) {
+                    if (end >= length) return null;
+                    if (pattern.charAt(end) == '\'') {
+                        if (end + 1 < length && pattern.charAt(end + 1) == '\'') {
+                            literal.append('\'');
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    literal.append(pattern.charAt(end++));
+                }
+                i = end;
+            }
+            else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int count = 1;
+                while (i + count < length && pattern.charAt(i + count) == c) count++;
+                int field = getCalendarField(c, count);
+                if (field < 0) {
+                    return null;
+                }
+                if (literal.length() > 0) {
+                    segments.add(new Segment(literal.toString()));
+                    literal.setLength(0);
+                }
+                segments.add(new Segment(field, count));
+                i += count - 1;
+            }
+            else {
+                literal.append(c);
+            }
+        }
+        if (literal.length() > 0) {
+            segments.add(new Segment(literal.toString()));
+        }
+        // Abutting fields, like in "yyyyMMdd", are parsed from a fixed number of digits
+        for (int i = 0; i < segments.size() - 1; i++) {
+            Segment segment = segments.get(i);
+            if (segment.field >= 0 && segments.get(i + 1).field >= 0) {
+                segment.fixedWidth = true;
+            }
+        }
+        return new FastDateParser(segments);
+    }
+
+    private static int getCalendarField(char c, int count) {
+        switch (c) {
+            case 'y': return count > 2 ? Calendar.YEAR : -1;
+            case 'M': return count <= 2 ? Calendar.MONTH : -1;
+            case 'd': return Calendar.DAY_OF_MONTH;
+            case 'H': return Calendar.HOUR_OF_DAY;
+            case 'm': return Calendar.MINUTE;
+            case 's': return Calendar.SECOND;
+            case 'S': return Calendar.MILLISECOND;
+            default: return -1;
+        }
+    }
+
+    /**
+     * @return The time in milliseconds or {@link Long#MIN_VALUE} if the value doesn't match the pattern.
+     */
+    public long parse(String value) {
+        calendar.clear();
+        int length = value.length();
+        int pos = 0;
+        for (Segment segment : segments) {
+            if (segment.literal != null) {
+                if (!value.startsWith(segment.literal, pos)) {
+                    return Long.MIN_VALUE;
+                }
+                pos += segment.literal.length();
+            } else {
+                int maxDigits = segment.fixedWidth ? segment.count : MAX_FIELD_DIGITS;
+                int start = pos;
+                int number = 0;
+                while (pos < length && pos - start < maxDigits) {
+                    char c = value.charAt(pos);
+                    if (c < '0' || c > '9') break;
+                    number = number * 10 + (c - '0');
+                    pos++;
+                }
+                int digits = pos - start;
+                if (digits == 0 || (segment.fixedWidth && digits != segment.count)) {
+                    return Long.MIN_VALUE;
+                }
+                if (!segment.fixedWidth && pos < length && Character.isDigit(value.charAt(pos))) {
+                    return Long.MIN_VALUE;
+                }
+                calendar.set(segment.field, segment.field == Calendar.MONTH ? number - 1 : number);
+            }
+        }
+        if (pos != length) {
+            return Long.MIN_VALUE;
+        }
+        return calendar.getTimeInMillis();
+    }
+
+    private static class Segment {
+
+        String literal;
+        int field = -1;
+        int count;
+        boolean fixedWidth = false;
+
+        Segment(String literal) {
+            this.literal = literal;
+        }
+
+        Segment(int field, int count) {
+            this.field = field;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.csv;
+
+import java.text.DecimalFormat;
+
+/**
+ * Parses plain decimal numbers (an optional minus sign, digits, grouping separators and a decimal separator)
+ * without going through {@link DecimalFormat}. The result is always the same as the one returned by the
+ * decimal format the parser is created from. Values it doesn't understand (exponents, currency symbols, trailing
+ * characters, ...) are reported as {@link Double#NaN}, so callers must then fall back to the decimal format.
+ *
+ * <p>Instances are not thread safe.</p>
+ */
+public class FastNumberParser {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    // Doubles represent exactly any integer up to 2^53, so any number with up to 15 digits
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private char decimalSeparator;
+    private char groupingSeparator;
+    private boolean groupingUsed;
+    private StringBuilder buffer = new StringBuilder();
+
+    protected FastNumberParser(char decimalSeparator, char groupingSeparator, boolean groupingUsed) {
+        this.decimalSeparator = decimalSeparator;
+        this.groupingSeparator = groupingSeparator;
+        this.groupingUsed = groupingUsed;
+    }
+
+    /**
+     * Creates a parser equivalent to the given format.
+     * @return The parser or null if the format parses numbers in a way not supported (percentages, prefixes, ...)
+     */
+    public static FastNumberParser create(DecimalFormat format) {
+        if (format.getMultiplier() != 1
+                || format.isParseBigDecimal()
+                || format.isParseIntegerOnly()
+                || !format.getPositivePrefix().isEmpty()
+                || !format.getPositiveSuffix().isEmpty()
+                || !"-".equals(format.getNegativePrefix())
+                || !format.getNegativeSuffix().isEmpty()) {
+            return null;
+        }
+        char decimalSeparator = format.getDecimalFormatSymbols().getDecimalSeparator();
+        char groupingSeparator = format.getDecimalFormatSymbols().getGroupingSeparator();
+        if (!isSeparator(decimalSeparator) || !isSeparator(groupingSeparator) || decimalSeparator == groupingSeparator) {
+            return null;
+        }
+        return new FastNumberParser(decimalSeparator, groupingSeparator, format.isGroupingUsed());
+    }
+
+    private static boolean isSeparator(char c) {
+        return c != '-' && (c < '0' || c > '9');
+    }
+
+    /**
+     * @return The number or {@link Double#NaN} if the value is not a plain decimal number.
+     */
+    public double parse(String value) {
+        int length = value.length();
+        int i = 0;
+        boolean negative = length > 0 && value.charAt(0) == '-';
+        if (negative) i++;
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean sawDigit = false;
+        boolean sawDecimal = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sawDigit = true;
+                if (sawDecimal) fractionDigits++;
+                if (mantissa == 0 && c == '0') continue; // leading zeros
+                if (++digits <= MAX_EXACT_DIGITS) mantissa = mantissa * 10 + (c - '0');
+            }
+            else if (c == decimalSeparator && !sawDecimal) {
+                sawDecimal = true;
+            }
+            else if (c != groupingSeparator || !groupingUsed || sawDecimal) {
+                return Double.NaN;
+            }
+        }
+        if (!sawDigit) {
+            return Double.NaN;
+        }
+        double result;
+        if (digits <= MAX_EXACT_DIGITS && fractionDigits < POWERS_OF_TEN.length) {
+            // A single correctly rounded operation on exact operands
+            result = fractionDigits == 0 ? (double) mantissa : mantissa / POWERS_OF_TEN[fractionDigits];
+        } else {
+            result = Double.parseDouble(toPlainNumber(value, negative ? 1 : 0));
+        }
+        return negative ? -result : result;
+    }
+
+    private String toPlainNumber(String value, int from) {
+        buffer.setLength(0);
+        for (int i = from; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == decimalSeparator) buffer.append('.');
+            else if (c != groupingSeparator) buffer.append(c);
+        }
+        return buffer.toString();
+    }
+}
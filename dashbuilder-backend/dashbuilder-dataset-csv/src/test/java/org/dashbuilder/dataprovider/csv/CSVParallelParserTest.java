@@ -0,0 +1,179 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.csv;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.def.CSVDataSetDef;
+import org.dashbuilder.dataset.def.DataSetDefFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CSVParallelParserTest {
+
+    private final CSVDataSetDef csvDataSet = (CSVDataSetDef) DataSetDefFactory.newCSVDataSetDef()
+            .separatorChar(';')
+            .quoteChar('"')
+            .escapeChar('\\')
+            .datePattern("MM-dd-yyyy HH:mm")
+            .numberPattern("#,###.##")
+            .buildDef();
+
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void sameResultAsSequentialParser() throws Exception {
+        String csv = "id;city;amount;date;notes\n"
+                + "1;Barcelona;1,100.10;12-11-2012 10:30;plain\n"
+                + "2;\"Madrid\";-120.35;01-01-2013 00:00;\"with \"\"doubled\"\" quotes\"\r\n"
+                + "3;\"Lon;don\";0.5;02-28-2014 23:59;\"multi\nline\"\n"
+                + "4;Paris;;;\r"
+                + "5;\"Ber\\\"lin\";7;3-5-2015 1:2;C:\\dir\\file\n"
+                + "6;Roma;1.2e3;12-11-2012 10:30pm;a\"b\n"
+                + "7;Zürich;12345678901234567890.5;12-11-2012;\"\"\n"
+                + "8;Oslo;  42;12-11-2012 10:30;last";
+
+        for (int chunkSize : new int[] {1, 8, 32, 1024}) {
+            assertSameDataSet(loadSequential(csv), loadParallel(csv, chunkSize));
+        }
+    }
+
+    @Test
+    public void sameResultOnLargeContent() throws Exception {
+        StringBuilder csv = new StringBuilder("id;office;amount;date;notes\n");
+        Random random = new Random(1);
+        for (int i = 0; i < 5000; i++) {
+            csv.append(i).append(';')
+                    .append("\"Office ").append(random.nextInt(50)).append("\";")
+                    .append(random.nextInt(100000)).append('.').append(random.nextInt(100)).append(';')
+                    .append(1 + random.nextInt(12)).append('-').append(1 + random.nextInt(28)).append("-20")
+                    .append(10 + random.nextInt(10)).append(' ').append(random.nextInt(24)).append(":0").append(random.nextInt(10)).append(';')
+                    .append(random.nextInt(10) == 0 ? "\"Notes; \"\"quoted\"\"\"" : "")
+                    .append('\n');
+        }
+        DataSet expected = loadSequential(csv.toString());
+        assertEquals(5000, expected.getRowCount());
+        assertSameDataSet(expected, loadParallel(csv.toString(), 4096));
+    }
+
+    @Test
+    public void stopAtFirstRecordNotMatchingTheHeader() throws Exception {
+        String csv = "id;city\n1;Barcelona\n2;Madrid\n3\n4;London\n";
+
+        DataSet dataSet = loadParallel(csv, 8);
+        assertEquals(2, dataSet.getRowCount());
+        assertSameDataSet(loadSequential(csv), dataSet);
+    }
+
+    @Test
+    public void parseErrorsAreRaised() throws Exception {
+        String csv = "id;amount\n1;10\n2;20\n3;30\n4;wrong\n";
+        try {
+            loadParallel(csv, 8);
+            fail("Invalid numbers must raise an error");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().startsWith("Error parsing value: wrong"));
+        }
+    }
+
+    @Test
+    public void numbersParsedAsDecimalFormat() throws Exception {
+        DecimalFormatSymbols symbols = new DecimalFormatSymbols();
+        symbols.setGroupingSeparator(',');
+        symbols.setDecimalSeparator('.');
+        DecimalFormat format = new DecimalFormat("#,###.##", symbols);
+        FastNumberParser parser = FastNumberParser.create(format);
+        assertNotNull(parser);
+
+        String[] values = {"0", "-0", "1", "-1", "0.1", "1,100.10", "-120.35", ".5", "5.", "00012", "1,2,3",
+                "0.000000000000000000000001", "12345678901234567890.5", "9007199254740993", "3.141592653589793238"};
+        for (String value : values) {
+            assertEquals(value, format.parse(value).doubleValue(), parser.parse(value), 0d);
+            assertEquals(value, Double.doubleToLongBits(format.parse(value).doubleValue()), Double.doubleToLongBits(parser.parse(value)));
+        }
+        String[] notSupported = {"", "-", ".", ",", "1e5", "1.2.3", "1.2,3", "+1", " 1", "1 ", "--1"};
+        for (String value : notSupported) {
+            assertTrue(value, Double.isNaN(parser.parse(value)));
+        }
+        assertNull(FastNumberParser.create(new DecimalFormat("#%")));
+    }
+
+    @Test
+    public void datesParsedAsSimpleDateFormat() throws Exception {
+        String[][] cases = {
+                {"MM-dd-yyyy", "12-11-2012"},
+                {"MM-dd-yyyy", "1-5-2012"},
+                {"MM-dd-yyyy", "13-40-2012"},
+                {"yyyy-MM-dd HH:mm:ss.SSS", "2016-03-27 02:30:15.250"},
+                {"yyyyMMdd", "20161030"},
+                {"yyyy-MM-dd'T'HH:mm", "2016-10-30T02:30"},
+                {"dd/MM/yyyy", "29/02/2016"}};
+        for (String[] c : cases) {
+            FastDateParser parser = FastDateParser.create(c[0]);
+            assertNotNull(c[0], parser);
+            Date expected = new SimpleDateFormat(c[0]).parse(c[1]);
+            assertEquals(c[0] + " " + c[1], expected.getTime(), parser.parse(c[1]));
+        }
+        FastDateParser parser = FastDateParser.create("MM-dd-yyyy");
+        assertEquals(Long.MIN_VALUE, parser.parse("12-11-2012 10:30"));
+        assertEquals(Long.MIN_VALUE, parser.parse("12/11/2012"));
+        assertEquals(Long.MIN_VALUE, parser.parse("12-11-"));
+        assertNull(FastDateParser.create("dd-MMM-yyyy"));
+        assertNull(FastDateParser.create("MM-dd-yy"));
+    }
+
+    private DataSet loadSequential(String csv) throws Exception {
+        return new CSVParser(csvDataSet, new CSVParserTest.MockCSVFileStorage(csv)).load();
+    }
+
+    private DataSet loadParallel(String csv, int chunkSize) throws Exception {
+        return new CSVParallelParser(csvDataSet, new CSVParserTest.MockCSVFileStorage(csv), pool, chunkSize).load();
+    }
+
+    private void assertSameDataSet(DataSet expected, DataSet actual) {
+        assertEquals(expected.getRowCount(), actual.getRowCount());
+        assertEquals(expected.getColumns().size(), actual.getColumns().size());
+        for (int c = 0; c < expected.getColumns().size(); c++) {
+            DataColumn expectedColumn = expected.getColumnByIndex(c);
+            DataColumn actualColumn = actual.getColumnByIndex(c);
+            assertEquals(expectedColumn.getId(), actualColumn.getId());
+            assertEquals(expectedColumn.getColumnType(), actualColumn.getColumnType());
+            for (int r = 0; r < expected.getRowCount(); r++) {
+                assertEquals(expectedColumn.getId() + "[" + r + "]", expected.getValueAt(r, c), actual.getValueAt(r, c));
+            }
+        }
+    }
+}
@@ -57,9 +57,9 @@ public class ElasticSearchClientFactory {
 
         client.serverURL(serverURL).clusterName(clusterName);
 
-        String[] indexes = ElasticSearchDataSetProvider.fromString(elasticSearchDataSetDef.getIndex());
+        String[] indexes = ElasticSearchUtils.fromString(elasticSearchDataSetDef.getIndex());
         if (indexes != null && indexes.length > 0) client.index(indexes);
-        String[] types  = ElasticSearchDataSetProvider.fromString(elasticSearchDataSetDef.getType());
+        String[] types  = ElasticSearchUtils.fromString(elasticSearchDataSetDef.getType());
         if (types != null && types.length > 0) client.type(types);
         
         return client;
@@ -17,13 +17,16 @@ package org.dashbuilder.dataprovider.backend.elasticsearch;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataprovider.DataSetBatchProvider;
 import org.dashbuilder.dataprovider.DataSetProvider;
 import org.dashbuilder.dataprovider.DataSetProviderType;
 import org.dashbuilder.dataprovider.StaticDataSetProvider;
 import org.dashbuilder.dataprovider.backend.elasticsearch.rest.ElasticSearchClient;
+import org.dashbuilder.dataprovider.backend.elasticsearch.rest.impl.NativeClientPool;
 import org.dashbuilder.dataprovider.backend.elasticsearch.rest.model.*;
 import org.dashbuilder.dataprovider.backend.elasticsearch.rest.util.ElasticSearchUtils;
 import org.dashbuilder.dataset.*;
+import org.dashbuilder.dataset.columnar.ColumnarDataSet;
 import org.dashbuilder.dataset.date.DayOfWeek;
 import org.dashbuilder.dataset.date.Month;
 import org.dashbuilder.dataset.def.*;
@@ -39,11 +42,15 @@ import org.dashbuilder.dataset.impl.DataSetMetadataImpl;
 import org.dashbuilder.dataset.impl.MemSizeEstimator;
 import org.dashbuilder.dataset.sort.ColumnSort;
 import org.dashbuilder.dataset.sort.DataSetSort;
+import org.dashbuilder.scheduler.Scheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
 
 /**
  * <p>Data provider for an ElasticSearch server.</p>
@@ -104,7 +111,7 @@ import java.util.*;
  * @since 0.3.0
  * 
  */
-public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDefRegistryListener {
+public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetBatchProvider, DataSetDefRegistryListener {
 
     private static final String GROUPING_FUNCTION_NON_EXISTING_COLUMN = "Grouping function by a non existing column [";
     private static final String IN_DATASET = "] in dataset ";
@@ -114,6 +121,9 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
 
     private static ElasticSearchDataSetProvider SINGLETON = null;
 
+    /** Default period of the native clients health check. **/
+    public static final long HEALTH_CHECK_SECONDS = 60;
+
     public static ElasticSearchDataSetProvider get() {
         if (SINGLETON == null) {
 
@@ -128,6 +138,7 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
                     intervalBuilderDynamicDate);
 
             dataSetDefRegistry.addListener(SINGLETON);
+            SINGLETON.scheduleHealthCheck(dataSetCore.getScheduler(), HEALTH_CHECK_SECONDS);
         }
         return SINGLETON;
     }
@@ -140,11 +151,13 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
     protected ElasticSearchClientFactory clientFactory;
     protected ElasticSearchValueTypeMapper typeMapper;
     protected ElasticSearchQueryBuilderFactory queryBuilderFactory;
+    protected int bulkLoadBatchSize = 1000;
+    protected Scheduler healthCheckScheduler;
 
     /** Backend cache map. **/
     protected final Map<String,DataSetMetadata> _metadataMap = new HashMap<String,DataSetMetadata>();
 
-    /** Singleton clients for each data set definition.. **/
+    /** Singleton clients for each data set definition (they all share the native client of their cluster). **/
     protected final Map<String,ElasticSearchClient> _clientsMap = new HashMap<String,ElasticSearchClient>();
 
     public ElasticSearchDataSetProvider() {
@@ -164,11 +177,38 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
         this.queryBuilderFactory = new ElasticSearchQueryBuilderFactory(typeMapper, searchUtils);
     }
 
-    public void destroy() {
+    public int getBulkLoadBatchSize() {
+        return bulkLoadBatchSize;
+    }
+
+    /**
+     * Number of documents to fetch from the server on every round trip when loading a data set into the cache.
+     */
+    public void setBulkLoadBatchSize(int bulkLoadBatchSize) {
+        this.bulkLoadBatchSize = bulkLoadBatchSize;
+    }
+
+    /**
+     * Check the connection of the native clients to their clusters every given number of seconds, so broken
+     * clients get replaced before any request fails.
+     */
+    public synchronized void scheduleHealthCheck(Scheduler scheduler, long seconds) {
+        if (seconds > 0) {
+            NativeClientPool.getInstance().scheduleHealthCheck(scheduler, seconds);
+            healthCheckScheduler = scheduler;
+        }
+    }
+
+    public synchronized void destroy() {
+        if (healthCheckScheduler != null) {
+            NativeClientPool.getInstance().unscheduleHealthCheck(healthCheckScheduler);
+            healthCheckScheduler = null;
+        }
         // Destroy all clients.
         for (ElasticSearchClient client : _clientsMap.values()) {
             destroyClient(client);
         }
+        _clientsMap.clear();
     }
 
     public DataSetProviderType getType() {
@@ -193,7 +233,7 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
                     return _lookupDataSet(elDef, lookup);
                 }
                 // Fetch from EL server and register into the static cache. Further requests will lookup from cache.
-                dataSet = _lookupDataSet(elDef, null);
+                dataSet = _loadDataSet(elDef, (int) rows);
                 dataSet.setUUID(def.getUUID());
                 dataSet.setDefinition(def);
                 staticDataSetProvider.registerDataSet(dataSet);
@@ -205,10 +245,103 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
         return _lookupDataSet(elDef, lookup);
     }
 
+    public boolean isBatchLookup(DataSetDef def, DataSetLookup lookup) {
+        // Lookups on cached data sets are resolved in memory
+        return !((ElasticSearchDataSetDef) def).isCacheEnabled();
+    }
+
+    /**
+     * Lookups on non cached data sets are sent to the server as a single multi search request per cluster,
+     * so a dashboard displaying several ElasticSearch data sets costs just one round trip. The requests to
+     * the different clusters are all issued before waiting for any of them.
+     */
+    public List<DataSet> lookupDataSets(List<DataSetDef> defs, List<DataSetLookup> lookups) throws Exception {
+        DataSet[] result = new DataSet[defs.size()];
+        DataSetMetadata[] metadata = new DataSetMetadata[defs.size()];
+        SearchRequest[] requests = new SearchRequest[defs.size()];
+
+        // Group the searches by cluster.
+        Map<String, List<Integer>> clusterMap = new LinkedHashMap<String, List<Integer>>();
+        for (int i = 0; i < defs.size(); i++) {
+            ElasticSearchDataSetDef elDef = (ElasticSearchDataSetDef) defs.get(i);
+            DataSetLookup lookup = lookups.get(i);
+            if (elDef.isCacheEnabled()) {
+                result[i] = lookupDataSet(elDef, lookup);
+                continue;
+            }
+            metadata[i] = getDataSetMetadata(elDef, lookup.testMode());
+            requests[i] = _buildSearchRequest(elDef, metadata[i], lookup);
+
+            // Same key as the client pool, so each group runs on a single shared client
+            String clusterKey = NativeClientPool.getKey(elDef.getServerURL(), elDef.getClusterName(), getClient(elDef).getTimeout());
+            List<Integer> searches = clusterMap.get(clusterKey);
+            if (searches == null) {
+                searches = new ArrayList<Integer>();
+                clusterMap.put(clusterKey, searches);
+            }
+            searches.add(i);
+        }
+
+        List<CompletableFuture<SearchResponse[]>> clusterResponses = new ArrayList<CompletableFuture<SearchResponse[]>>();
+        for (List<Integer> searches : clusterMap.values()) {
+            int n = searches.size();
+            ElasticSearchDataSetDef[] _defs = new ElasticSearchDataSetDef[n];
+            DataSetMetadata[] _metadata = new DataSetMetadata[n];
+            SearchRequest[] _requests = new SearchRequest[n];
+            for (int k = 0; k < n; k++) {
+                int i = searches.get(k);
+                _defs[k] = (ElasticSearchDataSetDef) defs.get(i);
+                _metadata[k] = metadata[i];
+                _requests[k] = requests[i];
+            }
+
+            clusterResponses.add(n == 1
+                    ? getClient(_defs[0]).searchAsync(_defs[0], _metadata[0], _requests[0]).thenApply(new Function<SearchResponse, SearchResponse[]>() {
+                        public SearchResponse[] apply(SearchResponse response) {
+                            return new SearchResponse[] {response};
+                        }
+                    })
+                    : getClient(_defs[0]).multiSearchAsync(_defs, _metadata, _requests));
+        }
+
+        int c = 0;
+        for (List<Integer> searches : clusterMap.values()) {
+            SearchResponse[] responses = await(clusterResponses.get(c++));
+            for (int k = 0; k < searches.size(); k++) {
+                int i = searches.get(k);
+                result[i] = _buildDataSet((ElasticSearchDataSetDef) defs.get(i), metadata[i], lookups.get(i), requests[i], responses[k]);
+            }
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Wait for the given future, unwrapping the cause of its failure.
+     */
+    protected static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
     protected DataSet _lookupDataSet(ElasticSearchDataSetDef elDef, DataSetLookup lookup) throws Exception {
         final boolean isTestMode = lookup != null && lookup.testMode();
         DataSetMetadata metadata = (DataSetMetadata) getDataSetMetadata(elDef, isTestMode);
+        SearchRequest request = _buildSearchRequest(elDef, metadata, lookup);
+
+        ElasticSearchClient client = getClient(elDef);
+        SearchResponse searchResponse = client.search(elDef, metadata, request);
+        return _buildDataSet(elDef, metadata, lookup, request, searchResponse);
+    }
 
+    /**
+     * Builds the search request for the given lookup.
+     */
+    protected SearchRequest _buildSearchRequest(ElasticSearchDataSetDef elDef, DataSetMetadata metadata, DataSetLookup lookup) {
         // Add the data set filter specified in the definition, if any.
         DataSetFilter dataSetFilter = elDef.getDataSetFilter();
         if (dataSetFilter != null) {
@@ -267,6 +400,11 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
             if (exitsFunction) {
                 // Use the main group operation as a request aggregation.
                 request.setAggregations(Collections.singletonList(_groupOp));
+
+                // No row limits for the resulting buckets.
+                if (!trim) {
+                    request.setSize(-1);
+                }
             }
 
         }
@@ -340,15 +478,18 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
 
         // Set the sorting operations, if any, into the ELS request.
         request.setSorting(sortOps);
+        return request;
+    }
 
+    /**
+     * Builds the resulting data set of a lookup from the response of its search request.
+     */
+    protected DataSet _buildDataSet(ElasticSearchDataSetDef elDef, DataSetMetadata metadata, DataSetLookup lookup,
+                                    SearchRequest request, SearchResponse searchResponse) throws Exception {
 
-        // Perform the query & generate the resulting dataset.
         DataSet dataSet = DataSetFactory.newEmptyDataSet();
         dataSet.setColumns(request.getColumns());
 
-        ElasticSearchClient client = getClient(elDef);
-        SearchResponse searchResponse = client.search(elDef, metadata, request);
-
         // If there are no results, return an empty data set.
         if (searchResponse instanceof EmptySearchResponse) return dataSet;
 
@@ -358,6 +499,11 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
         // Post process the data set for supporting extended features.
         postProcess(metadata, dataSet);
 
+        int numRows = lookup.getNumberOfRows();
+        boolean trim = (numRows > 0);
+        if (trim && !request.getAggregations().isEmpty()) {
+            return trimBuckets(dataSet, lookup.getRowOffset(), numRows, searchResponse.getTotalBuckets());
+        }
         if (trim) {
             int totalRows = (int) searchResponse.getTotalHits();
             totalRows = lookup.getNumberOfRows() > dataSet.getRowCount() ? dataSet.getRowCount() : totalRows;
@@ -366,6 +512,72 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
         return dataSet;
     }
 
+    /**
+     * Reads all the documents of the data set in order to register them into the static cache. Documents are pulled
+     * from a scroll cursor in batches of {@link #getBulkLoadBatchSize()} and appended to a columnar data set as they
+     * arrive, so neither the server nor the provider has to hold the whole response at once.
+     *
+     * @param elDef The data set definition.
+     * @param expectedRows The number of documents expected, used to size the data set columns in advance.
+     */
+    protected DataSet _loadDataSet(ElasticSearchDataSetDef elDef, final int expectedRows) throws Exception {
+        DataSetMetadata metadata = getDataSetMetadata(elDef, false);
+
+        SearchRequest request = new SearchRequest(metadata);
+        request.setColumns(getAllColumns(metadata));
+
+        // Add the data set filter specified in the definition, if any.
+        DataSetFilter dataSetFilter = elDef.getDataSetFilter();
+        if (dataSetFilter != null) {
+            Query query = queryBuilderFactory.newQueryBuilder().metadata(metadata)
+                    .filter(Collections.singletonList(dataSetFilter)).build();
+            request.setQuery(query);
+        }
+
+        // Keep the cached rows in the default order specified on the data set definition, if any.
+        if (elDef.getColumnSort() != null) {
+            DataSetSort defaultSort = new DataSetSort();
+            defaultSort.addSortColumn(elDef.getColumnSort());
+            request.setSorting(Collections.singletonList(defaultSort));
+        }
+
+        final ColumnarDataSet dataSet = new ColumnarDataSet(expectedRows);
+        ElasticSearchClient client = getClient(elDef);
+        client.scroll(elDef, metadata, request, bulkLoadBatchSize, new DataSetRowHandler() {
+
+            public void columns(List<DataColumn> columns) {
+                for (DataColumn column : columns) {
+                    dataSet.addColumn(column.getId(), column.getColumnType(), null);
+                }
+            }
+
+            public void row(Object[] values) {
+                for (int i = 0; i < values.length; i++) {
+                    dataSet.getColumnByIndex(i).add(values[i]);
+                }
+            }
+        });
+
+        dataSet.trimToSize();
+        return dataSet;
+    }
+
+    /**
+     * Applies the lookup row limits on the rows of an aggregated data set (one per bucket). Terms aggregations
+     * just return the first <code>rowOffset + numRows</code> buckets, so if exactly such number of rows is
+     * returned there might be more, and the (approximate) count of terms is taken as the total.
+     *
+     * @param totalBuckets The number of buckets counted apart, or <code>-1</code> if all the buckets are returned.
+     */
+    protected DataSet trimBuckets(DataSet dataSet, int rowOffset, int numRows, long totalBuckets) {
+        int buckets = dataSet.getRowCount();
+        int totalRows = buckets == rowOffset + numRows ? (int) Math.max(buckets, totalBuckets) : buckets;
+
+        DataSet result = rowOffset < buckets ? dataSet.trim(rowOffset, numRows) : dataSet.cloneEmpty();
+        result.setRowCountNonTrimmed(totalRows);
+        return result;
+    }
+
     protected ColumnFilter _getIntervalSelectionFilter(DataSetGroup intervalSel) {
         ColumnFilter filter = null;
         if (intervalSel != null && intervalSel.isSelect()) {
@@ -555,8 +767,8 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
         }
 
         // Data Set parameters.
-        String[] index = fromString(elasticSearchDataSetDef.getIndex());
-        String[] type = fromString(elasticSearchDataSetDef.getType());
+        String[] index = ElasticSearchUtils.fromString(elasticSearchDataSetDef.getIndex());
+        String[] type = ElasticSearchUtils.fromString(elasticSearchDataSetDef.getType());
 
         // Get the row count.
         long rowCount = getRowCount(elasticSearchDataSetDef);
@@ -842,8 +1054,8 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
     }
 
     protected long getRowCount(ElasticSearchDataSetDef elasticSearchDataSetDef) throws Exception {
-        String[] index = fromString(elasticSearchDataSetDef.getIndex());
-        String[] type = fromString(elasticSearchDataSetDef.getType());
+        String[] index = ElasticSearchUtils.fromString(elasticSearchDataSetDef.getIndex());
+        String[] type = ElasticSearchUtils.fromString(elasticSearchDataSetDef.getType());
 
         ElasticSearchClient client = getClient(elasticSearchDataSetDef);
         CountResponse response = client.count(index, type);
@@ -851,7 +1063,7 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
         return 0;
     }
 
-    private ElasticSearchClient getClient(ElasticSearchDataSetDef def) {
+    private synchronized ElasticSearchClient getClient(ElasticSearchDataSetDef def) {
         ElasticSearchClient client = _clientsMap.get(def.getUUID());
         if (client == null) {
             client = clientFactory.newClient(def);
@@ -860,7 +1072,7 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
         return client;
     }
 
-    private ElasticSearchClient destroyClient(String uuid) {
+    private synchronized ElasticSearchClient destroyClient(String uuid) {
         ElasticSearchClient client = _clientsMap.get(uuid);
         if (client != null) {
             _clientsMap.remove(uuid);
@@ -912,12 +1124,12 @@ public class ElasticSearchDataSetProvider implements DataSetProvider, DataSetDef
         staticDataSetProvider.removeDataSet(uuid);
     }
 
+    /**
+     * @deprecated Use {@link ElasticSearchUtils#fromString(String)} instead.
+     */
+    @Deprecated
     public static String[] fromString(String str) {
-        if (str == null) return null;
-        if (str.trim().length() == 0) return new String[] {""};
-
-
-        return str.split(COMMA);
+        return ElasticSearchUtils.fromString(str);
     }
 
     public static String toString(String[] array) {
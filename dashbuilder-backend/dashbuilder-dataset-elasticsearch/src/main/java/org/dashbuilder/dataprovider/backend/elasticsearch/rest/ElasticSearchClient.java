@@ -21,9 +21,11 @@ import org.dashbuilder.dataprovider.backend.elasticsearch.rest.model.MappingsRes
 import org.dashbuilder.dataprovider.backend.elasticsearch.rest.model.SearchRequest;
 import org.dashbuilder.dataprovider.backend.elasticsearch.rest.model.SearchResponse;
 import org.dashbuilder.dataset.DataSetMetadata;
+import org.dashbuilder.dataset.DataSetRowHandler;
 import org.dashbuilder.dataset.def.ElasticSearchDataSetDef;
 
 import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * <p>This is the contract for a JBoss Dashbuilder REST client for ElasticSearch servers.</p>
@@ -71,6 +73,11 @@ public interface ElasticSearchClient<T extends ElasticSearchClient> extends Clos
      * @param timeout The timeout value in miliseconds.
      */
     T setTimeout(int timeout);
+
+    /**
+     * @return The timeout value in miliseconds.
+     */
+    long getTimeout();
     
     /**
      * Obtain the mappings for a given index/es.
@@ -100,4 +107,43 @@ public interface ElasticSearchClient<T extends ElasticSearchClient> extends Clos
      * @return The number of documents for a given index/es and type/es
      */
     SearchResponse search(ElasticSearchDataSetDef definition, DataSetMetadata metadata, SearchRequest searchRequest) throws ElasticSearchClientGenericException;
+
+    /**
+     * <p>Read all the documents matching the given request through a server side cursor (scroll).</p>
+     * <p>Documents are pulled in batches of <code>batchSize</code> hits and handed to the <code>handler</code> one by one,
+     * so the whole result never needs to be held in memory. The start, size & aggregations set in the request are ignored.</p>
+     *
+     * @param definition The dataset definition.
+     * @param metadata The metadata.
+     * @param searchRequest The search request (columns, query & sorting).
+     * @param batchSize The number of documents to fetch on every round trip.
+     * @param handler The handler receiving the resulting columns & rows.
+     */
+    void scroll(ElasticSearchDataSetDef definition, DataSetMetadata metadata, SearchRequest searchRequest, int batchSize, DataSetRowHandler handler) throws ElasticSearchClientGenericException;
+
+    /**
+     * <p>Asynchronous variant of {@link #search(ElasticSearchDataSetDef, DataSetMetadata, SearchRequest)}.</p>
+     * <p>The calling thread is not blocked while the server processes the request. Errors complete the returned future
+     * exceptionally with an {@link ElasticSearchClientGenericException}.</p>
+     *
+     * @param definition The dataset definition.
+     * @param metadata The metadata.
+     * @param searchRequest The search request.
+     * @return The future search response.
+     */
+    CompletableFuture<SearchResponse> searchAsync(ElasticSearchDataSetDef definition, DataSetMetadata metadata, SearchRequest searchRequest);
+
+    /**
+     * <p>Perform several searches in a single request to the server (multi search), without blocking the calling thread.</p>
+     * <p>The index/es and type/s of every search are taken from its data set definition, so all the definitions must
+     * target the cluster this client is connected to.</p>
+     * <p>The calling thread is not blocked while the server processes the request. Errors complete the returned future
+     * exceptionally with an {@link ElasticSearchClientGenericException}.</p>
+     *
+     * @param definitions The dataset definitions.
+     * @param metadata The metadata of every data set.
+     * @param searchRequests The search requests.
+     * @return The future responses, in the same order as the requests.
+     */
+    CompletableFuture<SearchResponse[]> multiSearchAsync(ElasticSearchDataSetDef[] definitions, DataSetMetadata[] metadata, SearchRequest[] searchRequests);
 }
@@ -24,15 +24,19 @@ import org.dashbuilder.dataprovider.backend.elasticsearch.rest.model.*;
 import org.dashbuilder.dataprovider.backend.elasticsearch.rest.util.ElasticSearchUtils;
 import org.dashbuilder.dataset.DataColumn;
 import org.dashbuilder.dataset.DataSetMetadata;
+import org.dashbuilder.dataset.DataSetRowHandler;
 import org.dashbuilder.dataset.IntervalBuilderDynamicDate;
 import org.dashbuilder.dataset.def.ElasticSearchDataSetDef;
 import org.dashbuilder.dataset.group.DataSetGroup;
 import org.dashbuilder.dataset.sort.ColumnSort;
 import org.dashbuilder.dataset.sort.DataSetSort;
 import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.ActionListener;
 import org.elasticsearch.action.admin.indices.mapping.get.GetMappingsAction;
 import org.elasticsearch.action.admin.indices.mapping.get.GetMappingsRequestBuilder;
 import org.elasticsearch.action.admin.indices.mapping.get.GetMappingsResponse;
+import org.elasticsearch.action.search.MultiSearchRequestBuilder;
+import org.elasticsearch.action.search.MultiSearchResponse;
 import org.elasticsearch.action.search.SearchAction;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.client.Client;
@@ -43,12 +47,20 @@ import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.transport.InetSocketTransportAddress;
 import org.elasticsearch.index.query.MatchAllQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.aggregations.AbstractAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.terms.StringTerms;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 
 import java.io.IOException;
 import java.net.InetAddress;
 import java.text.ParseException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
 
 /**
  * The Dashbuilder's client implementation for the ElasticSearch data provider.
@@ -60,6 +72,8 @@ public class ElasticSearchNativeClient implements ElasticSearchClient<ElasticSea
 
     protected static final String EL_CLUTER_NAME = "cluster.name";
     protected static final String EL_CLIENT_TIMEOUT = "client.transport.ping_timeout";
+    protected static final String SCROLL_KEEP_ALIVE = "1m";
+    protected static final String SCROLL_DOC_ORDER = "_doc";
     
     protected String serverURL;
     protected String clusterName;
@@ -67,7 +81,7 @@ public class ElasticSearchNativeClient implements ElasticSearchClient<ElasticSea
     protected String[] type;
     protected long timeout = 30000;
     
-    private Client client;
+    private NativeClientPool.PooledClient pooledClient;
 
     private final ElasticSearchClientFactory clientFactory;
     private final ElasticSearchValueTypeMapper valueTypeMapper;
@@ -114,18 +128,25 @@ public class ElasticSearchNativeClient implements ElasticSearchClient<ElasticSea
         return this;
     }
 
+    @Override
+    public long getTimeout() {
+        return timeout;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public MappingsResponse getMappings( String... index ) throws ElasticSearchClientGenericException {
-        checkClient();
+        NativeClientPool.PooledClient pooled = getPooledClient();
+        Client client = beginRequest( pooled );
 
         Collection<IndexMappingResponse> indexMappingResponse = null;
         int responseCode = RESPONSE_CODE_OK;
+        boolean failed = true;
         try {
             indexMappingResponse = new LinkedList<IndexMappingResponse>();
 
             // Obtain the mappings.
-            GetMappingsResponse _mappingsResponse = getMappings();
+            GetMappingsResponse _mappingsResponse = getMappings( client );
             responseCode = ElasticSearchUtils.getResponseCode(_mappingsResponse);
             
             if ( RESPONSE_CODE_OK == responseCode ) {
@@ -163,11 +184,14 @@ public class ElasticSearchNativeClient implements ElasticSearchClient<ElasticSea
                 }
                 
             }
+            failed = false;
             
         } catch (Exception e) {
             
             throw new ElasticSearchClientGenericException(e);
             
+        } finally {
+            pooled.end( failed );
         }
 
         return new MappingsResponse(responseCode, indexMappingResponse.toArray(new IndexMappingResponse[indexMappingResponse.size()]));
@@ -176,23 +200,41 @@ public class ElasticSearchNativeClient implements ElasticSearchClient<ElasticSea
     @Override
     public CountResponse count( String[] index, 
                                 String... type ) throws ElasticSearchClientGenericException {
-        checkClient();
+        NativeClientPool.PooledClient pooled = getPooledClient();
+        Client client = beginRequest( pooled );
+        boolean failed = true;
+        try {
+
+            ActionFuture<org.elasticsearch.action.search.SearchResponse> response = client.search( prepareCount( client, index, type ).request() );
+            CountResponse result = toCountResponse( response.actionGet() );
+            failed = false;
+
+            return result;
+
+        } finally {
+            pooled.end( failed );
+        }
+    }
+
+    private SearchRequestBuilder prepareCount( Client client,
+                                               String[] index,
+                                               String[] type ) {
 
         SearchRequestBuilder searchRequestBuilder = new SearchRequestBuilder( client, SearchAction.INSTANCE )
                 .setSize( 0 );
-        
+
         if ( null != index ) {
             searchRequestBuilder.setIndices(index);
         }
         if ( null != type ) {
             searchRequestBuilder.setTypes(type);
         }
-        
-        
-        ActionFuture<org.elasticsearch.action.search.SearchResponse> response = client.search( searchRequestBuilder.request() );
-        org.elasticsearch.action.search.SearchResponse searchResponse = response.actionGet();
-        long total = searchResponse.getHits().totalHits();
 
+        return searchRequestBuilder;
+    }
+
+    private CountResponse toCountResponse( org.elasticsearch.action.search.SearchResponse searchResponse ) {
+        long total = searchResponse.getHits().totalHits();
         return new CountResponse( total, searchResponse.getTotalShards() );
     }
 
@@ -200,7 +242,92 @@ public class ElasticSearchNativeClient implements ElasticSearchClient<ElasticSea
     public SearchResponse search( ElasticSearchDataSetDef definition, 
                                   DataSetMetadata metadata, 
                                   SearchRequest request ) throws ElasticSearchClientGenericException {
-        checkClient();
+        NativeClientPool.PooledClient pooled = getPooledClient();
+        Client client = beginRequest( pooled );
+        boolean failed = true;
+        try {
+
+            SearchResponse result = search( client, metadata, request );
+            failed = false;
+            return result;
+
+        } finally {
+            pooled.end( failed );
+        }
+    }
+
+    private SearchResponse parse( ElasticSearchDataSetDef definition,
+                                  PreparedSearch search,
+                                  MultiSearchResponse.Item item ) throws ElasticSearchClientGenericException {
+
+        if ( item.isFailure() ) {
+            throw new ElasticSearchClientGenericException( "Error performing the search for data set [" +
+                    definition.getUUID() + "]: " + item.getFailureMessage() );
+        }
+
+        return parse( search, item.getResponse() );
+    }
+
+    private SearchResponse search( Client client,
+                                   DataSetMetadata metadata,
+                                   SearchRequest request ) throws ElasticSearchClientGenericException {
+
+        PreparedSearch search = prepareSearch( client, index, type, metadata, request );
+
+        // Read all the terms of a large group by in pages, instead of pulling them in a single response.
+        if ( search.isPaged() ) {
+
+            return searchTermsPages( client, search );
+
+        }
+
+        // Perform the query to the EL server instance.
+        org.elasticsearch.action.search.SearchResponse response =  client.search(search.builder.request()).actionGet();
+
+        return parse( search, response );
+    }
+
+    private SearchResponse parse( PreparedSearch search,
+                                  org.elasticsearch.action.search.SearchResponse response ) throws ElasticSearchClientGenericException {
+
+        try {
+
+            // Parse and create the search response for the data provider.
+            return new NativeClientResponseParser( valueTypeMapper )
+                    .parse( search.metadata, response, search.columns );
+
+        } catch (ParseException e) {
+            throw new ElasticSearchClientGenericException( "Error parsing response from server." , e );
+        }
+
+    }
+
+    /**
+     * Builds the native search request for the given data set request, on the index/es and type/s of the given
+     * definition (every definition in a multi search can target its own ones).
+     */
+    private PreparedSearch prepareSearch( Client client,
+                                          ElasticSearchDataSetDef definition,
+                                          DataSetMetadata metadata,
+                                          SearchRequest request ) throws ElasticSearchClientGenericException {
+
+        String[] _index = ElasticSearchUtils.fromString( definition.getIndex() );
+        String[] _type = ElasticSearchUtils.fromString( definition.getType() );
+
+        return prepareSearch( client,
+                null != _index && _index.length > 0 ? _index : null,
+                null != _type && _type.length > 0 ? _type : null,
+                metadata, request );
+    }
+
+    /**
+     * Builds the native search request for the given data set request.
+     */
+    private PreparedSearch prepareSearch( Client client,
+                                          String[] index,
+                                          String[] type,
+                                          DataSetMetadata metadata,
+                                          SearchRequest request ) throws ElasticSearchClientGenericException {
 
         int start = request.getStart();
         int size = request.getSize();
@@ -225,13 +352,14 @@ public class ElasticSearchNativeClient implements ElasticSearchClient<ElasticSea
 
         // AGGREGATIONS.
         List<AbstractAggregationBuilder> aggregationsBuilders = null;
+        NativeClientAggregationsBuilder aggregationsBuilder = null;
         
         if ( null != aggregations && !aggregations.isEmpty() ) {
 
             // TODO: Use all group operations, not just first one.
-            aggregationsBuilders = new NativeClientAggregationsBuilder( clientFactory,
-                    intervalBuilderDynamicDate, utils, metadata, columns, request )
-                    .build( aggregations.get( 0 ) );
+            aggregationsBuilder = new NativeClientAggregationsBuilder( clientFactory,
+                    intervalBuilderDynamicDate, utils, metadata, columns, request );
+            aggregationsBuilders = aggregationsBuilder.build( aggregations.get( 0 ) );
 
         }
 
@@ -308,24 +436,296 @@ public class ElasticSearchNativeClient implements ElasticSearchClient<ElasticSea
             
         }
 
-        // Perform the query to the EL server instance.
-        org.elasticsearch.action.search.SearchResponse response =  client.search(searchRequestBuilder.request()).actionGet();
-        
+        return new PreparedSearch( searchRequestBuilder,
+                existQuery ? queryBuilder : new MatchAllQueryBuilder(),
+                existAggregations ? aggregationsBuilder : null,
+                metadata, columns );
+    }
+
+    /**
+     * Performs a search whose terms aggregation is read in pages of {@link NativeClientAggregationsBuilder#TERMS_PAGE_SIZE}
+     * buckets (see {@link TermsPages}).
+     */
+    private SearchResponse searchTermsPages( Client client,
+                                             PreparedSearch search ) throws ElasticSearchClientGenericException {
+
+        TermsPages pages = new TermsPages( search );
+        boolean more = true;
+        while ( more ) {
+            more = pages.add( client.search( search.builder.request() ).actionGet() );
+        }
+
+        return pages.getResult();
+    }
+
+    @Override
+    public void scroll( ElasticSearchDataSetDef definition,
+                        DataSetMetadata metadata,
+                        SearchRequest request,
+                        int batchSize,
+                        DataSetRowHandler handler ) throws ElasticSearchClientGenericException {
+        NativeClientPool.PooledClient pooled = getPooledClient();
+        Client client = beginRequest( pooled );
+        boolean failed = true;
         try {
 
-            // Parse and create the search response for the data provider.
-            return new NativeClientResponseParser( valueTypeMapper )
-                    .parse( metadata, response, columns );
+            scroll( client, metadata, request, batchSize, handler );
+            failed = false;
+
+        } finally {
+            pooled.end( failed );
+        }
+    }
+
+    private void scroll( Client client,
+                         DataSetMetadata metadata,
+                         SearchRequest request,
+                         int batchSize,
+                         DataSetRowHandler handler ) throws ElasticSearchClientGenericException {
+
+        List<DataColumn> columns = Collections.unmodifiableList( request.getColumns() );
+        List<DataSetSort> sorting = request.getSorting();
+
+        SearchRequestBuilder searchRequestBuilder = new SearchRequestBuilder( client, SearchAction.INSTANCE )
+                .setScroll( SCROLL_KEEP_ALIVE )
+                .setSize( batchSize );
+
+        if ( null != index ) {
+
+            searchRequestBuilder.setIndices( index );
+
+            if ( null != type ) {
+                searchRequestBuilder.setTypes( type );
+            }
+
+        }
+
+        // SEARCH QUERY.
+        QueryBuilder queryBuilder = new NativeClientQueryBuilder().build( request.getQuery() );
+        searchRequestBuilder.setQuery( queryBuilder != null ? queryBuilder : new MatchAllQueryBuilder() );
+
+        // Add the fields to retrieve.
+        String[] fields = getColumnIds( columns );
+        if ( null != fields ) {
+            for ( String field : fields ) {
+
+                searchRequestBuilder.addField( field );
+
+            }
+        }
+
+        // SORTING. If not specified, iterate in index order, which is the cheapest way to page through a scroll.
+        boolean sorted = false;
+        if ( sorting != null ) {
+
+            for ( DataSetSort sortOp : sorting ) {
+                List<ColumnSort> columnSorts = sortOp.getColumnSortList();
+
+                if ( columnSorts != null ) {
+                    for ( ColumnSort columnSort : columnSorts ) {
+
+                        searchRequestBuilder.addSort( columnSort.getColumnId(),
+                                columnSort.getOrder().asInt() == 1 ?
+                                        org.elasticsearch.search.sort.SortOrder.ASC :
+                                        org.elasticsearch.search.sort.SortOrder.DESC);
+                        sorted = true;
+                    }
+                }
+            }
+
+        }
+        if ( !sorted ) {
+
+            searchRequestBuilder.addSort( SCROLL_DOC_ORDER, org.elasticsearch.search.sort.SortOrder.ASC );
+
+        }
+
+        NativeClientResponseParser parser = new NativeClientResponseParser( valueTypeMapper );
+        Object[] values = new Object[ columns.size() ];
+        String scrollId = null;
+        try {
+
+            handler.columns( columns );
+
+            org.elasticsearch.action.search.SearchResponse response = client.search( searchRequestBuilder.request() ).actionGet();
+            scrollId = response.getScrollId();
+
+            SearchHit[] hits = response.getHits().getHits();
+            while ( hits.length > 0 ) {
+
+                for ( SearchHit hit : hits ) {
+
+                    parser.parseHit( metadata, hit, columns, values );
+                    handler.row( values );
+
+                }
+
+                response = client.prepareSearchScroll( scrollId )
+                        .setScroll( SCROLL_KEEP_ALIVE )
+                        .execute().actionGet();
+                scrollId = response.getScrollId();
+                hits = response.getHits().getHits();
+            }
 
         } catch (ParseException e) {
             throw new ElasticSearchClientGenericException( "Error parsing response from server." , e );
+        } catch (Exception e) {
+            throw new ElasticSearchClientGenericException( e );
+        } finally {
+
+            // Release the server side resources of the cursor.
+            if ( null != scrollId ) {
+                try {
+                    client.prepareClearScroll().addScrollId( scrollId ).execute().actionGet();
+                } catch (Exception e) {
+                    // The cursor gets released by the server anyway once its keep alive time expires.
+                }
+            }
         }
-        
     }
 
     @Override
-    public void close() throws IOException {
-        client.close();
+    public CompletableFuture<SearchResponse> searchAsync( ElasticSearchDataSetDef definition,
+                                                          DataSetMetadata metadata,
+                                                          SearchRequest request ) {
+        final CompletableFuture<SearchResponse> result = new CompletableFuture<SearchResponse>();
+        Client client = beginAsyncRequest( result );
+        if ( null == client ) {
+            return result;
+        }
+
+        try {
+
+            PreparedSearch search = prepareSearch( client, index, type, metadata, request );
+            client.search( search.builder.request(), new SearchListener( client, search, result ) );
+
+        } catch (Exception e) {
+            result.completeExceptionally( e );
+        }
+
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<SearchResponse[]> multiSearchAsync( final ElasticSearchDataSetDef[] definitions,
+                                                                 DataSetMetadata[] metadata,
+                                                                 SearchRequest[] requests ) {
+        final CompletableFuture<SearchResponse[]> result = new CompletableFuture<SearchResponse[]>();
+        Client client = beginAsyncRequest( result );
+        if ( null == client ) {
+            return result;
+        }
+
+        try {
+
+            final PreparedSearch[] searches = new PreparedSearch[ requests.length ];
+            final CompletableFuture<SearchResponse>[] responses = new CompletableFuture[ requests.length ];
+            final List<Integer> multiSearchIndexes = new ArrayList<Integer>();
+            MultiSearchRequestBuilder multiSearchRequestBuilder = client.prepareMultiSearch();
+
+            for ( int i = 0; i < requests.length; i++ ) {
+
+                searches[i] = prepareSearch( client, definitions[i], metadata[i], requests[i] );
+                responses[i] = new CompletableFuture<SearchResponse>();
+
+                // Paged terms searches need several round trips, they are performed on their own.
+                if ( searches[i].isPaged() ) {
+                    client.search( searches[i].builder.request(), new SearchListener( client, searches[i], responses[i] ) );
+                } else {
+                    multiSearchRequestBuilder.add( searches[i].builder );
+                    multiSearchIndexes.add( i );
+                }
+            }
+
+            if ( !multiSearchIndexes.isEmpty() ) {
+
+                multiSearchRequestBuilder.execute( new ActionListener<MultiSearchResponse>() {
+
+                    @Override
+                    public void onResponse( MultiSearchResponse response ) {
+                        MultiSearchResponse.Item[] items = response.getResponses();
+                        for ( int k = 0; k < items.length; k++ ) {
+                            int i = multiSearchIndexes.get( k );
+                            try {
+                                responses[i].complete( parse( definitions[i], searches[i], items[k] ) );
+                            } catch (Exception e) {
+                                responses[i].completeExceptionally( e );
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void onFailure( Throwable e ) {
+                        for ( int i : multiSearchIndexes ) {
+                            responses[i].completeExceptionally( new ElasticSearchClientGenericException( "Error performing the multi search request.", e ) );
+                        }
+                    }
+                });
+            }
+
+            CompletableFuture.allOf( responses ).whenComplete( new BiConsumer<Void, Throwable>() {
+
+                @Override
+                public void accept( Void v, Throwable e ) {
+                    if ( null != e ) {
+                        result.completeExceptionally( e instanceof CompletionException && null != e.getCause() ? e.getCause() : e );
+                        return;
+                    }
+                    SearchResponse[] _responses = new SearchResponse[ responses.length ];
+                    for ( int i = 0; i < responses.length; i++ ) {
+                        _responses[i] = responses[i].join();
+                    }
+                    result.complete( _responses );
+                }
+            });
+
+        } catch (Exception e) {
+            result.completeExceptionally( e );
+        }
+
+        return result;
+    }
+
+    /**
+     * Obtains the pooled native client for an asynchronous request. The client is released once the given future
+     * completes.
+     * @return The native client, or <code>null</code> if not available (the future is then completed with the error).
+     */
+    private Client beginAsyncRequest( CompletableFuture<?> future ) {
+
+        final NativeClientPool.PooledClient pooled;
+        Client client;
+        try {
+
+            pooled = getPooledClient();
+            client = beginRequest( pooled );
+
+        } catch (ElasticSearchClientGenericException e) {
+            future.completeExceptionally( e );
+            return null;
+        }
+
+        future.whenComplete( new BiConsumer<Object, Throwable>() {
+
+            @Override
+            public void accept( Object o, Throwable e ) {
+                pooled.end( null != e );
+            }
+        });
+
+        return client;
+    }
+
+    /**
+     * Release the shared native client. It gets closed once no other data set is using it.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if ( null != pooledClient ) {
+            getClientPool().release( pooledClient );
+            pooledClient = null;
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -461,18 +861,26 @@ public class ElasticSearchNativeClient implements ElasticSearchClient<ElasticSea
         return null;
     }
 
-    private void checkClient() throws ElasticSearchClientGenericException {
+    private NativeClientPool.PooledClient getPooledClient() throws ElasticSearchClientGenericException {
 
-        if ( null == client ) {
+        try {
 
-            try {
+            return buildClient();
 
-                buildClient();
+        } catch (Exception e) {
+            throw new ElasticSearchClientGenericException( "Error while building the elastic search client.", e );
+        }
 
-            } catch (Exception e) {
-                throw new ElasticSearchClientGenericException( "Error while building the elastic search client.", e );
-            }
+    }
 
+    private Client beginRequest( NativeClientPool.PooledClient pooled ) throws ElasticSearchClientGenericException {
+
+        try {
+
+            return pooled.begin();
+
+        } catch (Exception e) {
+            throw new ElasticSearchClientGenericException( "Error while building the elastic search client.", e );
         }
 
     }
@@ -493,20 +901,191 @@ public class ElasticSearchNativeClient implements ElasticSearchClient<ElasticSea
     }
     
 
-    private Client buildClient() throws Exception {
-        if ( null == client ) {
-            client = NativeClientFactory.getInstance().newClient( serverURL, clusterName, timeout );
+    private synchronized NativeClientPool.PooledClient buildClient() throws Exception {
+        if ( null == pooledClient ) {
+            pooledClient = getClientPool().acquire( serverURL, clusterName, timeout );
         }
         
-        return client;
+        return pooledClient;
     }
 
     
 
-    private GetMappingsResponse getMappings() {
+    protected NativeClientPool getClientPool() {
+        return NativeClientPool.getInstance();
+    }
+
+    private GetMappingsResponse getMappings( Client client ) {
         GetMappingsRequestBuilder builder = new GetMappingsRequestBuilder(client, GetMappingsAction.INSTANCE, index);
         return client.admin().indices().getMappings(builder.request()).actionGet();
     }
 
-    
+    /**
+     * A native search request ready to be sent, along with the information needed to parse its response.
+     */
+    private static class PreparedSearch {
+
+        final SearchRequestBuilder builder;
+        final QueryBuilder query;
+        final NativeClientAggregationsBuilder aggregationsBuilder;
+        final DataSetMetadata metadata;
+        final List<DataColumn> columns;
+
+        PreparedSearch( SearchRequestBuilder builder,
+                        QueryBuilder query,
+                        NativeClientAggregationsBuilder aggregationsBuilder,
+                        DataSetMetadata metadata,
+                        List<DataColumn> columns ) {
+            this.builder = builder;
+            this.query = query;
+            this.aggregationsBuilder = aggregationsBuilder;
+            this.metadata = metadata;
+            this.columns = columns;
+        }
+
+        boolean isPaged() {
+            return null != aggregationsBuilder && null != aggregationsBuilder.getPagingAggregation();
+        }
+    }
+
+    /**
+     * Reads the buckets of a paged terms aggregation. Buckets are sorted by term, so every page is requested
+     * by filtering the terms after the last one received. The resulting rows of all the pages are joined.
+     * <p>The filter matches the documents with some term after the last one, so if the field is multi-valued the
+     * earlier terms of such documents come back at the beginning of the next page. In such case the pages read are
+     * discarded and all the buckets are requested at once.</p>
+     */
+    private class TermsPages {
+
+        final PreparedSearch search;
+        final NativeClientResponseParser parser = new NativeClientResponseParser( valueTypeMapper );
+        final List<SearchHitResponse> hits = new ArrayList<SearchHitResponse>();
+        SearchResponse first = null;
+        Object lastTerm = null;
+        boolean unpaged = false;
+
+        TermsPages( PreparedSearch search ) {
+            this.search = search;
+        }
+
+        /**
+         * Adds the rows of the given page.
+         * @return true if there are more pages. The search request is then ready to obtain the next one.
+         */
+        boolean add( org.elasticsearch.action.search.SearchResponse response ) throws ElasticSearchClientGenericException {
+
+            NativeClientAggregationsBuilder aggregationsBuilder = search.aggregationsBuilder;
+            Terms terms = null != response.getAggregations() ?
+                    (Terms) response.getAggregations().get( aggregationsBuilder.getPagingAggregation() ) : null;
+            List<Terms.Bucket> buckets = null != terms ? terms.getBuckets() : null;
+
+            // Multi-valued field, request all the buckets at once.
+            if ( !unpaged && null != lastTerm && null != buckets && !buckets.isEmpty() && !isAfterLastTerm( getTerm( terms, buckets.get( 0 ) ) ) ) {
+                hits.clear();
+                first = null;
+                unpaged = true;
+                aggregationsBuilder.disablePaging();
+                search.builder.setQuery( search.query );
+                return true;
+            }
+
+            try {
+
+                SearchResponse page = parser.parse( search.metadata, response, search.columns );
+                if ( null == first ) {
+                    first = page;
+                }
+                if ( null != page.getHits() ) {
+                    hits.addAll( Arrays.asList( page.getHits() ) );
+                }
+
+            } catch (ParseException e) {
+                throw new ElasticSearchClientGenericException( "Error parsing response from server." , e );
+            }
+
+            if ( unpaged || null == buckets || buckets.size() < NativeClientAggregationsBuilder.TERMS_PAGE_SIZE ) {
+                return false;
+            }
+
+            // Next page.
+            String field = aggregationsBuilder.getPagingField();
+            lastTerm = getTerm( terms, buckets.get( buckets.size() - 1 ) );
+            RangeQueryBuilder after = aggregationsBuilder.isPagingAscending() ?
+                    QueryBuilders.rangeQuery( field ).gt( lastTerm ) : QueryBuilders.rangeQuery( field ).lt( lastTerm );
+            search.builder.setQuery( QueryBuilders.boolQuery().must( search.query ).filter( after ) );
+            return true;
+        }
+
+        /**
+         * Numeric terms are sorted by value, not by their string representation, so 1000 goes after 999.
+         */
+        private Object getTerm( Terms terms, Terms.Bucket bucket ) {
+            return terms instanceof StringTerms ? bucket.getKeyAsString() : bucket.getKeyAsNumber();
+        }
+
+        private boolean isAfterLastTerm( Object term ) {
+            int comparison;
+            if ( term instanceof Long && lastTerm instanceof Long ) {
+                comparison = ( (Long) term ).compareTo( (Long) lastTerm );
+            } else if ( term instanceof Number && lastTerm instanceof Number ) {
+                comparison = Double.compare( ( (Number) term ).doubleValue(), ( (Number) lastTerm ).doubleValue() );
+            } else {
+                comparison = term.toString().compareTo( lastTerm.toString() );
+            }
+            return search.aggregationsBuilder.isPagingAscending() ? comparison > 0 : comparison < 0;
+        }
+
+        SearchResponse getResult() {
+            if ( hits.isEmpty() ) {
+                return first;
+            }
+
+            return new SearchResponse( first.getTookInMillis(), first.getResponseStatus(), first.getTotalHits(), first.getMaxScore(),
+                    first.getTotalShards(), first.getSuccessfulShards(), first.getShardFailures(),
+                    hits.toArray( new SearchHitResponse[ hits.size() ] ) );
+        }
+    }
+
+    /**
+     * Completes a future with the parsed response of an asynchronous search. For paged terms searches, the next
+     * page is requested from the listener itself, so no thread is blocked waiting for the pages.
+     */
+    private class SearchListener implements ActionListener<org.elasticsearch.action.search.SearchResponse> {
+
+        final Client client;
+        final PreparedSearch search;
+        final TermsPages pages;
+        final CompletableFuture<SearchResponse> result;
+
+        SearchListener( Client client,
+                        PreparedSearch search,
+                        CompletableFuture<SearchResponse> result ) {
+            this.client = client;
+            this.search = search;
+            this.pages = search.isPaged() ? new TermsPages( search ) : null;
+            this.result = result;
+        }
+
+        @Override
+        public void onResponse( org.elasticsearch.action.search.SearchResponse response ) {
+            try {
+
+                if ( null == pages ) {
+                    result.complete( parse( search, response ) );
+                } else if ( pages.add( response ) ) {
+                    client.search( search.builder.request(), this );
+                } else {
+                    result.complete( pages.getResult() );
+                }
+
+            } catch (Exception e) {
+                result.completeExceptionally( e );
+            }
+        }
+
+        @Override
+        public void onFailure( Throwable e ) {
+            result.completeExceptionally( new ElasticSearchClientGenericException( "Error performing the search request.", e ) );
+        }
+    }
 }
@@ -53,12 +53,27 @@ import java.util.*;
  */
 public class NativeClientAggregationsBuilder {
 
+    /**
+     * Max. number of buckets to request at once for a terms aggregation that must return all the terms.
+     */
+    public static final int TERMS_PAGE_SIZE = 1000;
+
+    /**
+     * Name of the aggregation that counts the terms of a trimmed terms aggregation, as just its first buckets are returned.
+     */
+    public static final String TERMS_COUNT_AGGREGATION = "_termsCount";
+
     private final ElasticSearchClientFactory clientFactory;
     private final IntervalBuilderDynamicDate intervalBuilder;
     private final ElasticSearchUtils utils;
     private final DataSetMetadata metadata;
     private final List<DataColumn> columns; 
     private final SearchRequest request;
+    private String pagingAggregation;
+    private String pagingField;
+    private boolean pagingAscending;
+    private TermsBuilder pagingTermsBuilder;
+    private String termsCountField;
     
     public NativeClientAggregationsBuilder(ElasticSearchClientFactory clientFactory,
                                            IntervalBuilderDynamicDate intervalBuilder,
@@ -135,9 +150,15 @@ public class NativeClientAggregationsBuilder {
             
             if ( null != b ) {
                 
-                return new ArrayList<AbstractAggregationBuilder>() {{
-                    add( b );
-                }};
+                List<AbstractAggregationBuilder> result = new ArrayList<AbstractAggregationBuilder>();
+                result.add( b );
+
+                // Count all the terms of a trimmed terms aggregation, for the total number of rows.
+                if ( null != termsCountField ) {
+                    result.add( AggregationBuilders.cardinality( TERMS_COUNT_AGGREGATION ).field( termsCountField ) );
+                }
+
+                return result;
                 
             }
 
@@ -155,6 +176,57 @@ public class NativeClientAggregationsBuilder {
         
     }
 
+    /**
+     * The name of the terms aggregation built which buckets have to be read in pages of {@link #TERMS_PAGE_SIZE}, if any.
+     * Pages are ordered by term, so every next page is obtained by requesting the terms after the last one
+     * (see {@link #getPagingField()} and {@link #isPagingAscending()}).
+     */
+    public String getPagingAggregation() {
+        return pagingAggregation;
+    }
+
+    /**
+     * The source field of the paged terms aggregation, if any.
+     */
+    public String getPagingField() {
+        return pagingField;
+    }
+
+    public boolean isPagingAscending() {
+        return pagingAscending;
+    }
+
+    /**
+     * Requests all the buckets of the paged terms aggregation at once. Paging is not possible on multi-valued fields:
+     * the filter on the terms after the last one matches documents, so the earlier terms of such documents
+     * would come back again with partial counts.
+     */
+    public void disablePaging() {
+        if ( null != pagingTermsBuilder ) {
+            pagingTermsBuilder.size( 0 );
+        }
+    }
+
+    /**
+     * The number of buckets to request for a terms aggregation. As buckets are sorted by term, just the
+     * first <code>start + size</code> ones are needed if the request is trimmed and not sorted by any other column.
+     * Otherwise all the buckets are needed and they are requested in pages of {@link #TERMS_PAGE_SIZE}, unless
+     * empty intervals are allowed (in such case terms with no documents have to be returned too, so no paging is possible).
+     */
+    protected int getTermsSize( int minDocCount ) {
+        if ( isTermsTrimmed() ) {
+
+            return request.getStart() + request.getSize();
+        }
+
+        return minDocCount > 0 ? TERMS_PAGE_SIZE : 0;
+    }
+
+    protected boolean isTermsTrimmed() {
+        return null != request && request.getSize() > 0
+                && ( null == request.getSorting() || request.getSorting().isEmpty() );
+    }
+
     /**
      * <p>Serializes a core function.</p>
      * <p>Example of SUM function serialization:</p>
@@ -250,10 +322,23 @@ public class NativeClientAggregationsBuilder {
             // Translate into a TERMS aggregation.
             TermsBuilder termsBuilder = new TermsBuilder( resultingColumnId )
                     .field( sourceId )
-                    .size( 0 )
+                    .size( getTermsSize( minDocCount ) )
                     .minDocCount( minDocCount )
                     .order( Terms.Order.term(asc) );
 
+            // All the terms are needed, so they must be read in pages.
+            if ( !isTermsTrimmed() && minDocCount > 0 ) {
+                pagingAggregation = resultingColumnId;
+                pagingField = sourceId;
+                pagingAscending = asc;
+                pagingTermsBuilder = termsBuilder;
+            }
+
+            // Just the first buckets are returned, so the terms are counted apart.
+            if ( isTermsTrimmed() ) {
+                termsCountField = sourceId;
+            }
+
             addSubAggregations( termsBuilder, aggregationBuilders );
             
             // Add the resulting data set column.
@@ -305,6 +390,7 @@ public class NativeClientAggregationsBuilder {
                 String valueScript = scripts[0];
                 String orderScript = scripts[1];
 
+                // Fixed date intervals are bounded (months, days of week, hours, ...), so all the terms are fetched at once.
                 TermsBuilder termsBuilder = new TermsBuilder( resultingColumnId )
                         .size( 0 )
                         .minDocCount( minDocCount )
@@ -0,0 +1,331 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *  
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *  
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *  
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.backend.elasticsearch.rest.impl;
+
+import org.dashbuilder.scheduler.Scheduler;
+import org.dashbuilder.scheduler.SchedulerTask;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.transport.TransportClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Native clients shared by all the data sets pointing to the same cluster. A transport client keeps its own
+ * thread pools and connections, so just one is created for every server URL, cluster name and timeout.</p>
+ * <p>Clients are reference counted: every data set client acquires the shared one on its first request and
+ * releases it when closed. The shared client is closed as soon as nobody is using it.</p>
+ * <p>A client which lost the connection to all the cluster nodes is replaced by a new one, as long as there are
+ * no requests in progress. Clients are checked after every failed request and periodically, once the health check
+ * is scheduled (see {@link #scheduleHealthCheck(Scheduler, long)}). New clients are built without holding the
+ * pool lock, so a cluster which is down doesn't block the requests to any other cluster, and a client is not
+ * replaced again until a retry delay elapses, which doubles on every attempt while the cluster keeps failing.</p>
+ *
+ * @since 0.5.0
+ */
+public class NativeClientPool {
+
+    private static final NativeClientPool INSTANCE = new NativeClientPool( NativeClientFactory.getInstance() );
+
+    private static final Logger LOGGER = LoggerFactory.getLogger( NativeClientPool.class );
+
+    public static final String HEALTH_CHECK_TASK = "elasticsearch_clients_health_check";
+
+    public static final long MIN_RETRY_DELAY = 5000;
+    public static final long MAX_RETRY_DELAY = 300000;
+
+    private final NativeClientFactory clientFactory;
+    private final Map<String, PooledClient> clients = new HashMap<String, PooledClient>();
+
+    public static NativeClientPool getInstance() {
+        return INSTANCE;
+    }
+
+    public NativeClientPool( NativeClientFactory clientFactory ) {
+        this.clientFactory = clientFactory;
+    }
+
+    /**
+     * Get the shared client for the given cluster, creating it if not yet available.
+     * Every call must be followed by a call to {@link #release(PooledClient)} once the client is no longer needed.
+     */
+    public PooledClient acquire( String serverURL, String clusterName, long timeout ) throws Exception {
+        String key = getKey( serverURL, clusterName, timeout );
+        synchronized ( this ) {
+            PooledClient pooled = clients.get( key );
+            if ( null != pooled ) {
+                pooled.references++;
+                return pooled;
+            }
+        }
+
+        // Build the client outside the lock, keeping the one from any concurrent call
+        Client client = clientFactory.newClient( serverURL, clusterName, timeout );
+        PooledClient pooled;
+        synchronized ( this ) {
+            pooled = clients.get( key );
+            if ( null == pooled ) {
+                pooled = new PooledClient( key, serverURL, clusterName, timeout );
+                pooled.client = client;
+                clients.put( key, pooled );
+                client = null;
+            }
+            pooled.references++;
+        }
+        if ( null != client ) {
+            close( client );
+        }
+        return pooled;
+    }
+
+    /**
+     * Release a client obtained from {@link #acquire(String, String, long)}.
+     */
+    public synchronized void release( PooledClient pooled ) {
+        if ( --pooled.references <= 0 ) {
+            clients.remove( pooled.key );
+            close( pooled.client );
+            pooled.client = null;
+        }
+    }
+
+    /**
+     * Check the connection of every client to its cluster. Broken clients not in use are replaced right away,
+     * the rest as soon as their requests in progress are completed.
+     */
+    public void checkHealth() {
+        List<PooledClient> broken = new ArrayList<PooledClient>();
+        synchronized ( this ) {
+            for ( PooledClient pooled : clients.values() ) {
+                pooled.checkHealth();
+                if ( pooled.healthy ) {
+                    pooled.retryDelay = MIN_RETRY_DELAY;
+                    pooled.nextRetryTime = 0;
+                } else if ( startReplace( pooled ) ) {
+                    broken.add( pooled );
+                }
+            }
+        }
+        for ( PooledClient pooled : broken ) {
+            replace( pooled );
+        }
+    }
+
+    /**
+     * Check the health of the clients every given number of seconds (see {@link #checkHealth()}).
+     */
+    public void scheduleHealthCheck( Scheduler scheduler, long seconds ) {
+        scheduler.schedule( new SchedulerTask() {
+
+            @Override
+            public String getKey() {
+                return HEALTH_CHECK_TASK;
+            }
+
+            @Override
+            public String getDescription() {
+                return "ElasticSearch clients health check";
+            }
+
+            @Override
+            public void execute() {
+                checkHealth();
+            }
+        }, seconds );
+    }
+
+    public void unscheduleHealthCheck( Scheduler scheduler ) {
+        scheduler.unschedule( HEALTH_CHECK_TASK );
+    }
+
+    /**
+     * The clients currently in use, along with their usage statistics.
+     */
+    public synchronized Collection<PooledClient> getClients() {
+        return new ArrayList<PooledClient>( clients.values() );
+    }
+
+    protected Client beginRequest( PooledClient pooled ) throws Exception {
+        // Replace a broken client if no other request is using it
+        boolean replace;
+        synchronized ( this ) {
+            checkReleased( pooled );
+            replace = startReplace( pooled );
+        }
+        if ( replace ) {
+            replace( pooled );
+        }
+        synchronized ( this ) {
+            checkReleased( pooled );
+            pooled.inFlightRequests.incrementAndGet();
+            pooled.requests.incrementAndGet();
+            return pooled.client;
+        }
+    }
+
+    private void checkReleased( PooledClient pooled ) {
+        if ( null == pooled.client ) {
+            throw new IllegalStateException( "The client for cluster " + pooled.key + " has been released." );
+        }
+    }
+
+    /**
+     * Check if a broken client can be replaced and, if so, reserve the replacement and schedule the next retry.
+     * Must be called holding the pool lock.
+     */
+    private boolean startReplace( PooledClient pooled ) {
+        if ( pooled.healthy || pooled.replacing || pooled.inFlightRequests.get() > 0
+                || currentTimeMillis() < pooled.nextRetryTime ) {
+            return false;
+        }
+        pooled.replacing = true;
+        pooled.nextRetryTime = currentTimeMillis() + pooled.retryDelay;
+        pooled.retryDelay = Math.min( pooled.retryDelay * 2, MAX_RETRY_DELAY );
+        return true;
+    }
+
+    /**
+     * Build a new client outside the pool lock and swap it in. The broken client is kept if the new one can't
+     * be built, until the next retry.
+     */
+    protected void replace( PooledClient pooled ) {
+        LOGGER.warn( "No nodes available for cluster " + pooled.key + ". Creating a new client." );
+        Client client = null;
+        try {
+            client = clientFactory.newClient( pooled.serverURL, pooled.clusterName, pooled.timeout );
+        } catch ( Exception e ) {
+            LOGGER.error( "Error replacing the client for cluster " + pooled.key + ".", e );
+        }
+
+        Client unused = client;
+        synchronized ( this ) {
+            pooled.replacing = false;
+            if ( null != client && null != pooled.client ) {
+                unused = client != pooled.client ? pooled.client : null;
+                pooled.client = client;
+                pooled.healthy = true;
+            }
+        }
+        if ( null != unused ) {
+            close( unused );
+        }
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    protected void close( Client client ) {
+        try {
+            client.close();
+        } catch ( Exception e ) {
+            LOGGER.error( "Error closing elastic search client.", e );
+        }
+    }
+
+    public static String getKey( String serverURL, String clusterName, long timeout ) {
+        return serverURL + "/" + clusterName + "?timeout=" + timeout;
+    }
+
+    /**
+     * A client shared by all the data sets pointing to the same cluster.
+     */
+    public class PooledClient {
+
+        private final String key;
+        private final String serverURL;
+        private final String clusterName;
+        private final long timeout;
+        private volatile Client client;
+        private int references = 0;
+        private volatile boolean healthy = true;
+        private boolean replacing = false;
+        private long nextRetryTime = 0;
+        private long retryDelay = MIN_RETRY_DELAY;
+        private final AtomicInteger inFlightRequests = new AtomicInteger( 0 );
+        private final AtomicLong requests = new AtomicLong( 0 );
+        private final AtomicLong failedRequests = new AtomicLong( 0 );
+
+        PooledClient( String key, String serverURL, String clusterName, long timeout ) {
+            this.key = key;
+            this.serverURL = serverURL;
+            this.clusterName = clusterName;
+            this.timeout = timeout;
+        }
+
+        /**
+         * Get the native client and register a new request. Every call must be followed by a call to
+         * {@link #end(boolean)} once the request is completed.
+         */
+        public Client begin() throws Exception {
+            return beginRequest( this );
+        }
+
+        public void end( boolean failed ) {
+            inFlightRequests.decrementAndGet();
+            if ( failed ) {
+                failedRequests.incrementAndGet();
+                checkHealth();
+            }
+        }
+
+        void checkHealth() {
+            Client c = client;
+            if ( c instanceof TransportClient ) {
+                healthy = !( (TransportClient) c ).connectedNodes().isEmpty();
+            }
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getReferences() {
+            synchronized ( NativeClientPool.this ) {
+                return references;
+            }
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public int getInFlightRequests() {
+            return inFlightRequests.get();
+        }
+
+        public long getRequests() {
+            return requests.get();
+        }
+
+        public long getFailedRequests() {
+            return failedRequests.get();
+        }
+
+        @Override
+        public String toString() {
+            return key + " references=" + getReferences() + " healthy=" + healthy + " inFlight=" + getInFlightRequests()
+                    + " requests=" + getRequests() + " failed=" + getFailedRequests();
+        }
+    }
+}
@@ -32,7 +32,6 @@ import org.elasticsearch.search.SearchHits;
 import org.elasticsearch.search.aggregations.Aggregation;
 import org.elasticsearch.search.aggregations.Aggregations;
 import org.elasticsearch.search.aggregations.bucket.histogram.InternalHistogram;
-import org.elasticsearch.search.aggregations.bucket.terms.StringTerms;
 import org.elasticsearch.search.aggregations.bucket.terms.Terms;
 import org.elasticsearch.search.aggregations.metrics.avg.Avg;
 import org.elasticsearch.search.aggregations.metrics.cardinality.Cardinality;
@@ -78,9 +77,16 @@ public class NativeClientResponseParser {
 
         // There are results. Build the resulting dataset columns & values.
         List<SearchHitResponse> hits = new LinkedList<SearchHitResponse>();
+        long totalBuckets = -1;
 
         if (existAggregations) {
 
+            // Number of terms of a trimmed terms aggregation, if any.
+            Aggregation termsCount = aggregations.get( NativeClientAggregationsBuilder.TERMS_COUNT_AGGREGATION );
+            if ( termsCount instanceof Cardinality ) {
+                totalBuckets = ( (Cardinality) termsCount ).getValue();
+            }
+
             // Build the response using the aggregated results.
             parseAggregationsResponse( metadata, hits, aggregations, columns );
 
@@ -98,12 +104,50 @@ public class NativeClientResponseParser {
 
         } else {
 
-            return new SearchResponse(tookInMilis, responseCode, totalHits, maxScore, totalShards, successfulShards, shardFailures, hits.toArray(new SearchHitResponse[hits.size()]));
+            return new SearchResponse(tookInMilis, responseCode, totalHits, maxScore, totalShards, successfulShards, shardFailures, hits.toArray(new SearchHitResponse[hits.size()]), totalBuckets);
 
         }
 
     }
 
+    /**
+     * Parses the field values of a single search hit straight into the given row array, following the order of the given columns.
+     *
+     * @param metadata The data set metadata.
+     * @param searchHit The search hit.
+     * @param columns The resulting data set columns.
+     * @param values The row to fill, its length must be the number of columns.
+     */
+    public void parseHit( DataSetMetadata metadata,
+                          SearchHit searchHit,
+                          List<DataColumn> columns,
+                          Object[] values ) throws ParseException {
+
+        Map<String, SearchHitField> sourceFields = searchHit.getFields();
+        boolean useFields = null != sourceFields && !sourceFields.isEmpty();
+        Map<String, Object> sourceAsMap = useFields ? null : searchHit.getSource();
+
+        for ( int i = 0; i < values.length; i++ ) {
+
+            DataColumn column = columns.get( i );
+            Object value = null;
+
+            if ( useFields ) {
+
+                SearchHitField hitValue = sourceFields.get( column.getId() );
+                value = hitValue != null ? hitValue.getValue() : null;
+
+            } else if ( null != sourceAsMap ) {
+
+                value = sourceAsMap.get( column.getId() );
+
+            }
+
+            values[i] = parseValue( metadata, column, value );
+        }
+
+    }
+
     private void parseHitsResponse( DataSetMetadata metadata,
                                     List<SearchHitResponse> hits,
                                     SearchHits responseHits,
@@ -190,12 +234,18 @@ public class NativeClientResponseParser {
 
             for (Aggregation aggregation : aggregations.asList()) {
 
+                // Not a data set column.
+                if ( NativeClientAggregationsBuilder.TERMS_COUNT_AGGREGATION.equals( aggregation.getName() ) ) {
+                    continue;
+                }
+
                 Object value = null;
 
                 // MultiBucketsAggregation
-                if (aggregation instanceof StringTerms) {
+                if (aggregation instanceof Terms) {
 
-                    StringTerms agg = (StringTerms) aggregation;
+                    // String and numeric (long, double) terms
+                    Terms agg = (Terms) aggregation;
 
                     Collection<Terms.Bucket> buckets = agg.getBuckets();
                     if ( buckets != null && !buckets.isEmpty() ) {
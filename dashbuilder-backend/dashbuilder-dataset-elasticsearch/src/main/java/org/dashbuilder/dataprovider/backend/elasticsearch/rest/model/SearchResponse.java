@@ -28,6 +28,7 @@ public class SearchResponse {
     private final  int successfulShards;
     private final  int shardFailures;
     private final  SearchHitResponse[] hits;
+    private final  long totalBuckets;
 
 
     public SearchResponse( long tookInMillis, 
@@ -38,6 +39,18 @@ public class SearchResponse {
                            int successfulShards, 
                            int shardFailures, 
                            SearchHitResponse[] hits ) {
+        this( tookInMillis, responseStatus, totalHits, maxScore, totalShards, successfulShards, shardFailures, hits, -1 );
+    }
+
+    public SearchResponse( long tookInMillis, 
+                           int responseStatus, 
+                           long totalHits, 
+                           float maxScore, 
+                           int totalShards, 
+                           int successfulShards, 
+                           int shardFailures, 
+                           SearchHitResponse[] hits,
+                           long totalBuckets ) {
         this.tookInMillis = tookInMillis;
         this.responseStatus = responseStatus;
         this.totalHits = totalHits;
@@ -46,6 +59,7 @@ public class SearchResponse {
         this.successfulShards = successfulShards;
         this.shardFailures = shardFailures;
         this.hits = hits;
+        this.totalBuckets = totalBuckets;
     }
 
     public long getTookInMillis() {
@@ -80,4 +94,11 @@ public class SearchResponse {
         return hits;
     }
 
+    /**
+     * The (approximate) number of buckets of a trimmed aggregation, or <code>-1</code> if the hits are all the buckets.
+     */
+    public long getTotalBuckets() {
+        return totalBuckets;
+    }
+
 }
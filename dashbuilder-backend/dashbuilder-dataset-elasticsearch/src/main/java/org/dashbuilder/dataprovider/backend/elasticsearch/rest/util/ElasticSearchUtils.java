@@ -52,6 +52,17 @@ public class ElasticSearchUtils {
         if (responseCode == null) return ElasticSearchClient.RESPONSE_CODE_OK;
         return Integer.decode(responseCode);
     }
+
+    /**
+     * Split a comma separated list of indexes or types.
+     */
+    public static String[] fromString(String str) {
+        if (str == null) return null;
+        if (str.trim().length() == 0) return new String[] {""};
+
+
+        return str.split(",");
+    }
     
     /**
      * <p>Obtain the minimum date and maximum date values for the given column with identifier <code>dateColumnId</code>.</p>
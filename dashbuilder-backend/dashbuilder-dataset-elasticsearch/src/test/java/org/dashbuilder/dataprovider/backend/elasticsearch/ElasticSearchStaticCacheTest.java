@@ -0,0 +1,114 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.backend.elasticsearch;
+
+import java.net.URL;
+
+import org.apache.commons.io.IOUtils;
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.columnar.ColumnarDataSet;
+import org.dashbuilder.dataset.def.ElasticSearchDataSetDef;
+import org.dashbuilder.dataset.sort.ColumnSort;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <p>Data test for the bulk load of cached data sets into the static cache, which reads the documents through a
+ * scroll cursor.</p>
+ * <p>It uses as source datasets: <code>org/dashbuilder/dataprovider/backend/elasticsearch/expensereports-static_cache.dset</code>
+ * and <code>org/dashbuilder/dataprovider/backend/elasticsearch/expensereports.dset</code></p>
+ *
+ * @since 0.5.0
+ */
+public class ElasticSearchStaticCacheTest extends ElasticSearchDataSetTestBase {
+
+    protected static final String EL_DATASET_UUID = "expense_reports";
+    protected static final String EL_STATIC_CACHE_DEF = "org/dashbuilder/dataprovider/backend/elasticsearch/expensereports-static_cache.dset";
+    protected static final String EL_STATIC_CACHE_UUID = "expense_reports_static_cache";
+    protected static final String EL_EXPENSES_DEF = "org/dashbuilder/dataprovider/backend/elasticsearch/expensereports.dset";
+    protected static final String EL_COLUMN_ID = "EXPENSES_ID";
+
+    // Not a divisor of the number of documents, so the last batch is not full.
+    protected static final int BATCH_SIZE = 7;
+
+    protected ElasticSearchDataSetProvider provider;
+    protected int bulkLoadBatchSize;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        provider = ElasticSearchDataSetProvider.get();
+        bulkLoadBatchSize = provider.getBulkLoadBatchSize();
+        provider.setBulkLoadBatchSize(BATCH_SIZE);
+
+        _registerDataSet(EL_EXPENSES_DEF);
+
+        // Cache the rows in descending id order
+        URL fileURL = Thread.currentThread().getContextClassLoader().getResource(EL_STATIC_CACHE_DEF);
+        ElasticSearchDataSetDef def = (ElasticSearchDataSetDef) jsonMarshaller.fromJson(IOUtils.toString(fileURL));
+        def.setColumnSort(new ColumnSort(EL_COLUMN_ID, SortOrder.DESCENDING));
+        dataSetDefRegistry.registerDataSetDef(def);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        provider.setBulkLoadBatchSize(bulkLoadBatchSize);
+        dataSetDefRegistry.removeDataSetDef(EL_STATIC_CACHE_UUID);
+    }
+
+    @Test
+    public void testBulkLoad() throws Exception {
+        DataSet cached = dataSetManager.lookupDataSet(
+                DataSetFactory.newDataSetLookupBuilder()
+                        .dataset(EL_STATIC_CACHE_UUID)
+                        .buildLookup());
+
+        // The rows are read into the static cache
+        DataSet staticDataSet = DataSetCore.get().getStaticDataSetProvider().lookupDataSet(EL_STATIC_CACHE_UUID, null);
+        Assert.assertTrue(staticDataSet instanceof ColumnarDataSet);
+
+        // Same rows and values as the uncached lookup, in the default order of the definition
+        DataSet expected = dataSetManager.lookupDataSet(
+                DataSetFactory.newDataSetLookupBuilder()
+                        .dataset(EL_DATASET_UUID)
+                        .sort(EL_COLUMN_ID, SortOrder.DESCENDING)
+                        .buildLookup());
+
+        Assert.assertEquals(50, expected.getRowCount());
+        Assert.assertEquals(expected.getRowCount(), cached.getRowCount());
+        Assert.assertEquals(expected.getColumns().size(), cached.getColumns().size());
+        for (int expectedIdx = 0; expectedIdx < expected.getColumns().size(); expectedIdx++) {
+            DataColumn column = cached.getColumnById(expected.getColumnByIndex(expectedIdx).getId());
+            Assert.assertNotNull(column);
+            int columnIdx = cached.getColumns().indexOf(column);
+            for (int row = 0; row < expected.getRowCount(); row++) {
+                Object expectedValue = expected.getValueAt(row, expectedIdx);
+                Object value = cached.getValueAt(row, columnIdx);
+                if (expectedValue instanceof Number && value instanceof Number) {
+                    Assert.assertEquals(((Number) expectedValue).doubleValue(), ((Number) value).doubleValue(), 0.001);
+                } else {
+                    Assert.assertEquals(expectedValue, value);
+                }
+            }
+        }
+    }
+}
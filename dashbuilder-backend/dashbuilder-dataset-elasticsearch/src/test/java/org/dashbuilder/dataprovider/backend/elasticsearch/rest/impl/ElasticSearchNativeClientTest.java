@@ -0,0 +1,354 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.backend.elasticsearch.rest.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dashbuilder.dataprovider.backend.elasticsearch.ElasticSearchClientFactory;
+import org.dashbuilder.dataprovider.backend.elasticsearch.ElasticSearchValueTypeMapper;
+import org.dashbuilder.dataprovider.backend.elasticsearch.rest.exception.ElasticSearchClientGenericException;
+import org.dashbuilder.dataprovider.backend.elasticsearch.rest.model.SearchHitResponse;
+import org.dashbuilder.dataprovider.backend.elasticsearch.rest.model.SearchRequest;
+import org.dashbuilder.dataprovider.backend.elasticsearch.rest.model.SearchResponse;
+import org.dashbuilder.dataprovider.backend.elasticsearch.rest.util.ElasticSearchUtils;
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSetMetadata;
+import org.dashbuilder.dataset.IntervalBuilderDynamicDate;
+import org.dashbuilder.dataset.def.ElasticSearchDataSetDef;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.group.ColumnGroup;
+import org.dashbuilder.dataset.group.DataSetGroup;
+import org.dashbuilder.dataset.group.GroupFunction;
+import org.dashbuilder.dataset.impl.DataColumnImpl;
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.action.ActionListener;
+import org.elasticsearch.action.search.MultiSearchRequestBuilder;
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.aggregations.Aggregation;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.terms.LongTerms;
+import org.elasticsearch.search.aggregations.bucket.terms.StringTerms;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.aggregations.metrics.cardinality.Cardinality;
+import org.elasticsearch.search.aggregations.metrics.valuecount.ValueCount;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ElasticSearchNativeClientTest {
+
+    static final String SERVER_URL = "localhost:9300";
+    static final String CLUSTER_NAME = "elasticsearch";
+    static final String INDEX = "expensereports";
+    static final String DEPT = "department";
+    static final String AMOUNT = "amount";
+    static final String COUNT = "count";
+
+    @Mock
+    NativeClientFactory nativeClientFactory;
+
+    @Mock
+    TransportClient client;
+
+    @Mock
+    DiscoveryNode node;
+
+    @Mock
+    ElasticSearchClientFactory clientFactory;
+
+    @Mock
+    IntervalBuilderDynamicDate intervalBuilder;
+
+    @Mock
+    ElasticSearchUtils utils;
+
+    @Mock
+    DataSetMetadata metadata;
+
+    NativeClientPool pool;
+    ElasticSearchNativeClient nativeClient;
+
+    @Before
+    public void setUp() throws Exception {
+        when(nativeClientFactory.newClient(anyString(), anyString(), anyLong())).thenReturn(client);
+        when(client.connectedNodes()).thenReturn(Collections.singletonList(node));
+        pool = new NativeClientPool(nativeClientFactory);
+
+        nativeClient = new ElasticSearchNativeClient(clientFactory, new ElasticSearchValueTypeMapper(), intervalBuilder, utils) {
+            @Override
+            protected NativeClientPool getClientPool() {
+                return pool;
+            }
+        };
+        nativeClient.serverURL(SERVER_URL).clusterName(CLUSTER_NAME).index(INDEX);
+
+        when(metadata.getNumberOfColumns()).thenReturn(2);
+        when(metadata.getColumnId(0)).thenReturn(DEPT);
+        when(metadata.getColumnId(1)).thenReturn(AMOUNT);
+        when(metadata.getColumnType(DEPT)).thenReturn(ColumnType.LABEL);
+        when(metadata.getColumnType(AMOUNT)).thenReturn(ColumnType.NUMBER);
+        when(metadata.getDefinition()).thenReturn(new ElasticSearchDataSetDef());
+    }
+
+    @Test
+    public void testTermsPages() throws Exception {
+        whenSearch(termsResponse(terms(0, 1000)), termsResponse(terms(1000, 1500)));
+
+        SearchResponse response = nativeClient.search(null, metadata, groupByDept(-1));
+        assertEquals(response.getHits().length, 1500);
+        assertEquals(distinctTerms(response), 1500);
+        verify(client, times(2)).search(any(org.elasticsearch.action.search.SearchRequest.class));
+    }
+
+    @Test
+    public void testMultiValuedTermsPages() throws Exception {
+        // Documents with some department after the last one of the first page bring earlier departments too
+        whenSearch(termsResponse(terms(0, 1000)), termsResponse(terms(500, 1001)), termsResponse(terms(0, 1001)));
+
+        SearchResponse response = nativeClient.search(null, metadata, groupByDept(-1));
+        assertEquals(response.getHits().length, 1001);
+        assertEquals(distinctTerms(response), 1001);
+
+        // All the buckets are requested at once, with no filter on the terms
+        ArgumentCaptor<org.elasticsearch.action.search.SearchRequest> captor =
+                ArgumentCaptor.forClass(org.elasticsearch.action.search.SearchRequest.class);
+        verify(client, times(3)).search(captor.capture());
+        assertFalse(captor.getValue().source().toUtf8().contains("range"));
+    }
+
+    @Test
+    public void testNumericTermsPages() throws Exception {
+        // Numeric terms are compared by value, so a page starting at 1000 goes after the one ending at 999
+        whenSearch(numericTermsResponse(0, 1000), numericTermsResponse(1000, 1500));
+
+        SearchResponse response = nativeClient.search(null, metadata, groupByDept(-1));
+        assertEquals(response.getHits().length, 1500);
+        assertEquals(distinctTerms(response), 1500);
+
+        ArgumentCaptor<org.elasticsearch.action.search.SearchRequest> captor =
+                ArgumentCaptor.forClass(org.elasticsearch.action.search.SearchRequest.class);
+        verify(client, times(2)).search(captor.capture());
+        assertTrue(captor.getValue().source().toUtf8().contains("\"from\":999"));
+    }
+
+    @Test
+    public void testTermsCount() throws Exception {
+        Cardinality termsCount = mock(Cardinality.class);
+        when(termsCount.getName()).thenReturn(NativeClientAggregationsBuilder.TERMS_COUNT_AGGREGATION);
+        when(termsCount.getValue()).thenReturn(25L);
+        whenSearch(termsResponse(terms(0, 10), termsCount));
+
+        SearchResponse response = nativeClient.search(null, metadata, groupByDept(10));
+        assertEquals(response.getHits().length, 10);
+        assertEquals(response.getTotalBuckets(), 25);
+    }
+
+    @Test
+    public void testSearchAsyncPages() throws Exception {
+        whenSearchAsync(termsResponse(terms(0, 1000)), termsResponse(terms(1000, 1200)));
+
+        CompletableFuture<SearchResponse> future = nativeClient.searchAsync(null, metadata, groupByDept(-1));
+        SearchResponse response = future.get();
+        assertEquals(response.getHits().length, 1200);
+        assertEquals(distinctTerms(response), 1200);
+        verify(client, times(2)).search(any(org.elasticsearch.action.search.SearchRequest.class), any(ActionListener.class));
+
+        // The pooled client is released once the future completes
+        NativeClientPool.PooledClient pooled = pool.getClients().iterator().next();
+        assertEquals(pooled.getRequests(), 1);
+        assertEquals(pooled.getInFlightRequests(), 0);
+        assertEquals(pooled.getFailedRequests(), 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMultiSearchAsyncFailure() throws Exception {
+        MultiSearchRequestBuilder multiSearch = mock(MultiSearchRequestBuilder.class);
+        when(client.prepareMultiSearch()).thenReturn(multiSearch);
+        doAnswer(new Answer<Void>() {
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                ActionListener listener = (ActionListener) invocation.getArguments()[0];
+                listener.onFailure(new IllegalStateException("No node available"));
+                return null;
+            }
+        }).when(multiSearch).execute(any(ActionListener.class));
+
+        ElasticSearchDataSetDef def = new ElasticSearchDataSetDef();
+        def.setIndex(INDEX);
+        CompletableFuture<SearchResponse[]> future = nativeClient.multiSearchAsync(
+                new ElasticSearchDataSetDef[] {def, def},
+                new DataSetMetadata[] {metadata, metadata},
+                new SearchRequest[] {groupByDept(10), groupByDept(20)});
+        try {
+            future.get();
+            fail("The multi search failure must be reported");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ElasticSearchClientGenericException);
+        }
+        verify(multiSearch, times(2)).add(any(org.elasticsearch.action.search.SearchRequestBuilder.class));
+
+        // The pooled client is released once the future completes
+        NativeClientPool.PooledClient pooled = pool.getClients().iterator().next();
+        assertEquals(pooled.getInFlightRequests(), 0);
+        assertEquals(pooled.getFailedRequests(), 1);
+    }
+
+    SearchRequest groupByDept(int size) {
+        DataSetGroup group = new DataSetGroup();
+        group.setColumnGroup(new ColumnGroup(DEPT, DEPT));
+        group.addGroupFunction(new GroupFunction(DEPT, DEPT, null), new GroupFunction(AMOUNT, COUNT, AggregateFunctionType.COUNT));
+
+        List<DataColumn> columns = new ArrayList<DataColumn>();
+        columns.add(new DataColumnImpl(DEPT, ColumnType.LABEL));
+        columns.add(new DataColumnImpl(COUNT, ColumnType.NUMBER));
+
+        SearchRequest request = new SearchRequest(metadata);
+        request.setColumns(columns);
+        request.setAggregations(Collections.singletonList(group));
+        request.setSize(size);
+        return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    void whenSearch(org.elasticsearch.action.search.SearchResponse first,
+                    org.elasticsearch.action.search.SearchResponse... next) {
+        ActionFuture<org.elasticsearch.action.search.SearchResponse>[] futures = new ActionFuture[next.length];
+        for (int i = 0; i < next.length; i++) {
+            futures[i] = future(next[i]);
+        }
+        ActionFuture<org.elasticsearch.action.search.SearchResponse> firstFuture = future(first);
+        when(client.search(any(org.elasticsearch.action.search.SearchRequest.class))).thenReturn(firstFuture, futures);
+    }
+
+    @SuppressWarnings("unchecked")
+    void whenSearchAsync(final org.elasticsearch.action.search.SearchResponse... pages) {
+        final AtomicInteger page = new AtomicInteger(0);
+        doAnswer(new Answer<Void>() {
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                ActionListener listener = (ActionListener) invocation.getArguments()[1];
+                listener.onResponse(pages[page.getAndIncrement()]);
+                return null;
+            }
+        }).when(client).search(any(org.elasticsearch.action.search.SearchRequest.class), any(ActionListener.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    ActionFuture<org.elasticsearch.action.search.SearchResponse> future(org.elasticsearch.action.search.SearchResponse response) {
+        ActionFuture<org.elasticsearch.action.search.SearchResponse> future = mock(ActionFuture.class);
+        when(future.actionGet()).thenReturn(response);
+        return future;
+    }
+
+    static List<String> terms(int from, int to) {
+        List<String> terms = new ArrayList<String>();
+        for (int i = from; i < to; i++) {
+            terms.add(String.format("dept%04d", i));
+        }
+        return terms;
+    }
+
+    static int distinctTerms(SearchResponse response) {
+        Set<Object> terms = new HashSet<Object>();
+        for (SearchHitResponse hit : response.getHits()) {
+            terms.add(hit.getFields().get(DEPT));
+        }
+        return terms.size();
+    }
+
+    static org.elasticsearch.action.search.SearchResponse numericTermsResponse(int from, int to) {
+        List<String> terms = new ArrayList<String>();
+        for (int i = from; i < to; i++) {
+            terms.add(String.valueOf(i));
+        }
+        return termsResponse(mock(LongTerms.class), terms);
+    }
+
+    static org.elasticsearch.action.search.SearchResponse termsResponse(List<String> terms, Aggregation... others) {
+        return termsResponse(mock(StringTerms.class), terms, others);
+    }
+
+    static org.elasticsearch.action.search.SearchResponse termsResponse(Terms deptTerms, List<String> terms, Aggregation... others) {
+        List<Terms.Bucket> buckets = new ArrayList<Terms.Bucket>();
+        for (String term : terms) {
+            ValueCount count = mock(ValueCount.class);
+            when(count.getName()).thenReturn(COUNT);
+            when(count.getValue()).thenReturn(1L);
+
+            Aggregations bucketAggregations = aggregations(count);
+            Terms.Bucket bucket = mock(Terms.Bucket.class);
+            when(bucket.getKeyAsString()).thenReturn(term);
+            if (deptTerms instanceof LongTerms) {
+                when(bucket.getKeyAsNumber()).thenReturn(Long.valueOf(term));
+            }
+            when(bucket.getAggregations()).thenReturn(bucketAggregations);
+            buckets.add(bucket);
+        }
+
+        when(deptTerms.getName()).thenReturn(DEPT);
+        doReturn(buckets).when(deptTerms).getBuckets();
+
+        Aggregation[] aggregations = new Aggregation[others.length + 1];
+        aggregations[0] = deptTerms;
+        System.arraycopy(others, 0, aggregations, 1, others.length);
+        Aggregations responseAggregations = aggregations(aggregations);
+
+        SearchHits hits = mock(SearchHits.class);
+        when(hits.getHits()).thenReturn(new SearchHit[0]);
+        when(hits.getTotalHits()).thenReturn(10000L);
+
+        org.elasticsearch.action.search.SearchResponse response = mock(org.elasticsearch.action.search.SearchResponse.class);
+        when(response.getHits()).thenReturn(hits);
+        when(response.getAggregations()).thenReturn(responseAggregations);
+        return response;
+    }
+
+    static Aggregations aggregations(Aggregation... aggregations) {
+        Map<String, Aggregation> aggregationMap = new LinkedHashMap<String, Aggregation>();
+        for (Aggregation aggregation : aggregations) {
+            aggregationMap.put(aggregation.getName(), aggregation);
+        }
+
+        Aggregations result = mock(Aggregations.class);
+        when(result.asList()).thenReturn(new ArrayList<Aggregation>(aggregationMap.values()));
+        when(result.asMap()).thenReturn(aggregationMap);
+        for (Map.Entry<String, Aggregation> entry : aggregationMap.entrySet()) {
+            doReturn(entry.getValue()).when(result).get(entry.getKey());
+        }
+        return result;
+    }
+}
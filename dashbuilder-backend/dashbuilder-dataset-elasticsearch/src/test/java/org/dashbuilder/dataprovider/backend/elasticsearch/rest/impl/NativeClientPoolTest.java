@@ -0,0 +1,222 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.backend.elasticsearch.rest.impl;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.elasticsearch.client.Client;
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.cluster.node.DiscoveryNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NativeClientPoolTest {
+
+    static final String SERVER_URL = "localhost:9300";
+    static final String CLUSTER_NAME = "elasticsearch";
+
+    @Mock
+    NativeClientFactory clientFactory;
+
+    @Mock
+    TransportClient client;
+
+    @Mock
+    TransportClient otherClient;
+
+    @Mock
+    DiscoveryNode node;
+
+    NativeClientPool pool;
+
+    long now = 0;
+
+    @Before
+    public void setUp() throws Exception {
+        when(clientFactory.newClient(anyString(), anyString(), anyLong())).thenReturn(client, otherClient);
+        when(client.connectedNodes()).thenReturn(Collections.singletonList(node));
+        when(otherClient.connectedNodes()).thenReturn(Collections.singletonList(node));
+        pool = new NativeClientPool(clientFactory) {
+            @Override
+            protected long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void testSharedClient() throws Exception {
+        NativeClientPool.PooledClient pooled1 = pool.acquire(SERVER_URL, CLUSTER_NAME, 30000);
+        NativeClientPool.PooledClient pooled2 = pool.acquire(SERVER_URL, CLUSTER_NAME, 30000);
+        assertSame(pooled1, pooled2);
+        assertEquals(pooled1.getReferences(), 2);
+        verify(clientFactory, times(1)).newClient(SERVER_URL, CLUSTER_NAME, 30000);
+
+        // Closed once released by all the data sets
+        pool.release(pooled1);
+        verify(client, never()).close();
+        pool.release(pooled2);
+        verify(client).close();
+        assertTrue(pool.getClients().isEmpty());
+    }
+
+    @Test
+    public void testTimeoutKey() throws Exception {
+        NativeClientPool.PooledClient pooled1 = pool.acquire(SERVER_URL, CLUSTER_NAME, 30000);
+        NativeClientPool.PooledClient pooled2 = pool.acquire(SERVER_URL, CLUSTER_NAME, 5000);
+        assertNotSame(pooled1, pooled2);
+        assertSame(pooled1.begin(), client);
+        assertSame(pooled2.begin(), otherClient);
+        verify(clientFactory).newClient(SERVER_URL, CLUSTER_NAME, 5000);
+    }
+
+    @Test
+    public void testReplaceAfterFailure() throws Exception {
+        NativeClientPool.PooledClient pooled = pool.acquire(SERVER_URL, CLUSTER_NAME, 30000);
+        assertSame(pooled.begin(), client);
+
+        when(client.connectedNodes()).thenReturn(Collections.<DiscoveryNode>emptyList());
+        pooled.end(true);
+        assertFalse(pooled.isHealthy());
+        assertEquals(pooled.getFailedRequests(), 1);
+
+        // Replaced on the next request
+        assertSame(pooled.begin(), otherClient);
+        assertTrue(pooled.isHealthy());
+        verify(client).close();
+    }
+
+    @Test
+    public void testReplaceBackoff() throws Exception {
+        NativeClientPool.PooledClient pooled = pool.acquire(SERVER_URL, CLUSTER_NAME, 30000);
+        when(client.connectedNodes()).thenReturn(Collections.<DiscoveryNode>emptyList());
+        when(otherClient.connectedNodes()).thenReturn(Collections.<DiscoveryNode>emptyList());
+        pooled.begin();
+        pooled.end(true);
+
+        // The first replacement is immediate
+        assertSame(pooled.begin(), otherClient);
+        pooled.end(true);
+        verify(clientFactory, times(2)).newClient(SERVER_URL, CLUSTER_NAME, 30000);
+
+        // The cluster is still down, so it's not rebuilt again until the retry delay elapses
+        pooled.begin();
+        pooled.end(true);
+        pool.checkHealth();
+        verify(clientFactory, times(2)).newClient(SERVER_URL, CLUSTER_NAME, 30000);
+
+        now += NativeClientPool.MIN_RETRY_DELAY;
+        pooled.begin();
+        pooled.end(true);
+        verify(clientFactory, times(3)).newClient(SERVER_URL, CLUSTER_NAME, 30000);
+
+        // The delay doubles on every attempt
+        now += NativeClientPool.MIN_RETRY_DELAY;
+        pool.checkHealth();
+        verify(clientFactory, times(3)).newClient(SERVER_URL, CLUSTER_NAME, 30000);
+        now += NativeClientPool.MIN_RETRY_DELAY;
+        pool.checkHealth();
+        verify(clientFactory, times(4)).newClient(SERVER_URL, CLUSTER_NAME, 30000);
+    }
+
+    @Test
+    public void testReplaceFailure() throws Exception {
+        NativeClientPool.PooledClient pooled = pool.acquire(SERVER_URL, CLUSTER_NAME, 30000);
+        when(client.connectedNodes()).thenReturn(Collections.<DiscoveryNode>emptyList());
+        pooled.begin();
+        pooled.end(true);
+
+        // The broken client is kept if the new one can't be built
+        when(clientFactory.newClient(anyString(), anyString(), anyLong())).thenThrow(new RuntimeException("Down"));
+        assertSame(pooled.begin(), client);
+        assertFalse(pooled.isHealthy());
+        verify(client, never()).close();
+    }
+
+    @Test
+    public void testReplaceOutsideLock() throws Exception {
+        final NativeClientPool.PooledClient pooled = pool.acquire(SERVER_URL, CLUSTER_NAME, 30000);
+        when(client.connectedNodes()).thenReturn(Collections.<DiscoveryNode>emptyList());
+        pooled.begin();
+        pooled.end(true);
+
+        // Other clusters can be acquired while the new client is being built
+        final AtomicBoolean acquired = new AtomicBoolean(false);
+        when(clientFactory.newClient(anyString(), anyString(), anyLong())).thenAnswer(new Answer<Client>() {
+            public Client answer(InvocationOnMock invocation) throws Throwable {
+                if (!CLUSTER_NAME.equals(invocation.getArguments()[1])) {
+                    return client;
+                }
+                Thread thread = new Thread() {
+                    public void run() {
+                        try {
+                            pool.acquire(SERVER_URL, "other", 30000);
+                            acquired.set(true);
+                        } catch (Exception e) {
+                            // Not acquired
+                        }
+                    }
+                };
+                thread.start();
+                thread.join(5000);
+                return otherClient;
+            }
+        });
+        assertSame(pooled.begin(), otherClient);
+        assertTrue(acquired.get());
+        assertEquals(pool.getClients().size(), 2);
+    }
+
+    @Test
+    public void testScheduledHealthCheck() throws Exception {
+        NativeClientPool.PooledClient pooled = pool.acquire(SERVER_URL, CLUSTER_NAME, 30000);
+        when(client.connectedNodes()).thenReturn(Collections.<DiscoveryNode>emptyList());
+
+        // Broken clients in use are not replaced until their requests are completed
+        pooled.begin();
+        pool.checkHealth();
+        assertFalse(pooled.isHealthy());
+        verify(client, never()).close();
+
+        pooled.end(false);
+        pool.checkHealth();
+        assertTrue(pooled.isHealthy());
+        verify(client).close();
+        assertSame(pooled.begin(), otherClient);
+    }
+
+    @Test
+    public void testReleasedClient() throws Exception {
+        NativeClientPool.PooledClient pooled = pool.acquire(SERVER_URL, CLUSTER_NAME, 30000);
+        pool.release(pooled);
+        try {
+            pooled.begin();
+            fail("Released clients can't be used");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.dashbuilder.dataprovider.backend.elasticsearch.suite;
+
+import org.dashbuilder.dataprovider.backend.elasticsearch.rest.impl.ElasticSearchNativeClientTest;
+import org.dashbuilder.dataprovider.backend.elasticsearch.rest.impl.NativeClientPoolTest;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+/**
+ * Test Suite for the client classes which can be tested against mocked native clients, so no Elastic Search
+ * instance is required.
+ */
+@RunWith(Suite.class)
+@Suite.SuiteClasses({
+        NativeClientPoolTest.class,
+        ElasticSearchNativeClientTest.class,
+})
+public class ElasticSearchClientTestSuite {
+}
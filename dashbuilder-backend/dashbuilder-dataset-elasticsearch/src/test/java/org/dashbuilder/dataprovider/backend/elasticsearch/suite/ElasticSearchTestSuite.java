@@ -81,6 +81,7 @@ import java.io.StringWriter;
         ElasticSearchDataSetTest.class,
         ElasticSearchEmptyIntervalsTest.class,
         ElasticSearchMultiFieldsTest.class,
+        ElasticSearchStaticCacheTest.class,
 })
 public class ElasticSearchTestSuite {
 
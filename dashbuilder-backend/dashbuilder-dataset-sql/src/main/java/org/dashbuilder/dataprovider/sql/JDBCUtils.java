@@ -17,9 +17,11 @@ package org.dashbuilder.dataprovider.sql;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -111,9 +113,130 @@ public class JDBCUtils {
         }
     }
 
+    /**
+     * Execute the given SQL through a prepared statement. Keeping the literal values out of the SQL text makes
+     * the database (and the connection pool's statement cache, if any) reuse the same plan for every execution.
+     * @param params The values to bind to the statement placeholders, in order.
+     */
+    public static void execute(Connection connection, Dialect dialect, String sql, List<Object> params) throws SQLException {
+        PreparedStatement stmt = null;
+        try {
+            logSQL(sql, params);
+            stmt = prepareStatement(connection, dialect, sql, params);
+            stmt.execute();
+        } catch (SQLException e) {
+            log.error(sql);
+            throw e;
+        } finally {
+            close(stmt);
+        }
+    }
+
+    /**
+     * Execute the given query through a prepared statement. Use {@link #close(ResultSet)} once the results are
+     * read in order to release the statement as well.
+     * @param params The values to bind to the statement placeholders, in order.
+     */
+    public static ResultSet executeQuery(Connection connection, Dialect dialect, String sql, List<Object> params) throws SQLException {
+        return executeQuery(connection, dialect, sql, params, 0);
+    }
+
+    /**
+     * Same as {@link #executeQuery(Connection, Dialect, String, List)} but streaming the results in blocks of
+     * the given size, so the driver does not need to keep all the rows in memory. Be aware some drivers only
+     * honour the fetch size under certain conditions (i.e: Postgres requires the auto-commit mode to be off).
+     * @param fetchSize The number of rows to get on every round trip (0 or less means driver's default).
+     */
+    public static ResultSet executeQuery(Connection connection, Dialect dialect, String sql, List<Object> params, int fetchSize) throws SQLException {
+        return executeQuery(connection, dialect, sql, params, fetchSize, false);
+    }
+
+    /**
+     * Same as {@link #executeQuery(Connection, Dialect, String, List, int)} but reading the rows from a server side
+     * cursor. The fetch size set on the statement is the one the dialect asks for, which might be negative as some
+     * drivers give such values a special meaning (see {@link Dialect#getStreamingFetchSize(int)}).
+     */
+    public static ResultSet executeStreamingQuery(Connection connection, Dialect dialect, String sql, List<Object> params, int fetchSize) throws SQLException {
+        return executeQuery(connection, dialect, sql, params, fetchSize, true);
+    }
+
+    protected static ResultSet executeQuery(Connection connection, Dialect dialect, String sql, List<Object> params, int fetchSize, boolean streaming) throws SQLException {
+        PreparedStatement stmt = null;
+        try {
+            logSQL(sql, params);
+            stmt = prepareStatement(connection, dialect, sql, params);
+            if (streaming) {
+                int streamingFetchSize = dialect.getStreamingFetchSize(fetchSize > 0 ? fetchSize : 0);
+                if (streamingFetchSize != 0) {
+                    stmt.setFetchSize(streamingFetchSize);
+                }
+            } else if (fetchSize > 0) {
+                stmt.setFetchSize(fetchSize);
+            }
+            return stmt.executeQuery();
+        } catch (SQLException e) {
+            log.error(sql);
+            close(stmt);
+            throw e;
+        }
+    }
+
+    public static PreparedStatement prepareStatement(Connection connection, Dialect dialect, String sql, List<Object> params) throws SQLException {
+        PreparedStatement stmt = connection.prepareStatement(sql);
+        try {
+            for (int i = 0; i < params.size(); i++) {
+                dialect.setParameter(stmt, i + 1, params.get(i));
+            }
+            return stmt;
+        } catch (SQLException e) {
+            close(stmt);
+            throw e;
+        }
+    }
+
+    /**
+     * Close the result set along with the statement that created it.
+     */
+    public static void close(ResultSet resultSet) {
+        if (resultSet != null) {
+            try {
+                Statement stmt = resultSet.getStatement();
+                resultSet.close();
+                close(stmt);
+            } catch (SQLException e) {
+                log.warn("Error closing result set: " + e.getMessage());
+            }
+        }
+    }
+
+    public static void close(Statement stmt) {
+        if (stmt != null) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                log.warn("Error closing statement: " + e.getMessage());
+            }
+        }
+    }
+
+    protected static void logSQL(String sql, List<Object> params) {
+        if (log.isDebugEnabled()) {
+            log.debug(params.isEmpty() ? sql : sql + " " + params);
+        }
+    }
+
     public static Dialect dialect(Connection connection) {
         try {
-            DatabaseMetaData m = connection.getMetaData();
+            return dialect(connection.getMetaData());
+        }
+        catch (SQLException e) {
+            e.printStackTrace();
+            return DEFAULT;
+        }
+    }
+
+    public static Dialect dialect(DatabaseMetaData m) {
+        try {
             String url = m.getURL();
             if (!StringUtils.isBlank(url)) {
                 return dialect(url, m.getDatabaseMajorVersion());
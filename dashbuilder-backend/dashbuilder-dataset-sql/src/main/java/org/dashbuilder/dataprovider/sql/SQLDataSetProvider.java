@@ -17,13 +17,18 @@ package org.dashbuilder.dataprovider.sql;
 
 import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.naming.InitialContext;
 import javax.sql.DataSource;
 
@@ -31,6 +36,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.dashbuilder.DataSetCore;
 import org.dashbuilder.dataprovider.DataSetProvider;
 import org.dashbuilder.dataprovider.DataSetProviderType;
+import org.dashbuilder.dataprovider.DataSetStreamProvider;
 import org.dashbuilder.dataprovider.StaticDataSetProvider;
 import org.dashbuilder.dataprovider.sql.dialect.Dialect;
 import org.dashbuilder.dataprovider.sql.model.Column;
@@ -39,6 +45,8 @@ import org.dashbuilder.dataprovider.sql.model.Select;
 import org.dashbuilder.dataprovider.sql.model.SortColumn;
 import org.dashbuilder.dataprovider.sql.model.Table;
 import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.columnar.ColumnarDataColumn;
+import org.dashbuilder.dataset.columnar.ColumnarDataSet;
 import org.dashbuilder.dataset.DataColumn;
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetFactory;
@@ -46,6 +54,7 @@ import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetMetadata;
 import org.dashbuilder.dataset.DataSetOp;
 import org.dashbuilder.dataset.DataSetOpEngine;
+import org.dashbuilder.dataset.DataSetRowHandler;
 import org.dashbuilder.dataset.IntervalBuilderDynamicDate;
 import org.dashbuilder.dataset.date.DateUtils;
 import org.dashbuilder.dataset.date.TimeFrame;
@@ -95,7 +104,7 @@ import org.slf4j.LoggerFactory;
  *      - Group (fixed) by date of week
  *  </p>
  */
-public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryListener {
+public class SQLDataSetProvider implements DataSetProvider, DataSetStreamProvider, DataSetDefRegistryListener {
 
     private static SQLDataSetProvider SINGLETON = null;
 
@@ -138,6 +147,9 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
     protected IntervalBuilderLocator intervalBuilderLocator;
     protected IntervalBuilderDynamicDate intervalBuilderDynamicDate;
     protected DataSetOpEngine opEngine;
+    protected boolean countOverEnabled = true;
+    protected int fetchSize = 1000;
+    protected boolean rowEstimateEnabled = true;
 
     public SQLDataSetProvider() {
     }
@@ -167,6 +179,7 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
 
     public void setDataSourceLocator(SQLDataSourceLocator dataSourceLocator) {
         this.dataSourceLocator = dataSourceLocator;
+        _profileMap.clear();
     }
 
     public IntervalBuilderLocator getIntervalBuilderLocator() {
@@ -193,6 +206,44 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         this.opEngine = opEngine;
     }
 
+    public boolean isCountOverEnabled() {
+        return countOverEnabled;
+    }
+
+    /**
+     * Enable the fetch of a page of rows and the total number of rows in a single query through a
+     * <i>COUNT(*) OVER ()</i> window function, on those databases supporting it. Otherwise, the rows are
+     * counted with a separate query.
+     */
+    public void setCountOverEnabled(boolean countOverEnabled) {
+        this.countOverEnabled = countOverEnabled;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Number of rows to get from the database on every round trip when reading the results of a query
+     * (0 means the JDBC driver's default). It avoids drivers to load the whole result set into memory
+     * before the data set is built.
+     */
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public boolean isRowEstimateEnabled() {
+        return rowEstimateEnabled;
+    }
+
+    /**
+     * Enable the use of the database statistics to get the number of rows of the data sets reading from a DB
+     * table, instead of counting them. Rows are still counted when an exact figure is required.
+     */
+    public void setRowEstimateEnabled(boolean rowEstimateEnabled) {
+        this.rowEstimateEnabled = rowEstimateEnabled;
+    }
+
     public DataSetProviderType getType() {
         return DataSetProviderType.SQL;
     }
@@ -209,15 +260,24 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         // Look first into the static data set provider cache.
         if (sqlDef.isCacheEnabled()) {
             DataSet dataSet = staticDataSetProvider.lookupDataSet(def.getUUID(), null);
+
+            // Bring a stale data set up to date by fetching just the new rows, or load it again if not possible
+            if (dataSet != null && _appendPendingSet.remove(def.getUUID())) {
+                dataSet = _appendNewRows(sqlDef, dataSet);
+                if (dataSet == null) {
+                    staticDataSetProvider.removeDataSet(def.getUUID());
+                }
+            }
             if (dataSet != null) {
 
                 // Lookup from cache.
                 return staticDataSetProvider.lookupDataSet(def.getUUID(), lookup);
             } else  {
 
-                // Fetch always from database if existing rows are greater than the cache max. rows
+                // Fetch always from database if existing rows are greater than the cache max. rows. The metadata
+                // row count might be estimated from the database statistics, so the rows are counted instead.
                 DataSetMetadata metadata = getDataSetMetadata(def);
-                int rows = metadata.getNumberOfRows();
+                int rows = _countRows(sqlDef, metadata);
                 if (rows > sqlDef.getCacheMaxRows()) {
                     return _lookupDataSet(sqlDef, lookup);
                 }
@@ -234,16 +294,49 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         return _lookupDataSet(sqlDef, lookup);
     }
 
+    /**
+     * Stream the rows straight from the database, unless the data set is already held by the static cache.
+     */
+    public boolean streamDataSet(DataSetDef def, DataSetLookup lookup, DataSetRowHandler handler) throws Exception {
+        SQLDataSetDef sqlDef = (SQLDataSetDef) def;
+        if (StringUtils.isBlank(sqlDef.getDataSource())) {
+            throw new IllegalArgumentException("Missing data source in SQL data set definition: " + sqlDef);
+        }
+        if (StringUtils.isBlank(sqlDef.getDbSQL()) && StringUtils.isBlank(sqlDef.getDbTable())) {
+            throw new IllegalArgumentException("Missing DB table or SQL in the data set definition: " + sqlDef);
+        }
+        if (sqlDef.isCacheEnabled() && staticDataSetProvider.lookupDataSet(def.getUUID(), null) != null) {
+            return false;
+        }
+        LookupProcessor processor = new LookupProcessor(sqlDef, lookup);
+        return processor.stream(handler);
+    }
+
     public boolean isDataSetOutdated(DataSetDef def) {
 
         // Non fetched data sets can't get outdated.
         MetadataHolder last = _metadataMap.remove(def.getUUID());
         if (last == null) return false;
 
+        // Get the DB columns again, as they might have changed too
+        _removeCachedColumns((SQLDataSetDef) def);
+
         // Check if the metadata has changed since the last time it was fetched.
         try {
-            DataSetMetadata current = getDataSetMetadata(def);
-            return !current.equals(last.metadata);
+            SQLDataSetDef sqlDef = (SQLDataSetDef) def;
+            DataSource ds = dataSourceLocator.lookup(sqlDef);
+            Connection conn = ds.getConnection();
+            try {
+                MetadataHolder current = _getMetadataHolder(sqlDef, conn, false);
+
+                // Row counts might be estimated, so rely on the change probe if available
+                if (last.changeStamp != null && current.changeStamp != null) {
+                    return !current.changeStamp.equals(last.changeStamp) || !_sameColumns(current.metadata, last.metadata);
+                }
+                return !current.metadata.equals(last.metadata);
+            } finally {
+                conn.close();
+            }
         }
         catch (Exception e) {
             log.error("Error fetching metadata: " + def, e);
@@ -267,7 +360,9 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
     @Override
     public void onDataSetDefStale(DataSetDef def) {
         if (DataSetProviderType.SQL.equals(def.getProvider())) {
-            staticDataSetProvider.removeDataSet(def.getUUID());
+            _removeCachedResults(def.getUUID());
+            _removeCachedColumns((SQLDataSetDef) def);
+            _removeCachedDataSet((SQLDataSetDef) def, true);
         }
     }
 
@@ -276,7 +371,9 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         if (DataSetProviderType.SQL.equals(olDef.getProvider())) {
             String uuid = olDef.getUUID();
             _metadataMap.remove(uuid);
-            staticDataSetProvider.removeDataSet(uuid);
+            _removeCachedResults(uuid);
+            _removeCachedColumns((SQLDataSetDef) olDef);
+            _removeCachedDataSet((SQLDataSetDef) olDef, false);
         }
     }
 
@@ -285,7 +382,9 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         if (DataSetProviderType.SQL.equals(oldDef.getProvider())) {
             String uuid = oldDef.getUUID();
             _metadataMap.remove(uuid);
-            staticDataSetProvider.removeDataSet(uuid);
+            _removeCachedResults(uuid);
+            _removeCachedColumns((SQLDataSetDef) oldDef);
+            _removeCachedDataSet((SQLDataSetDef) oldDef, false);
         }
     }
 
@@ -299,9 +398,158 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
     protected class MetadataHolder {
         DataSetMetadataImpl metadata;
         List<Column> columns;
+        String changeStamp;
+    }
+
+    protected transient Map<String,MetadataHolder> _metadataMap = new ConcurrentHashMap<String,MetadataHolder>();
+
+    /**
+     * The profile of every data source (by name) resolved so far.
+     */
+    protected transient Map<String,SQLDataSourceProfile> _profileMap = new ConcurrentHashMap<String,SQLDataSourceProfile>();
+
+    protected SQLDataSourceProfile _getProfile(SQLDataSetDef def, Connection conn) throws SQLException {
+        String dataSource = def.getDataSource();
+        SQLDataSourceProfile profile = _profileMap.get(dataSource);
+        if (profile == null) {
+            profile = SQLDataSourceProfile.create(conn);
+            _profileMap.put(dataSource, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * The DB columns only depend on the table (or SQL) the data set reads from.
+     */
+    protected String _getColumnsKey(SQLDataSetDef def) {
+        return def.getDbSchema() + "|" + def.getDbTable() + "|" + def.getDbSQL();
+    }
+
+    protected void _removeCachedColumns(SQLDataSetDef def) {
+        SQLDataSourceProfile profile = _profileMap.get(def.getDataSource());
+        if (profile != null) {
+            profile.removeColumns(_getColumnsKey(def));
+        }
+    }
+
+    /**
+     * Max. number of distinct query results (row counts, date limits, ... one per query and filter
+     * combination) cached per data set.
+     */
+    protected static final int QUERY_RESULT_CACHE_SIZE = 100;
+
+    protected transient Map<String,Map<String,Object>> _queryResultMap = new HashMap<String,Map<String,Object>>();
+
+    protected Object _getCachedResult(String uuid, String key) {
+        synchronized (_queryResultMap) {
+            Map<String,Object> resultMap = _queryResultMap.get(uuid);
+            return resultMap == null ? null : resultMap.get(key);
+        }
+    }
+
+    protected void _putCachedResult(String uuid, String key, Object result) {
+        synchronized (_queryResultMap) {
+            Map<String,Object> resultMap = _queryResultMap.get(uuid);
+            if (resultMap == null) {
+                resultMap = new LinkedHashMap<String,Object>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String,Object> eldest) {
+                        return size() > QUERY_RESULT_CACHE_SIZE;
+                    }
+                };
+                _queryResultMap.put(uuid, resultMap);
+            }
+            resultMap.put(key, result);
+        }
+    }
+
+    /**
+     * Query results can only be cached for data sets firing an stale event on every data change. Data sets with
+     * a refresh policy do so if they are refreshed always, or held by the static cache, or if the database provides
+     * a change probe. Otherwise, they only get stale when the row count changes (see {@link #isDataSetOutdated(DataSetDef)}).
+     */
+    protected boolean _isStaleOnChanges(SQLDataSetDef def) {
+        if (StringUtils.isBlank(def.getRefreshTime())) {
+            return false;
+        }
+        if (def.isRefreshAlways() || def.isCacheEnabled()) {
+            return true;
+        }
+        MetadataHolder holder = _metadataMap.get(def.getUUID());
+        return holder != null && holder.changeStamp != null;
+    }
+
+    protected void _removeCachedResults(String uuid) {
+        synchronized (_queryResultMap) {
+            _queryResultMap.remove(uuid);
+        }
     }
 
-    protected transient Map<String,MetadataHolder> _metadataMap = new HashMap<String,MetadataHolder>();
+    /**
+     * The cached data sets (by uuid) got stale which are to be refreshed incrementally on its next lookup.
+     */
+    protected transient Set<String> _appendPendingSet = Collections.newSetFromMap(new ConcurrentHashMap<String,Boolean>());
+
+    /**
+     * Discard the data set held in the static cache.
+     * @param stale If true and the definition has an incremental column then the cached data set is kept and
+     * just the new rows are fetched on its next lookup (see {@link #_appendNewRows(SQLDataSetDef, DataSet)}).
+     */
+    protected void _removeCachedDataSet(SQLDataSetDef def, boolean stale) {
+        String uuid = def.getUUID();
+        if (stale && def.isCacheEnabled() && !StringUtils.isBlank(def.getCacheIncrementalColumn())
+                && staticDataSetProvider.lookupDataSet(uuid, null) != null) {
+            _appendPendingSet.add(uuid);
+        } else {
+            _appendPendingSet.remove(uuid);
+            staticDataSetProvider.removeDataSet(uuid);
+        }
+    }
+
+    /**
+     * Append to a cached data set the rows whose incremental column value is greater than the last one cached.
+     * @return The updated data set or null if it can't be refreshed incrementally, either because the column
+     * is missing or because existing rows have been deleted (the row count doesn't match) or the data set
+     * columns have changed. In such case the whole data set must be loaded again.
+     */
+    protected DataSet _appendNewRows(SQLDataSetDef def, DataSet dataSet) throws Exception {
+        String columnId = def.getCacheIncrementalColumn();
+        DataColumn column = dataSet.getColumnById(columnId);
+        if (column == null) {
+            log.warn("Incremental column not found, the data set is to be loaded again: " + columnId);
+            return null;
+        }
+        Comparable lastValue = null;
+        for (Object value : column.getValues()) {
+            if (value != null && (lastValue == null || ((Comparable) value).compareTo(lastValue) > 0)) {
+                lastValue = (Comparable) value;
+            }
+        }
+        if (lastValue == null) {
+            return null;
+        }
+        DataSetFilter filter = new DataSetFilter();
+        filter.addFilterColumn(FilterFactory.greaterThan(columnId, lastValue));
+        DataSet newRows = _lookupDataSet(def, new DataSetLookup(def.getUUID(), filter));
+
+        MetadataHolder last = _metadataMap.get(def.getUUID());
+        int rowCount = dataSet.getRowCount() + newRows.getRowCount();
+        if (last == null || rowCount > def.getCacheMaxRows() || _countRows(def, last.metadata) != rowCount) {
+            return null;
+        }
+        if (newRows.getColumns().size() != dataSet.getColumns().size()) {
+            return null;
+        }
+        for (int i = 0; i < newRows.getColumns().size(); i++) {
+            if (!newRows.getColumnByIndex(i).getId().equals(dataSet.getColumnByIndex(i).getId())) {
+                return null;
+            }
+        }
+        if (newRows.getRowCount() == 0) {
+            return dataSet;
+        }
+        return staticDataSetProvider.appendRows(def.getUUID(), newRows);
+    }
 
     protected Column _getDbColumn(Collection<Column> dbColumns, String columnId) {
         for (Column dbColumn: dbColumns) {
@@ -313,12 +561,16 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
     }
 
     protected DataSetMetadata _getDataSetMetadata(SQLDataSetDef def, Connection conn, boolean skipCache) throws Exception {
+        return _getMetadataHolder(def, conn, skipCache).metadata;
+    }
+
+    protected MetadataHolder _getMetadataHolder(SQLDataSetDef def, Connection conn, boolean skipCache) throws Exception {
 
         // Check the cache
         if (!skipCache) {
             MetadataHolder result = _metadataMap.get(def.getUUID());
             if (result != null) {
-                return result.metadata;
+                return result;
             }
         }
 
@@ -376,8 +628,16 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
                 targetDbColumnTypes, 0);
 
 
+        // Rows are only estimated when changes can be detected without counting them (see isDataSetOutdated)
+        if (!skipCache) {
+            result.changeStamp = _getChangeStamp(def, conn);
+        }
+        int rowCount = skipCache || result.changeStamp != null ? _estimateRowCount(def, conn) : -1;
+        if (rowCount < 0) {
+            rowCount = _getRowCount(result.metadata, def, conn);
+        }
+
         // Calculate the estimated size
-        int rowCount = _getRowCount(result.metadata, def, conn);
         int estimatedSize = 0;
         for (int i=0; i<targetDbColumnIds.size(); i++) {
             ColumnType cType = targetDbColumnTypes.get(i);
@@ -402,25 +662,112 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         } else if (log.isDebugEnabled()) {
             log.debug("Using look-up in test mode. Skipping adding data set metadata for uuid [" + def.getUUID() + "] into cache.");
         }
-        return result.metadata;
+        return result;
+    }
+
+    protected boolean _sameColumns(DataSetMetadata metadata, DataSetMetadata other) {
+        if (metadata.getNumberOfColumns() != other.getNumberOfColumns()) {
+            return false;
+        }
+        for (int i = 0; i < metadata.getNumberOfColumns(); i++) {
+            if (!metadata.getColumnId(i).equals(other.getColumnId(i))
+                    || !metadata.getColumnType(i).equals(other.getColumnType(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimate the number of rows from the database statistics. Only data sets reading a whole DB table can
+     * be estimated, as neither custom SQLs nor filters are taken into account by such statistics.
+     * @return The estimated number of rows or -1 if not available.
+     */
+    protected int _estimateRowCount(SQLDataSetDef def, Connection conn) throws SQLException {
+        if (!rowEstimateEnabled || def.getDataSetFilter() != null) {
+            return -1;
+        }
+        Dialect dialect = _getProfile(def, conn).getDialect();
+        Object estimate = _queryTableStats(def, conn, dialect.getRowEstimateSQL(!StringUtils.isBlank(def.getDbSchema())));
+        if (!(estimate instanceof Number)) {
+            return -1;
+        }
+        // Tables never analyzed might report no rows at all
+        int rowCount = (int) Math.min(((Number) estimate).longValue(), Integer.MAX_VALUE);
+        return rowCount > 0 ? rowCount : -1;
+    }
+
+    /**
+     * Get a value from the database statistics which changes every time the rows of the data set table are
+     * modified, much cheaper than counting the rows.
+     * @return null if not available, either because the database does not provide it or the data set reads
+     * from a custom SQL.
+     */
+    protected String _getChangeStamp(SQLDataSetDef def, Connection conn) throws SQLException {
+        Dialect dialect = _getProfile(def, conn).getDialect();
+        Object stamp = _queryTableStats(def, conn, dialect.getChangeProbeSQL(!StringUtils.isBlank(def.getDbSchema())));
+        return stamp != null ? stamp.toString() : null;
+    }
+
+    protected Object _queryTableStats(SQLDataSetDef def, Connection conn, String sql) throws SQLException {
+        SQLDataSourceProfile profile = _getProfile(def, conn);
+        if (sql == null || !StringUtils.isBlank(def.getDbSQL()) || profile.isStatsQueryFailed(sql)) {
+            return null;
+        }
+        List<Object> params = new ArrayList<Object>();
+        params.add(profile.fixCase(def.getDbTable()));
+        if (!StringUtils.isBlank(def.getDbSchema())) {
+            params.add(profile.fixCase(def.getDbSchema()));
+        }
+        ResultSet rs = null;
+        try {
+            rs = JDBCUtils.executeQuery(conn, profile.getDialect(), sql, params);
+            return rs.next() ? rs.getObject(1) : null;
+        } catch (SQLException e) {
+            log.warn("Database statistics not available, rows will be counted instead: " + e.getMessage());
+            profile.setStatsQueryFailed(sql);
+            return null;
+        } finally {
+            JDBCUtils.close(rs);
+        }
+    }
+
+    /**
+     * Get the exact number of rows of the data set.
+     */
+    protected int _countRows(SQLDataSetDef def, DataSetMetadata metadata) throws Exception {
+        DataSource ds = dataSourceLocator.lookup(def);
+        Connection conn = ds.getConnection();
+        try {
+            return _getRowCount(metadata, def, conn);
+        } finally {
+            conn.close();
+        }
     }
 
     protected List<Column> _getColumns(SQLDataSetDef def, Connection conn) throws Exception {
-        Dialect dialect = JDBCUtils.dialect(conn);
-        if (!StringUtils.isBlank(def.getDbSQL())) {
-            Select query = SQLFactory.select(conn).from(def.getDbSQL()).limit(1);
-            return JDBCUtils.getColumns(logSQL(query).fetch(), dialect.getExcludedColumns());
+        SQLDataSourceProfile profile = _getProfile(def, conn);
+        String key = _getColumnsKey(def);
+        List<Column> columns = profile.getColumns(key);
+        if (columns != null) {
+            return columns;
         }
-        else {
-            Select query = SQLFactory.select(conn).from(_createTable(def)).limit(1);
-            return JDBCUtils.getColumns(logSQL(query).fetch(), dialect.getExcludedColumns());
+        Select query = SQLFactory.select(conn, profile).limit(1);
+        _appendFrom(def, query);
+        ResultSet rs = logSQL(query).fetch();
+        try {
+            columns = JDBCUtils.getColumns(rs, profile.getDialect().getExcludedColumns());
+            profile.setColumns(key, columns);
+            return columns;
+        } finally {
+            JDBCUtils.close(rs);
         }
     }
 
     protected int _getRowCount(DataSetMetadata metadata, SQLDataSetDef def, Connection conn) throws Exception {
 
         // Count rows, either on an SQL or a DB table
-        Select _query = SQLFactory.select(conn);
+        Select _query = SQLFactory.select(conn, _getProfile(def, conn));
         _appendFrom(def, _query);
 
         // Filters set must be taken into account
@@ -611,13 +958,19 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
         DataSetMetadata metadata;
         Select _query;
         Connection conn;
+        SQLDataSourceProfile profile;
         Date[] dateLimits;
         DateIntervalType dateIntervalType;
+        int countOverRows = -1;
+        boolean columnar;
         List<DataSetOp> postProcessingOps = new ArrayList<DataSetOp>();
 
         public LookupProcessor(SQLDataSetDef def, DataSetLookup lookup) {
             this.def = def;
             this.lookup = lookup;
+
+            // A full load is meant to be kept in memory (see the static cache), so it's stored in primitive arrays
+            this.columnar = lookup == null;
             DataSetFilter dataSetFilter = def.getDataSetFilter();
             if (dataSetFilter != null) {
                 if (lookup == null) {
@@ -632,93 +985,221 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
             DataSource ds = dataSourceLocator.lookup(def);
             conn = ds.getConnection();
             try {
-                metadata = _getDataSetMetadata(def, conn, lookup.testMode());
+                profile = _getProfile(def, conn);
+                metadata = _getDataSetMetadata(def, conn, lookup != null && lookup.testMode());
                 int totalRows = metadata.getNumberOfRows();
                 boolean trim = (lookup != null && (lookup.getNumberOfRows() > 0 || lookup.getRowOffset() > 0));
+                boolean wholeDataSet = lookup == null || lookup.getOperationList().isEmpty();
 
-                // The whole data set
-                if (lookup == null || lookup.getOperationList().isEmpty()) {
+                // Prepare the select
+                List<DataColumn> columns = _prepareQuery();
 
-                    // Prepare the select
-                    _query = SQLFactory.select(conn).columns(_createAllColumns());
-                    _appendFrom(def, _query);
+                // ... and the row limits
+                if (trim) {
+                    totalRows = _appendRowLimits();
+                }
 
-                    // Row limits
-                    if (trim) {
-                        totalRows = _query.fetchCount();
-                        _query.limit(lookup.getNumberOfRows()).offset(lookup.getRowOffset());
+                // Fetch the results and build the data set
+                ResultSet _results = logSQL(_query).fetchSize(_getFetchSize()).fetch();
+                DataSet dataSet;
+                try {
+                    dataSet = _buildDataSet(columns, _results);
+                } finally {
+                    JDBCUtils.close(_results);
+                }
+                if (trim) {
+                    totalRows = _query.isCountOver() ? _getCountOverRows() : totalRows;
+                    if (!wholeDataSet) {
+                        totalRows = lookup.getNumberOfRows() > dataSet.getRowCount() ? dataSet.getRowCount() : totalRows;
                     }
+                    dataSet.setRowCountNonTrimmed(totalRows);
+                }
+                return dataSet;
+            } finally {
+                conn.close();
+            }
+        }
 
-                    // Fetch the results and build the data set
-                    ResultSet _results = logSQL(_query).fetch();
-                    List<DataColumn> columns = calculateColumns(null);
-                    DataSet dataSet = _buildDataSet(columns, _results);
-                    if (trim) {
-                        dataSet.setRowCountNonTrimmed(totalRows);
+        /**
+         * Pass the rows to the handler as they are read from a forward-only cursor, so the memory used does not
+         * depend on the number of rows. No count query is issued, as the total number of rows is not needed.
+         * @return false if the lookup requires some in-memory post-processing and can't be streamed.
+         */
+        public boolean stream(DataSetRowHandler handler) throws Exception {
+            DataSource ds = dataSourceLocator.lookup(def);
+            conn = ds.getConnection();
+            try {
+                profile = _getProfile(def, conn);
+                metadata = _getDataSetMetadata(def, conn, lookup != null && lookup.testMode());
+                List<DataColumn> columns = _prepareQuery();
+                if (!postProcessingOps.isEmpty()) {
+                    return false;
+                }
+                for (DataColumn column : columns) {
+                    if (_isDateGroup(column) && column.getColumnGroup().areEmptyIntervalsAllowed()) {
+                        return false;
                     }
-                    return dataSet;
                 }
-                // ... or a list of operations.
-                else {
-                    DataSetGroup groupOp = null;
-                    int groupIdx = lookup.getFirstGroupOpIndex(0, null, false);
-                    if (groupIdx != -1) groupOp = lookup.getOperation(groupIdx);
-
-                    // Prepare the select
-                    _query = SQLFactory.select(conn).columns(_createColumns(groupOp));
-                    _appendFrom(def, _query);
+                if (lookup != null && (lookup.getNumberOfRows() > 0 || lookup.getRowOffset() > 0)) {
+                    _query.limit(lookup.getNumberOfRows()).offset(lookup.getRowOffset());
+                }
 
-                    // Append the filter clauses
-                    for (DataSetFilter filterOp : lookup.getOperationList(DataSetFilter.class)) {
-                        _appendFilterBy(metadata, def, filterOp, _query);
+                // Some drivers only read from a server side cursor within a transaction
+                Dialect dialect = profile.getDialect();
+                boolean autoCommit = dialect.isStreamingTransactional() && conn.getAutoCommit();
+                if (autoCommit) {
+                    conn.setAutoCommit(false);
+                }
+                try {
+                    ResultSet _results = logSQL(_query).fetchSize(_getFetchSize()).streaming(true).fetch();
+                    try {
+                        ResultReader reader = new ResultReader(columns, _results);
+                        handler.columns(reader.columns);
+                        Object[] row = new Object[columns.size()];
+                        while (reader.next()) {
+                            for (int i = 0; i < row.length; i++) {
+                                row[i] = reader.read(i);
+                            }
+                            handler.row(row);
+                        }
+                    } finally {
+                        JDBCUtils.close(_results);
                     }
-
-                    // Append the interval selections
-                    List<DataSetGroup> intervalSelects = lookup.getFirstGroupOpSelections();
-                    for (DataSetGroup intervalSelect : intervalSelects) {
-                        _appendIntervalSelection(intervalSelect, _query);
+                } finally {
+                    if (autoCommit) {
+                        conn.rollback();
+                        conn.setAutoCommit(true);
                     }
+                }
+                return true;
+            } finally {
+                conn.close();
+            }
+        }
 
-                    // ... the group by clauses
-                    ColumnGroup cg = null;
-                    if (groupOp != null) {
-                        cg = groupOp.getColumnGroup();
-                        if (cg != null) {
-                            _appendGroupBy(groupOp);
-                        }
-                    }
+        /**
+         * Build the select for the lookup, except for the row limits.
+         * @return The columns the select returns.
+         */
+        protected List<DataColumn> _prepareQuery() {
+
+            // The whole data set
+            if (lookup == null || lookup.getOperationList().isEmpty()) {
+                _query = SQLFactory.select(conn, profile).columns(_createAllColumns());
+                _appendFrom(def, _query);
+                return calculateColumns(null);
+            }
+            // ... or a list of operations.
+            DataSetGroup groupOp = null;
+            int groupIdx = lookup.getFirstGroupOpIndex(0, null, false);
+            if (groupIdx != -1) groupOp = lookup.getOperation(groupIdx);
 
-                    // ... the sort clauses
-                    DataSetSort sortOp = lookup.getFirstSortOp();
-                    if (sortOp != null) {
-                        if (cg != null) {
-                            _appendOrderGroupBy(groupOp, sortOp);
-                        } else {
-                            _appendOrderBy(sortOp);
-                        }
-                    } else if (cg != null) {
-                        _appendOrderGroupBy(groupOp);
-                    }
+            _query = SQLFactory.select(conn, profile).columns(_createColumns(groupOp));
+            _appendFrom(def, _query);
 
-                    // ... and the row limits
-                    if (trim) {
-                        totalRows = _query.fetchCount();
-                        _query.limit(lookup.getNumberOfRows()).offset(lookup.getRowOffset());
-                    }
+            // Append the filter clauses
+            for (DataSetFilter filterOp : lookup.getOperationList(DataSetFilter.class)) {
+                _appendFilterBy(metadata, def, filterOp, _query);
+            }
 
-                    // Fetch the results and build the data set
-                    ResultSet _results = logSQL(_query).fetch();
-                    List<DataColumn> columns = calculateColumns(groupOp);
-                    DataSet dataSet = _buildDataSet(columns, _results);
-                    if (trim) {
-                        totalRows = lookup.getNumberOfRows() > dataSet.getRowCount() ? dataSet.getRowCount() : totalRows;
-                        dataSet.setRowCountNonTrimmed(totalRows);
-                    }
-                    return dataSet;
+            // Append the interval selections
+            List<DataSetGroup> intervalSelects = lookup.getFirstGroupOpSelections();
+            for (DataSetGroup intervalSelect : intervalSelects) {
+                _appendIntervalSelection(intervalSelect, _query);
+            }
+
+            // ... the group by clauses
+            ColumnGroup cg = null;
+            if (groupOp != null) {
+                cg = groupOp.getColumnGroup();
+                if (cg != null) {
+                    _appendGroupBy(groupOp);
                 }
+            }
+
+            // ... and the sort clauses
+            DataSetSort sortOp = lookup.getFirstSortOp();
+            if (sortOp != null) {
+                if (cg != null) {
+                    _appendOrderGroupBy(groupOp, sortOp);
+                } else {
+                    _appendOrderBy(sortOp);
+                }
+            } else if (cg != null) {
+                _appendOrderGroupBy(groupOp);
+            }
+            return calculateColumns(groupOp);
+        }
+
+        /**
+         * Apply the lookup row limits to the query. If the database supports window functions then the total
+         * number of rows is fetched along with the rows (see {@link #_getCountOverRows()}). Otherwise, a
+         * count query is issued beforehand.
+         * @return The total number of rows or -1 if not yet known.
+         */
+        protected int _appendRowLimits() throws SQLException {
+            int totalRows = -1;
+            if (countOverEnabled && profile.isCountOverSupported()) {
+                _query.countOver(true);
+            } else {
+                totalRows = _fetchRowCount();
+            }
+            _query.limit(lookup.getNumberOfRows()).offset(lookup.getRowOffset());
+            return totalRows;
+        }
+
+        protected int _getCountOverRows() throws SQLException {
+            if (countOverRows != -1) {
+                return countOverRows;
+            }
+            // An empty page, either no rows at all or the offset is out of bounds
+            if (_query.getOffset() <= 0) {
+                return 0;
+            }
+            int offset = _query.getOffset();
+            int limit = _query.getLimit();
+            try {
+                _query.countOver(false).limit(-1).offset(-1);
+                return _fetchRowCount();
             } finally {
-                conn.close();
+                _query.countOver(true).limit(limit).offset(offset);
+            }
+        }
+
+        /**
+         * Count the rows the query returns. Counts are cached (per data set and filter combination) for those
+         * data sets getting stale on every data change (see {@link #_isCacheable()}). Further pages of the same
+         * lookup do not need to count the rows again.
+         */
+        protected int _fetchRowCount() throws SQLException {
+            if (!_isCacheable()) {
+                return _query.fetchCount();
+            }
+            List<Object> params = new ArrayList<Object>();
+            String key = _getCacheKey(_query.getCountSQL(params), params);
+            Integer count = (Integer) _getCachedResult(def.getUUID(), key);
+            if (count == null) {
+                count = _query.fetchCount();
+                _putCachedResult(def.getUUID(), key, count);
+            }
+            return count;
+        }
+
+        /**
+         * Query results are only cached for data sets getting stale on every data change, since
+         * the cache is cleared every time the data set gets stale (see {@link #_isStaleOnChanges(SQLDataSetDef)}).
+         */
+        protected boolean _isCacheable() {
+            return lookup != null && !lookup.testMode() && _isStaleOnChanges(def);
+        }
+
+        protected String _getCacheKey(String sql, List<Object> params) {
+            StringBuilder key = new StringBuilder(sql);
+            for (Object param : params) {
+                key.append("|").append(param.getClass().getName()).append(":");
+                key.append(param instanceof Date ? ((Date) param).getTime() : param);
             }
+            return key.toString();
         }
 
         protected DateIntervalType calculateDateInterval(ColumnGroup cg) {
@@ -737,20 +1218,19 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
             return dateIntervalType;
         }
 
+        /**
+         * Get both the min. and the max. date in a single query. The limits are cached per filter
+         * combination (see {@link #_isCacheable()}).
+         */
         protected Date[] calculateDateLimits(String dateColumnId) {
             if (dateLimits != null) {
                 return dateLimits;
             }
 
-            Date minDate = calculateDateLimit(dateColumnId, true);
-            Date maxDate = calculateDateLimit(dateColumnId, false);
-            return dateLimits = new Date[] {minDate, maxDate};
-        }
-
-        protected Date calculateDateLimit(String dateColumnId, boolean min) {
             String dbColumnId = _columnFromMetadata(metadata, dateColumnId);
-            Column _dateColumn = SQLFactory.column(dbColumnId);
-            Select _limitsQuery = SQLFactory.select(conn).columns(_dateColumn);
+            Select _limitsQuery = SQLFactory.select(conn, profile).columns(
+                    SQLFactory.column(dbColumnId).function(AggregateFunctionType.MIN),
+                    SQLFactory.column(dbColumnId).function(AggregateFunctionType.MAX));
             _appendFrom(def, _limitsQuery);
 
             // Append the filter clauses
@@ -765,20 +1245,39 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
             }
 
             try {
-                // Fetch the date
-                ResultSet rs = logSQL(_limitsQuery
-                        .where(_dateColumn.notNull())
-                        .orderBy(min ? _dateColumn.asc() : _dateColumn.desc())
-                        .limit(1)).fetch();
+                String key = null;
+                if (_isCacheable()) {
+                    List<Object> params = new ArrayList<Object>();
+                    key = _getCacheKey(_limitsQuery.getSQL(params), params);
+                    Date[] limits = (Date[]) _getCachedResult(def.getUUID(), key);
+                    if (limits != null) {
+                        return dateLimits = limits;
+                    }
+                }
+                dateLimits = calculateDateLimits(_limitsQuery);
+                if (key != null) {
+                    _putCachedResult(def.getUUID(), key, dateLimits);
+                }
+                return dateLimits;
+            } catch (SQLException e) {
+                log.error("Error reading date limits from query results", e);
+                return dateLimits = new Date[] {null, null};
+            }
+        }
 
+        protected Date[] calculateDateLimits(Select _limitsQuery) throws SQLException {
+            ResultSet rs = logSQL(_limitsQuery).fetch();
+            try {
                 if (!rs.next()) {
-                    return null;
-                } else {
-                    return rs.getDate(1);
+                    return new Date[] {null, null};
                 }
-            } catch (SQLException e) {
-                log.error("Error reading date limit from query results", e);
-                return null;
+                Dialect dialect = profile.getDialect();
+                ResultSetMetaData rsMetadata = rs.getMetaData();
+                Date minDate = dialect.getDate(rs, 1, rsMetadata.getColumnType(1));
+                Date maxDate = dialect.getDate(rs, 2, rsMetadata.getColumnType(2));
+                return new Date[] {minDate, maxDate};
+            } finally {
+                JDBCUtils.close(rs);
             }
         }
 
@@ -1004,84 +1503,73 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
             }
         }
 
+        protected int _getFetchSize() {
+            int rows = _query.getLimit();
+            if (rows > 0 && _query.isOffsetPostProcessing() && _query.getOffset() > 0) {
+                rows += _query.getOffset();
+            }
+            return rows > 0 && rows < fetchSize ? rows : fetchSize;
+        }
+
+        /**
+         * The number of rows to allocate room for in every column before reading the results.
+         */
+        protected int _getExpectedRows() {
+            int limit = _query.getLimit();
+            int total = metadata.getNumberOfRows();
+            int expectedRows = fetchSize > 0 ? fetchSize : 0;
+
+            // The table row count is only an accurate figure for a plain load of the whole data set, any filter,
+            // group or aggregate function might give just a few rows
+            boolean wholeDataSet = lookup == null || lookup.getOperationList().isEmpty();
+            if (wholeDataSet && _query.getWheres().isEmpty() && total > 0) {
+                expectedRows = total;
+            }
+            return limit > 0 && limit < expectedRows ? limit : expectedRows;
+        }
+
         protected DataSet _buildDataSet(List<DataColumn> columns, ResultSet _rs) throws Exception {
-            DataSet dataSet = DataSetFactory.newEmptyDataSet();
+            int expectedRows = _getExpectedRows();
+            DataSet dataSet = columnar ? new ColumnarDataSet(expectedRows) : DataSetFactory.newEmptyDataSet();
             dataSet.setUUID(def.getUUID());
             dataSet.setDefinition(def);
             DataColumn dateGroupColumn = null;
             boolean dateIncludeEmptyIntervals = false;
 
             // Create an empty data set
+            ResultReader reader = new ResultReader(columns, _rs);
+            List[] columnValues = new List[columns.size()];
             for (int i = 0; i < columns.size(); i++) {
-                DataColumn column = columns.get(i).cloneEmpty();
+                DataColumn column = reader.columns.get(i);
+                if (columnar) {
+                    ColumnarDataColumn columnarColumn = ColumnarDataColumn.create(column.getId(), column.getColumnType(), expectedRows);
+                    columnarColumn.setColumnGroup(column.getColumnGroup());
+                    columnarColumn.setGroupFunction(column.getGroupFunction());
+                    columnarColumn.setIntervalType(column.getIntervalType());
+                    columnarColumn.setMinValue(column.getMinValue());
+                    columnarColumn.setMaxValue(column.getMaxValue());
+                    column = columnarColumn;
+                } else {
+                    column.setValues(new ArrayList(expectedRows));
+                }
+                if (_isDateGroup(columns.get(i))) {
+                    dateGroupColumn = column;
+                    dateIncludeEmptyIntervals = column.getColumnGroup().areEmptyIntervalsAllowed();
+                }
                 dataSet.addColumn(column);
-            }
-
-            // Offset post-processing
-            if (_query.isOffsetPostProcessing() && _query.getOffset() > 0) {
-                // Move the cursor to the specified offset or until the end of the result set is reached
-                for (int i=0; i<_query.getOffset() && _rs.next(); i++);
+                columnValues[i] = dataSet.getColumnByIndex(i).getValues();
             }
 
             // Populate the data set
-            int rowIdx = 0;
-            int numRows = _query.getLimit();
-            while (_rs.next() && (numRows < 0 || rowIdx++ < numRows)) {
+            while (reader.next()) {
                 for (int i=0; i<columns.size(); i++) {
-                    DataColumn column = dataSet.getColumnByIndex(i);
-                    column.getValues().add(_rs.getObject(i+1));
+                    columnValues[i].add(reader.read(i));
                 }
             }
-
-            // Process the data set values according to each column type and the JDBC dialect
-            Dialect dialect = JDBCUtils.dialect(conn);
-            for (DataColumn column : dataSet.getColumns()) {
-                ColumnType columnType = column.getColumnType();
-                List values = column.getValues();
-
-                if (ColumnType.LABEL.equals(columnType)) {
-                    ColumnGroup cg = column.getColumnGroup();
-                    if (cg != null && ColumnType.DATE.equals(metadata.getColumnType(cg.getSourceId()))) {
-                        dateGroupColumn = column;
-                        dateIncludeEmptyIntervals = cg.areEmptyIntervalsAllowed();
-
-                        // If grouped by date then convert back to absolute dates
-                        // in order to allow the post processing of the data set.
-                        column.setColumnType(ColumnType.DATE);
-                        for (int j=0; j<values.size(); j++) {
-                            Object val = values.remove(j);
-                            Date dateObj = DateUtils.parseDate(column, val);
-                            values.add(j, dateObj);
-                        }
-                    }
-                    else {
-                        for (int j=0; j<values.size(); j++) {
-                            Object value = dialect.convertToString(values.remove(j));
-                            values.add(j, value);
-                        }
-                    }
-                }
-                else if (ColumnType.NUMBER.equals(columnType)) {
-                    for (int j=0; j<values.size(); j++) {
-                        Object value = dialect.convertToDouble(values.remove(j));
-                        values.add(j, value);
-                    }
-                }
-                else if (ColumnType.DATE.equals(columnType)) {
-                    for (int j=0; j<values.size(); j++) {
-                        Object value = dialect.convertToDate(values.remove(j));
-                        values.add(j, value);
-                    }
-                }
-                else {
-                    for (int j=0; j<values.size(); j++) {
-                        Object value = dialect.convertToString(values.remove(j));
-                        values.add(j, value);
-                    }
-                }
-
-                column.setValues(values);
+            if (columnar) {
+                ((ColumnarDataSet) dataSet).trimToSize();
             }
+
             // Some operations requires some in-memory post-processing
             if (!postProcessingOps.isEmpty()) {
                 DataSet tempSet = opEngine.execute(dataSet, postProcessingOps);
@@ -1119,6 +1607,91 @@ public class SQLDataSetProvider implements DataSetProvider, DataSetDefRegistryLi
             return dataSet;
         }
 
+        /**
+         * Whether the column groups by a date column. Such groups are calculated as labels but returned as dates,
+         * in order to allow the post processing of the data set.
+         */
+        protected boolean _isDateGroup(DataColumn column) {
+            ColumnGroup cg = column.getColumnGroup();
+            return ColumnType.LABEL.equals(column.getColumnType()) && cg != null
+                    && ColumnType.DATE.equals(metadata.getColumnType(cg.getSourceId()));
+        }
+
+        /**
+         * Reads the rows of a query result within the row limits. Every column value is read from the result set
+         * with the JDBC getter matching the target column type.
+         */
+        private class ResultReader {
+
+            ResultSet _rs;
+            Dialect dialect;
+            List<DataColumn> columns = new ArrayList<DataColumn>();
+            int[] sqlTypes;
+            ColumnType[] readTypes;
+            boolean[] dateGroups;
+            int rowIdx = 0;
+
+            ResultReader(List<DataColumn> columnList, ResultSet _rs) throws SQLException {
+                this._rs = _rs;
+                this.dialect = profile.getDialect();
+                ResultSetMetaData rsMetadata = _rs.getMetaData();
+                sqlTypes = new int[columnList.size()];
+                readTypes = new ColumnType[columnList.size()];
+                dateGroups = new boolean[columnList.size()];
+                for (int i = 0; i < columnList.size(); i++) {
+                    DataColumn column = columnList.get(i).cloneEmpty();
+                    sqlTypes[i] = rsMetadata.getColumnType(i+1);
+                    readTypes[i] = column.getColumnType();
+                    if (_isDateGroup(column)) {
+
+                        // If grouped by date then convert back to absolute dates.
+                        // Dialects supporting date truncation already return dates.
+                        column.setColumnType(ColumnType.DATE);
+                        if (ColumnType.DATE.equals(JDBCUtils.calculateType(sqlTypes[i]))) {
+                            readTypes[i] = ColumnType.DATE;
+                        } else {
+                            dateGroups[i] = true;
+                        }
+                    }
+                    columns.add(column);
+                }
+            }
+
+            boolean next() throws SQLException {
+                // Offset post-processing
+                if (rowIdx == 0 && _query.isOffsetPostProcessing() && _query.getOffset() > 0) {
+                    // Move the cursor to the specified offset or until the end of the result set is reached
+                    for (int i=0; i<_query.getOffset() && _rs.next(); i++);
+                }
+                int numRows = _query.getLimit();
+                if ((numRows >= 0 && rowIdx >= numRows) || !_rs.next()) {
+                    return false;
+                }
+                rowIdx++;
+
+                // The total number of rows comes in the last column
+                if (_query.isCountOver() && countOverRows == -1) {
+                    countOverRows = _rs.getInt(columns.size()+1);
+                }
+                return true;
+            }
+
+            Object read(int i) throws Exception {
+                ColumnType readType = readTypes[i];
+                int idx = i+1;
+                if (dateGroups[i]) {
+                    return DateUtils.parseDate(columns.get(i), _rs.getObject(idx));
+                }
+                if (ColumnType.NUMBER.equals(readType)) {
+                    return dialect.getDouble(_rs, idx, sqlTypes[i]);
+                }
+                if (ColumnType.DATE.equals(readType)) {
+                    return dialect.getDate(_rs, idx, sqlTypes[i]);
+                }
+                return dialect.getString(_rs, idx, sqlTypes[i]);
+            }
+        }
+
         protected Collection<Column> _createAllColumns() {
             Collection<Column> columns = new ArrayList<Column>();
             for (int i = 0; i < metadata.getNumberOfColumns(); i++) {
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.sql;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.dashbuilder.dataprovider.sql.dialect.Dialect;
+import org.dashbuilder.dataprovider.sql.model.Column;
+
+/**
+ * Database metadata of a data source which is expensive to get (on some drivers, every call to the
+ * {@link DatabaseMetaData} interface is a round trip to the database) and that does not change over time:
+ * the dialect, the identifier case rules and the columns of the data sets reading from it.
+ */
+public class SQLDataSourceProfile {
+
+    protected Dialect dialect;
+    protected boolean lowerCaseIdentifiers;
+    protected boolean upperCaseIdentifiers;
+    protected boolean countOverSupported;
+    protected Map<String,List<Column>> columnsMap = new ConcurrentHashMap<String,List<Column>>();
+    protected Map<String,Boolean> failedStatsMap = new ConcurrentHashMap<String,Boolean>();
+
+    /**
+     * Read the profile from the metadata of the given connection.
+     */
+    public static SQLDataSourceProfile create(Connection connection) throws SQLException {
+        SQLDataSourceProfile profile = new SQLDataSourceProfile();
+        DatabaseMetaData metadata = connection.getMetaData();
+        profile.dialect = JDBCUtils.dialect(metadata);
+        profile.lowerCaseIdentifiers = metadata.storesLowerCaseIdentifiers();
+        profile.upperCaseIdentifiers = !profile.lowerCaseIdentifiers && metadata.storesUpperCaseIdentifiers();
+        profile.countOverSupported = profile.dialect.supportsCountOver(metadata);
+        return profile;
+    }
+
+    public Dialect getDialect() {
+        return dialect;
+    }
+
+    public boolean isCountOverSupported() {
+        return countOverSupported;
+    }
+
+    /**
+     * Same as {@link JDBCUtils#fixCase(Connection, String)} but with no calls to the database.
+     */
+    public String fixCase(String id) {
+        if (lowerCaseIdentifiers) {
+            return JDBCUtils.changeCaseExcludeQuotes(id, false);
+        }
+        if (upperCaseIdentifiers) {
+            return JDBCUtils.changeCaseExcludeQuotes(id, true);
+        }
+        return id;
+    }
+
+    /**
+     * Get the DB columns of the given data set, if already fetched.
+     */
+    public List<Column> getColumns(String uuid) {
+        return columnsMap.get(uuid);
+    }
+
+    public void setColumns(String uuid, List<Column> columns) {
+        columnsMap.put(uuid, columns);
+    }
+
+    public void removeColumns(String uuid) {
+        columnsMap.remove(uuid);
+    }
+
+    /**
+     * Check if a statistics query (see {@link Dialect#getRowEstimateSQL(boolean)}) has already failed on this data
+     * source, usually because the user is not granted access to the catalog views. Such queries are not issued again.
+     */
+    public boolean isStatsQueryFailed(String sql) {
+        return failedStatsMap.containsKey(sql);
+    }
+
+    public void setStatsQueryFailed(String sql) {
+        failedStatsMap.put(sql, Boolean.TRUE);
+    }
+}
@@ -40,6 +40,13 @@ public class SQLFactory {
         return new Select(connection, dialect);
     }
 
+    /**
+     * Create a select statement taking the dialect and the identifier case rules from the given profile.
+     */
+    public static Select select(Connection connection, SQLDataSourceProfile profile) {
+        return new Select(connection, profile.getDialect()).profile(profile);
+    }
+
     public static Insert insert(Connection connection) {
         Dialect dialect = JDBCUtils.dialect(connection);
         return new Insert(connection, dialect);
@@ -15,6 +15,8 @@
  */
 package org.dashbuilder.dataprovider.sql.dialect;
 
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -25,26 +27,26 @@ import org.dashbuilder.dataset.group.DateIntervalType;
 
 public class DB2Dialect extends DefaultDialect {
 
-    public static final String PATTERN_YEAR = "YYYY";
-    public static final String PATTERN_MONTH = "YYYY-MM";
-    public static final String PATTERN_DAY = "YYYY-MM-DD";
-    public static final String PATTERN_HOUR = "YYYY-MM-DD HH24";
-    public static final String PATTERN_MINUTE = "YYYY-MM-DD HH24:MI";
-    public static final String PATTERN_SECOND = "YYYY-MM-DD HH24:MI:SS";
+    public static final String TRUNC_YEAR = "YYYY";
+    public static final String TRUNC_MONTH = "MM";
+    public static final String TRUNC_DAY = "DD";
+    public static final String TRUNC_HOUR = "HH24";
+    public static final String TRUNC_MINUTE = "MI";
+    public static final String TRUNC_SECOND = "SS";
 
-    private static Map<DateIntervalType,String> datePatternMap = new HashMap<DateIntervalType, String>();
+    private static Map<DateIntervalType,String> dateTruncMap = new HashMap<DateIntervalType, String>();
     static {
-        datePatternMap.put(DateIntervalType.SECOND, PATTERN_SECOND);
-        datePatternMap.put(DateIntervalType.MINUTE, PATTERN_MINUTE);
-        datePatternMap.put(DateIntervalType.HOUR, PATTERN_HOUR);
-        datePatternMap.put(DateIntervalType.DAY, PATTERN_DAY);
-        datePatternMap.put(DateIntervalType.WEEK, PATTERN_DAY);
-        datePatternMap.put(DateIntervalType.MONTH, PATTERN_MONTH);
-        datePatternMap.put(DateIntervalType.QUARTER, PATTERN_MONTH);
-        datePatternMap.put(DateIntervalType.YEAR, PATTERN_YEAR);
-        datePatternMap.put(DateIntervalType.DECADE, PATTERN_YEAR);
-        datePatternMap.put(DateIntervalType.CENTURY, PATTERN_YEAR);
-        datePatternMap.put(DateIntervalType.MILLENIUM, PATTERN_YEAR);
+        dateTruncMap.put(DateIntervalType.SECOND, TRUNC_SECOND);
+        dateTruncMap.put(DateIntervalType.MINUTE, TRUNC_MINUTE);
+        dateTruncMap.put(DateIntervalType.HOUR, TRUNC_HOUR);
+        dateTruncMap.put(DateIntervalType.DAY, TRUNC_DAY);
+        dateTruncMap.put(DateIntervalType.WEEK, TRUNC_DAY);
+        dateTruncMap.put(DateIntervalType.MONTH, TRUNC_MONTH);
+        dateTruncMap.put(DateIntervalType.QUARTER, TRUNC_MONTH);
+        dateTruncMap.put(DateIntervalType.YEAR, TRUNC_YEAR);
+        dateTruncMap.put(DateIntervalType.DECADE, TRUNC_YEAR);
+        dateTruncMap.put(DateIntervalType.CENTURY, TRUNC_YEAR);
+        dateTruncMap.put(DateIntervalType.MILLENIUM, TRUNC_YEAR);
     }
 
     @Override
@@ -52,16 +54,20 @@ public class DB2Dialect extends DefaultDialect {
         return super.getConcatFunctionSQL(columns, "CONCAT(", ")", ",");
     }
 
+    /**
+     * Dates are grouped by truncating them to the interval through the <i>TRUNC_TIMESTAMP</i> function,
+     * so the group values are real timestamps.
+     */
     @Override
     public String getDynamicDateColumnSQL(DynamicDateColumn column) {
         DateIntervalType type = column.getDateType();
-        if (!datePatternMap.containsKey(type)) {
+        if (!dateTruncMap.containsKey(type)) {
             throw new IllegalArgumentException("Group '" + column.getName() +
                     "' by the given date interval type is not supported: " + type);
         }
-        String datePattern = datePatternMap.get(type);
+        String dateTrunc = dateTruncMap.get(type);
         String columnName = getColumnNameSQL(column.getName());
-        return "VARCHAR_FORMAT(" + columnName + ", '" + datePattern + "')";
+        return "TRUNC_TIMESTAMP(" + columnName + ", '" + dateTrunc + "')";
     }
 
     @Override
@@ -88,4 +94,9 @@ public class DB2Dialect extends DefaultDialect {
     public String getOffsetLimitSQL(Select select) {
         return null;
     }
+
+    @Override
+    public boolean supportsCountOver(DatabaseMetaData metadata) throws SQLException {
+        return true;
+    }
 }
@@ -17,6 +17,13 @@ package org.dashbuilder.dataprovider.sql.dialect;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -24,6 +31,8 @@ import java.util.Date;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
+import org.dashbuilder.dataprovider.sql.JDBCUtils;
+import org.dashbuilder.dataprovider.sql.model.BindParameter;
 import org.dashbuilder.dataprovider.sql.model.Column;
 import org.dashbuilder.dataprovider.sql.model.Condition;
 import org.dashbuilder.dataprovider.sql.model.CoreCondition;
@@ -122,6 +131,52 @@ public class DefaultDialect implements Dialect {
         }
     }
 
+    /**
+     * Numeric columns are read through the primitive getter. Any other type is read as an object
+     * and converted by {@link #convertToDouble(Object)}.
+     */
+    @Override
+    public Double getDouble(ResultSet resultSet, int column, int sqlType) throws SQLException {
+        if (ColumnType.NUMBER.equals(JDBCUtils.calculateType(sqlType))) {
+            double value = resultSet.getDouble(column);
+            return resultSet.wasNull() ? null : value;
+        }
+        return convertToDouble(resultSet.getObject(column));
+    }
+
+    /**
+     * Date, time and timestamp columns are read through {@link ResultSet#getTimestamp(int)}, so no vendor
+     * specific types are involved. Any other type is read as an object and converted by
+     * {@link #convertToDate(Object)}.
+     */
+    @Override
+    public Date getDate(ResultSet resultSet, int column, int sqlType) throws SQLException {
+        if (ColumnType.DATE.equals(JDBCUtils.calculateType(sqlType))) {
+            return resultSet.getTimestamp(column);
+        }
+        return convertToDate(resultSet.getObject(column));
+    }
+
+    /**
+     * Character columns are read through {@link ResultSet#getString(int)}. Any other type is read as an
+     * object and converted by {@link #convertToString(Object)}, so the string representation of numbers,
+     * booleans, ... does not depend on the driver.
+     */
+    @Override
+    public String getString(ResultSet resultSet, int column, int sqlType) throws SQLException {
+        switch (sqlType) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.LONGNVARCHAR:
+                return resultSet.getString(column);
+            default:
+                return convertToString(resultSet.getObject(column));
+        }
+    }
+
     @Override
     public String getTableSQL(SQLStatement<?> stmt) {
         Table table = stmt.getTable();
@@ -250,10 +305,11 @@ public class DefaultDialect implements Dialect {
      * A mechanism combining  concat and extract functions is used by default.
      * Depending on the DB dialect a more polished approach can be used.
      * For instance, <ul>
-     * <li>In Oracle and Postgres the 'to_char' function is used.</li>
      * <li>In Mysql, 'date_format'</li>
      * <li>In H2, the 'to_char' function is not used as it's only available since version 1.3.175 and we do need to support older versions.</li>
      * </ul>
+     * Dialects providing date truncation functions (Postgres, Oracle, DB2, SQL Server) group on the truncated
+     * date instead, so the group values are real dates and no text conversion is required at all.
      */
     @Override
     public String getDynamicDateColumnSQL(DynamicDateColumn column) {
@@ -520,6 +576,9 @@ public class DefaultDialect implements Dialect {
         if (param == null) {
             return "null";
         }
+        if (param instanceof BindParameter) {
+            return getBindParameterSQL((BindParameter) param);
+        }
         if (param instanceof Number) {
             return getNumberParameterSQL((Number) param);
         }
@@ -550,6 +609,61 @@ public class DefaultDialect implements Dialect {
         return "'" + escapedParam + "'";
     }
 
+    @Override
+    public String getBindParameterSQL(BindParameter param) {
+        param.bind();
+        return "?";
+    }
+
+    @Override
+    public void setParameter(PreparedStatement stmt, int index, Object param) throws SQLException {
+        if (param == null) {
+            stmt.setNull(index, Types.VARCHAR);
+        }
+        else if (param instanceof Number) {
+            setNumberParameter(stmt, index, (Number) param);
+        }
+        else if (param instanceof Date) {
+            setDateParameter(stmt, index, (Date) param);
+        }
+        else {
+            setStringParameter(stmt, index, param.toString());
+        }
+    }
+
+    /**
+     * Integer values are bound as such. Any other number is bound as a decimal built from its string
+     * representation, just like the numeric literal given by {@link #getNumberParameterSQL(Number)}.
+     * Binding a double would make some databases compare the column as a floating point value.
+     */
+    @Override
+    public void setNumberParameter(PreparedStatement stmt, int index, Number param) throws SQLException {
+        if (param instanceof Integer || param instanceof Long || param instanceof Short || param instanceof Byte) {
+            stmt.setLong(index, param.longValue());
+        }
+        else if (param instanceof BigDecimal) {
+            stmt.setBigDecimal(index, (BigDecimal) param);
+        }
+        else {
+            try {
+                stmt.setBigDecimal(index, new BigDecimal(param.toString()));
+            } catch (NumberFormatException e) {
+                // NaN & Infinity
+                stmt.setDouble(index, param.doubleValue());
+            }
+        }
+    }
+
+    @Override
+    public void setDateParameter(PreparedStatement stmt, int index, Date param) throws SQLException {
+        stmt.setTimestamp(index, new Timestamp(param.getTime()));
+    }
+
+    @Override
+    public void setStringParameter(PreparedStatement stmt, int index, String param) throws SQLException {
+        stmt.setString(index, param);
+    }
+
     @Override
     public String getLogicalConditionSQL(LogicalCondition condition) {
         LogicalExprType type = condition.getType();
@@ -640,6 +754,36 @@ public class DefaultDialect implements Dialect {
         }
     }
 
+    @Override
+    public boolean supportsCountOver(DatabaseMetaData metadata) throws SQLException {
+        return false;
+    }
+
+    @Override
+    public String getCountOverSQL(Select select) {
+        return getColumnFunctionSQL("*", AggregateFunctionType.COUNT) + " OVER () " + getAliasForColumnSQL("dbTotal");
+    }
+
+    @Override
+    public String getRowEstimateSQL(boolean withSchema) {
+        return null;
+    }
+
+    @Override
+    public String getChangeProbeSQL(boolean withSchema) {
+        return null;
+    }
+
+    @Override
+    public int getStreamingFetchSize(int fetchSize) {
+        return fetchSize;
+    }
+
+    @Override
+    public boolean isStreamingTransactional() {
+        return false;
+    }
+
     @Override
     public String getSQL(CreateTable create) {
         StringBuilder sql = new StringBuilder("CREATE TABLE ");
@@ -795,6 +939,9 @@ public class DefaultDialect implements Dialect {
                 first = false;
             }
         }
+        if (select.isCountOver()) {
+            clause.append(", ").append(getCountOverSQL(select));
+        }
         return clause.toString();
     }
 
@@ -990,6 +1137,30 @@ public class DefaultDialect implements Dialect {
         return false;
     }
 
+    /**
+     * Check a database version string like "1.4.197 (2018-03-18)" against the given version numbers.
+     */
+    public boolean isVersionAtLeast(String version, int... required) {
+        if (version == null) {
+            return false;
+        }
+        int pos = 0;
+        for (int i = 0; i < required.length; i++) {
+            int number = 0;
+            int start = pos;
+            while (pos < version.length() && Character.isDigit(version.charAt(pos))) {
+                number = number * 10 + (version.charAt(pos++) - '0');
+            }
+            if (pos == start || number != required[i]) {
+                return pos > start && number > required[i];
+            }
+            if (pos < version.length() && version.charAt(pos) == '.') {
+                pos++;
+            }
+        }
+        return true;
+    }
+
     public Column getAliasStatement(Select select, Column target) {
         for (Column column : select.getColumns()) {
             if (!(column instanceof SimpleColumn) &&
@@ -15,8 +15,13 @@
  */
 package org.dashbuilder.dataprovider.sql.dialect;
 
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Date;
 
+import org.dashbuilder.dataprovider.sql.model.BindParameter;
 import org.dashbuilder.dataprovider.sql.model.Column;
 import org.dashbuilder.dataprovider.sql.model.Condition;
 import org.dashbuilder.dataprovider.sql.model.CoreCondition;
@@ -38,6 +43,36 @@ public interface Dialect {
 
     String getCountQuerySQL(Select select);
 
+    boolean supportsCountOver(DatabaseMetaData metadata) throws SQLException;
+
+    String getCountOverSQL(Select select);
+
+    /**
+     * SQL reading the number of rows of a table from the database statistics, much cheaper than counting them.
+     * The table name and, if <i>withSchema</i> is true, the schema name are passed as bind parameters.
+     * @return null if the database provides no such estimate.
+     */
+    String getRowEstimateSQL(boolean withSchema);
+
+    /**
+     * SQL reading from the database statistics a value which changes every time the rows of a table are inserted,
+     * updated or deleted. The parameters are the same as for {@link #getRowEstimateSQL(boolean)}.
+     * @return null if the database provides no such value.
+     */
+    String getChangeProbeSQL(boolean withSchema);
+
+    /**
+     * The fetch size to set on a forward-only statement so the driver reads the rows from a server side cursor
+     * rather than loading the whole result into memory.
+     * @param fetchSize The fetch size requested (0 means driver's default).
+     */
+    int getStreamingFetchSize(int fetchSize);
+
+    /**
+     * Whether the driver only reads the rows through a server side cursor when the auto-commit mode is off.
+     */
+    boolean isStreamingTransactional();
+
     String getSQL(CreateTable create);
 
     String getSQL(Select select);
@@ -86,6 +121,24 @@ public interface Dialect {
 
     Date convertToDate(Object value);
 
+    /**
+     * Read a numeric value from the current row of the given result set.
+     * @param sqlType The JDBC type of the column (see {@link java.sql.Types})
+     */
+    Double getDouble(ResultSet resultSet, int column, int sqlType) throws SQLException;
+
+    /**
+     * Read a date value from the current row of the given result set.
+     * @param sqlType The JDBC type of the column (see {@link java.sql.Types})
+     */
+    Date getDate(ResultSet resultSet, int column, int sqlType) throws SQLException;
+
+    /**
+     * Read a string value from the current row of the given result set.
+     * @param sqlType The JDBC type of the column (see {@link java.sql.Types})
+     */
+    String getString(ResultSet resultSet, int column, int sqlType) throws SQLException;
+
     String[] getExcludedColumns();
 
     String getTableSQL(SQLStatement<?> stmt);
@@ -156,6 +209,16 @@ public interface Dialect {
 
     String getStringParameterSQL(String param);
 
+    String getBindParameterSQL(BindParameter param);
+
+    void setParameter(PreparedStatement stmt, int index, Object param) throws SQLException;
+
+    void setNumberParameter(PreparedStatement stmt, int index, Number param) throws SQLException;
+
+    void setDateParameter(PreparedStatement stmt, int index, Date param) throws SQLException;
+
+    void setStringParameter(PreparedStatement stmt, int index, String param) throws SQLException;
+
     String getLogicalConditionSQL(LogicalCondition condition);
 
     String getNotExprConditionSQL(Condition condition);
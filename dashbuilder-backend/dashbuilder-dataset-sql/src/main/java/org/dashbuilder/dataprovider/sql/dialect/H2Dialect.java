@@ -15,6 +15,16 @@
  */
 package org.dashbuilder.dataprovider.sql.dialect;
 
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
 public class H2Dialect extends DefaultDialect {
 
+    /**
+     * Window functions are only available since the 1.4.198 release.
+     */
+    @Override
+    public boolean supportsCountOver(DatabaseMetaData metadata) throws SQLException {
+        return isVersionAtLeast(metadata.getDatabaseProductVersion(), 1, 4, 198);
+    }
 }
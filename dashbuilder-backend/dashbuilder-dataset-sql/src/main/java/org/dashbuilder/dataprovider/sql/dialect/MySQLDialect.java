@@ -15,6 +15,8 @@
  */
 package org.dashbuilder.dataprovider.sql.dialect;
 
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -88,4 +90,38 @@ public class MySQLDialect extends DefaultDialect {
         String columnName = getColumnNameSQL(column.getName());
         return "DATE_FORMAT(" + columnName + ", '" + datePattern + "')";
     }
+
+    /**
+     * Window functions are available since MySQL 8 and MariaDB 10.2.
+     */
+    @Override
+    public boolean supportsCountOver(DatabaseMetaData metadata) throws SQLException {
+        String version = metadata.getDatabaseProductVersion();
+        if (version != null && version.toLowerCase().contains("mariadb")) {
+            // Versions might come prefixed for replication compatibility (5.5.5-10.2.14-MariaDB)
+            if (version.startsWith("5.5.5-")) {
+                version = version.substring(6);
+            }
+            return isVersionAtLeast(version, 10, 2);
+        }
+        return isVersionAtLeast(version, 8);
+    }
+
+    /**
+     * The storage engine estimate. Be aware it can be far from the real count on InnoDB tables.
+     */
+    @Override
+    public String getRowEstimateSQL(boolean withSchema) {
+        return "SELECT TABLE_ROWS FROM information_schema.TABLES "
+                + "WHERE TABLE_NAME = ? AND TABLE_SCHEMA = " + (withSchema ? "?" : "DATABASE()");
+    }
+
+    /**
+     * Connector/J ignores the fetch size (unless the <i>useCursorFetch</i> option is set) and only streams
+     * the rows one by one when it is set to <tt>Integer.MIN_VALUE</tt>.
+     */
+    @Override
+    public int getStreamingFetchSize(int fetchSize) {
+        return Integer.MIN_VALUE;
+    }
 }
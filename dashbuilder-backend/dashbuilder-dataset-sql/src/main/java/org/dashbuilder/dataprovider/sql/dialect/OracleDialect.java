@@ -15,6 +15,8 @@
  */
 package org.dashbuilder.dataprovider.sql.dialect;
 
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -29,26 +31,24 @@ import org.dashbuilder.dataset.group.DateIntervalType;
  */
 public class OracleDialect extends DefaultDialect {
 
-    public static final String PATTERN_YEAR = "YYYY";
-    public static final String PATTERN_MONTH = "YYYY-MM";
-    public static final String PATTERN_DAY = "YYYY-MM-DD";
-    public static final String PATTERN_HOUR = "YYYY-MM-DD HH24";
-    public static final String PATTERN_MINUTE = "YYYY-MM-DD HH24:MI";
-    public static final String PATTERN_SECOND = "YYYY-MM-DD HH24:MI:SS";
+    public static final String TRUNC_YEAR = "YYYY";
+    public static final String TRUNC_MONTH = "MM";
+    public static final String TRUNC_DAY = "DD";
+    public static final String TRUNC_HOUR = "HH24";
+    public static final String TRUNC_MINUTE = "MI";
 
-    private static Map<DateIntervalType,String> datePatternMap = new HashMap<DateIntervalType, String>();
+    private static Map<DateIntervalType,String> dateTruncMap = new HashMap<DateIntervalType, String>();
     static {
-        datePatternMap.put(DateIntervalType.SECOND, PATTERN_SECOND);
-        datePatternMap.put(DateIntervalType.MINUTE, PATTERN_MINUTE);
-        datePatternMap.put(DateIntervalType.HOUR, PATTERN_HOUR);
-        datePatternMap.put(DateIntervalType.DAY, PATTERN_DAY);
-        datePatternMap.put(DateIntervalType.WEEK, PATTERN_DAY);
-        datePatternMap.put(DateIntervalType.MONTH, PATTERN_MONTH);
-        datePatternMap.put(DateIntervalType.QUARTER, PATTERN_MONTH);
-        datePatternMap.put(DateIntervalType.YEAR, PATTERN_YEAR);
-        datePatternMap.put(DateIntervalType.DECADE, PATTERN_YEAR);
-        datePatternMap.put(DateIntervalType.CENTURY, PATTERN_YEAR);
-        datePatternMap.put(DateIntervalType.MILLENIUM, PATTERN_YEAR);
+        dateTruncMap.put(DateIntervalType.MINUTE, TRUNC_MINUTE);
+        dateTruncMap.put(DateIntervalType.HOUR, TRUNC_HOUR);
+        dateTruncMap.put(DateIntervalType.DAY, TRUNC_DAY);
+        dateTruncMap.put(DateIntervalType.WEEK, TRUNC_DAY);
+        dateTruncMap.put(DateIntervalType.MONTH, TRUNC_MONTH);
+        dateTruncMap.put(DateIntervalType.QUARTER, TRUNC_MONTH);
+        dateTruncMap.put(DateIntervalType.YEAR, TRUNC_YEAR);
+        dateTruncMap.put(DateIntervalType.DECADE, TRUNC_YEAR);
+        dateTruncMap.put(DateIntervalType.CENTURY, TRUNC_YEAR);
+        dateTruncMap.put(DateIntervalType.MILLENIUM, TRUNC_YEAR);
     }
 
     @Override
@@ -82,16 +82,23 @@ public class OracleDialect extends DefaultDialect {
         return "CAST(" + columnSQL + " AS VARCHAR2(" + length + "))";
     }
 
+    /**
+     * Dates are grouped by truncating them to the interval through the <i>TRUNC</i> function, so
+     * the group values are real dates. Seconds are truncated by a cast to <i>DATE</i>.
+     */
     @Override
     public String getDynamicDateColumnSQL(DynamicDateColumn column) {
         DateIntervalType type = column.getDateType();
-        if (!datePatternMap.containsKey(type)) {
+        if (DateIntervalType.SECOND.equals(type)) {
+            return "CAST(" + getColumnNameSQL(column.getName()) + " AS DATE)";
+        }
+        if (!dateTruncMap.containsKey(type)) {
             throw new IllegalArgumentException("Group '" + column.getName() +
                     "' by the given date interval type is not supported: " + type);
         }
-        String datePattern = datePatternMap.get(type);
+        String dateTrunc = dateTruncMap.get(type);
         String columnName = getColumnNameSQL(column.getName());
-        return "TO_CHAR(" + columnName + ", '" + datePattern + "')";
+        return "TRUNC(" + columnName + ", '" + dateTrunc + "')";
     }
 
     @Override
@@ -104,4 +111,20 @@ public class OracleDialect extends DefaultDialect {
         if (limit > 0) out.append(" FETCH FIRST ").append(limit).append(" ROWS ONLY");
         return out.toString();
     }
+
+    @Override
+    public boolean supportsCountOver(DatabaseMetaData metadata) throws SQLException {
+        return true;
+    }
+
+    /**
+     * The row count of the last statistics gathering (null if never gathered).
+     */
+    @Override
+    public String getRowEstimateSQL(boolean withSchema) {
+        if (withSchema) {
+            return "SELECT NUM_ROWS FROM ALL_TABLES WHERE TABLE_NAME = ? AND OWNER = ?";
+        }
+        return "SELECT NUM_ROWS FROM USER_TABLES WHERE TABLE_NAME = ?";
+    }
 }
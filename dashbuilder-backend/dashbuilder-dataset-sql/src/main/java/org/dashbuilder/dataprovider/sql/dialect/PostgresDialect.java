@@ -15,6 +15,10 @@
  */
 package org.dashbuilder.dataprovider.sql.dialect;
 
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,26 +27,26 @@ import org.dashbuilder.dataset.group.DateIntervalType;
 
 public class PostgresDialect extends DefaultDialect {
 
-    public static final String PATTERN_YEAR = "YYYY";
-    public static final String PATTERN_MONTH = "YYYY-MM";
-    public static final String PATTERN_DAY = "YYYY-MM-DD";
-    public static final String PATTERN_HOUR = "YYYY-MM-DD HH24";
-    public static final String PATTERN_MINUTE = "YYYY-MM-DD HH24:MI";
-    public static final String PATTERN_SECOND = "YYYY-MM-DD HH24:MI:SS";
+    public static final String TRUNC_YEAR = "year";
+    public static final String TRUNC_MONTH = "month";
+    public static final String TRUNC_DAY = "day";
+    public static final String TRUNC_HOUR = "hour";
+    public static final String TRUNC_MINUTE = "minute";
+    public static final String TRUNC_SECOND = "second";
 
-    private static Map<DateIntervalType,String> datePatternMap = new HashMap<DateIntervalType, String>();
+    private static Map<DateIntervalType,String> dateTruncMap = new HashMap<DateIntervalType, String>();
     static {
-        datePatternMap.put(DateIntervalType.SECOND, PATTERN_SECOND);
-        datePatternMap.put(DateIntervalType.MINUTE, PATTERN_MINUTE);
-        datePatternMap.put(DateIntervalType.HOUR, PATTERN_HOUR);
-        datePatternMap.put(DateIntervalType.DAY, PATTERN_DAY);
-        datePatternMap.put(DateIntervalType.WEEK, PATTERN_DAY);
-        datePatternMap.put(DateIntervalType.MONTH, PATTERN_MONTH);
-        datePatternMap.put(DateIntervalType.QUARTER, PATTERN_MONTH);
-        datePatternMap.put(DateIntervalType.YEAR, PATTERN_YEAR);
-        datePatternMap.put(DateIntervalType.DECADE, PATTERN_YEAR);
-        datePatternMap.put(DateIntervalType.CENTURY, PATTERN_YEAR);
-        datePatternMap.put(DateIntervalType.MILLENIUM, PATTERN_YEAR);
+        dateTruncMap.put(DateIntervalType.SECOND, TRUNC_SECOND);
+        dateTruncMap.put(DateIntervalType.MINUTE, TRUNC_MINUTE);
+        dateTruncMap.put(DateIntervalType.HOUR, TRUNC_HOUR);
+        dateTruncMap.put(DateIntervalType.DAY, TRUNC_DAY);
+        dateTruncMap.put(DateIntervalType.WEEK, TRUNC_DAY);
+        dateTruncMap.put(DateIntervalType.MONTH, TRUNC_MONTH);
+        dateTruncMap.put(DateIntervalType.QUARTER, TRUNC_MONTH);
+        dateTruncMap.put(DateIntervalType.YEAR, TRUNC_YEAR);
+        dateTruncMap.put(DateIntervalType.DECADE, TRUNC_YEAR);
+        dateTruncMap.put(DateIntervalType.CENTURY, TRUNC_YEAR);
+        dateTruncMap.put(DateIntervalType.MILLENIUM, TRUNC_YEAR);
     }
 
     @Override
@@ -60,15 +64,59 @@ public class PostgresDialect extends DefaultDialect {
         return "\"" + alias + "\"";
     }
 
+    /**
+     * Dates are grouped by truncating them to the interval through the <i>DATE_TRUNC</i> function, so
+     * the group values are real timestamps.
+     */
     @Override
     public String getDynamicDateColumnSQL(DynamicDateColumn column) {
         DateIntervalType type = column.getDateType();
-        if (!datePatternMap.containsKey(type)) {
+        if (!dateTruncMap.containsKey(type)) {
             throw new IllegalArgumentException("Group '" + column.getName() +
                     "' by the given date interval type is not supported: " + type);
         }
-        String datePattern = datePatternMap.get(type);
+        String dateTrunc = dateTruncMap.get(type);
         String columnName = getColumnNameSQL(column.getName());
-        return "TO_CHAR(" + columnName + ", '" + datePattern + "')";
+        return "DATE_TRUNC('" + dateTrunc + "', " + columnName + ")";
+    }
+
+    /**
+     * Strings are bound with no specific type so that, like a quoted literal, the server infers it from
+     * the column compared (for instance, a group interval name when filtering a numeric column).
+     */
+    @Override
+    public void setStringParameter(PreparedStatement stmt, int index, String param) throws SQLException {
+        stmt.setObject(index, param, Types.OTHER);
+    }
+
+    @Override
+    public boolean supportsCountOver(DatabaseMetaData metadata) throws SQLException {
+        return true;
+    }
+
+    /**
+     * The estimate kept by <i>VACUUM</i> and <i>ANALYZE</i> (-1 if the table has never been analyzed).
+     */
+    @Override
+    public String getRowEstimateSQL(boolean withSchema) {
+        return "SELECT c.reltuples FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace "
+                + "WHERE c.relname = ? AND n.nspname = " + (withSchema ? "?" : "current_schema()");
+    }
+
+    /**
+     * The number of rows inserted, updated and deleted as reported by the statistics collector.
+     */
+    @Override
+    public String getChangeProbeSQL(boolean withSchema) {
+        return "SELECT CONCAT(n_tup_ins, ':', n_tup_upd, ':', n_tup_del) FROM pg_stat_all_tables "
+                + "WHERE relname = ? AND schemaname = " + (withSchema ? "?" : "current_schema()");
+    }
+
+    /**
+     * The driver fetches all the rows at once unless the auto-commit mode is off.
+     */
+    @Override
+    public boolean isStreamingTransactional() {
+        return true;
     }
 }
@@ -15,23 +15,45 @@
  */
 package org.dashbuilder.dataprovider.sql.dialect;
 
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
-import java.util.ArrayList;
+import java.util.Map;
 
 import org.dashbuilder.dataprovider.sql.JDBCUtils;
 import org.dashbuilder.dataprovider.sql.model.Column;
+import org.dashbuilder.dataprovider.sql.model.DynamicDateColumn;
 import org.dashbuilder.dataprovider.sql.model.Select;
 import org.dashbuilder.dataprovider.sql.model.SortColumn;
+import org.dashbuilder.dataset.group.DateIntervalType;
 
 /**
  * Microsoft SQL Server dialect
  */
 public class SQLServerDialect extends DefaultDialect {
 
+    private static Map<DateIntervalType,String> dateTruncMap = new HashMap<DateIntervalType, String>();
+    static {
+        dateTruncMap.put(DateIntervalType.MINUTE, "MINUTE");
+        dateTruncMap.put(DateIntervalType.HOUR, "HOUR");
+        dateTruncMap.put(DateIntervalType.DAY, "DAY");
+        dateTruncMap.put(DateIntervalType.WEEK, "DAY");
+        dateTruncMap.put(DateIntervalType.MONTH, "MONTH");
+        dateTruncMap.put(DateIntervalType.QUARTER, "MONTH");
+        dateTruncMap.put(DateIntervalType.YEAR, "YEAR");
+        dateTruncMap.put(DateIntervalType.DECADE, "YEAR");
+        dateTruncMap.put(DateIntervalType.CENTURY, "YEAR");
+        dateTruncMap.put(DateIntervalType.MILLENIUM, "YEAR");
+    }
+
     @Override
     public String getColumnTypeSQL(Column column) {
         switch (column.getType()) {
@@ -52,6 +74,21 @@ public class SQLServerDialect extends DefaultDialect {
         return super.getConcatFunctionSQL(columns, "CONCAT(", ")", ",");
     }
 
+    /**
+     * Dates are grouped by truncating them to the interval through <i>DATEADD(unit, DATEDIFF(unit, 0, date), 0)</i>,
+     * so the group values are real datetimes. The difference in seconds overflows the <i>DATEDIFF</i> result,
+     * so grouping by seconds is left to the default implementation.
+     */
+    @Override
+    public String getDynamicDateColumnSQL(DynamicDateColumn column) {
+        String unit = dateTruncMap.get(column.getDateType());
+        if (unit == null) {
+            return super.getDynamicDateColumnSQL(column);
+        }
+        String columnName = getColumnNameSQL(column.getName());
+        return "DATEADD(" + unit + ", DATEDIFF(" + unit + ", 0, " + columnName + "), 0)";
+    }
+
     @Override
     public String getDatePartFunctionSQL(String part, Column column) {
         String columnSQL = getColumnSQL(column);
@@ -66,6 +103,13 @@ public class SQLServerDialect extends DefaultDialect {
         return "'" + sqlServerDateFormat.format(param) + "'";
     }
 
+    @Override
+    public void setDateParameter(PreparedStatement stmt, int index, Date param) throws SQLException {
+        // Same precision as the date literals above (seconds)
+        long time = param.getTime();
+        stmt.setTimestamp(index, new Timestamp(time - Math.floorMod(time, 1000L)));
+    }
+
     @Override
     public String getCountQuerySQL(Select select) {
         int offset = select.getOffset();
@@ -122,7 +166,12 @@ public class SQLServerDialect extends DefaultDialect {
         try {
             // Disable limits & fetch results
             select.limit(0).offset(0);
-            return JDBCUtils.getColumns(select.fetch(), null);
+            ResultSet rs = select.fetch();
+            try {
+                return JDBCUtils.getColumns(rs, null);
+            } finally {
+                JDBCUtils.close(rs);
+            }
         }
         catch (SQLException e) {
             return Collections.emptyList();
@@ -155,4 +204,30 @@ public class SQLServerDialect extends DefaultDialect {
         }
         return out.toString();
     }
+
+    @Override
+    public boolean supportsCountOver(DatabaseMetaData metadata) throws SQLException {
+        return true;
+    }
+
+    /**
+     * The row count of the table heap or clustered index partitions.
+     */
+    @Override
+    public String getRowEstimateSQL(boolean withSchema) {
+        return "SELECT SUM(p.rows) FROM sys.partitions p "
+                + "JOIN sys.tables t ON t.object_id = p.object_id JOIN sys.schemas s ON s.schema_id = t.schema_id "
+                + "WHERE t.name = ? AND s.name = " + (withSchema ? "?" : "SCHEMA_NAME()") + " AND p.index_id IN (0, 1)";
+    }
+
+    /**
+     * The last time the table was modified since the server started. It requires the <i>VIEW SERVER STATE</i>
+     * permission.
+     */
+    @Override
+    public String getChangeProbeSQL(boolean withSchema) {
+        return "SELECT CONVERT(VARCHAR(30), MAX(u.last_user_update), 126) FROM sys.dm_db_index_usage_stats u "
+                + "JOIN sys.tables t ON t.object_id = u.object_id JOIN sys.schemas s ON s.schema_id = t.schema_id "
+                + "WHERE u.database_id = DB_ID() AND t.name = ? AND s.name = " + (withSchema ? "?" : "SCHEMA_NAME()");
+    }
 }
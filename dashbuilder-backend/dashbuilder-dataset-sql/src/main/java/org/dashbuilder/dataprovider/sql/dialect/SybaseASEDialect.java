@@ -15,6 +15,9 @@
  */
 package org.dashbuilder.dataprovider.sql.dialect;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
@@ -56,6 +59,13 @@ public class SybaseASEDialect extends DefaultDialect {
         return "'" + sybaseDateFormat.format(param) + "'";
     }
 
+    @Override
+    public void setDateParameter(PreparedStatement stmt, int index, Date param) throws SQLException {
+        // Same precision as the date literals above (seconds)
+        long time = param.getTime();
+        stmt.setTimestamp(index, new Timestamp(time - Math.floorMod(time, 1000L)));
+    }
+
     public String getColumnCastSQL(Column column) {
         String columnSQL = getColumnSQL(column);
         return "CONVERT(VARCHAR, " + columnSQL + ")";
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.sql.model;
+
+/**
+ * A parameter value sent apart from the SQL text through a prepared statement placeholder.
+ */
+public class BindParameter {
+
+    protected SQLStatement<?> statement;
+    protected Object value;
+
+    public BindParameter(SQLStatement<?> statement, Object value) {
+        this.statement = statement;
+        this.value = value;
+    }
+
+    public SQLStatement<?> getStatement() {
+        return statement;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Register the parameter value into the statement being rendered (if any).
+     * Must be invoked in the same order as the placeholders are written into the SQL.
+     */
+    public void bind() {
+        statement.bind(value);
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(value);
+    }
+}
@@ -45,9 +45,7 @@ public class Delete extends SQLStatement<Delete> {
 
     public Delete where(Condition condition) {
         if (condition != null) {
-            if (condition instanceof CoreCondition) {
-                fix(((CoreCondition) condition).getColumn());
-            }
+            fix(condition);
             wheres.add(condition);
         }
         return this;
@@ -63,7 +61,8 @@ public class Delete extends SQLStatement<Delete> {
     }
 
     public void execute() throws SQLException {
-        String sql = getSQL();
-        JDBCUtils.execute(connection, sql);
+        List<Object> params = new ArrayList<Object>();
+        String sql = getSQL(params);
+        JDBCUtils.execute(connection, dialect, sql, params);
     }
 }
\ No newline at end of file
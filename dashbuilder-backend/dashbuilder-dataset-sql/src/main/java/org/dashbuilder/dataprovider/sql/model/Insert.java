@@ -46,7 +46,7 @@ public class Insert extends SQLStatement<Insert> {
 
     public Insert set(Column column, Object value) {
         columns.add(fix(column));
-        values.add(value);
+        values.add(toBindParameter(value));
         return this;
     }
 
@@ -61,7 +61,8 @@ public class Insert extends SQLStatement<Insert> {
     }
 
     public void execute() throws SQLException {
-        String sql = getSQL();
-        JDBCUtils.execute(connection, sql);
+        List<Object> params = new ArrayList<Object>();
+        String sql = getSQL(params);
+        JDBCUtils.execute(connection, dialect, sql, params);
     }
 }
\ No newline at end of file
@@ -16,24 +16,38 @@
 package org.dashbuilder.dataprovider.sql.model;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.dashbuilder.dataprovider.sql.JDBCUtils;
+import org.dashbuilder.dataprovider.sql.SQLDataSourceProfile;
 import org.dashbuilder.dataprovider.sql.dialect.Dialect;
 
-public class SQLStatement<T extends SQLStatement> {
+public abstract class SQLStatement<T extends SQLStatement> {
 
     protected Connection connection;
     protected Dialect dialect;
+    protected SQLDataSourceProfile profile = null;
     protected Table table = null;
     protected Set<Column> _columnsRefs = new HashSet<>();
+    protected List<Object> _parameters = null;
 
     public SQLStatement(Connection connection, Dialect dialect) {
         this.connection = connection;
         this.dialect = dialect;
     }
 
+    /**
+     * Take the identifier case rules from the given profile instead of asking the connection every time.
+     */
+    public T profile(SQLDataSourceProfile profile) {
+        this.profile = profile;
+        return (T) this;
+    }
+
     public T table(Table table) {
         this.table = fix(table);
         return (T) this;
@@ -64,7 +78,13 @@ public class SQLStatement<T extends SQLStatement> {
 
     protected Condition fix(Condition condition) {
         if (condition instanceof CoreCondition) {
-            fix(((CoreCondition) condition).getColumn());
+            CoreCondition coreCondition = (CoreCondition) condition;
+            fix(coreCondition.getColumn());
+
+            Object[] params = coreCondition.getParameters();
+            for (int i = 0; i < params.length; i++) {
+                params[i] = toBindParameter(params[i]);
+            }
         }
         if (condition instanceof LogicalCondition) {
             for (Condition term : ((LogicalCondition) condition).getConditions()) {
@@ -74,8 +94,54 @@ public class SQLStatement<T extends SQLStatement> {
         return condition;
     }
 
+    /**
+     * Turns a condition parameter into a bind parameter (collections are converted element by element).
+     * Null values are left as is since they are always written as SQL literals (IS NULL, ...).
+     */
+    protected Object toBindParameter(Object param) {
+        if (param == null) {
+            return null;
+        }
+        if (param instanceof BindParameter) {
+            return new BindParameter(this, ((BindParameter) param).getValue());
+        }
+        if (param instanceof Collection) {
+            List<Object> result = new ArrayList<>();
+            for (Object p : (Collection<?>) param) {
+                result.add(toBindParameter(p));
+            }
+            return result;
+        }
+        return new BindParameter(this, param);
+    }
+
+    protected void bind(Object value) {
+        if (_parameters != null) {
+            _parameters.add(value);
+        }
+    }
+
+    /**
+     * Get the SQL for this statement along with the values to bind to every placeholder.
+     * @param params The list where to put the parameter values, in placeholder order.
+     */
+    public String getSQL(List<Object> params) {
+        List<Object> previous = _parameters;
+        _parameters = params;
+        try {
+            return getSQL();
+        } finally {
+            _parameters = previous;
+        }
+    }
+
+    public abstract String getSQL();
+
     protected String fixCase(String id) {
-        return id == null ? null : JDBCUtils.fixCase(connection, id);
+        if (id == null) {
+            return null;
+        }
+        return profile != null ? profile.fixCase(id) : JDBCUtils.fixCase(connection, id);
     }
 
     protected void fixColumns() {
@@ -35,6 +35,9 @@ public class Select extends SQLStatement<Select> {
     protected int limit = -1;
     protected int offset = -1;
     protected boolean offsetPostProcessing = false;
+    protected boolean countOver = false;
+    protected int fetchSize = 0;
+    protected boolean streaming = false;
     protected List<String> quotedFields = null;
 
     public Select(Connection connection, Dialect dialect) {
@@ -49,6 +52,14 @@ public class Select extends SQLStatement<Select> {
         this.offsetPostProcessing = offsetPostProcessing;
     }
 
+    public boolean isCountOver() {
+        return countOver;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
     public List<Column> getColumns() {
         return columns;
     }
@@ -145,6 +156,31 @@ public class Select extends SQLStatement<Select> {
         return this;
     }
 
+    /**
+     * Add a last column to the results holding the total number of rows the query would return without limits.
+     * Only for dialects supporting window functions (see {@link Dialect#supportsCountOver}).
+     */
+    public Select countOver(boolean countOver) {
+        this.countOver = countOver;
+        return this;
+    }
+
+    /**
+     * Number of rows the driver should get from the database on every round trip (0 means driver's default).
+     */
+    public Select fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Read the rows from a server side cursor (see {@link Dialect#getStreamingFetchSize(int)}).
+     */
+    public Select streaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
     public String getSQL() {
         quotedFields = JDBCUtils.getWordsBetweenQuotes(fromSelect);
 
@@ -153,7 +189,7 @@ public class Select extends SQLStatement<Select> {
             if (quotedFields.contains(name)) {
                 name = dialect.getColumnNameQuotedSQL(name);
             } else {
-                name = JDBCUtils.fixCase(connection, name);
+                name = fixCase(name);
             }
             column.setName(name);
         }
@@ -166,20 +202,39 @@ public class Select extends SQLStatement<Select> {
         return getSQL();
     }
 
+    public String getCountSQL(List<Object> params) {
+        List<Object> previous = _parameters;
+        _parameters = params;
+        try {
+            return dialect.getCountQuerySQL(this);
+        } finally {
+            _parameters = previous;
+        }
+    }
+
     // Fetch
 
     public int fetchCount() throws SQLException {
-        String countSql = dialect.getCountQuerySQL(this);
-        ResultSet _rs = JDBCUtils.executeQuery(connection, countSql);
-        if (_rs.next()) {
-            return _rs.getInt(1);
-        } else {
-            return 0;
+        List<Object> params = new ArrayList<Object>();
+        String countSql = getCountSQL(params);
+        ResultSet _rs = JDBCUtils.executeQuery(connection, dialect, countSql, params);
+        try {
+            if (_rs.next()) {
+                return _rs.getInt(1);
+            } else {
+                return 0;
+            }
+        } finally {
+            JDBCUtils.close(_rs);
         }
     }
 
     public ResultSet fetch() throws SQLException {
-        String sql = getSQL();
-        return JDBCUtils.executeQuery(connection, sql);
+        List<Object> params = new ArrayList<Object>();
+        String sql = getSQL(params);
+        if (streaming) {
+            return JDBCUtils.executeStreamingQuery(connection, dialect, sql, params, fetchSize);
+        }
+        return JDBCUtils.executeQuery(connection, dialect, sql, params, fetchSize);
     }
 }
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataprovider.sql;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetLookupFactory;
+import org.dashbuilder.dataset.DataSetManagerImpl;
+import org.dashbuilder.dataset.DataSetRowHandler;
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.def.SQLDataSetDef;
+import org.dashbuilder.dataset.filter.FilterFactory;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.group.DateIntervalType;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.junit.Test;
+
+import static org.dashbuilder.dataset.ExpenseReportsData.*;
+import static org.junit.Assert.*;
+
+public class SQLDataSetStreamTest extends SQLDataSetTestBase {
+
+    public static final String EXPENSE_REPORTS = "expense_reports";
+    public static final String EXPENSE_REPORTS_STATIC = "expense_reports_static";
+
+    @Override
+    public void testAll() throws Exception {
+        testStreamFilteredAndSorted();
+        testStreamPaged();
+        testStreamGroupBy();
+        testPostProcessingNotStreamed();
+        testEmptyIntervalsNotStreamed();
+        testCachedNotStreamed();
+    }
+
+    @Test
+    public void testStreamFilteredAndSorted() throws Exception {
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .filter(COLUMN_CITY, FilterFactory.equalsTo("Barcelona"))
+                .sort(COLUMN_ID, SortOrder.DESCENDING)
+                .buildLookup();
+
+        assertStreamed(lookup);
+    }
+
+    @Test
+    public void testStreamPaged() throws Exception {
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .sort(COLUMN_ID, SortOrder.ASCENDING)
+                .rowOffset(10)
+                .rowNumber(15)
+                .buildLookup();
+
+        RowCollector rows = assertStreamed(lookup);
+        assertEquals(rows.rows.size(), 15);
+    }
+
+    @Test
+    public void testStreamGroupBy() throws Exception {
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .group(COLUMN_DEPARTMENT)
+                .column(COLUMN_DEPARTMENT)
+                .column(COLUMN_ID, AggregateFunctionType.COUNT, "occurrences")
+                .column(COLUMN_AMOUNT, AggregateFunctionType.SUM, "total")
+                .sort(COLUMN_DEPARTMENT, SortOrder.ASCENDING)
+                .buildLookup();
+
+        RowCollector rows = assertStreamed(lookup);
+        assertEquals(rows.rows.size(), 5);
+    }
+
+    @Test
+    public void testPostProcessingNotStreamed() throws Exception {
+        // Dynamic date groups are sorted in memory
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .group(COLUMN_DATE).dynamic(DateIntervalType.YEAR, false)
+                .column(COLUMN_DATE)
+                .column(COLUMN_AMOUNT, AggregateFunctionType.SUM, "total")
+                .buildLookup();
+
+        assertNotStreamed(lookup);
+    }
+
+    @Test
+    public void testEmptyIntervalsNotStreamed() throws Exception {
+        // The empty intervals are added in memory
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS)
+                .group(COLUMN_DATE).fixed(DateIntervalType.MONTH, true)
+                .column(COLUMN_DATE)
+                .column(COLUMN_AMOUNT, AggregateFunctionType.SUM, "total")
+                .buildLookup();
+
+        assertNotStreamed(lookup);
+    }
+
+    @Test
+    public void testCachedNotStreamed() throws Exception {
+        URL fileURL = Thread.currentThread().getContextClassLoader().getResource("expenseReports_static.dset");
+        SQLDataSetDef def = (SQLDataSetDef) jsonMarshaller.fromJson(IOUtils.toString(fileURL));
+        dataSetDefRegistry.registerDataSetDef(def);
+
+        DataSetLookup lookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset(EXPENSE_REPORTS_STATIC)
+                .filter(COLUMN_CITY, FilterFactory.equalsTo("Madrid"))
+                .sort(COLUMN_ID, SortOrder.ASCENDING)
+                .buildLookup();
+
+        // Streamed from the database until the data set gets into the static cache
+        assertTrue(sqlDataSetProvider.streamDataSet(def, lookup, new RowCollector()));
+        dataSetManager.lookupDataSet(lookup);
+        assertNotStreamed(lookup);
+    }
+
+    protected RowCollector assertStreamed(DataSetLookup lookup) throws Exception {
+        DataSetDef def = dataSetDefRegistry.getDataSetDef(lookup.getDataSetUUID());
+        RowCollector rows = new RowCollector();
+        assertTrue(sqlDataSetProvider.streamDataSet(def, lookup, rows));
+        assertRows(rows, dataSetManager.lookupDataSet(lookup));
+        return rows;
+    }
+
+    protected void assertNotStreamed(DataSetLookup lookup) throws Exception {
+        DataSetDef def = dataSetDefRegistry.getDataSetDef(lookup.getDataSetUUID());
+        RowCollector rows = new RowCollector();
+        assertFalse(sqlDataSetProvider.streamDataSet(def, lookup, rows));
+        assertNull(rows.columnIds);
+
+        // The manager falls back to a regular lookup
+        rows = new RowCollector();
+        ((DataSetManagerImpl) dataSetManager).streamDataSet(lookup, rows);
+        assertRows(rows, dataSetManager.lookupDataSet(lookup));
+    }
+
+    protected void assertRows(RowCollector rows, DataSet dataSet) {
+        assertEquals(rows.columnIds.size(), dataSet.getColumns().size());
+        for (int j = 0; j < rows.columnIds.size(); j++) {
+            assertEquals(rows.columnIds.get(j), dataSet.getColumnByIndex(j).getId());
+        }
+        assertEquals(rows.rows.size(), dataSet.getRowCount());
+        for (int i = 0; i < rows.rows.size(); i++) {
+            for (int j = 0; j < rows.columnIds.size(); j++) {
+                Object expected = dataSet.getValueAt(i, j);
+                Object value = rows.rows.get(i)[j];
+                if (expected instanceof Number && value instanceof Number) {
+                    assertEquals(((Number) value).doubleValue(), ((Number) expected).doubleValue(), 0.001);
+                } else {
+                    assertEquals(value, expected);
+                }
+            }
+        }
+    }
+
+    protected static class RowCollector implements DataSetRowHandler {
+
+        List<String> columnIds;
+        List<Object[]> rows = new ArrayList<Object[]>();
+
+        public void columns(List<DataColumn> columns) {
+            columnIds = new ArrayList<String>();
+            for (DataColumn column : columns) {
+                columnIds.add(column.getId());
+            }
+        }
+
+        public void row(Object[] values) {
+            rows.add(values.clone());
+        }
+    }
+}
@@ -15,10 +15,22 @@
  */
 package org.dashbuilder.dataprovider.sql;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
 
+import org.dashbuilder.dataprovider.sql.model.DynamicDateColumn;
 import org.dashbuilder.dataprovider.sql.model.Select;
+import org.dashbuilder.dataset.group.AggregateFunctionType;
+import org.dashbuilder.dataset.group.DateIntervalType;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -66,4 +78,169 @@ public class SelectStatementTest {
 
         assertEquals(select.getSQL(), "SELECT \"id\" FROM (SELECT ID AS \"id\" FROM TABLE) \"dbSQL\"");
     }
+
+    @Test
+    public void testBindParameters() throws Exception {
+        when(metadata.storesLowerCaseIdentifiers()).thenReturn(false);
+        when(metadata.storesUpperCaseIdentifiers()).thenReturn(true);
+
+        Select select = new Select(connection, JDBCUtils.H2);
+        select.columns(column("id"));
+        select.from(table("table"));
+        select.where(column("id").equalsTo(1));
+        select.where(column("name").inSql(Arrays.asList("a", "b")));
+        select.where(column("amount").isNull());
+
+        List<Object> params = new ArrayList<>();
+        assertEquals(select.getSQL(params), "SELECT ID FROM TABLE WHERE ID = ? AND NAME IN (?,?) AND AMOUNT IS NULL");
+        assertEquals(params, Arrays.<Object>asList(1, "a", "b"));
+    }
+
+    @Test
+    public void testDialectParameterTypes() throws Exception {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        JDBCUtils.H2.setParameter(stmt, 1, 10);
+        JDBCUtils.H2.setParameter(stmt, 2, 2.5d);
+        JDBCUtils.H2.setParameter(stmt, 3, new Date(1500));
+        JDBCUtils.SQLSERVER.setParameter(stmt, 4, new Date(1500));
+        JDBCUtils.H2.setParameter(stmt, 5, "a");
+
+        verify(stmt).setLong(1, 10L);
+        verify(stmt).setBigDecimal(2, new BigDecimal("2.5"));
+        verify(stmt).setTimestamp(3, new Timestamp(1500));
+        verify(stmt).setTimestamp(4, new Timestamp(1000));
+        verify(stmt).setString(5, "a");
+    }
+
+    @Test
+    public void testCountOver() throws Exception {
+        when(metadata.storesLowerCaseIdentifiers()).thenReturn(false);
+        when(metadata.storesUpperCaseIdentifiers()).thenReturn(true);
+
+        Select select = new Select(connection, JDBCUtils.H2);
+        select.columns(column("id"));
+        select.from(table("table"));
+        select.limit(10).offset(20).countOver(true);
+
+        assertEquals(select.getSQL(), "SELECT ID, COUNT(*) OVER () \"dbTotal\" FROM TABLE LIMIT 10 OFFSET 20");
+    }
+
+    @Test
+    public void testCountOverSupport() throws Exception {
+        when(metadata.getDatabaseProductVersion()).thenReturn("1.4.197 (2018-03-18)");
+        assertFalse(JDBCUtils.H2.supportsCountOver(metadata));
+        when(metadata.getDatabaseProductVersion()).thenReturn("1.4.200 (2019-10-14)");
+        assertTrue(JDBCUtils.H2.supportsCountOver(metadata));
+
+        when(metadata.getDatabaseProductVersion()).thenReturn("5.7.21");
+        assertFalse(JDBCUtils.MYSQL.supportsCountOver(metadata));
+        when(metadata.getDatabaseProductVersion()).thenReturn("8.0.11");
+        assertTrue(JDBCUtils.MYSQL.supportsCountOver(metadata));
+        when(metadata.getDatabaseProductVersion()).thenReturn("5.5.5-10.3.9-MariaDB");
+        assertTrue(JDBCUtils.MYSQL.supportsCountOver(metadata));
+        when(metadata.getDatabaseProductVersion()).thenReturn("5.5.5-10.1.9-MariaDB");
+        assertFalse(JDBCUtils.MYSQL.supportsCountOver(metadata));
+    }
+
+    @Test
+    public void testDialectResultTypes() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getDouble(1)).thenReturn(2.5d);
+        when(rs.getDouble(2)).thenReturn(0d);
+        when(rs.wasNull()).thenReturn(false, true);
+        when(rs.getTimestamp(3)).thenReturn(new Timestamp(1500));
+        when(rs.getString(4)).thenReturn("a");
+        when(rs.getObject(5)).thenReturn(Boolean.TRUE);
+        when(rs.getObject(6)).thenReturn("3.5");
+
+        assertEquals(JDBCUtils.H2.getDouble(rs, 1, Types.DECIMAL), 2.5d, 0d);
+        assertNull(JDBCUtils.H2.getDouble(rs, 2, Types.INTEGER));
+        assertEquals(JDBCUtils.H2.getDate(rs, 3, Types.TIMESTAMP), new Timestamp(1500));
+        assertEquals(JDBCUtils.H2.getString(rs, 4, Types.VARCHAR), "a");
+        assertEquals(JDBCUtils.H2.getString(rs, 5, Types.BOOLEAN), "true");
+        assertEquals(JDBCUtils.H2.getDouble(rs, 6, Types.VARCHAR), 3.5d, 0d);
+    }
+
+    @Test
+    public void testDateLimits() throws Exception {
+        when(metadata.storesLowerCaseIdentifiers()).thenReturn(false);
+        when(metadata.storesUpperCaseIdentifiers()).thenReturn(true);
+
+        Select select = new Select(connection, JDBCUtils.H2);
+        select.columns(column("date").function(AggregateFunctionType.MIN),
+                column("date").function(AggregateFunctionType.MAX));
+        select.from(table("table"));
+        select.where(column("amount").greaterThan(100));
+
+        List<Object> params = new ArrayList<>();
+        assertEquals(select.getSQL(params), "SELECT MIN(DATE), MAX(DATE) FROM TABLE WHERE AMOUNT > ?");
+        assertEquals(params, Arrays.<Object>asList(100));
+    }
+
+    @Test
+    public void testDynamicDateTruncation() throws Exception {
+        DynamicDateColumn month = new DynamicDateColumn("D", DateIntervalType.MONTH);
+        assertEquals(JDBCUtils.POSTGRES.getDynamicDateColumnSQL(month), "DATE_TRUNC('month', D)");
+        assertEquals(JDBCUtils.ORACLE.getDynamicDateColumnSQL(month), "TRUNC(D, 'MM')");
+        assertEquals(JDBCUtils.DB2.getDynamicDateColumnSQL(month), "TRUNC_TIMESTAMP(D, 'MM')");
+        assertEquals(JDBCUtils.SQLSERVER.getDynamicDateColumnSQL(month), "DATEADD(MONTH, DATEDIFF(MONTH, 0, D), 0)");
+        assertEquals(JDBCUtils.H2.getDynamicDateColumnSQL(month), "(CAST(EXTRACT(YEAR FROM D) AS VARCHAR) || '-' || CAST(EXTRACT(MONTH FROM D) AS VARCHAR))");
+    }
+
+    @Test
+    public void testProfileCaseRules() throws Exception {
+        when(metadata.getURL()).thenReturn("jdbc:h2:mem:test");
+        when(metadata.storesLowerCaseIdentifiers()).thenReturn(false);
+        when(metadata.storesUpperCaseIdentifiers()).thenReturn(true);
+
+        SQLDataSourceProfile profile = SQLDataSourceProfile.create(connection);
+        assertEquals(profile.getDialect(), JDBCUtils.H2);
+
+        for (int i = 0; i < 3; i++) {
+            Select select = SQLFactory.select(connection, profile);
+            select.columns(column("id"));
+            select.from(table("table"));
+            assertEquals(select.getSQL(), "SELECT ID FROM TABLE");
+        }
+        verify(metadata, times(1)).storesUpperCaseIdentifiers();
+    }
+
+    @Test
+    public void testRowEstimates() throws Exception {
+        assertNull(JDBCUtils.H2.getRowEstimateSQL(false));
+        assertNull(JDBCUtils.H2.getChangeProbeSQL(false));
+        assertNull(JDBCUtils.ORACLE.getChangeProbeSQL(false));
+        assertEquals(JDBCUtils.ORACLE.getRowEstimateSQL(true), "SELECT NUM_ROWS FROM ALL_TABLES WHERE TABLE_NAME = ? AND OWNER = ?");
+        assertTrue(JDBCUtils.POSTGRES.getRowEstimateSQL(false).endsWith("n.nspname = current_schema()"));
+        assertTrue(JDBCUtils.POSTGRES.getChangeProbeSQL(true).endsWith("schemaname = ?"));
+        assertTrue(JDBCUtils.SQLSERVER.getRowEstimateSQL(true).contains("s.name = ? AND p.index_id IN (0, 1)"));
+        assertTrue(JDBCUtils.MYSQL.getRowEstimateSQL(false).endsWith("TABLE_SCHEMA = DATABASE()"));
+    }
+
+    @Test
+    public void testStreamingSettings() throws Exception {
+        assertEquals(JDBCUtils.H2.getStreamingFetchSize(500), 500);
+        assertEquals(JDBCUtils.MYSQL.getStreamingFetchSize(500), Integer.MIN_VALUE);
+        assertTrue(JDBCUtils.POSTGRES.isStreamingTransactional());
+        assertFalse(JDBCUtils.ORACLE.isStreamingTransactional());
+    }
+
+    @Test
+    public void testFetchSize() throws Exception {
+        PreparedStatement stmt = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString())).thenReturn(stmt);
+        List<Object> params = new ArrayList<>();
+
+        JDBCUtils.executeQuery(connection, JDBCUtils.MYSQL, "SELECT ID FROM TABLE", params, -1);
+        verify(stmt, never()).setFetchSize(anyInt());
+
+        JDBCUtils.executeQuery(connection, JDBCUtils.MYSQL, "SELECT ID FROM TABLE", params, 500);
+        verify(stmt).setFetchSize(500);
+
+        JDBCUtils.executeStreamingQuery(connection, JDBCUtils.MYSQL, "SELECT ID FROM TABLE", params, 500);
+        verify(stmt).setFetchSize(Integer.MIN_VALUE);
+
+        JDBCUtils.executeStreamingQuery(connection, JDBCUtils.H2, "SELECT ID FROM TABLE", params, -1);
+        verify(stmt, times(2)).setFetchSize(anyInt());
+    }
 }
@@ -16,6 +16,7 @@
 package org.dashbuilder.dataset.service;
 
 import java.io.BufferedWriter;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.math.BigDecimal;
@@ -23,7 +24,6 @@ import java.math.BigInteger;
 import java.text.DateFormat;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -50,6 +50,7 @@ import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.DataSetLookup;
 import org.dashbuilder.dataset.DataSetDefRegistryCDI;
 import org.dashbuilder.dataset.DataSetManagerCDI;
+import org.dashbuilder.dataset.DataSetRowHandler;
 import org.dashbuilder.dataset.group.Interval;
 import org.dashbuilder.dataset.uuid.UUIDGenerator;
 import org.dashbuilder.exception.ExceptionManager;
@@ -95,70 +96,131 @@ public class DataSetExportServicesImpl implements DataSetExportServices {
     }
 
     public org.uberfire.backend.vfs.Path exportDataSetCSV(DataSetLookup lookup) {
-        DataSet dataSet = dataSetManager.lookupDataSet(lookup);
-        return exportDataSetCSV(dataSet);
+        try {
+            if (lookup == null) throw new IllegalArgumentException("Null lookup specified!");
+            CSVExport export = new CSVExport();
+            try {
+                dataSetManager.streamDataSet(lookup, export);
+            } finally {
+                export.close();
+            }
+            return Paths.convert(export.path);
+        }
+        catch (Exception e) {
+            throw exceptionManager.handleException(e);
+        }
     }
 
     public org.uberfire.backend.vfs.Path exportDataSetCSV(DataSet dataSet) {
         try {
             if (dataSet == null) throw new IllegalArgumentException("Null dataSet specified!");
-            int columnCount = dataSet.getColumns().size();
-            int rowCount = dataSet.getRowCount();
-
-            List<String[]> lines = new ArrayList<String[]>(rowCount+1);
+            CSVExport export = new CSVExport();
+            try {
+                dataSetManager.streamDataSet(dataSet, export);
+            } finally {
+                export.close();
+            }
+            return Paths.convert(export.path);
+        }
+        catch (Exception e) {
+            throw exceptionManager.handleException(e);
+        }
+    }
 
-            String[] line = new String[columnCount];
-            for (int cc = 0; cc < columnCount; cc++) {
-                DataColumn dc = dataSet.getColumnByIndex(cc);
-                line[cc] = dc.getId();
+    @Override
+    public org.uberfire.backend.vfs.Path exportDataSetExcel(DataSetLookup dataSetLookup) {
+        try {
+            if (dataSetLookup == null) throw new IllegalArgumentException("Null lookup specified!");
+            ExcelExport export = new ExcelExport();
+            try {
+                dataSetManager.streamDataSet(dataSetLookup, export);
+                export.write();
+            } finally {
+                export.dispose();
             }
-            lines.add(line);
+            return Paths.convert(export.path);
+        } catch (Exception e) {
+            throw exceptionManager.handleException(e);
+        }
+    }
 
-            for (int rc = 0; rc < rowCount; rc++) {
-                line = new String[columnCount];
-                for (int cc = 0; cc < columnCount; cc++) {
-                    line[cc] = formatAsString(dataSet.getValueAt(rc, cc));
-                }
-                lines.add(line);
+    @Override
+    public org.uberfire.backend.vfs.Path exportDataSetExcel(DataSet dataSet) {
+        try {
+            if (dataSet == null) throw new IllegalArgumentException("Null dataSet specified!");
+            ExcelExport export = new ExcelExport();
+            try {
+                dataSetManager.streamDataSet(dataSet, export);
+                export.write();
+            } finally {
+                export.dispose();
             }
+            return Paths.convert(export.path);
+        } catch (Exception e) {
+            throw exceptionManager.handleException(e);
+        }
+    }
 
+    /**
+     * Writes every row to the CSV file as soon as it is received.
+     */
+    protected class CSVExport implements DataSetRowHandler {
+
+        Path path;
+        CSVWriter writer;
+        String[] line;
+
+        CSVExport() {
             String tempCsvFile = uuidGenerator.newUuid() + ".csv";
-            Path tempCsvPath = gitStorage.createTempFile(tempCsvFile);
+            path = gitStorage.createTempFile(tempCsvFile);
 
-            BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(tempCsvPath)));
-            CSVWriter writer = new CSVWriter(bw,
+            BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path)));
+            writer = new CSVWriter(bw,
                     DEFAULT_SEPARATOR_CHAR.charAt(0),
                     DEFAULT_QUOTE_CHAR.charAt(0),
                     DEFAULT_ESCAPE_CHAR.charAt(0));
-            writer.writeAll(lines);
-            writer.close();
+        }
+
+        @Override
+        public void columns(List<DataColumn> columns) {
+            line = new String[columns.size()];
+            for (int cc = 0; cc < columns.size(); cc++) {
+                line[cc] = columns.get(cc).getId();
+            }
+            writer.writeNext(line);
+        }
+
+        @Override
+        public void row(Object[] values) {
+            for (int cc = 0; cc < values.length; cc++) {
+                line[cc] = formatAsString(values[cc]);
+            }
+            writer.writeNext(line);
+        }
+
+        void close() throws IOException {
             writer.flush();
             writer.close();
-            return Paths.convert(tempCsvPath);
-        }
-        catch (Exception e) {
-            throw exceptionManager.handleException(e);
         }
     }
 
-    @Override
-    public org.uberfire.backend.vfs.Path exportDataSetExcel(DataSetLookup dataSetLookup) {
-        DataSet dataSet = dataSetManager.lookupDataSet( dataSetLookup );
-        return exportDataSetExcel( dataSet );
-    }
+    /**
+     * Adds every row to a streaming workbook, which keeps just the last rows in memory.
+     */
+    protected class ExcelExport implements DataSetRowHandler {
 
-    @Override
-    public org.uberfire.backend.vfs.Path exportDataSetExcel(DataSet dataSet) {
-        try {
-            // TODO?: Excel 2010 limits: 1,048,576 rows by 16,384 columns; row width 255 characters
-            if (dataSet == null) throw new IllegalArgumentException("Null dataSet specified!");
-            int columnCount = dataSet.getColumns().size();
-            int rowCount = dataSet.getRowCount() + 1; //Include header row;
-            int row = 0;
+        Path path;
+        SXSSFWorkbook wb;
+        Map<String, CellStyle> styles;
+        Sheet sh;
+        int columnCount;
+        int row = 0;
 
-            SXSSFWorkbook wb = new SXSSFWorkbook(100); // keep 100 rows in memory, exceeding rows will be flushed to disk
-            Map<String, CellStyle> styles = createStyles(wb);
-            Sheet sh = wb.createSheet("Sheet 1");
+        ExcelExport() {
+            // TODO?: Excel 2010 limits: 1,048,576 rows by 16,384 columns; row width 255 characters
+            wb = new SXSSFWorkbook(100); // keep 100 rows in memory, exceeding rows will be flushed to disk
+            styles = createStyles(wb);
+            sh = wb.createSheet("Sheet 1");
 
             // General setup
             sh.setDisplayGridlines(true);
@@ -167,65 +229,70 @@ public class DataSetExportServicesImpl implements DataSetExportServices {
             sh.setHorizontallyCenter(true);
             PrintSetup printSetup = sh.getPrintSetup();
             printSetup.setLandscape(true);
+        }
 
+        @Override
+        public void columns(List<DataColumn> columns) {
             // Create header
+            columnCount = columns.size();
             Row header = sh.createRow(row++);
             header.setHeightInPoints(20f);
             for (int i = 0; i < columnCount; i++) {
                 Cell cell = header.createCell(i);
                 cell.setCellStyle(styles.get("header"));
-                cell.setCellValue(dataSet.getColumnByIndex(i).getId());
+                cell.setCellValue(columns.get(i).getId());
             }
+        }
 
-            // Create data rows
-            for (; row < rowCount; row++) {
-                Row _row = sh.createRow(row);
-                for (int cellnum = 0; cellnum < columnCount; cellnum++) {
-                    Cell cell = _row.createCell(cellnum);
-                    Object value = dataSet.getValueAt(row - 1, cellnum);
-                    if (value instanceof Short || value instanceof Long || value instanceof Integer || value instanceof BigInteger ) {
-                        cell.setCellType(Cell.CELL_TYPE_NUMERIC);
-                        cell.setCellStyle(styles.get("integer_number_cell"));
-                        cell.setCellValue(((Number) value).doubleValue());
-                    } else if (value instanceof Float || value instanceof Double || value instanceof BigDecimal ) {
-                        cell.setCellType(Cell.CELL_TYPE_NUMERIC);
-                        cell.setCellStyle(styles.get("decimal_number_cell"));
-                        cell.setCellValue(((Number) value).doubleValue());
-                    } else if (value instanceof Date) {
-                        cell.setCellType(Cell.CELL_TYPE_STRING);
-                        cell.setCellStyle(styles.get("date_cell"));
-                        cell.setCellValue((Date) value);
-                    } else if (value instanceof Interval) {
-                        cell.setCellType(Cell.CELL_TYPE_STRING);
-                        cell.setCellStyle(styles.get(TEXT_CELL));
-                        cell.setCellValue(((Interval) value).getName());
-                    } else {
-                        cell.setCellType(Cell.CELL_TYPE_STRING);
-                        cell.setCellStyle(styles.get(TEXT_CELL));
-                        cell.setCellValue(value.toString());
-                    }
+        @Override
+        public void row(Object[] values) {
+            Row _row = sh.createRow(row++);
+            for (int cellnum = 0; cellnum < columnCount; cellnum++) {
+                Cell cell = _row.createCell(cellnum);
+                Object value = values[cellnum];
+                if (value instanceof Short || value instanceof Long || value instanceof Integer || value instanceof BigInteger ) {
+                    cell.setCellType(Cell.CELL_TYPE_NUMERIC);
+                    cell.setCellStyle(styles.get("integer_number_cell"));
+                    cell.setCellValue(((Number) value).doubleValue());
+                } else if (value instanceof Float || value instanceof Double || value instanceof BigDecimal ) {
+                    cell.setCellType(Cell.CELL_TYPE_NUMERIC);
+                    cell.setCellStyle(styles.get("decimal_number_cell"));
+                    cell.setCellValue(((Number) value).doubleValue());
+                } else if (value instanceof Date) {
+                    cell.setCellType(Cell.CELL_TYPE_STRING);
+                    cell.setCellStyle(styles.get("date_cell"));
+                    cell.setCellValue((Date) value);
+                } else if (value instanceof Interval) {
+                    cell.setCellType(Cell.CELL_TYPE_STRING);
+                    cell.setCellStyle(styles.get(TEXT_CELL));
+                    cell.setCellValue(((Interval) value).getName());
+                } else {
+                    cell.setCellType(Cell.CELL_TYPE_STRING);
+                    cell.setCellStyle(styles.get(TEXT_CELL));
+                    cell.setCellValue(value.toString());
                 }
             }
+        }
 
+        void write() throws IOException {
             // Adjust column size
             for (int i = 0; i < columnCount; i++) {
                 sh.autoSizeColumn(i);
             }
 
             String tempXlsFile = uuidGenerator.newUuid() + ".xlsx";
-            Path tempXlsPath = gitStorage.createTempFile(tempXlsFile);
-            OutputStream os = Files.newOutputStream(tempXlsPath);
+            path = gitStorage.createTempFile(tempXlsFile);
+            OutputStream os = Files.newOutputStream(path);
             wb.write(os);
             os.flush();
             os.close();
+        }
 
+        void dispose() {
             // Dispose of temporary files backing this workbook on disk
             if (!wb.dispose()) {
                 log.warn("Could not dispose of temporary file associated to data export!");
             }
-            return Paths.convert(tempXlsPath);
-        } catch (Exception e) {
-            throw exceptionManager.handleException(e);
         }
     }
 
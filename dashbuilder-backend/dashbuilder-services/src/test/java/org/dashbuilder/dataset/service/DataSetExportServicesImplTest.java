@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetFactory;
+import org.dashbuilder.dataset.DataSetRowHandler;
+import org.dashbuilder.dataset.DataSetDefRegistryCDI;
+import org.dashbuilder.dataset.uuid.UUIDGenerator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.uberfire.java.nio.file.FileSystem;
+import org.uberfire.java.nio.file.OpenOption;
+import org.uberfire.java.nio.file.Path;
+import org.uberfire.java.nio.file.spi.FileSystemProvider;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DataSetExportServicesImplTest {
+
+    @Mock
+    DataSetDefRegistryCDI gitStorage;
+
+    @Mock
+    UUIDGenerator uuidGenerator;
+
+    @Mock
+    Path path;
+
+    @Mock
+    FileSystem fileSystem;
+
+    @Mock
+    FileSystemProvider fileSystemProvider;
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    DataSetExportServicesImpl exportServices;
+    Date date = new GregorianCalendar(2016, 0, 31, 10, 30, 0).getTime();
+
+    @Before
+    public void setUp() throws Exception {
+        when(uuidGenerator.newUuid()).thenReturn("export");
+        when(gitStorage.createTempFile(anyString())).thenReturn(path);
+        when(path.getFileSystem()).thenReturn(fileSystem);
+        when(fileSystem.provider()).thenReturn(fileSystemProvider);
+        when(fileSystemProvider.newOutputStream(eq(path), Matchers.<OpenOption>anyVararg())).thenReturn(output);
+
+        exportServices = new DataSetExportServicesImpl();
+        exportServices.gitStorage = gitStorage;
+        exportServices.uuidGenerator = uuidGenerator;
+    }
+
+    DataSet createDataSet() {
+        return DataSetFactory.newDataSetBuilder()
+                .label("city")
+                .number("amount")
+                .date("date")
+                .row("Barcelona", 10d, date)
+                .row("Madrid", 2000d, date)
+                .buildDataSet();
+    }
+
+    void export(DataSet dataSet, DataSetRowHandler handler) throws Exception {
+        handler.columns(dataSet.getColumns());
+        Object[] row = new Object[dataSet.getColumns().size()];
+        for (int i = 0; i < dataSet.getRowCount(); i++) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] = dataSet.getValueAt(i, j);
+            }
+            handler.row(row);
+        }
+    }
+
+    @Test
+    public void testCSVExport() throws Exception {
+        DataSetExportServicesImpl.CSVExport export = exportServices.new CSVExport();
+        export(createDataSet(), export);
+        export.row(new Object[] {"London", null, null});
+        export.close();
+
+        String[] lines = output.toString().split("\n");
+        assertEquals(lines.length, 4);
+        assertEquals(lines[0], "\"city\";\"amount\";\"date\"");
+        assertEquals(lines[1], "\"Barcelona\";\"10\";\"31/01/2016 10:30:00\"");
+        assertEquals(lines[3], "\"London\";\"\";\"\"");
+        verify(gitStorage).createTempFile("export.csv");
+    }
+
+    @Test
+    public void testExcelExport() throws Exception {
+        DataSetExportServicesImpl.ExcelExport export = exportServices.new ExcelExport();
+        try {
+            export(createDataSet(), export);
+            export.write();
+        } finally {
+            export.dispose();
+        }
+        verify(gitStorage).createTempFile("export.xlsx");
+
+        XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(output.toByteArray()));
+        Sheet sheet = workbook.getSheetAt(0);
+        assertEquals(sheet.getLastRowNum(), 2);
+
+        Row header = sheet.getRow(0);
+        assertEquals(header.getCell(0).getStringCellValue(), "city");
+        assertEquals(header.getCell(1).getStringCellValue(), "amount");
+        assertEquals(header.getCell(2).getStringCellValue(), "date");
+
+        Row row = sheet.getRow(2);
+        assertEquals(row.getCell(0).getStringCellValue(), "Madrid");
+        assertEquals(row.getCell(1).getNumericCellValue(), 2000d, 0d);
+        assertEquals(row.getCell(2).getDateCellValue(), date);
+    }
+}
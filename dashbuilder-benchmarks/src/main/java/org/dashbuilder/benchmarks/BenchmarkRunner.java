@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.benchmarks;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Command line entry point for the benchmarks. It accepts the same arguments as the JMH's default runner
+ * (run with <tt>-h</tt> for the full list) but, unless a result format is explicitly given, it always writes
+ * the results in JSON format into a timestamped <tt>dashbuilder-benchmarks-*.json</tt> file, so results from
+ * different builds can be stored & compared.
+ *
+ * <p>Examples:</p>
+ * <pre>
+ *   java -jar target/benchmarks.jar
+ *   java -jar target/benchmarks.jar DataSetEngineBenchmark -p rows=100000 -p cardinality=10
+ *   java -jar target/benchmarks.jar CSVParserBenchmark -rf csv -rff csv-results.csv
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    public static final String RESULT_FILE_PREFIX = "dashbuilder-benchmarks-";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args);
+        if (cmdOptions.shouldHelp()) {
+            cmdOptions.showHelp();
+            return;
+        }
+        if (cmdOptions.shouldList()) {
+            new Runner(cmdOptions).list();
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(cmdOptions);
+        if (!cmdOptions.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmdOptions.getResult().hasValue()) {
+            ResultFormatType format = cmdOptions.getResultFormat().orElse(ResultFormatType.JSON);
+            String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+            builder.result(RESULT_FILE_PREFIX + timestamp + "." + format.toString().toLowerCase());
+        }
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.dashbuilder.dataprovider.csv.CSVFileStorage;
+import org.dashbuilder.dataprovider.csv.CSVParallelParser;
+import org.dashbuilder.dataprovider.csv.CSVParser;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.def.CSVDataSetDef;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the {@link CSVParser} & {@link CSVParallelParser} load process. The CSV content is generated & kept in memory so the results
+ * do not depend on the file system.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CSVParserBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"10", "1000"})
+    public int cardinality;
+
+    protected byte[] csvContent;
+    protected CSVDataSetDef csvDef;
+    protected CSVFileStorage csvStorage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticDataSetGenerator generator = new SyntheticDataSetGenerator(rows, cardinality);
+        csvContent = generator.buildCSV().getBytes(StandardCharsets.UTF_8);
+
+        csvDef = new CSVDataSetDef();
+        csvDef.setUUID("csvBenchmark");
+        csvDef.setSeparatorChar(';');
+        csvDef.setQuoteChar('"');
+        csvDef.setEscapeChar('\\');
+        csvDef.setDatePattern(SyntheticDataSetGenerator.CSV_DATE_PATTERN);
+        csvDef.setNumberPattern(SyntheticDataSetGenerator.CSV_NUMBER_PATTERN);
+
+        csvStorage = new InMemoryCSVFileStorage(csvContent);
+    }
+
+    @Benchmark
+    public DataSet load() throws Exception {
+        // A new parser per invocation, as the CSV provider does on every (re)load
+        return new BenchmarkCSVParser(csvDef, csvStorage).load();
+    }
+
+    @Benchmark
+    public DataSet loadParallel() throws Exception {
+        return new BenchmarkCSVParallelParser(csvDef, csvStorage).load();
+    }
+
+    /**
+     * Just exposes the parser's load method.
+     */
+    public static class BenchmarkCSVParser extends CSVParser {
+
+        public BenchmarkCSVParser(CSVDataSetDef def, CSVFileStorage csvFileStorage) {
+            super(def, csvFileStorage);
+        }
+
+        @Override
+        public DataSet load() throws Exception {
+            return super.load();
+        }
+    }
+
+    /**
+     * Just exposes the parallel parser's load method.
+     */
+    public static class BenchmarkCSVParallelParser extends CSVParallelParser {
+
+        public BenchmarkCSVParallelParser(CSVDataSetDef def, CSVFileStorage csvFileStorage) {
+            super(def, csvFileStorage);
+        }
+
+        @Override
+        public DataSet load() throws Exception {
+            return super.load();
+        }
+    }
+
+    /**
+     * A read only storage serving the generated CSV content.
+     */
+    public static class InMemoryCSVFileStorage implements CSVFileStorage {
+
+        private byte[] content;
+
+        public InMemoryCSVFileStorage(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public InputStream getCSVInputStream(CSVDataSetDef def) {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public String getCSVString(CSVDataSetDef def) {
+            return new String(content, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void saveCSVFile(CSVDataSetDef def) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteCSVFile(CSVDataSetDef def) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dashbuilder.DataSetCore;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookupFactory;
+import org.dashbuilder.dataset.DataSetOp;
+import org.dashbuilder.dataset.engine.SharedDataSetOpEngine;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.dashbuilder.benchmarks.SyntheticDataSetGenerator.*;
+import static org.dashbuilder.dataset.filter.FilterFactory.*;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.*;
+import static org.dashbuilder.dataset.group.DateIntervalType.*;
+
+/**
+ * Benchmarks for the filter, group, sort & aggregate operations of the {@link SharedDataSetOpEngine}.
+ *
+ * <p>Every invocation runs against a brand new index (see {@link SharedDataSetOpEngine#execute(DataSet, List)}),
+ * so the results measure the raw engine processing time and not the reuse of previously indexed results.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DataSetEngineBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"10", "1000"})
+    public int cardinality;
+
+    protected SharedDataSetOpEngine engine;
+    protected DataSet dataSet;
+
+    protected List<DataSetOp> filterOps;
+    protected List<DataSetOp> likeFilterOps;
+    protected List<DataSetOp> groupOps;
+    protected List<DataSetOp> dateGroupOps;
+    protected List<DataSetOp> sortOps;
+    protected List<DataSetOp> aggregateOps;
+    protected List<DataSetOp> pipelineOps;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = DataSetCore.get().getSharedDataSetOpEngine();
+        dataSet = new SyntheticDataSetGenerator(rows, cardinality).buildDataSet();
+
+        filterOps = DataSetLookupFactory.newDataSetLookupBuilder()
+                .filter(AND(equalsTo(COUNTRY, "Spain"), between(AMOUNT, 9000d, 12000d)))
+                .buildLookup().getOperationList();
+
+        likeFilterOps = DataSetLookupFactory.newDataSetLookupBuilder()
+                .filter(likeTo(CUSTOMER, "%ustomer 1%"))
+                .buildLookup().getOperationList();
+
+        groupOps = DataSetLookupFactory.newDataSetLookupBuilder()
+                .group(CUSTOMER)
+                .column(CUSTOMER)
+                .column(COUNT, "occurrences")
+                .column(AMOUNT, SUM, "total")
+                .column(AMOUNT, AVERAGE, "average")
+                .buildLookup().getOperationList();
+
+        dateGroupOps = DataSetLookupFactory.newDataSetLookupBuilder()
+                .group(CREATION_DATE).dynamic(80, MONTH, true)
+                .column(CREATION_DATE)
+                .column(AMOUNT, SUM, "total")
+                .buildLookup().getOperationList();
+
+        sortOps = DataSetLookupFactory.newDataSetLookupBuilder()
+                .sort(SALES_PERSON, SortOrder.ASCENDING)
+                .sort(AMOUNT, SortOrder.DESCENDING)
+                .buildLookup().getOperationList();
+
+        aggregateOps = DataSetLookupFactory.newDataSetLookupBuilder()
+                .column(COUNT, "occurrences")
+                .column(AMOUNT, MIN, "min")
+                .column(AMOUNT, MAX, "max")
+                .column(AMOUNT, SUM, "total")
+                .column(PROBABILITY, AVERAGE, "probability")
+                .buildLookup().getOperationList();
+
+        pipelineOps = DataSetLookupFactory.newDataSetLookupBuilder()
+                .filter(greaterThan(PROBABILITY, 50d))
+                .group(PRODUCT)
+                .column(PRODUCT)
+                .column(AMOUNT, SUM, "total")
+                .sort("total", SortOrder.DESCENDING)
+                .buildLookup().getOperationList();
+    }
+
+    @Benchmark
+    public DataSet filter() {
+        return engine.execute(dataSet, filterOps);
+    }
+
+    @Benchmark
+    public DataSet filterLike() {
+        return engine.execute(dataSet, likeFilterOps);
+    }
+
+    @Benchmark
+    public DataSet group() {
+        return engine.execute(dataSet, groupOps);
+    }
+
+    @Benchmark
+    public DataSet groupByDate() {
+        return engine.execute(dataSet, dateGroupOps);
+    }
+
+    @Benchmark
+    public DataSet sort() {
+        return engine.execute(dataSet, sortOps);
+    }
+
+    @Benchmark
+    public DataSet aggregate() {
+        return engine.execute(dataSet, aggregateOps);
+    }
+
+    @Benchmark
+    public DataSet filterGroupSort() {
+        return engine.execute(dataSet, pipelineOps);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetLookup;
+import org.dashbuilder.dataset.DataSetLookupFactory;
+import org.dashbuilder.dataset.json.DataSetJSONMarshaller;
+import org.dashbuilder.dataset.json.DataSetLookupJSONMarshaller;
+import org.dashbuilder.dataset.sort.SortOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.dashbuilder.benchmarks.SyntheticDataSetGenerator.*;
+import static org.dashbuilder.dataset.filter.FilterFactory.*;
+import static org.dashbuilder.dataset.group.AggregateFunctionType.*;
+import static org.dashbuilder.dataset.group.DateIntervalType.*;
+
+/**
+ * Benchmarks for the JSON marshalling of data sets & data set lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class JSONMarshallerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    @Param({"100"})
+    public int cardinality;
+
+    protected DataSetJSONMarshaller dataSetMarshaller;
+    protected DataSetLookupJSONMarshaller lookupMarshaller;
+
+    protected DataSet dataSet;
+    protected String dataSetJson;
+    protected DataSetLookup dataSetLookup;
+    protected String dataSetLookupJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataSetMarshaller = DataSetJSONMarshaller.get();
+        lookupMarshaller = DataSetLookupJSONMarshaller.get();
+
+        dataSet = new SyntheticDataSetGenerator(rows, cardinality).buildDataSet();
+        dataSetJson = dataSetMarshaller.toJson(dataSet).toJson();
+
+        dataSetLookup = DataSetLookupFactory.newDataSetLookupBuilder()
+                .dataset("salesBenchmark")
+                .filter(AND(equalsTo(COUNTRY, "Spain"), between(AMOUNT, 9000d, 12000d)))
+                .filter(PIPELINE, likeTo(PIPELINE, "%EARLY%"))
+                .group(CREATION_DATE).dynamic(80, MONTH, true)
+                .column(CREATION_DATE)
+                .column(COUNT, "occurrences")
+                .column(AMOUNT, SUM, "total")
+                .sort("total", SortOrder.DESCENDING)
+                .rowNumber(20)
+                .buildLookup();
+        dataSetLookupJson = lookupMarshaller.toJson(dataSetLookup).toJson();
+    }
+
+    @Benchmark
+    public String dataSetToJson() throws Exception {
+        return dataSetMarshaller.toJson(dataSet).toJson();
+    }
+
+    @Benchmark
+    public DataSet dataSetFromJson() throws Exception {
+        return dataSetMarshaller.fromJson(dataSetJson);
+    }
+
+    @Benchmark
+    public String lookupToJson() throws Exception {
+        return lookupMarshaller.toJson(dataSetLookup).toJson();
+    }
+
+    @Benchmark
+    public DataSetLookup lookupFromJson() throws Exception {
+        return lookupMarshaller.fromJson(dataSetLookupJson);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.benchmarks;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.DataSetBuilder;
+import org.dashbuilder.dataset.DataSetFactory;
+
+/**
+ * Generates synthetic sales opportunity data sets for the benchmarks. The records follow the same layout as the
+ * sales data set generated by the showcase webapp, but both the number of rows and the number of distinct values
+ * of the high cardinality columns can be configured. A fixed random seed makes every run to produce exactly the same data.
+ */
+public class SyntheticDataSetGenerator {
+
+    public static final String AMOUNT = "amount";
+    public static final String CREATION_DATE = "creationDate";
+    public static final String CLOSING_DATE = "closingDate";
+    public static final String PIPELINE = "pipeline";
+    public static final String STATUS = "status";
+    public static final String CUSTOMER = "customer";
+    public static final String COUNTRY = "country";
+    public static final String PRODUCT = "product";
+    public static final String SALES_PERSON = "salesPerson";
+    public static final String PROBABILITY = "probability";
+
+    public static final String CSV_DATE_PATTERN = "MM-dd-yyyy HH:mm";
+    public static final String CSV_NUMBER_PATTERN = "#,###.##";
+
+    private static final String[] DIC_PIPELINE = {"EARLY", "STANDBY", "ADVANCED"};
+
+    private static final String[] DIC_STATUS = {"CONTACTED", "STANDBY", "DEMO", "SHORT LISTED",
+                                                "LOST", "WIN", "VERBAL COMMITMENT", "QUALIFIED"};
+
+    private static final String[] DIC_COUNTRIES = {"United States", "China", "Japan", "Germany", "France", "United Kingdom",
+                                                   "Brazil", "Italy", "India", "Canada", "Russia", "Spain", "Australia",
+                                                   "Mexico", "South Korea", "Netherlands", "Turkey", "Indonesia", "Switzerland",
+                                                   "Poland", "Belgium", "Sweden", "Saudi Arabia", "Norway"};
+
+    private static final double MAX_AMOUNT = 15000;
+    private static final double MIN_AMOUNT = 8000;
+    private static final int AVG_CLOSING_DAYS = 90;
+    private static final int START_YEAR = 2010;
+    private static final int YEARS = 6;
+
+    private int rows = 10000;
+    private int cardinality = 100;
+    private long seed = 1L;
+
+    public SyntheticDataSetGenerator() {
+    }
+
+    public SyntheticDataSetGenerator(int rows, int cardinality) {
+        this.rows = rows;
+        this.cardinality = cardinality;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Number of distinct values of the customer, product & sales person columns.
+     */
+    public int getCardinality() {
+        return cardinality;
+    }
+
+    public void setCardinality(int cardinality) {
+        this.cardinality = cardinality;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public DataSet buildDataSet() {
+        DataSetBuilder builder = DataSetFactory.newDataSetBuilder()
+                .number(AMOUNT)
+                .date(CREATION_DATE)
+                .date(CLOSING_DATE)
+                .label(PIPELINE)
+                .label(STATUS)
+                .label(CUSTOMER)
+                .label(COUNTRY)
+                .label(PRODUCT)
+                .label(SALES_PERSON)
+                .number(PROBABILITY);
+
+        Random random = new Random(seed);
+        Calendar c = Calendar.getInstance();
+        for (int i = 0; i < rows; i++) {
+            Object[] row = buildRow(random, c);
+            builder.row(row);
+        }
+        return builder.buildDataSet();
+    }
+
+    /**
+     * Generates the same records as {@link #buildDataSet()} but in CSV format.
+     * Dates & numbers are formatted using the {@link #CSV_DATE_PATTERN} & {@link #CSV_NUMBER_PATTERN} patterns.
+     */
+    public String buildCSV() {
+        SimpleDateFormat dateFormat = new SimpleDateFormat(CSV_DATE_PATTERN);
+        DecimalFormat numberFormat = new DecimalFormat(CSV_NUMBER_PATTERN, new DecimalFormatSymbols(Locale.ENGLISH));
+
+        StringBuilder out = new StringBuilder(rows * 128);
+        out.append(AMOUNT).append(';')
+                .append(CREATION_DATE).append(';')
+                .append(CLOSING_DATE).append(';')
+                .append(PIPELINE).append(';')
+                .append(STATUS).append(';')
+                .append(CUSTOMER).append(';')
+                .append(COUNTRY).append(';')
+                .append(PRODUCT).append(';')
+                .append(SALES_PERSON).append(';')
+                .append(PROBABILITY).append('\n');
+
+        Random random = new Random(seed);
+        Calendar c = Calendar.getInstance();
+        for (int i = 0; i < rows; i++) {
+            Object[] row = buildRow(random, c);
+            for (int j = 0; j < row.length; j++) {
+                Object value = row[j];
+                if (j > 0) out.append(';');
+                if (value instanceof Date) out.append(dateFormat.format((Date) value));
+                else if (value instanceof Number) out.append('"').append(numberFormat.format(value)).append('"');
+                else out.append('"').append(value).append('"');
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    protected Object[] buildRow(Random random, Calendar c) {
+        double amount = MIN_AMOUNT + random.nextDouble() * (MAX_AMOUNT - MIN_AMOUNT);
+        double probability = random.nextDouble() * 100.0;
+
+        c.clear();
+        c.set(START_YEAR + random.nextInt(YEARS), random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60));
+        Date creationDate = c.getTime();
+        c.add(Calendar.DAY_OF_MONTH, AVG_CLOSING_DAYS + random.nextInt(AVG_CLOSING_DAYS / 2));
+        Date closingDate = c.getTime();
+
+        return new Object[] {
+                amount,
+                creationDate,
+                closingDate,
+                randomValue(random, DIC_PIPELINE),
+                randomValue(random, DIC_STATUS),
+                "Customer " + random.nextInt(cardinality),
+                randomValue(random, DIC_COUNTRIES),
+                "Product " + random.nextInt(cardinality),
+                "Sales person " + random.nextInt(cardinality),
+                probability};
+    }
+
+    private String randomValue(Random random, String[] dic) {
+        return dic[random.nextInt(dic.length)];
+    }
+}
@@ -298,4 +298,14 @@ public class DataSetLookup {
             return false;
         }
     }
+
+    public int hashCode() {
+        int result = dataSetUUID != null ? dataSetUUID.hashCode() : 0;
+        result = 31 * result + rowOffset;
+        result = 31 * result + numberOfRows;
+        for (DataSetOp op : operationList) {
+            result = 31 * result + (op != null ? op.hashCode() : 0);
+        }
+        return result;
+    }
 }
@@ -39,6 +39,8 @@ public class SQLDataSetDef extends DataSetDef {
     @Size(min = 1, groups = {SQLDataSetDefDbSQLValidation.class})
     protected String dbSQL;
 
+    protected String cacheIncrementalColumn;
+
     public SQLDataSetDef() {
         super.setProvider(DataSetProviderType.SQL);
     }
@@ -91,6 +93,20 @@ public class SQLDataSetDef extends DataSetDef {
         this.cacheMaxRows = cacheMaxRows;
     }
 
+    /**
+     * The column whose values increase as new rows are inserted (an auto-increment id or a creation timestamp).
+     * If set, a cached data set which gets stale is refreshed by fetching just the rows beyond the greatest value
+     * already cached, instead of loading the whole data set again. Intended for tables where rows are only
+     * appended, rows with no value in such column are never fetched by an incremental refresh.
+     */
+    public String getCacheIncrementalColumn() {
+        return cacheIncrementalColumn;
+    }
+
+    public void setCacheIncrementalColumn(String cacheIncrementalColumn) {
+        this.cacheIncrementalColumn = cacheIncrementalColumn;
+    }
+
     @Override
     public boolean equals(Object obj) {
         try {
@@ -110,6 +126,9 @@ public class SQLDataSetDef extends DataSetDef {
             if (dbSQL != null && !dbSQL.equals(other.dbSQL)) {
                 return false;
             }
+            if (cacheIncrementalColumn != null && !cacheIncrementalColumn.equals(other.cacheIncrementalColumn)) {
+                return false;
+            }
             return true;
         } catch (ClassCastException e) {
             return false;
@@ -124,6 +143,7 @@ public class SQLDataSetDef extends DataSetDef {
         def.setDbSchema(getDbSchema());
         def.setDbTable(getDbTable());
         def.setDbSQL(getDbSQL());
+        def.setCacheIncrementalColumn(getCacheIncrementalColumn());
         return def;
     }
 
@@ -145,6 +165,7 @@ public class SQLDataSetDef extends DataSetDef {
         out.append("Get all columns=").append(allColumnsEnabled).append("\n");
         out.append("Cache enabled=").append(cacheEnabled).append("\n");
         out.append("Cache max rows=").append(cacheMaxRows).append(" Kb\n");
+        if (cacheIncrementalColumn != null) out.append("Cache incremental column=").append(cacheIncrementalColumn).append("\n");
         return out.toString();
     }
 }
@@ -67,4 +67,14 @@ public interface SQLDataSetDefBuilder<T extends DataSetDefBuilder> extends DataS
      * @return The DataSetDefBuilder instance that is being used to configure a DataSetDef.
      */
     T dbSQL(String dbSQL, boolean allColumns);
+
+    /**
+     * Set the column used to refresh the cached data set incrementally. Such column values must increase as
+     * new rows are inserted (an auto-increment id or a creation timestamp), so that only the rows beyond the
+     * last cached value are fetched when the data set gets stale.
+     *
+     * @param columnId the column identifier
+     * @return The DataSetDefBuilder instance that is being used to configure a DataSetDef.
+     */
+    T cacheIncrementalColumn(String columnId);
 }
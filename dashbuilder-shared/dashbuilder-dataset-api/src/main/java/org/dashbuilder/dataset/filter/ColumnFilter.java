@@ -48,4 +48,8 @@ public abstract class ColumnFilter {
             return false;
         }
     }
+
+    public int hashCode() {
+        return columnId != null ? columnId.hashCode() : 0;
+    }
 }
\ No newline at end of file
@@ -170,4 +170,15 @@ public class CoreFunctionFilter extends ColumnFilter {
             return false;
         }
     }
+
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (type != null ? type.name().hashCode() : 0);
+        // Parameters are compared regardless their order
+        int paramsHash = 0;
+        for (Object param : parameters) {
+            paramsHash += param != null ? param.hashCode() : 0;
+        }
+        return 31 * result + paramsHash;
+    }
 }
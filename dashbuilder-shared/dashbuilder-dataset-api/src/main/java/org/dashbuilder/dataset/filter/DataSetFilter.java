@@ -74,4 +74,12 @@ public class DataSetFilter extends AbstractDataSetOp {
             return false;
         }
     }
+
+    public int hashCode() {
+        int result = 0;
+        for (ColumnFilter columnFilter : columnFilterList) {
+            result = 31 * result + (columnFilter != null ? columnFilter.hashCode() : 0);
+        }
+        return result;
+    }
 }
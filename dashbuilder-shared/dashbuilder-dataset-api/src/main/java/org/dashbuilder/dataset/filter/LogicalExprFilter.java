@@ -116,6 +116,17 @@ public class LogicalExprFilter extends ColumnFilter {
         }
     }
 
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (logicalOperator != null ? logicalOperator.name().hashCode() : 0);
+        // Terms are compared regardless their order
+        int termsHash = 0;
+        for (ColumnFilter term : logicalTerms) {
+            termsHash += term != null ? term.hashCode() : 0;
+        }
+        return 31 * result + termsHash;
+    }
+
     public String toString() {
         StringBuilder out = new StringBuilder();
         out.append("(");
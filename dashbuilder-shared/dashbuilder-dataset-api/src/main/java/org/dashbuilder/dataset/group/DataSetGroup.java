@@ -156,6 +156,22 @@ public class DataSetGroup extends AbstractDataSetOp {
         }
     }
 
+    public int hashCode() {
+        int result = join ? 1 : 0;
+        result = 31 * result + (columnGroup != null ? columnGroup.hashCode() : 0);
+        // Functions & selected intervals are compared regardless their order
+        int functionsHash = 0;
+        for (GroupFunction groupFunction : groupFunctionList) {
+            functionsHash += groupFunction != null ? groupFunction.hashCode() : 0;
+        }
+        int intervalsHash = 0;
+        for (Interval interval : selectedIntervalList) {
+            intervalsHash += interval != null ? interval.hashCode() : 0;
+        }
+        result = 31 * result + functionsHash;
+        return 31 * result + intervalsHash;
+    }
+
     public String toString() {
         StringBuilder out = new StringBuilder();
         if (columnGroup != null) {
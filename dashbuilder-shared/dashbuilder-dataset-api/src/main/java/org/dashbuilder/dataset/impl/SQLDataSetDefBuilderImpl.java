@@ -46,4 +46,9 @@ public class SQLDataSetDefBuilderImpl extends AbstractDataSetDefBuilder<SQLDataS
         ((SQLDataSetDef) def).setAllColumnsEnabled(allColumns);
         return this;
     }
+
+    public SQLDataSetDefBuilderImpl cacheIncrementalColumn(String columnId) {
+        ((SQLDataSetDef) def).setCacheIncrementalColumn(columnId);
+        return this;
+    }
 }
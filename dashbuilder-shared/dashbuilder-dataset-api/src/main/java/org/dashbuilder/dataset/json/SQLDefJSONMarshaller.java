@@ -28,6 +28,7 @@ public class SQLDefJSONMarshaller implements DataSetDefJSONMarshallerExt<SQLData
     public static final String DB_SCHEMA = "dbSchema";
     public static final String DB_TABLE = "dbTable";
     public static final String DB_SQL = "dbSQL";
+    public static final String CACHE_INCREMENTAL_COLUMN = "cacheIncrementalColumn";
 
     @Override
     public void fromJson(SQLDataSetDef def, JsonObject json) {
@@ -35,6 +36,7 @@ public class SQLDefJSONMarshaller implements DataSetDefJSONMarshallerExt<SQLData
         String dbTable = json.getString(DB_TABLE);
         String dbSchema = json.getString(DB_SCHEMA);
         String dbSQL = json.getString(DB_SQL);
+        String cacheIncrementalColumn = json.getString(CACHE_INCREMENTAL_COLUMN);
 
         if (!isBlank(dataSource)) {
             def.setDataSource(dataSource);
@@ -48,6 +50,9 @@ public class SQLDefJSONMarshaller implements DataSetDefJSONMarshallerExt<SQLData
         if (!isBlank(dbSQL)) {
             def.setDbSQL(dbSQL);
         }
+        if (!isBlank(cacheIncrementalColumn)) {
+            def.setCacheIncrementalColumn(cacheIncrementalColumn);
+        }
     }
 
     @Override
@@ -68,6 +73,11 @@ public class SQLDefJSONMarshaller implements DataSetDefJSONMarshallerExt<SQLData
             json.put(DB_SQL, dataSetDef.getDbSQL());
         }
 
+        // Incremental cache refresh.
+        if (dataSetDef.getCacheIncrementalColumn() != null) {
+            json.put(CACHE_INCREMENTAL_COLUMN, dataSetDef.getCacheIncrementalColumn());
+        }
+
         // All columns flag.
         json.put(ALL_COLUMNS, dataSetDef.isAllColumnsEnabled());
     }
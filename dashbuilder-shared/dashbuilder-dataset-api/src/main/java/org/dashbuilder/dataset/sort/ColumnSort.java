@@ -64,4 +64,9 @@ public class ColumnSort {
             return false;
         }
     }
+
+    public int hashCode() {
+        int result = columnId != null ? columnId.hashCode() : 0;
+        return 31 * result + (order != null ? order.name().hashCode() : 0);
+    }
 }
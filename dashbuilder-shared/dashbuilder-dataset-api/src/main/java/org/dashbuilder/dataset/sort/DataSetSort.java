@@ -79,4 +79,12 @@ public class DataSetSort extends AbstractDataSetOp {
             return false;
         }
     }
+
+    public int hashCode() {
+        int result = 0;
+        for (ColumnSort columnSort : columnSortList) {
+            result = 31 * result + (columnSort != null ? columnSort.hashCode() : 0);
+        }
+        return result;
+    }
 }
@@ -23,7 +23,9 @@ import org.dashbuilder.dataset.engine.function.AggregateFunctionManagerImpl;
 import org.dashbuilder.dataset.engine.group.IntervalBuilderDynamicLabel;
 import org.dashbuilder.dataset.engine.group.IntervalBuilderFixedDate;
 import org.dashbuilder.dataset.engine.group.IntervalBuilderLocator;
+import org.dashbuilder.dataset.engine.index.DefaultDataSetIndexBuildCoordinator;
 import org.dashbuilder.dataset.engine.index.TransientDataSetIndexRegistry;
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexBuildCoordinator;
 import org.dashbuilder.dataset.engine.index.spi.DataSetIndexRegistry;
 import org.dashbuilder.dataset.engine.sort.CollectionsDataSetSort;
 import org.dashbuilder.dataset.engine.sort.DataSetSortAlgorithm;
@@ -39,6 +41,7 @@ public abstract class AbstractDataSetCore {
     private UUIDGenerator uuidGenerator;
     private AggregateFunctionManager aggregateFunctionManager;
     private DataSetIndexRegistry indexRegistry;
+    private DataSetIndexBuildCoordinator indexBuildCoordinator;
     private DataSetSortAlgorithm sortAlgorithm;
     private DataSetFilterAlgorithm filterAlgorithm;
     private IntervalBuilderDynamicLabel intervalBuilderDynamicLabel;
@@ -80,6 +83,13 @@ public abstract class AbstractDataSetCore {
         return indexRegistry;
     }
 
+    public DataSetIndexBuildCoordinator getIndexBuildCoordinator() {
+        if (indexBuildCoordinator == null) {
+            indexBuildCoordinator = newIndexBuildCoordinator();
+        }
+        return indexBuildCoordinator;
+    }
+
     public DataSetSortAlgorithm getSortAlgorithm() {
         if (sortAlgorithm == null) {
             sortAlgorithm = newSortAlgorithm();
@@ -143,6 +153,10 @@ public abstract class AbstractDataSetCore {
         this.indexRegistry = indexRegistry;
     }
 
+    public void setIndexBuildCoordinator(DataSetIndexBuildCoordinator indexBuildCoordinator) {
+        this.indexBuildCoordinator = indexBuildCoordinator;
+    }
+
     public void setSortAlgorithm(DataSetSortAlgorithm sortAlgorithm) {
         this.sortAlgorithm = sortAlgorithm;
     }
@@ -178,6 +192,7 @@ public abstract class AbstractDataSetCore {
                 checkNotNull(getAggregateFunctionManager(), "AggregateFunctionManager"),
                 checkNotNull(getIntervalBuilderLocator(), "IntervalBuilderLocator"),
                 checkNotNull(getIndexRegistry(), "DataSetIndexRegistry"),
+                checkNotNull(getIndexBuildCoordinator(), "DataSetIndexBuildCoordinator"),
                 checkNotNull(getSortAlgorithm(), "DataSetSortAlgorithm"),
                 checkNotNull(getFilterAlgorithm(), "DataSetFilterAlgorithm"),
                 checkNotNull(getChronometer(), "Chronometer"));
@@ -192,6 +207,10 @@ public abstract class AbstractDataSetCore {
                 checkNotNull(getUuidGenerator(), "UUIDGenerator"));
     }
 
+    protected DataSetIndexBuildCoordinator newIndexBuildCoordinator() {
+        return new DefaultDataSetIndexBuildCoordinator();
+    }
+
     protected DataSetSortAlgorithm newSortAlgorithm() {
         return new CollectionsDataSetSort();
     }
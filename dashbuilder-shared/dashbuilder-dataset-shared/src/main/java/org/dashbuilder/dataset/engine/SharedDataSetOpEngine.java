@@ -25,6 +25,8 @@ import org.dashbuilder.dataset.group.AggregateFunctionManager;
 import org.dashbuilder.dataset.engine.group.IntervalBuilder;
 import org.dashbuilder.dataset.engine.group.IntervalBuilderLocator;
 import org.dashbuilder.dataset.engine.group.IntervalList;
+import org.dashbuilder.dataset.engine.group.LabelDictionary;
+import org.dashbuilder.dataset.engine.group.LabelDictionaryProvider;
 import org.dashbuilder.dataset.engine.index.DataSetFilterIndex;
 import org.dashbuilder.dataset.engine.index.DataSetGroupIndex;
 import org.dashbuilder.dataset.engine.index.DataSetIndex;
@@ -32,6 +34,8 @@ import org.dashbuilder.dataset.engine.index.DataSetIndexNode;
 import org.dashbuilder.dataset.engine.index.DataSetIntervalIndex;
 import org.dashbuilder.dataset.engine.index.DataSetIntervalSetIndex;
 import org.dashbuilder.dataset.engine.index.DataSetSortIndex;
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexBuild;
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexBuildCoordinator;
 import org.dashbuilder.dataset.engine.index.spi.DataSetIndexRegistry;
 import org.dashbuilder.dataset.ColumnType;
 import org.dashbuilder.dataset.DataColumn;
@@ -56,12 +60,16 @@ import org.dashbuilder.dataset.sort.SortedList;
 
 /**
  * Engine implementation that can runs both on client and server.
+ *
+ * <p>The engine can be invoked concurrently for the same data set. The index tree supports lock-free lookups and
+ * the build of any missing index (filter, sort, group) is delegated to a {@link DataSetIndexBuildCoordinator}.</p>
  */
 public class SharedDataSetOpEngine implements DataSetOpEngine {
 
     protected AggregateFunctionManager aggregateFunctionManager;
     protected IntervalBuilderLocator intervalBuilderLocator;
     protected DataSetIndexRegistry indexRegistry;
+    protected DataSetIndexBuildCoordinator indexBuildCoordinator;
     protected DataSetSortAlgorithm sortAlgorithm;
     protected DataSetFilterAlgorithm filterAlgorithm;
     protected Chronometer chronometer;
@@ -69,6 +77,7 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
     public SharedDataSetOpEngine(AggregateFunctionManager aggregateFunctionManager,
                                  IntervalBuilderLocator intervalBuilderLocator,
                                  DataSetIndexRegistry indexRegistry,
+                                 DataSetIndexBuildCoordinator indexBuildCoordinator,
                                  DataSetSortAlgorithm sortAlgorithm,
                                  DataSetFilterAlgorithm filterAlgorithm,
                                  Chronometer chronometer) {
@@ -76,6 +85,7 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
         this.aggregateFunctionManager = aggregateFunctionManager;
         this.intervalBuilderLocator = intervalBuilderLocator;
         this.indexRegistry = indexRegistry;
+        this.indexBuildCoordinator = indexBuildCoordinator;
         this.sortAlgorithm = sortAlgorithm;
         this.filterAlgorithm = filterAlgorithm;
         this.chronometer = chronometer;
@@ -238,13 +248,13 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
             return true;
         }
 
-        protected DataSetGroupIndex singleGroup(DataSetGroup op, InternalContext context) {
+        protected DataSetGroupIndex singleGroup(DataSetGroup op, final InternalContext context) {
 
-            ColumnGroup columnGroup = op.getColumnGroup();
+            final ColumnGroup columnGroup = op.getColumnGroup();
             DataColumn sourceColumn = context.dataSet.getColumnById(columnGroup.getSourceId());
             ColumnType columnType = sourceColumn.getColumnType();
             GroupStrategy groupStrategy = columnGroup.getStrategy();
-            IntervalBuilder intervalBuilder = intervalBuilderLocator.lookup(columnType, groupStrategy);
+            final IntervalBuilder intervalBuilder = intervalBuilderLocator.lookup(columnType, groupStrategy);
             if (intervalBuilder == null) throw new RuntimeException("Interval generator not supported.");
 
             // No index => Build required
@@ -252,30 +262,48 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
                 IntervalList intervalList = intervalBuilder.build(new InternalHandler(context), columnGroup);
                 return new DataSetGroupIndex(columnGroup, intervalList);
             }
-            // Index match => Reuse it
-            DataSetGroupIndex groupIndex = context.index.getGroupIndex(columnGroup);
-            if (groupIndex != null) {
-                return groupIndex;
-            }
-            // No index match => Build required
-            chronometer.start();
-            IntervalList intervalList = intervalBuilder.build(new InternalHandler(context), columnGroup);
-            chronometer.stop();
+            final DataSetIndexNode node = context.index;
+            return indexBuildCoordinator.getOrBuild(node, node.getGroupKey(columnGroup), new DataSetIndexBuild<DataSetGroupIndex>() {
 
-            // Index before return.
-            DataSetGroupIndex index = new DataSetGroupIndex(columnGroup, intervalList);
-            index.setBuildTime(chronometer.elapsedTime());
-            return context.index.indexGroup(index);
+                // Index match => Reuse it
+                public DataSetGroupIndex lookup() {
+                    return node.getGroupIndex(columnGroup);
+                }
+
+                // No index match => Build required
+                public DataSetGroupIndex build() {
+                    chronometer.start();
+                    IntervalList intervalList = intervalBuilder.build(new InternalHandler(context), columnGroup);
+                    chronometer.stop();
+
+                    // Index before return.
+                    DataSetGroupIndex index = new DataSetGroupIndex(columnGroup, intervalList);
+                    index.setBuildTime(chronometer.elapsedTime());
+                    return node.indexGroup(index);
+                }
+            });
         }
 
-        protected DataSetGroupIndex nestedGroup(DataSetGroup op, DataSetGroupIndex lastGroupIndex, InternalContext context) {
+        protected DataSetGroupIndex nestedGroup(final DataSetGroup op, final DataSetGroupIndex lastGroupIndex, final InternalContext context) {
+            final DataSetIndexNode node = context.index;
+            return indexBuildCoordinator.getOrBuild(lastGroupIndex, lastGroupIndex.getGroupKey(op.getColumnGroup()), new DataSetIndexBuild<DataSetGroupIndex>() {
 
-            // Index match => Reuse it
-            DataSetGroupIndex nestedGroupIndex = lastGroupIndex.getGroupIndex(op.getColumnGroup());
-            if (nestedGroupIndex != null) return nestedGroupIndex;
+                // Index match => Reuse it
+                public DataSetGroupIndex lookup() {
+                    return lastGroupIndex.getGroupIndex(op.getColumnGroup());
+                }
+
+                // No index match => Create a brand new group index
+                public DataSetGroupIndex build() {
+                    DataSetGroupIndex nestedGroupIndex = buildNestedGroup(op, lastGroupIndex, context);
+                    node.indexGroup(nestedGroupIndex);
+                    return nestedGroupIndex;
+                }
+            });
+        }
 
-            // No index match => Create a brand new group index
-            nestedGroupIndex = new DataSetGroupIndex(op.getColumnGroup());
+        protected DataSetGroupIndex buildNestedGroup(DataSetGroup op, DataSetGroupIndex lastGroupIndex, InternalContext context) {
+            DataSetGroupIndex nestedGroupIndex = new DataSetGroupIndex(op.getColumnGroup());
 
             // Apply the nested group operation on each parent group interval.
             InternalContext nestedContext = new InternalContext(context.dataSet, null);
@@ -298,30 +326,34 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
                     nestedGroupIndex.indexIntervals(sg.getIntervalIndexes());
                 }
             }
-            context.index.indexGroup(nestedGroupIndex);
             return nestedGroupIndex;
         }
 
 
-        protected DataSetGroupIndex selectIntervals(DataSetGroup groupOp, DataSetGroupIndex groupIndex) {
-            List<Interval> intervalList = groupOp.getSelectedIntervalList();
+        protected DataSetGroupIndex selectIntervals(DataSetGroup groupOp, final DataSetGroupIndex groupIndex) {
+            final List<Interval> intervalList = groupOp.getSelectedIntervalList();
             if (intervalList != null && !intervalList.isEmpty()) {
+                return indexBuildCoordinator.getOrBuild(groupIndex, intervalList, new DataSetIndexBuild<DataSetGroupIndex>() {
 
-                // Look for an existing selection index.
-                DataSetGroupIndex selectionIndex = groupIndex.getSelectionIndex(intervalList);
-                if (selectionIndex != null) return selectionIndex;
-
-                // Create a brand new selection index.
-                List<DataSetIntervalIndex> intervalIdxs = groupIndex.getIntervalIndexes(intervalList);
-                if (intervalIdxs.isEmpty()) {
-                    intervalIdxs = new ArrayList<DataSetIntervalIndex>();
-                    for (Interval interval : intervalList) {
-                        intervalIdxs.add(new DataSetIntervalIndex(groupIndex, interval));
+                    // Look for an existing selection index.
+                    public DataSetGroupIndex lookup() {
+                        return groupIndex.getSelectionIndex(intervalList);
                     }
-                }
 
-                //if (intervalIdxs.size() == 1) return intervalIdxs.get(0);
-                return groupIndex.indexSelection(intervalList, intervalIdxs);
+                    // Create a brand new selection index.
+                    public DataSetGroupIndex build() {
+                        List<DataSetIntervalIndex> intervalIdxs = groupIndex.getIntervalIndexes(intervalList);
+                        if (intervalIdxs.isEmpty()) {
+                            intervalIdxs = new ArrayList<DataSetIntervalIndex>();
+                            for (Interval interval : intervalList) {
+                                intervalIdxs.add(new DataSetIntervalIndex(groupIndex, interval));
+                            }
+                        }
+
+                        //if (intervalIdxs.size() == 1) return intervalIdxs.get(0);
+                        return groupIndex.indexSelection(intervalList, intervalIdxs);
+                    }
+                });
             }
             return groupIndex;
         }
@@ -337,7 +369,7 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
             }
         }
 
-        protected void filter(DataSetFilter op, InternalContext context) {
+        protected void filter(DataSetFilter op, final InternalContext context) {
             checkFilterOp(context.dataSet, op);
 
             if (context.dataSet.getRowCount() == 0) {
@@ -345,7 +377,7 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
             }
 
             // Process the filter requests.
-            for (ColumnFilter filter : op.getColumnFilterList()) {
+            for (final ColumnFilter filter : op.getColumnFilterList()) {
 
                 // No index => Filter required
                 if (context.index == null) {
@@ -353,19 +385,24 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
                     context.index(op, new DataSetFilterIndex(filter, rows));
                     continue;
                 }
-                // Index match => Reuse it
-                DataSetFilterIndex index = context.index.getFilterIndex(filter);
-                if (index != null) {
-                    context.index(op, index);
-                    continue;
-                }
-                // No index match => Filter required
-                chronometer.start();
-                List<Integer> rows = filterAlgorithm.filter(new InternalHandler(context), filter);
-                chronometer.stop();
+                final DataSetIndexNode node = context.index;
+                context.index(op, indexBuildCoordinator.getOrBuild(node, filter, new DataSetIndexBuild<DataSetFilterIndex>() {
+
+                    // Index match => Reuse it
+                    public DataSetFilterIndex lookup() {
+                        return node.getFilterIndex(filter);
+                    }
+
+                    // No index match => Filter required
+                    public DataSetFilterIndex build() {
+                        chronometer.start();
+                        List<Integer> rows = filterAlgorithm.filter(new InternalHandler(context), filter);
+                        chronometer.stop();
 
-                // Index before continue.
-                context.index(op, context.index.indexFilter(filter, rows, chronometer.elapsedTime()));
+                        // Index before continue.
+                        return node.indexFilter(filter, rows, chronometer.elapsedTime());
+                    }
+                }));
             }
         }
 
@@ -380,7 +417,7 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
             }
         }
 
-        protected void sort(DataSetSort op, InternalContext context) {
+        protected void sort(final DataSetSort op, final InternalContext context) {
             checkSortOp(context.dataSet, op);
 
             // No index => Sort required
@@ -390,19 +427,24 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
                 return;
 
             }
-            // Index match => Reuse it
-            DataSetSortIndex sortIndex = context.index.getSortIndex(op);
-            if (sortIndex != null) {
-                context.index(op, sortIndex);
-                return;
-            }
-            // No index match => Sort required
-            chronometer.start();
-            List<Integer> orderedRows = sortAlgorithm.sort(context.getDataSet(), context.getRows(), op.getColumnSortList());
-            chronometer.stop();
+            final DataSetIndexNode node = context.index;
+            context.index(op, indexBuildCoordinator.getOrBuild(node, op, new DataSetIndexBuild<DataSetSortIndex>() {
+
+                // Index match => Reuse it
+                public DataSetSortIndex lookup() {
+                    return node.getSortIndex(op);
+                }
 
-            // Index before return.
-            context.index(op, context.index.indexSort(op, orderedRows, chronometer.elapsedTime()));
+                // No index match => Sort required
+                public DataSetSortIndex build() {
+                    chronometer.start();
+                    List<Integer> orderedRows = sortAlgorithm.sort(context.getDataSet(), context.getRows(), op.getColumnSortList());
+                    chronometer.stop();
+
+                    // Index before return.
+                    return node.indexSort(op, orderedRows, chronometer.elapsedTime());
+                }
+            }));
         }
 
         // DATASET BUILD
@@ -666,11 +708,20 @@ public class SharedDataSetOpEngine implements DataSetOpEngine {
             }
         }
 
-        class InternalHandler extends InternalContext implements DataSetHandler {
+        class InternalHandler extends InternalContext implements DataSetHandler, LabelDictionaryProvider {
 
             InternalHandler(InternalContext context) {
                 super(context.dataSet, context.index);
             }
+            public LabelDictionary getLabelDictionary(String columnId) {
+                // Dictionaries are kept by the root index of the data set.
+                DataSetIndexNode node = index;
+                while (node != null && !(node instanceof DataSetIndex)) {
+                    node = node.getParent();
+                }
+                if (node == null) return null;
+                return ((DataSetIndex) node).getLabelDictionary(columnId);
+            }
             public DataSetHandler group(DataSetGroup op) {
                 DataSetOpListProcessor.this.group(op, this);
                 return this;
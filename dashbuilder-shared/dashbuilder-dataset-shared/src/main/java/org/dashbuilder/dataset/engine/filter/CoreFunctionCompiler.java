@@ -0,0 +1,170 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import java.util.Date;
+import java.util.List;
+
+import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.date.TimeFrame;
+import org.dashbuilder.dataset.filter.CoreFunctionFilter;
+import org.dashbuilder.dataset.filter.CoreFunctionType;
+
+/**
+ * Turns a core function filter into a function specialized for its type and the type of the target column,
+ * so that all the work not depending on the row being evaluated is done once. Filters that can't be specialized
+ * are evaluated by a regular {@link CoreFunction}.
+ */
+public class CoreFunctionCompiler {
+
+    public DataSetFunction compile(DataSetFilterContext ctx, CoreFunctionFilter filter) {
+        DataColumn column = ctx.getDataSet().getColumnById(filter.getColumnId());
+        CoreFunctionType type = filter.getType();
+        if (column == null || type == null) {
+            return new CoreFunction(ctx, filter);
+        }
+
+        DataSetFunction function = null;
+        switch (type) {
+            case IS_NULL:
+            case NOT_NULL:
+                function = newIsNullFunction(ctx, filter, column, CoreFunctionType.NOT_NULL.equals(type));
+                break;
+            case EQUALS_TO:
+            case IN:
+            case NOT_EQUALS_TO:
+            case NOT_IN:
+                boolean negate = CoreFunctionType.NOT_EQUALS_TO.equals(type) || CoreFunctionType.NOT_IN.equals(type);
+                function = newEqualsToFunction(ctx, filter, column, negate);
+                break;
+            case LIKE_TO:
+                function = compileLikeTo(ctx, filter, column);
+                break;
+            case TIME_FRAME:
+                function = compileTimeFrame(ctx, filter, column);
+                break;
+            default:
+                function = compileRange(ctx, filter, column);
+        }
+        return function != null ? function : new CoreFunction(ctx, filter);
+    }
+
+    protected DataSetFunction compileLikeTo(DataSetFilterContext ctx, CoreFunctionFilter filter, DataColumn column) {
+        Object pattern = getParameter(filter, 0);
+        if (pattern == null) {
+            return null;
+        }
+        Object caseParam = getParameter(filter, 1);
+        boolean caseSensitive = caseParam == null || Boolean.parseBoolean(caseParam.toString());
+        String str = caseSensitive ? pattern.toString() : pattern.toString().toLowerCase();
+        return newLikeToFunction(ctx, filter, column, str, caseSensitive);
+    }
+
+    protected DataSetFunction compileTimeFrame(DataSetFilterContext ctx, CoreFunctionFilter filter, DataColumn column) {
+        Object expr = getParameter(filter, 0);
+        if (expr == null || !ColumnType.DATE.equals(column.getColumnType())) {
+            return null;
+        }
+        TimeFrame timeFrame = TimeFrame.parse(expr.toString());
+        if (timeFrame == null) {
+            return null;
+        }
+        RangeFunction function = newRangeFunction(ctx, filter, column, false);
+        function.setLow(timeFrame.getFrom().getTimeInstant().getTime(), true);
+        function.setHigh(timeFrame.getTo().getTimeInstant().getTime(), true);
+        return function;
+    }
+
+    /**
+     * Comparison operators are only specialized for number & date columns. Null bounds keep the semantics of the
+     * {@link CoreFunction} implementation.
+     */
+    protected DataSetFunction compileRange(DataSetFilterContext ctx, CoreFunctionFilter filter, DataColumn column) {
+        ColumnType columnType = column.getColumnType();
+        if (!ColumnType.NUMBER.equals(columnType) && !ColumnType.DATE.equals(columnType)) {
+            return null;
+        }
+        Object p0 = getParameter(filter, 0);
+        Object p1 = getParameter(filter, 1);
+        if (!isBound(columnType, p0) || !isBound(columnType, p1)) {
+            return null;
+        }
+        CoreFunctionType type = filter.getType();
+        RangeFunction function;
+        switch (type) {
+            case GREATER_THAN:
+                function = newRangeFunction(ctx, filter, column, false);
+                if (p0 != null) function.setLow(toDouble(p0), false);
+                return function;
+            case GREATER_OR_EQUALS_TO:
+                function = newRangeFunction(ctx, filter, column, p0 == null);
+                if (p0 != null) function.setLow(toDouble(p0), true);
+                return function;
+            case LOWER_THAN:
+                function = newRangeFunction(ctx, filter, column, p0 != null);
+                if (p0 != null) function.setHigh(toDouble(p0), false);
+                else function.setEmpty();
+                return function;
+            case LOWER_OR_EQUALS_TO:
+                function = newRangeFunction(ctx, filter, column, true);
+                if (p0 != null) function.setHigh(toDouble(p0), true);
+                else function.setEmpty();
+                return function;
+            case BETWEEN:
+                function = newRangeFunction(ctx, filter, column, p0 == null);
+                if (p0 != null) function.setLow(toDouble(p0), true);
+                if (p1 != null) function.setHigh(toDouble(p1), true);
+                return function;
+            default:
+                return null;
+        }
+    }
+
+    protected boolean isBound(ColumnType columnType, Object param) {
+        if (param == null) {
+            return true;
+        }
+        return ColumnType.NUMBER.equals(columnType) ? param instanceof Number : param instanceof Date;
+    }
+
+    protected double toDouble(Object param) {
+        return param instanceof Date ? ((Date) param).getTime() : ((Number) param).doubleValue();
+    }
+
+    protected Object getParameter(CoreFunctionFilter filter, int index) {
+        List params = filter.getParameters();
+        return index < params.size() ? params.get(index) : null;
+    }
+
+    // Function factory methods
+
+    protected DataSetFunction newIsNullFunction(DataSetFilterContext ctx, CoreFunctionFilter filter, DataColumn column, boolean negate) {
+        return new IsNullFunction(ctx, filter, column.getValues(), negate);
+    }
+
+    protected DataSetFunction newEqualsToFunction(DataSetFilterContext ctx, CoreFunctionFilter filter, DataColumn column, boolean negate) {
+        return new EqualsToFunction(ctx, filter, column.getValues(), filter.getParameters(), negate);
+    }
+
+    protected DataSetFunction newLikeToFunction(DataSetFilterContext ctx, CoreFunctionFilter filter, DataColumn column, String pattern, boolean caseSensitive) {
+        return new LikeToFunction(ctx, filter, column.getValues(), pattern, caseSensitive);
+    }
+
+    protected RangeFunction newRangeFunction(DataSetFilterContext ctx, CoreFunctionFilter filter, DataColumn column, boolean passNull) {
+        return new RangeFunction(ctx, filter, column.getValues(), ColumnType.DATE.equals(column.getColumnType()), passNull);
+    }
+}
@@ -15,21 +15,35 @@
  */
 package org.dashbuilder.dataset.engine.filter;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.dashbuilder.dataset.DataSet;
 import org.dashbuilder.dataset.engine.DataSetHandler;
+import org.dashbuilder.dataset.engine.rows.IntRowList;
+import org.dashbuilder.dataset.engine.rows.RowIterator;
+import org.dashbuilder.dataset.engine.rows.RowList;
+import org.dashbuilder.dataset.engine.rows.RowSet;
 import org.dashbuilder.dataset.filter.ColumnFilter;
 import org.dashbuilder.dataset.filter.CoreFunctionFilter;
 import org.dashbuilder.dataset.filter.CustomFunctionFilter;
 import org.dashbuilder.dataset.filter.LogicalExprFilter;
+import org.dashbuilder.dataset.filter.LogicalExprType;
 
 /**
  * Default data set filter algorithm.
  */
 public class DefaultFilterAlgorithm implements DataSetFilterAlgorithm {
 
+    protected CoreFunctionCompiler functionCompiler = new CoreFunctionCompiler();
+
+    public CoreFunctionCompiler getFunctionCompiler() {
+        return functionCompiler;
+    }
+
+    public void setFunctionCompiler(CoreFunctionCompiler functionCompiler) {
+        this.functionCompiler = functionCompiler;
+    }
+
     /*
 
      LogicalFunction
@@ -73,33 +87,85 @@ public class DefaultFilterAlgorithm implements DataSetFilterAlgorithm {
 
      */
     public List<Integer> filter(DataSetHandler ctx, ColumnFilter columnFilter) {
-
-        // Build the data set filter function.
         DataSet dataSet = ctx.getDataSet();
         DataSetFilterContext dataSetFilterContext = new DataSetFilterContext(dataSet);
-        DataSetFunction filterFunction = buildFunction(dataSetFilterContext, columnFilter);
+        List<Integer> rows = ctx.getRows();
+
+        // Logical expressions over a row set are resolved by combining the row sets of every term.
+        if (columnFilter instanceof LogicalExprFilter && (rows == null || rows instanceof RowSet)) {
+            RowSet targetRows = rows == null ? RowSet.all(dataSet.getRowCount()) : (RowSet) rows;
+            return filter(dataSetFilterContext, targetRows, columnFilter);
+        }
+
+        return filterRows(dataSet, rows, columnFilter);
+    }
+
+    protected RowSet filter(DataSetFilterContext filterContext, RowSet rows, ColumnFilter columnFilter) {
+        if (!(columnFilter instanceof LogicalExprFilter)) {
+            return (RowSet) filterRows(filterContext.getDataSet(), rows, columnFilter);
+        }
+        LogicalExprFilter filter = (LogicalExprFilter) columnFilter;
+        LogicalExprType type = filter.getLogicalOperator();
+        List<ColumnFilter> terms = filter.getLogicalTerms();
+        if (terms.isEmpty()) {
+            return rows;
+        }
+        // Every term only gets the rows passed by the previous ones, so the intersection is done along the way.
+        if (LogicalExprType.AND.equals(type)) {
+            RowSet result = rows;
+            for (ColumnFilter term : terms) {
+                result = filter(filterContext, result, term);
+            }
+            return result;
+        }
+        if (LogicalExprType.OR.equals(type) || LogicalExprType.NOT.equals(type)) {
+            RowSet union = RowSet.empty();
+            RowSet remaining = rows;
+            for (ColumnFilter term : terms) {
+                RowSet termRows = filter(filterContext, remaining, term);
+                union = union.or(termRows);
+                remaining = remaining.andNot(termRows);
+            }
+            return LogicalExprType.OR.equals(type) ? union : remaining;
+        }
+        throw new IllegalArgumentException("Logical operator not supported: " + type);
+    }
+
+    /**
+     * Get the target rows (all if null) passing the given filter. The result is a {@link RowSet} as long as the
+     * target rows are in ascending order.
+     */
+    protected RowList filterRows(DataSet dataSet, List<Integer> rows, ColumnFilter columnFilter) {
+        DataSetFilterContext filterContext = new DataSetFilterContext(dataSet);
+        DataSetFunction filterFunction = buildFunction(filterContext, columnFilter);
+        return filter(filterContext, rows, filterFunction);
+    }
 
-        List<Integer> result = new ArrayList<Integer>();
+    protected RowList filter(DataSetFilterContext filterContext, List<Integer> rows, DataSetFunction filterFunction) {
+        DataSet dataSet = filterContext.getDataSet();
+        IntRowList result = new IntRowList();
 
         // Apply the filter function to the whole data set.
-        if (ctx == null || ctx.getRows() == null) {
+        if (rows == null) {
             for (int i = 0; i < dataSet.getRowCount(); i++) {
-                dataSetFilterContext.setCurrentRow(i);
+                filterContext.setCurrentRow(i);
                 if (filterFunction.pass()) {
-                    result.add(i);
+                    result.addRow(i);
                 }
             }
         }
         // Filter only the target rows specified.
         else {
-            for (Integer targetRow : ctx.getRows()) {
-                dataSetFilterContext.setCurrentRow(targetRow);
+            RowIterator it = RowList.rowIterator(rows);
+            while (it.hasNext()) {
+                int targetRow = it.nextRow();
+                filterContext.setCurrentRow(targetRow);
                 if (filterFunction.pass()) {
-                    result.add(targetRow);
+                    result.addRow(targetRow);
                 }
             }
         }
-        return result;
+        return RowList.compact(result);
     }
 
     public DataSetFunction buildFunction(DataSetFilterContext filterContext, ColumnFilter columnFilter) {
@@ -118,7 +184,7 @@ public class DefaultFilterAlgorithm implements DataSetFilterAlgorithm {
         // Core function filter
         if (columnFilter instanceof CoreFunctionFilter) {
             CoreFunctionFilter filter = (CoreFunctionFilter) columnFilter;
-            return new CoreFunction(filterContext, filter);
+            return functionCompiler.compile(filterContext, filter);
         }
         // TODO: Custom function filter
         if (columnFilter instanceof CustomFunctionFilter) {
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.dashbuilder.dataset.filter.ColumnFilter;
+
+/**
+ * EQUALS_TO, NOT_EQUALS_TO, IN & NOT_IN filter function. Parameters are put into hash sets so the cost of every
+ * row evaluation does not depend on the number of parameters. As in {@link CoreFunction}, numbers are compared
+ * by its double value and any other type by its string representation.
+ */
+public class EqualsToFunction extends DataSetFunction {
+
+    protected List values;
+    protected boolean negate;
+    protected boolean anyValue;
+    protected boolean nullParam = false;
+    protected Set<Double> numberParams = new HashSet<Double>();
+    protected Set<String> stringParams = new HashSet<String>();
+    protected Set<String> nonNumberParams = new HashSet<String>();
+
+    public EqualsToFunction(DataSetFilterContext ctx, ColumnFilter filter, List values, List params, boolean negate) {
+        super(ctx, filter);
+        this.values = values;
+        this.negate = negate;
+
+        // No parameters to compare => all the rows pass
+        this.anyValue = params.isEmpty();
+        for (Object param : params) {
+            if (param == null) {
+                nullParam = true;
+                continue;
+            }
+            String str = param.toString();
+            stringParams.add(str);
+            if (param instanceof Number) {
+                double d = ((Number) param).doubleValue();
+                if (!Double.isNaN(d)) {
+                    numberParams.add(normalize(d));
+                }
+            } else {
+                nonNumberParams.add(str);
+            }
+        }
+    }
+
+    public boolean pass() {
+        if (anyValue) {
+            return true;
+        }
+        return isEqualsTo(values.get(context.getCurrentRow())) != negate;
+    }
+
+    public boolean isEqualsTo(Object value) {
+        if (value == null) {
+            return nullParam;
+        }
+        if (value instanceof Number) {
+            return numberParams.contains(normalize(((Number) value).doubleValue()))
+                    || (!nonNumberParams.isEmpty() && nonNumberParams.contains(value.toString()));
+        }
+        return stringParams.contains(value.toString());
+    }
+
+    /**
+     * Positive & negative zero must be the same hash set entry.
+     */
+    protected static Double normalize(double d) {
+        return d == 0 ? 0d : d;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import java.util.List;
+
+import org.dashbuilder.dataset.filter.ColumnFilter;
+
+/**
+ * IS_NULL & NOT_NULL filter function.
+ */
+public class IsNullFunction extends DataSetFunction {
+
+    protected List values;
+    protected boolean negate;
+
+    public IsNullFunction(DataSetFilterContext ctx, ColumnFilter filter, List values, boolean negate) {
+        super(ctx, filter);
+        this.values = values;
+        this.negate = negate;
+    }
+
+    public boolean pass() {
+        return (values.get(context.getCurrentRow()) == null) != negate;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import java.util.List;
+
+import org.dashbuilder.dataset.filter.ColumnFilter;
+
+/**
+ * LIKE_TO filter function. Patterns with no other wildcard than <tt>%</tt> are matched by looking for its literal
+ * parts, so no regular expression is evaluated. Any other pattern is turned into a regular expression just once.
+ */
+public class LikeToFunction extends DataSetFunction {
+
+    protected List values;
+    protected boolean caseSensitive;
+    protected String regex;
+    protected String[] literalParts;
+
+    /**
+     * @param pattern The LIKE pattern, already in lower case if the match is not case sensitive.
+     */
+    public LikeToFunction(DataSetFilterContext ctx, ColumnFilter filter, List values, String pattern, boolean caseSensitive) {
+        super(ctx, filter);
+        this.values = values;
+        this.caseSensitive = caseSensitive;
+
+        // Replace the user's wildcards for valid regular expression patterns.
+        this.regex = pattern.replace(".", "\\.").replace("%", ".*").replace("_", ".");
+        if (isLiteral(pattern)) {
+            this.literalParts = pattern.split("%", -1);
+        }
+    }
+
+    protected static boolean isLiteral(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if ("\\[](){}*+?^$|_".indexOf(pattern.charAt(i)) != -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean pass() {
+        Object value = values.get(context.getCurrentRow());
+        if (value == null) {
+            return false;
+        }
+        String str = caseSensitive ? value.toString() : value.toString().toLowerCase();
+        if (literalParts != null) {
+            // The regexp wildcards don't match line terminators
+            if (literalParts.length == 1 || !hasLineTerminator(str)) {
+                return matchLiteral(str);
+            }
+        }
+        return matchRegex(str);
+    }
+
+    public boolean matchRegex(String str) {
+        return str.matches(regex);
+    }
+
+    public boolean matchLiteral(String str) {
+        int n = literalParts.length;
+        if (n == 1) {
+            return str.equals(literalParts[0]);
+        }
+        String first = literalParts[0];
+        String last = literalParts[n - 1];
+        int end = str.length() - last.length();
+        if (end < first.length() || !str.startsWith(first) || !str.endsWith(last)) {
+            return false;
+        }
+        int pos = first.length();
+        for (int i = 1; i < n - 1; i++) {
+            String part = literalParts[i];
+            int idx = str.indexOf(part, pos);
+            if (idx == -1 || idx + part.length() > end) {
+                return false;
+            }
+            pos = idx + part.length();
+        }
+        return true;
+    }
+
+    protected static boolean hasLineTerminator(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
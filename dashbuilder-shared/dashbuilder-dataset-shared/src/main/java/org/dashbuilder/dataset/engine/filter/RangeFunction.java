@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.filter;
+
+import java.util.Date;
+import java.util.List;
+
+import org.dashbuilder.dataset.filter.ColumnFilter;
+
+/**
+ * Filter function for the comparison operators (lower than, greater than, between, ...) on number and date columns.
+ * Both the column values and the bounds are compared as primitive doubles (dates by its time in millis).
+ */
+public class RangeFunction extends DataSetFunction {
+
+    protected List values;
+    protected boolean dates;
+    protected boolean passNull;
+    protected boolean passNotNull = true;
+    protected boolean hasLow = false;
+    protected boolean hasHigh = false;
+    protected double low;
+    protected double high;
+    protected boolean lowInclusive;
+    protected boolean highInclusive;
+
+    public RangeFunction(DataSetFilterContext ctx, ColumnFilter filter, List values, boolean dates, boolean passNull) {
+        super(ctx, filter);
+        this.values = values;
+        this.dates = dates;
+        this.passNull = passNull;
+    }
+
+    public RangeFunction setLow(double low, boolean inclusive) {
+        this.hasLow = true;
+        this.low = low;
+        this.lowInclusive = inclusive;
+        return this;
+    }
+
+    public RangeFunction setHigh(double high, boolean inclusive) {
+        this.hasHigh = true;
+        this.high = high;
+        this.highInclusive = inclusive;
+        return this;
+    }
+
+    /**
+     * Make every non null value fail.
+     */
+    public RangeFunction setEmpty() {
+        this.passNotNull = false;
+        return this;
+    }
+
+    public boolean pass() {
+        Object value = values.get(context.getCurrentRow());
+        if (value == null) {
+            return passNull;
+        }
+        return inRange(dates ? ((Date) value).getTime() : ((Number) value).doubleValue());
+    }
+
+    public boolean inRange(double value) {
+        if (!passNotNull) {
+            return false;
+        }
+        if (hasLow) {
+            int c = Double.compare(value, low);
+            if (c < 0 || (c == 0 && !lowInclusive)) return false;
+        }
+        if (hasHigh) {
+            int c = Double.compare(value, high);
+            if (c > 0 || (c == 0 && !highInclusive)) return false;
+        }
+        return true;
+    }
+}
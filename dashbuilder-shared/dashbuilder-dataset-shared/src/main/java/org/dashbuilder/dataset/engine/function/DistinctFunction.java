@@ -21,6 +21,8 @@ import java.util.List;
 import java.util.Set;
 
 import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.engine.rows.RowIterator;
+import org.dashbuilder.dataset.engine.rows.RowList;
 import org.dashbuilder.dataset.group.AggregateFunctionType;
 
 /**
@@ -57,7 +59,9 @@ public class DistinctFunction extends AbstractFunction {
 
         // Return the number of distinct items in the collection.
         Set distincts = new HashSet();
-        for (Integer row : rows) {
+        RowIterator it = RowList.rowIterator(rows);
+        while (it.hasNext()) {
+            int row = it.nextRow();
             Object o = values.get(row);
             if (distincts.contains(o)) continue;
             distincts.add(o);
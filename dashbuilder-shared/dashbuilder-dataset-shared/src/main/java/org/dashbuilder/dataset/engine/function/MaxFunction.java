@@ -19,6 +19,8 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.engine.rows.RowIterator;
+import org.dashbuilder.dataset.engine.rows.RowList;
 import org.dashbuilder.dataset.group.AggregateFunctionType;
 
 /**
@@ -56,7 +58,9 @@ public class MaxFunction extends AbstractFunction {
 
         // Get the max. value from the collection.
         Number max = null;
-        for (Integer row : rows) {
+        RowIterator it = RowList.rowIterator(rows);
+        while (it.hasNext()) {
+            int row = it.nextRow();
             Number n = (Number) values.get(row);
             if (n == null) continue;
             if (max == null || n.doubleValue() > max.doubleValue()) max = n;
@@ -19,6 +19,8 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.engine.rows.RowIterator;
+import org.dashbuilder.dataset.engine.rows.RowList;
 import org.dashbuilder.dataset.group.AggregateFunctionType;
 
 /**
@@ -57,7 +59,9 @@ public class MinFunction extends AbstractFunction {
 
         // Get the min. value from the collection.
         Number min = null;
-        for (Integer row : rows) {
+        RowIterator it = RowList.rowIterator(rows);
+        while (it.hasNext()) {
+            int row = it.nextRow();
             Number n = (Number) values.get(row);
             if (n == null) continue;
             if (min == null || n.doubleValue() < min.doubleValue()) min = n;
@@ -19,6 +19,8 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.dashbuilder.dataset.ColumnType;
+import org.dashbuilder.dataset.engine.rows.RowIterator;
+import org.dashbuilder.dataset.engine.rows.RowList;
 import org.dashbuilder.dataset.group.AggregateFunctionType;
 
 /**
@@ -55,7 +57,9 @@ public class SumFunction extends AbstractFunction {
 
         // Sum the collection.
         double sum = 0;
-        for (Integer row : rows) {
+        RowIterator it = RowList.rowIterator(rows);
+        while (it.hasNext()) {
+            int row = it.nextRow();
             Number n = (Number) values.get(row);
             if (n == null) continue;
             sum += n.doubleValue();
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.group;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dashbuilder.dataset.impl.MemSizeEstimator;
+
+/**
+ * A label dictionary calculated from the values of a column. Labels are coded in order of appearance.
+ */
+public class ColumnLabelDictionary implements LabelDictionary {
+
+    protected int[] codes;
+    protected List<String> labels;
+
+    protected ColumnLabelDictionary(int[] codes, List<String> labels) {
+        this.codes = codes;
+        this.labels = labels;
+    }
+
+    /**
+     * Encode the given column values. Values are turned into labels by calling its <tt>toString()</tt> method.
+     */
+    public static ColumnLabelDictionary encode(List values) {
+        int[] codes = new int[values.size()];
+        List<String> labels = new ArrayList<String>();
+        Map<String, Integer> labelCodes = new HashMap<String, Integer>();
+        for (int row = 0; row < codes.length; row++) {
+            Object value = values.get(row);
+            if (value == null) {
+                codes[row] = NULL_CODE;
+                continue;
+            }
+            String label = value.toString();
+            Integer code = labelCodes.get(label);
+            if (code == null) {
+                code = labels.size();
+                labels.add(label);
+                labelCodes.put(label, code);
+            }
+            codes[row] = code;
+        }
+        return new ColumnLabelDictionary(codes, labels);
+    }
+
+    /**
+     * Extend this dictionary with the rows appended to the column since it was encoded. The rows already
+     * encoded must not have changed. This instance is left untouched.
+     */
+    public ColumnLabelDictionary append(List values) {
+        int rows = values.size();
+        if (rows < codes.length) {
+            throw new IllegalArgumentException("Rows can only be appended: " + rows + " < " + codes.length);
+        }
+        int[] newCodes = new int[rows];
+        System.arraycopy(codes, 0, newCodes, 0, codes.length);
+        List<String> newLabels = new ArrayList<String>(labels);
+        Map<String, Integer> labelCodes = new HashMap<String, Integer>();
+        for (int code = 0; code < newLabels.size(); code++) {
+            labelCodes.put(newLabels.get(code), code);
+        }
+        for (int row = codes.length; row < rows; row++) {
+            Object value = values.get(row);
+            if (value == null) {
+                newCodes[row] = NULL_CODE;
+                continue;
+            }
+            String label = value.toString();
+            Integer code = labelCodes.get(label);
+            if (code == null) {
+                code = newLabels.size();
+                newLabels.add(label);
+                labelCodes.put(label, code);
+            }
+            newCodes[row] = code;
+        }
+        return new ColumnLabelDictionary(newCodes, newLabels);
+    }
+
+    public int getCode(int row) {
+        return codes[row];
+    }
+
+    public String getLabel(int code) {
+        return labels.get(code);
+    }
+
+    public int getLabelCount() {
+        return labels.size();
+    }
+
+    public int getRowCount() {
+        return codes.length;
+    }
+
+    public long getEstimatedSize() {
+        long result = codes.length * 4L;
+        for (String label : labels) {
+            result += MemSizeEstimator.sizeOfString(label);
+        }
+        return result;
+    }
+}
@@ -15,64 +15,124 @@
  */
 package org.dashbuilder.dataset.engine.group;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.dashbuilder.dataset.DataColumn;
 import org.dashbuilder.dataset.engine.DataSetHandler;
+import org.dashbuilder.dataset.engine.rows.RowIterator;
+import org.dashbuilder.dataset.engine.rows.RowList;
 import org.dashbuilder.dataset.group.ColumnGroup;
 import org.dashbuilder.dataset.group.Interval;
 
 /**
  * Interval builder for label columns which generates one interval per label.
+ *
+ * <p>Labels are located through a hash table. Columns implementing {@link LabelDictionary} are grouped by their
+ * label codes instead. If the dictionary encoding is enabled, the codes of any other column are calculated once
+ * (see {@link LabelDictionaryProvider}) and reused by any subsequent group operation on the same column.</p>
  */
 public class IntervalBuilderDynamicLabel implements IntervalBuilder {
 
+    protected boolean dictionaryEncodingEnabled = false;
+
+    public boolean isDictionaryEncodingEnabled() {
+        return dictionaryEncodingEnabled;
+    }
+
+    public void setDictionaryEncodingEnabled(boolean dictionaryEncodingEnabled) {
+        this.dictionaryEncodingEnabled = dictionaryEncodingEnabled;
+    }
+
     public IntervalList build(DataSetHandler ctx, ColumnGroup columnGroup) {
         IntervalListLabel intervalList = new IntervalListLabel(columnGroup);
         String columnId = columnGroup.getSourceId();
-        List values = ctx.getDataSet().getColumnById(columnId).getValues();
+        DataColumn column = ctx.getDataSet().getColumnById(columnId);
         List<Integer> rows = ctx.getRows();
-        return intervalList.indexValues(values, rows);
+
+        LabelDictionary dictionary = null;
+        if (column instanceof LabelDictionary) {
+            dictionary = (LabelDictionary) column;
+        }
+        else if (dictionaryEncodingEnabled && ctx instanceof LabelDictionaryProvider) {
+            dictionary = ((LabelDictionaryProvider) ctx).getLabelDictionary(columnId);
+        }
+        if (dictionary != null) {
+            return intervalList.indexCodes(dictionary, rows, column.getValues().size());
+        }
+        return intervalList.indexValues(column.getValues(), rows);
     }
 
     public IntervalList build(DataColumn dataColumn) {
         ColumnGroup columnGroup = dataColumn.getColumnGroup();
         IntervalListLabel intervalList = new IntervalListLabel(columnGroup);
         List values = dataColumn.getValues();
+        if (dataColumn instanceof LabelDictionary) {
+            return intervalList.indexCodes((LabelDictionary) dataColumn, null, values.size());
+        }
         return intervalList.indexValues(values, null);
     }
 
     private class IntervalListLabel extends IntervalList {
 
+        private Map<String, Interval> intervalMap = new HashMap<String, Interval>();
+
         private IntervalListLabel(ColumnGroup columnGroup) {
             super(columnGroup);
         }
 
+        /**
+         * Same as {@link #indexValues(List, List)} but using the label codes of the given dictionary.
+         */
+        public IntervalList indexCodes(LabelDictionary dictionary, List<Integer> rows, int rowCount) {
+            Interval[] codeIntervals = new Interval[dictionary.getLabelCount()];
+            if (rows == null) {
+                for (int row = 0; row < rowCount; row++) {
+                    indexCode(dictionary, codeIntervals, row);
+                }
+            } else {
+                RowIterator it = RowList.rowIterator(rows);
+                while (it.hasNext()) {
+                    indexCode(dictionary, codeIntervals, it.nextRow());
+                }
+            }
+            return this;
+        }
+
+        private void indexCode(LabelDictionary dictionary, Interval[] codeIntervals, int row) {
+            int code = dictionary.getCode(row);
+            if (code == LabelDictionary.NULL_CODE) {
+                indexValue(null, row);
+                return;
+            }
+            Interval interval = codeIntervals[code];
+            if (interval == null) {
+                interval = codeIntervals[code] = createInterval(dictionary.getLabel(code));
+            }
+            addRow(interval, row);
+        }
+
         public void indexValue(Object value, int row) {
-            Interval interval = locateInterval(value);
+            String name = (value == null ? null : value.toString());
+            Interval interval = intervalMap.get(name);
             if (interval == null) {
-                // TODO: create a composite interval when the maxIntervals are reached.
-                String name = (value == null ? null : value.toString());
-                int index = this.size();
-                this.add(interval = new Interval(name, index));
+                interval = createInterval(name);
             }
-            interval.getRows().add(row);
+            addRow(interval, row);
+        }
+
+        protected Interval createInterval(String name) {
+            // TODO: create a composite interval when the maxIntervals are reached.
+            Interval interval = new Interval(name, this.size());
+            this.add(interval);
+            intervalMap.put(name, interval);
+            return interval;
         }
 
         public Interval locateInterval(Object value) {
-            for (Interval interval : this) {
-                if (interval.getName() == value) {
-                    return interval;
-                }
-                if (interval.getName() == null) {
-                    continue;
-                }
-                String name = (value == null ? null : value.toString());
-                if (interval.getName().equals(name)) {
-                    return interval;
-                }
-            }
-            return null;
+            String name = (value == null ? null : value.toString());
+            return intervalMap.get(name);
         }
     }
 }
@@ -18,6 +18,9 @@ package org.dashbuilder.dataset.engine.group;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.dashbuilder.dataset.engine.rows.IntRowList;
+import org.dashbuilder.dataset.engine.rows.RowIterator;
+import org.dashbuilder.dataset.engine.rows.RowList;
 import org.dashbuilder.dataset.group.ColumnGroup;
 import org.dashbuilder.dataset.group.Interval;
 
@@ -65,6 +68,28 @@ public abstract class IntervalList extends ArrayList<Interval> {
         this.maxValue = maxValue;
     }
 
+    @Override
+    public boolean add(Interval interval) {
+        initRows(interval);
+        return super.add(interval);
+    }
+
+    @Override
+    public void add(int index, Interval interval) {
+        initRows(interval);
+        super.add(index, interval);
+    }
+
+    /**
+     * Make the interval to collect its rows in primitive storage.
+     */
+    protected void initRows(Interval interval) {
+        List<Integer> rows = interval.getRows();
+        if (rows == null || (rows.isEmpty() && !(rows instanceof RowList))) {
+            interval.setRows(new IntRowList());
+        }
+    }
+
     /**
      * Creates and classify the list of specified values into intervals.
      */
@@ -75,7 +100,9 @@ public abstract class IntervalList extends ArrayList<Interval> {
                 indexValue(value, row);
             }
         } else {
-            for (Integer row : rows) {
+            RowIterator it = RowList.rowIterator(rows);
+            while (it.hasNext()) {
+                int row = it.nextRow();
                 Object value = values.get(row);
                 indexValue(value, row);
             }
@@ -92,11 +119,20 @@ public abstract class IntervalList extends ArrayList<Interval> {
         if (value != null) {
             Interval interval = locateInterval(value);
             if (interval != null) {
-                interval.getRows().add(row);
+                addRow(interval, row);
             }
         }
     }
 
+    protected void addRow(Interval interval, int row) {
+        List<Integer> rows = interval.getRows();
+        if (rows instanceof IntRowList) {
+            ((IntRowList) rows).addRow(row);
+        } else {
+            rows.add(row);
+        }
+    }
+
     /**
      * Get the interval that holds the given value.
      * @param value The value we are asking for.
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.group;
+
+/**
+ * A dictionary encoding of the labels held by a data set column: every distinct label gets an <tt>int</tt> code
+ * and every row points to the code of its label.
+ */
+public interface LabelDictionary {
+
+    /**
+     * Code for the rows containing null values.
+     */
+    int NULL_CODE = -1;
+
+    /**
+     * Get the label code of the given row.
+     * @return A value in the range [0, {@link #getLabelCount()}) or {@link #NULL_CODE}.
+     */
+    int getCode(int row);
+
+    /**
+     * Get the label for the given code.
+     */
+    String getLabel(int code);
+
+    /**
+     * Get the number of distinct labels (codes) in the dictionary.
+     */
+    int getLabelCount();
+}
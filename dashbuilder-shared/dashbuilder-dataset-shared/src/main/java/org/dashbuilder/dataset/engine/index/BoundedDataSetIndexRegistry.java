@@ -0,0 +1,314 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dashbuilder.dataprovider.DataSetProviderType;
+import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.def.DataSetDef;
+import org.dashbuilder.dataset.uuid.UUIDGenerator;
+
+/**
+ * An index registry which keeps the memory taken by the registered data sets and their indexes under a given
+ * budget. Every time an index is registered, the budget is changed or an index tree is modified, the budget is
+ * checked and, if exceeded, the following eviction steps are carried out until the memory used gets back under
+ * the limit:
+ * <ol>
+ *     <li>Sub-indexes (filters, sorts, groups, ...) are discarded in ascending order of benefit/cost, being the
+ *     benefit the time saved by the index (build time x usages) and the cost its estimated size. Those indexes
+ *     are rebuilt on demand whenever required again.</li>
+ *     <li>Whole data sets are discarded in least recently used order. Only data sets that can be reloaded by its
+ *     provider are evicted, so the static data sets registered by hand are always kept.</li>
+ * </ol>
+ * <p>Sub-indexes are kept if the budget can't be met even after releasing everything but the static data sets,
+ * since discarding them would not bring the memory under the limit and they'd be built again on the next
+ * lookup.</p>
+ */
+public class BoundedDataSetIndexRegistry extends TransientDataSetIndexRegistry {
+
+    /**
+     * Memory budget in bytes. Zero or negative means no limit.
+     */
+    protected long maxMemory = -1;
+
+    /**
+     * The registered data sets in access order (least recently used first).
+     */
+    protected Map<String, IndexEntry> entryMap = new LinkedHashMap<String, IndexEntry>(16, 0.75f, true);
+
+    /**
+     * Set when the last sub-index eviction pass released nothing, so it's not repeated until some index changes.
+     */
+    protected boolean subIndexesExhausted = false;
+
+    public BoundedDataSetIndexRegistry(UUIDGenerator uuidGenerator, long maxMemory) {
+        super(uuidGenerator);
+        this.maxMemory = maxMemory;
+    }
+
+    public synchronized long getMaxMemory() {
+        return maxMemory;
+    }
+
+    public synchronized void setMaxMemory(long maxMemory) {
+        this.maxMemory = maxMemory;
+        this.subIndexesExhausted = false;
+        evict(null);
+    }
+
+    public synchronized DataSetIndex put(DataSet dataSet) {
+        DataSetIndex index = super.put(dataSet);
+        if (index != null) {
+            entryMap.put(dataSet.getUUID(), new IndexEntry(index));
+            evict(dataSet.getUUID());
+        }
+        return index;
+    }
+
+    public synchronized DataSetIndex get(String uuid) {
+        DataSetIndex index = super.get(uuid);
+        if (index != null) {
+            entryMap.get(uuid);
+            if (isModified()) {
+                evict(uuid);
+            }
+        }
+        return index;
+    }
+
+    public synchronized DataSetIndex remove(String uuid) {
+        entryMap.remove(uuid);
+        return super.remove(uuid);
+    }
+
+    /**
+     * Get the estimated memory (in bytes) taken by all the registered data sets and their indexes.
+     */
+    public synchronized long getMemoryUsed() {
+        long result = 0;
+        for (IndexEntry entry : entryMap.values()) {
+            result += entry.getMemoryUsed();
+        }
+        return result;
+    }
+
+    /**
+     * Check if any index tree has been modified since the last eviction pass.
+     */
+    protected boolean isModified() {
+        for (IndexEntry entry : entryMap.values()) {
+            if (entry.isModified()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Check if a data set can be removed from the registry, which is true only if its provider is able to
+     * load it again on demand.
+     */
+    protected boolean isEvictable(DataSetIndex index) {
+        DataSet dataSet = index.getDataSet();
+        DataSetDef def = dataSet != null ? dataSet.getDefinition() : null;
+        if (def == null || def.getProvider() == null) {
+            return false;
+        }
+        return !DataSetProviderType.STATIC.equals(def.getProvider());
+    }
+
+    /**
+     * Bring the memory used back under the budget.
+     * @param uuid The data set being accessed, which is never evicted.
+     */
+    protected void evict(String uuid) {
+        if (maxMemory <= 0) {
+            return;
+        }
+        boolean modified = isModified();
+        long excess = getMemoryUsed() - maxMemory;
+        if (excess > 0 && (modified || !subIndexesExhausted) && excess <= getReleasableMemory(uuid)) {
+            long released = evictSubIndexes(excess);
+            subIndexesExhausted = released == 0;
+            excess -= released;
+        }
+        if (excess > 0) {
+            evictDataSets(excess, uuid);
+        }
+        // Removing sub-indexes modifies the index trees as well
+        for (IndexEntry entry : entryMap.values()) {
+            entry.checkedVersion = entry.index.getVersion();
+        }
+    }
+
+    /**
+     * Get the memory taken by all the indexes plus the data sets that can be evicted.
+     * @param uuid The data set being accessed, which is never evicted.
+     */
+    protected long getReleasableMemory(String uuid) {
+        long result = 0;
+        for (Map.Entry<String, IndexEntry> entry : entryMap.entrySet()) {
+            IndexEntry indexEntry = entry.getValue();
+            result += indexEntry.getMemoryUsed() - indexEntry.dataSetSize;
+            if (!entry.getKey().equals(uuid) && isEvictable(indexEntry.index)) {
+                result += indexEntry.dataSetSize;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Discard sub-indexes in ascending order of benefit/cost.
+     * @return The memory released.
+     */
+    protected long evictSubIndexes(long excess) {
+        List<SubIndex> subIndexes = new ArrayList<SubIndex>();
+        for (IndexEntry entry : entryMap.values()) {
+            collectSubIndexes(entry.index, null, subIndexes);
+        }
+        Collections.sort(subIndexes, new Comparator<SubIndex>() {
+            public int compare(SubIndex o1, SubIndex o2) {
+                int result = Double.compare(o1.score, o2.score);
+                if (result != 0) return result;
+                return o1.size > o2.size ? -1 : (o1.size < o2.size ? 1 : 0);
+            }
+        });
+        long released = 0;
+        for (int i = 0; i < subIndexes.size() && released < excess; i++) {
+            SubIndex subIndex = subIndexes.get(i);
+            if (!subIndex.isDiscarded() && subIndex.owner.removeSubIndex(subIndex.index)) {
+                subIndex.discarded = true;
+                released += subIndex.size;
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Discard whole data sets in least recently used order.
+     * @return The memory released.
+     */
+    protected long evictDataSets(long excess, String uuid) {
+        long released = 0;
+        Iterator<Map.Entry<String, IndexEntry>> it = entryMap.entrySet().iterator();
+        while (it.hasNext() && released < excess) {
+            Map.Entry<String, IndexEntry> entry = it.next();
+            if (!entry.getKey().equals(uuid) && isEvictable(entry.getValue().index)) {
+                released += entry.getValue().getMemoryUsed();
+                indexMap.remove(entry.getKey());
+                it.remove();
+            }
+        }
+        return released;
+    }
+
+    protected void collectSubIndexes(DataSetIndexNode node, SubIndex parent, List<SubIndex> result) {
+        for (DataSetIndexElement index : node.getSubIndexes()) {
+            SubIndex subIndex = new SubIndex(node, index, parent);
+            result.add(subIndex);
+            if (index instanceof DataSetIndexNode) {
+                collectSubIndexes((DataSetIndexNode) index, subIndex, result);
+            }
+            if (isIntervalOwner(index)) {
+                for (DataSetIntervalIndex intervalIndex : ((DataSetGroupIndex) index).getIntervalIndexes()) {
+                    collectSubIndexes(intervalIndex, subIndex, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimated size of an index and all its descendants.
+     */
+    protected static long sizeOf(DataSetIndexElement index) {
+        long result = index.getEstimatedSize();
+        if (index instanceof DataSetIndexNode) {
+            for (DataSetIndexElement subIndex : ((DataSetIndexNode) index).getSubIndexes()) {
+                result += sizeOf(subIndex);
+            }
+        }
+        if (isIntervalOwner(index)) {
+            for (DataSetIntervalIndex intervalIndex : ((DataSetGroupIndex) index).getIntervalIndexes()) {
+                result += sizeOf(intervalIndex);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Selection indexes just reference the intervals of its parent group index.
+     */
+    protected static boolean isIntervalOwner(DataSetIndexElement index) {
+        return index instanceof DataSetGroupIndex && ((DataSetGroupIndex) index).selectKey == null;
+    }
+
+    protected static class IndexEntry {
+
+        DataSetIndex index;
+        long dataSetSize;
+        long indexSize = 0;
+        int version = -1;
+        int checkedVersion = -1;
+
+        IndexEntry(DataSetIndex index) {
+            this.index = index;
+            this.dataSetSize = index.getDataSet() != null ? index.getDataSet().getEstimatedSize() : 0;
+        }
+
+        long getMemoryUsed() {
+            // Only recalculate when the index tree has been modified
+            if (version != index.getVersion()) {
+                version = index.getVersion();
+                indexSize = sizeOf(index);
+            }
+            return dataSetSize + indexSize;
+        }
+
+        boolean isModified() {
+            return checkedVersion != index.getVersion();
+        }
+    }
+
+    protected static class SubIndex {
+
+        DataSetIndexNode owner;
+        DataSetIndexElement index;
+        SubIndex parent;
+        long size;
+        double score;
+        boolean discarded = false;
+
+        SubIndex(DataSetIndexNode owner, DataSetIndexElement index, SubIndex parent) {
+            this.owner = owner;
+            this.index = index;
+            this.parent = parent;
+            this.size = sizeOf(index);
+            this.score = (double) index.getBuildTime() * (index.getReuseHits() + 1) / Math.max(size, 1);
+        }
+
+        boolean isDiscarded() {
+            for (SubIndex subIndex = this; subIndex != null; subIndex = subIndex.parent) {
+                if (subIndex.discarded) return true;
+            }
+            return false;
+        }
+    }
+}
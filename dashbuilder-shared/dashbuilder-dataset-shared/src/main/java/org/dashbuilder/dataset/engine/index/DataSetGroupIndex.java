@@ -22,6 +22,8 @@ import java.util.List;
 import org.dashbuilder.dataset.group.Interval;
 import org.dashbuilder.dataset.engine.group.IntervalList;
 import org.dashbuilder.dataset.engine.index.visitor.DataSetIndexVisitor;
+import org.dashbuilder.dataset.engine.rows.IntRowList;
+import org.dashbuilder.dataset.engine.rows.RowList;
 import org.dashbuilder.dataset.group.ColumnGroup;
 
 /**
@@ -37,7 +39,7 @@ public class DataSetGroupIndex extends DataSetIndexNode implements DataSetInterv
     Object maxValue = null;
 
     // And can (optionally) contains a subset of interval selections.
-    List<DataSetGroupIndex> selectIndexList = null;
+    volatile List<DataSetGroupIndex> selectIndexList = null;
 
     // When the group represents a selection it has a selection key.
     String selectKey = null;
@@ -144,11 +146,12 @@ public class DataSetGroupIndex extends DataSetIndexNode implements DataSetInterv
     }
 
     public DataSetGroupIndex getSelectionIndex(List<Interval> intervalList) {
-        if (selectIndexList == null) {
+        List<DataSetGroupIndex> selections = selectIndexList;
+        if (selections == null) {
             return null;
         }
         String targetKey = buildSelectKey(intervalList);
-        for (DataSetGroupIndex idx : selectIndexList) {
+        for (DataSetGroupIndex idx : selections) {
             if (idx.selectKey.equals(targetKey)) {
                 idx.reuseHit();
                 return idx;
@@ -157,15 +160,13 @@ public class DataSetGroupIndex extends DataSetIndexNode implements DataSetInterv
         return null;
     }
 
-    public DataSetGroupIndex indexSelection(List<Interval> intervalList, List<DataSetIntervalIndex> intervalIndexes) {
-        if (selectIndexList == null) {
-            selectIndexList = new ArrayList<DataSetGroupIndex>();
-        }
+    public synchronized DataSetGroupIndex indexSelection(List<Interval> intervalList, List<DataSetIntervalIndex> intervalIndexes) {
         String key = buildSelectKey(intervalList);
         DataSetGroupIndex index = new DataSetGroupIndex(key, intervalIndexes);
         index.setParent(this);
         index.setBuildTime(buildTime);
-        selectIndexList.add(index);
+        selectIndexList = copyAdd(selectIndexList, index);
+        indexModified();
         return index;
     }
 
@@ -178,15 +179,35 @@ public class DataSetGroupIndex extends DataSetIndexNode implements DataSetInterv
         return out.toString();
     }
 
+    public List<DataSetIndexElement> getSubIndexes() {
+        List<DataSetIndexElement> result = super.getSubIndexes();
+        List<DataSetGroupIndex> selections = selectIndexList;
+        if (selections != null) result.addAll(selections);
+        return result;
+    }
+
+    public synchronized boolean removeSubIndex(DataSetIndexElement index) {
+        if (contains(selectIndexList, index)) {
+            selectIndexList = copyRemove(selectIndexList, index);
+            indexModified();
+            return true;
+        }
+        return super.removeSubIndex(index);
+    }
+
     public List<Integer> getRows() {
         if (intervalIndexList == null || intervalIndexList.isEmpty()) {
             return null;
         }
-        List<Integer> results = new ArrayList<Integer>();
+        int size = 0;
+        for (DataSetIntervalIndex intervalIndex : intervalIndexList) {
+            size += intervalIndex.getRows().size();
+        }
+        IntRowList results = new IntRowList(size);
         for (DataSetIntervalIndex intervalIndex : intervalIndexList) {
             results.addAll(intervalIndex.getRows());
         }
-        return results;
+        return RowList.compact(results);
     }
 
     public void indexIntervals(Collection<DataSetIntervalIndex> intervalsIdxs) {
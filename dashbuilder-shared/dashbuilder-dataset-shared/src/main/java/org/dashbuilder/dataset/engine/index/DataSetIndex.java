@@ -15,6 +15,12 @@
  */
 package org.dashbuilder.dataset.engine.index;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.engine.group.ColumnLabelDictionary;
+import org.dashbuilder.dataset.engine.group.LabelDictionary;
 import org.dashbuilder.dataset.engine.index.stats.DataSetIndexStats;
 import org.dashbuilder.dataset.DataSet;
 
@@ -23,6 +29,20 @@ import org.dashbuilder.dataset.DataSet;
  */
 public abstract class DataSetIndex extends DataSetIndexNode {
 
+    volatile Map<String, ColumnLabelDictionary> labelDictionaries = null;
+    volatile int version = 0;
+
+    /**
+     * Get the number of modifications (new or discarded sub-indexes) this index has gone through.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    synchronized void modified() {
+        version++;
+    }
+
     /**
      * Get the data set referenced by this index.
      */
@@ -32,5 +52,68 @@ public abstract class DataSetIndex extends DataSetIndexNode {
      * Get the performance stats of this index.
      */
     public abstract DataSetIndexStats getStats();
-}
 
+    /**
+     * Get the label dictionary of the given column. The dictionary is calculated the first time is requested.
+     */
+    public LabelDictionary getLabelDictionary(String columnId) {
+        DataColumn column = getDataSet().getColumnById(columnId);
+        if (column == null) return null;
+
+        Map<String, ColumnLabelDictionary> dictionaries = labelDictionaries;
+        ColumnLabelDictionary dictionary = dictionaries != null ? dictionaries.get(columnId) : null;
+        if (dictionary != null && dictionary.getRowCount() == column.getValues().size()) {
+            return dictionary;
+        }
+        return buildLabelDictionary(column);
+    }
+
+    protected synchronized LabelDictionary buildLabelDictionary(DataColumn column) {
+        // Another thread could have built it meanwhile
+        String columnId = column.getId();
+        ColumnLabelDictionary dictionary = labelDictionaries != null ? labelDictionaries.get(columnId) : null;
+        if (dictionary == null || dictionary.getRowCount() != column.getValues().size()) {
+            Map<String, ColumnLabelDictionary> dictionaries = labelDictionaries == null
+                    ? new HashMap<String, ColumnLabelDictionary>()
+                    : new HashMap<String, ColumnLabelDictionary>(labelDictionaries);
+            dictionary = ColumnLabelDictionary.encode(column.getValues());
+            dictionaries.put(columnId, dictionary);
+            labelDictionaries = dictionaries;
+            modified();
+        }
+        return dictionary;
+    }
+
+    /**
+     * Take over the label dictionaries of the index of a previous version of the same data set. Such version
+     * must contain the first rows of this one, so the dictionaries are just extended with the appended rows.
+     */
+    synchronized void appendLabelDictionaries(DataSetIndex previous) {
+        Map<String, ColumnLabelDictionary> previousDictionaries = previous.labelDictionaries;
+        if (previousDictionaries == null) return;
+
+        Map<String, ColumnLabelDictionary> dictionaries = labelDictionaries == null
+                ? new HashMap<String, ColumnLabelDictionary>()
+                : new HashMap<String, ColumnLabelDictionary>(labelDictionaries);
+        for (Map.Entry<String, ColumnLabelDictionary> entry : previousDictionaries.entrySet()) {
+            DataColumn column = getDataSet().getColumnById(entry.getKey());
+            if (column != null && !dictionaries.containsKey(entry.getKey())
+                    && entry.getValue().getRowCount() <= column.getValues().size()) {
+                dictionaries.put(entry.getKey(), entry.getValue().append(column.getValues()));
+            }
+        }
+        labelDictionaries = dictionaries;
+        modified();
+    }
+
+    public long getEstimatedSize() {
+        long result = super.getEstimatedSize();
+        Map<String, ColumnLabelDictionary> dictionaries = labelDictionaries;
+        if (dictionaries != null) {
+            for (ColumnLabelDictionary dictionary : dictionaries.values()) {
+                result += dictionary.getEstimatedSize();
+            }
+        }
+        return result;
+    }
+}
@@ -16,14 +16,13 @@
 package org.dashbuilder.dataset.engine.index;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.dashbuilder.dataset.impl.MemSizeEstimator;
 import org.dashbuilder.dataset.engine.index.visitor.DataSetIndexVisitor;
+import org.dashbuilder.dataset.engine.rows.RowList;
 import org.dashbuilder.dataset.filter.ColumnFilter;
 import org.dashbuilder.dataset.group.AggregateFunctionType;
 import org.dashbuilder.dataset.group.ColumnGroup;
@@ -31,15 +30,18 @@ import org.dashbuilder.dataset.sort.DataSetSort;
 
 /**
  * A DataSet index node
+ *
+ * <p>The sub-index collections are copy-on-write: modifications are synchronized and replace the whole collection,
+ * so the lookup methods can run concurrently without any locking.</p>
  */
 public abstract class DataSetIndexNode extends DataSetIndexElement {
 
     DataSetIndexNode parent = null;
-    List<Integer> rows = null;
-    List<DataSetGroupIndex> groupIndexes = null;
-    List<DataSetSortIndex> sortIndexes = null;
-    List<DataSetFilterIndex> filterIndexes = null;
-    Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> functionIndexes = null;
+    RowList rows = null;
+    volatile List<DataSetGroupIndex> groupIndexes = null;
+    volatile List<DataSetSortIndex> sortIndexes = null;
+    volatile List<DataSetFilterIndex> filterIndexes = null;
+    volatile Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> functionIndexes = null;
 
     public DataSetIndexNode() {
         this(null, null, 0);
@@ -48,7 +50,7 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
     public DataSetIndexNode(DataSetIndexNode parent, List<Integer> rows, long buildTime) {
         super(buildTime);
         this.parent = parent;
-        this.rows = rows;
+        this.rows = RowList.valueOf(rows);
     }
 
     public DataSetIndexNode getParent() {
@@ -66,31 +68,109 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
     public long getEstimatedSize() {
         long result = super.getEstimatedSize();
         if (rows != null) {
-            result += rows.size() * MemSizeEstimator.sizeOfInteger;
+            result += rows.getEstimatedSize();
         }
         return result;
     }
 
+    /**
+     * Notify the root index about a modification in this node.
+     */
+    protected void indexModified() {
+        DataSetIndexNode node = this;
+        while (node.parent != null) {
+            node = node.parent;
+        }
+        if (node instanceof DataSetIndex) {
+            ((DataSetIndex) node).modified();
+        }
+    }
+
+    /**
+     * Get the indexes attached to this node (filters, sorts, groups, aggregate functions, ...). Such indexes can
+     * be discarded since they will be rebuilt on demand.
+     */
+    public List<DataSetIndexElement> getSubIndexes() {
+        List<DataSetIndexElement> result = new ArrayList<DataSetIndexElement>();
+        List<DataSetGroupIndex> groups = groupIndexes;
+        List<DataSetFilterIndex> filters = filterIndexes;
+        List<DataSetSortIndex> sorts = sortIndexes;
+        Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> functions = functionIndexes;
+        if (groups != null) result.addAll(groups);
+        if (filters != null) result.addAll(filters);
+        if (sorts != null) result.addAll(sorts);
+        if (functions != null) {
+            for (Map<AggregateFunctionType, DataSetFunctionIndex> indexMap : functions.values()) {
+                result.addAll(indexMap.values());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Discard one of the indexes attached to this node.
+     * @return false if the index is not attached to this node.
+     */
+    public synchronized boolean removeSubIndex(DataSetIndexElement index) {
+        boolean removed = false;
+        if (index instanceof DataSetGroupIndex && contains(groupIndexes, index)) {
+            groupIndexes = copyRemove(groupIndexes, index);
+            removed = true;
+        }
+        else if (index instanceof DataSetFilterIndex && contains(filterIndexes, index)) {
+            filterIndexes = copyRemove(filterIndexes, index);
+            removed = true;
+        }
+        else if (index instanceof DataSetSortIndex && contains(sortIndexes, index)) {
+            sortIndexes = copyRemove(sortIndexes, index);
+            removed = true;
+        }
+        else if (index instanceof DataSetFunctionIndex && functionIndexes != null) {
+            Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> functions
+                    = new HashMap<String, Map<AggregateFunctionType, DataSetFunctionIndex>>(functionIndexes);
+            for (Map.Entry<String, Map<AggregateFunctionType, DataSetFunctionIndex>> entry : functions.entrySet()) {
+                if (entry.getValue().containsValue(index)) {
+                    Map<AggregateFunctionType, DataSetFunctionIndex> indexMap
+                            = new EnumMap<AggregateFunctionType, DataSetFunctionIndex>(entry.getValue());
+                    indexMap.values().remove(index);
+                    entry.setValue(indexMap);
+                    removed = true;
+                }
+            }
+            if (removed) {
+                functionIndexes = functions;
+            }
+        }
+        if (removed) {
+            indexModified();
+        }
+        return removed;
+    }
+
     public void acceptVisitor(DataSetIndexVisitor visitor) {
         super.acceptVisitor(visitor);
 
-        if (groupIndexes != null) {
-            for (DataSetGroupIndex index : groupIndexes) {
+        List<DataSetGroupIndex> groups = groupIndexes;
+        if (groups != null) {
+            for (DataSetGroupIndex index : groups) {
                 index.acceptVisitor(visitor);
             }
         }
-        if (filterIndexes != null) {
-            for (DataSetFilterIndex index : filterIndexes) {
+        List<DataSetFilterIndex> filters = filterIndexes;
+        if (filters != null) {
+            for (DataSetFilterIndex index : filters) {
                 index.acceptVisitor(visitor);
             }
         }
-        if (sortIndexes != null) {
-            for (DataSetSortIndex index : sortIndexes) {
+        List<DataSetSortIndex> sorts = sortIndexes;
+        if (sorts != null) {
+            for (DataSetSortIndex index : sorts) {
                 index.acceptVisitor(visitor);
             }
         }
-        if (functionIndexes != null) {
-            for (Map<AggregateFunctionType, DataSetFunctionIndex> indexMap : functionIndexes.values()) {
+        Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> functions = functionIndexes;
+        if (functions != null) {
+            for (Map<AggregateFunctionType, DataSetFunctionIndex> indexMap : functions.values()) {
                 for (DataSetFunctionIndex index : indexMap.values()) {
                     index.acceptVisitor(visitor);
                 }
@@ -98,26 +178,52 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
         }
     }
 
+    // Copy-on-write helpers
+
+    protected static <T> List<T> copyAdd(List<T> list, T element) {
+        List<T> result = new ArrayList<T>(list == null ? 1 : list.size() + 1);
+        if (list != null) result.addAll(list);
+        result.add(element);
+        return result;
+    }
+
+    protected static <T> List<T> copyRemove(List<T> list, Object element) {
+        List<T> result = new ArrayList<T>(list);
+        result.remove(element);
+        return result;
+    }
+
+    protected static boolean contains(List<?> list, Object element) {
+        return list != null && list.contains(element);
+    }
+
     // Aggregate function indexes
 
-    public DataSetFunctionIndex indexAggValue(String columnId, AggregateFunctionType type, Double value, long buildTime) {
-        if (functionIndexes == null) functionIndexes = new HashMap<String, Map<AggregateFunctionType, DataSetFunctionIndex>>();
+    public synchronized DataSetFunctionIndex indexAggValue(String columnId, AggregateFunctionType type, Double value, long buildTime) {
+        Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> functions = functionIndexes == null
+                ? new HashMap<String, Map<AggregateFunctionType, DataSetFunctionIndex>>()
+                : new HashMap<String, Map<AggregateFunctionType, DataSetFunctionIndex>>(functionIndexes);
 
-        Map<AggregateFunctionType,DataSetFunctionIndex> columnAggFunctions = functionIndexes.get(columnId);
+        Map<AggregateFunctionType,DataSetFunctionIndex> columnAggFunctions = functions.get(columnId);
         if (columnAggFunctions == null) {
-            functionIndexes.put(columnId, columnAggFunctions
-                    = new EnumMap<AggregateFunctionType, DataSetFunctionIndex>(AggregateFunctionType.class));
+            columnAggFunctions = new EnumMap<AggregateFunctionType, DataSetFunctionIndex>(AggregateFunctionType.class);
+        } else {
+            columnAggFunctions = new EnumMap<AggregateFunctionType, DataSetFunctionIndex>(columnAggFunctions);
         }
+        functions.put(columnId, columnAggFunctions);
 
         DataSetFunctionIndex index = new DataSetFunctionIndex(value, buildTime);
         columnAggFunctions.put(type, index);
+        functionIndexes = functions;
+        indexModified();
         return index;
     }
 
     public Double getAggValue(String columnId, AggregateFunctionType type) {
-        if (functionIndexes == null) return null;
+        Map<String, Map<AggregateFunctionType, DataSetFunctionIndex>> functions = functionIndexes;
+        if (functions == null) return null;
 
-        Map<AggregateFunctionType,DataSetFunctionIndex> columnAggFunctions = functionIndexes.get(columnId);
+        Map<AggregateFunctionType,DataSetFunctionIndex> columnAggFunctions = functions.get(columnId);
         if (columnAggFunctions == null) return null;
 
         DataSetFunctionIndex functionIndex = columnAggFunctions.get(type);
@@ -127,23 +233,22 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
         return functionIndex.getValue();
     }
 
-    // TODO: coordinate concurrent index modifications
-
     // Group indexes
 
-    public DataSetGroupIndex indexGroup(DataSetGroupIndex index) {
-        if (groupIndexes == null) groupIndexes = new ArrayList<DataSetGroupIndex>();
+    public synchronized DataSetGroupIndex indexGroup(DataSetGroupIndex index) {
         index.setParent(this);
         index.setBuildTime(buildTime);
-        groupIndexes.add(index);
+        groupIndexes = copyAdd(groupIndexes, index);
+        indexModified();
         return index;
     }
 
     public DataSetGroupIndex getGroupIndex(ColumnGroup gc) {
-        if (groupIndexes == null) return null;
+        List<DataSetGroupIndex> groups = groupIndexes;
+        if (groups == null) return null;
 
         String key = getGroupKey(gc);
-        for (DataSetGroupIndex groupIndex : groupIndexes) {
+        for (DataSetGroupIndex groupIndex : groups) {
             ColumnGroup c = groupIndex.columnGroup;
             if (key.equals(getGroupKey(c))) {
                 groupIndex.reuseHit();
@@ -166,20 +271,20 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
 
     // Filter indexes
 
-    public DataSetFilterIndex indexFilter(ColumnFilter filter, List<Integer> rows, long buildTime) {
-        if (filterIndexes == null) filterIndexes = new ArrayList<DataSetFilterIndex>();
-
+    public synchronized DataSetFilterIndex indexFilter(ColumnFilter filter, List<Integer> rows, long buildTime) {
         DataSetFilterIndex index = new DataSetFilterIndex(filter, rows);
         index.setParent(this);
         index.setBuildTime(buildTime);
-        filterIndexes.add(index);
+        filterIndexes = copyAdd(filterIndexes, index);
+        indexModified();
         return index;
     }
 
     public DataSetFilterIndex getFilterIndex(ColumnFilter filter) {
-        if (filterIndexes == null) return null;
+        List<DataSetFilterIndex> filters = filterIndexes;
+        if (filters == null) return null;
 
-        for (DataSetFilterIndex index: filterIndexes) {
+        for (DataSetFilterIndex index: filters) {
             if (filter.equals(index.getColumnFilter())) {
                 index.reuseHit();
                 return index;
@@ -190,29 +295,29 @@ public abstract class DataSetIndexNode extends DataSetIndexElement {
 
     // Sort indexes
 
-    public DataSetSortIndex indexSort(DataSetSort sortOp, List<Integer> sortedRows, long buildTime) {
-        if (sortIndexes == null) sortIndexes = new ArrayList<DataSetSortIndex>();
-
+    public synchronized DataSetSortIndex indexSort(DataSetSort sortOp, List<Integer> sortedRows, long buildTime) {
         DataSetSortIndex index = new DataSetSortIndex(sortOp, sortedRows);
         index.setParent(this);
         index.setBuildTime(buildTime);
-        sortIndexes.add(index);
 
         // Also create an index for the inverted sort.
         DataSetSort invertedSortOp = sortOp.cloneInstance().invertOrder();
-        List<Integer> invertedRows = new ArrayList<Integer>(sortedRows);
-        Collections.reverse(invertedRows);
-        DataSetSortIndex invertedIndex = new DataSetSortIndex(invertedSortOp, invertedRows);
+        DataSetSortIndex invertedIndex = new DataSetSortIndex(invertedSortOp, index.rows.reverse());
         invertedIndex.setParent(this);
-        sortIndexes.add(invertedIndex);
+
+        List<DataSetSortIndex> sorts = copyAdd(sortIndexes, index);
+        sorts.add(invertedIndex);
+        sortIndexes = sorts;
+        indexModified();
 
         return index;
     }
 
     public DataSetSortIndex getSortIndex(DataSetSort sortOp) {
-        if (sortIndexes == null) return null;
+        List<DataSetSortIndex> sorts = sortIndexes;
+        if (sorts == null) return null;
 
-        for (DataSetSortIndex sortIndex : sortIndexes) {
+        for (DataSetSortIndex sortIndex : sorts) {
             if (sortOp.equals(sortIndex.getSortOp())) {
                 sortIndex.reuseHit();
                 return sortIndex;
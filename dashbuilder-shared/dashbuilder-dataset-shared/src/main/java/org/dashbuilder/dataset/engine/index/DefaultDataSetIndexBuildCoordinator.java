@@ -0,0 +1,33 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.index;
+
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexBuild;
+import org.dashbuilder.dataset.engine.index.spi.DataSetIndexBuildCoordinator;
+
+/**
+ * Coordinator for single threaded environments. Indexes are just built on demand.
+ */
+public class DefaultDataSetIndexBuildCoordinator implements DataSetIndexBuildCoordinator {
+
+    public <T extends DataSetIndexElement> T getOrBuild(DataSetIndexNode node, Object key, DataSetIndexBuild<T> build) {
+        T index = build.lookup();
+        if (index != null) {
+            return index;
+        }
+        return build.build();
+    }
+}
@@ -31,7 +31,7 @@ public class TransientDataSetIndexRegistry implements DataSetIndexRegistry {
         this.uuidGenerator = uuidGenerator;
     }
 
-    public DataSetIndex put(DataSet dataSet) {
+    public synchronized DataSetIndex put(DataSet dataSet) {
         if (dataSet == null) {
             return null;
         }
@@ -46,7 +46,16 @@ public class TransientDataSetIndexRegistry implements DataSetIndexRegistry {
         return dsIndex;
     }
 
-    public DataSetIndex get(String uuid) {
+    public synchronized DataSetIndex append(DataSet dataSet) {
+        DataSetIndex previous = dataSet != null && dataSet.getUUID() != null ? indexMap.get(dataSet.getUUID()) : null;
+        DataSetIndex dsIndex = put(dataSet);
+        if (dsIndex != null && previous != null) {
+            dsIndex.appendLabelDictionaries(previous);
+        }
+        return dsIndex;
+    }
+
+    public synchronized DataSetIndex get(String uuid) {
         DataSetIndex index = indexMap.get(uuid);
         if (index != null) {
             index.reuseHit();
@@ -54,7 +63,7 @@ public class TransientDataSetIndexRegistry implements DataSetIndexRegistry {
         return index;
     }
 
-    public DataSetIndex remove(String uuid) {
+    public synchronized DataSetIndex remove(String uuid) {
         return indexMap.remove(uuid);
     }
 }
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.index.spi;
+
+import org.dashbuilder.dataset.engine.index.DataSetIndexElement;
+import org.dashbuilder.dataset.engine.index.DataSetIndexNode;
+
+/**
+ * Coordinates the build of the indexes attached to an index node. When several threads request the same index
+ * at the same time only one of them builds it while the others wait for the result.
+ */
+public interface DataSetIndexBuildCoordinator {
+
+    /**
+     * Get an existing index or build it if not found.
+     * @param node The index node the index is attached to.
+     * @param key An object identifying the index within the node (a filter, a group key, ...).
+     * @param build The index lookup and build logic.
+     * @return The existing index or the brand new one.
+     */
+    <T extends DataSetIndexElement> T getOrBuild(DataSetIndexNode node, Object key, DataSetIndexBuild<T> build);
+}
@@ -28,6 +28,13 @@ public interface DataSetIndexRegistry {
      */
     DataSetIndex put(DataSet dataSet);
 
+    /**
+     * Index a new version of an already registered data set which just appends rows to the previous one. The
+     * label dictionaries of the previous index are extended with the new rows instead of being calculated again.
+     * Any other sub-index is discarded as it does not cover the new rows.
+     */
+    DataSetIndex append(DataSet dataSet);
+
     /**
      * Get the index for the specified data set.
      * @param uuid The data set unique identifier.
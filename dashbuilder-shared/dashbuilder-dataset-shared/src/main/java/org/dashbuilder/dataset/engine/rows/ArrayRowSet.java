@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.rows;
+
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A row set backed by a sorted <tt>int</tt> array. Best suited for sparse selections.
+ */
+public class ArrayRowSet extends RowSet implements RandomAccess {
+
+    protected int[] rows;
+    protected int size;
+
+    /**
+     * Creates a set on top of the given array (no copy is done). The rows must be sorted in ascending order.
+     */
+    public ArrayRowSet(int[] sortedRows, int size) {
+        this.rows = sortedRows;
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getRow(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return rows[index];
+    }
+
+    @Override
+    public boolean containsRow(int row) {
+        return Arrays.binarySearch(rows, 0, size, row) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Integer)) return -1;
+        int i = Arrays.binarySearch(rows, 0, size, (Integer) o);
+        return i < 0 ? -1 : i;
+    }
+
+    @Override
+    public int getLastRow() {
+        return size == 0 ? -1 : rows[size - 1];
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        return rows.length * 4L;
+    }
+
+    @Override
+    public int[] toRowArray() {
+        return Arrays.copyOf(rows, size);
+    }
+
+    /**
+     * Merge (union) two sorted arrays.
+     */
+    RowSet merge(ArrayRowSet other) {
+        int[] result = new int[size + other.size];
+        int n = 0, i = 0, j = 0;
+        while (i < size && j < other.size) {
+            int a = rows[i];
+            int b = other.rows[j];
+            if (a < b) {
+                result[n++] = a;
+                i++;
+            } else if (a > b) {
+                result[n++] = b;
+                j++;
+            } else {
+                result[n++] = a;
+                i++;
+                j++;
+            }
+        }
+        while (i < size) result[n++] = rows[i++];
+        while (j < other.size) result[n++] = other.rows[j++];
+        return of(result, n);
+    }
+}
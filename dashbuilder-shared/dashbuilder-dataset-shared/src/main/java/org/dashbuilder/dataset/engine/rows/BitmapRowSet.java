@@ -0,0 +1,230 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.rows;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A row set backed by a bitmap (one bit per row). Best suited for dense selections. Positional access
+ * ({@link #getRow(int)}) relies on a rank table which is built on demand.
+ *
+ * <p>Words are 32 bits wide (<tt>int</tt>) as 64 bits arithmetic is expensive once translated into JavaScript.</p>
+ */
+public class BitmapRowSet extends RowSet {
+
+    /**
+     * Number of words covered by every entry of the rank table.
+     */
+    private static final int RANK_BLOCK = 16;
+
+    protected int[] words;
+    protected int cardinality;
+    protected int[] ranks = null;
+
+    protected BitmapRowSet(int[] words, int cardinality) {
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    static int wordIndex(int row) {
+        return row >>> 5;
+    }
+
+    /**
+     * Creates a bitmap from the first <tt>size</tt> rows of an array sorted in ascending order.
+     */
+    public static BitmapRowSet of(int[] sortedRows, int size) {
+        int[] words = new int[size == 0 ? 0 : wordIndex(sortedRows[size - 1]) + 1];
+        for (int i = 0; i < size; i++) {
+            int row = sortedRows[i];
+            words[wordIndex(row)] |= 1 << row;
+        }
+        return new BitmapRowSet(words, size);
+    }
+
+    /**
+     * Creates a bitmap containing all the rows in the range [0, rowCount).
+     */
+    public static BitmapRowSet all(int rowCount) {
+        int[] words = new int[wordIndex(rowCount + 31)];
+        Arrays.fill(words, -1);
+        int tail = rowCount & 31;
+        if (tail != 0) {
+            words[words.length - 1] = (1 << tail) - 1;
+        }
+        return new BitmapRowSet(words, rowCount);
+    }
+
+    @Override
+    public int size() {
+        return cardinality;
+    }
+
+    @Override
+    public boolean containsRow(int row) {
+        int w = wordIndex(row);
+        return row >= 0 && w < words.length && (words[w] & (1 << row)) != 0;
+    }
+
+    @Override
+    public int getLastRow() {
+        for (int w = words.length - 1; w >= 0; w--) {
+            if (words[w] != 0) {
+                return (w << 5) + 31 - Integer.numberOfLeadingZeros(words[w]);
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int getRow(int index) {
+        if (index < 0 || index >= cardinality) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + cardinality);
+        }
+        int[] rankTable = getRanks();
+
+        // Locate the block containing the row (the last one whose rank is <= index)
+        int lo = 0, hi = rankTable.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (rankTable[mid] <= index) lo = mid;
+            else hi = mid - 1;
+        }
+        int remaining = index - rankTable[lo];
+        for (int w = lo * RANK_BLOCK; w < words.length; w++) {
+            int word = words[w];
+            int bits = Integer.bitCount(word);
+            if (remaining < bits) {
+                for (int i = 0; i < remaining; i++) {
+                    word &= word - 1;
+                }
+                return (w << 5) + Integer.numberOfTrailingZeros(word);
+            }
+            remaining -= bits;
+        }
+        throw new IllegalStateException("Corrupted bitmap");
+    }
+
+    protected int[] getRanks() {
+        if (ranks == null) {
+            int[] result = new int[(words.length + RANK_BLOCK - 1) / RANK_BLOCK];
+            int count = 0;
+            for (int w = 0; w < words.length; w++) {
+                if (w % RANK_BLOCK == 0) result[w / RANK_BLOCK] = count;
+                count += Integer.bitCount(words[w]);
+            }
+            ranks = result;
+        }
+        return ranks;
+    }
+
+    @Override
+    public RowIterator rowIterator() {
+        return new RowIterator() {
+
+            int w = 0;
+            int word = words.length > 0 ? words[0] : 0;
+
+            public boolean hasNext() {
+                while (word == 0) {
+                    if (++w >= words.length) return false;
+                    word = words[w];
+                }
+                return true;
+            }
+
+            public Integer next() {
+                return nextRow();
+            }
+
+            public int nextRow() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int row = (w << 5) + Integer.numberOfTrailingZeros(word);
+                word &= word - 1;
+                return row;
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        long result = words.length * 4L;
+        if (ranks != null) result += ranks.length * 4L;
+        return result;
+    }
+
+    @Override
+    public BitmapRowSet toBitmap() {
+        return this;
+    }
+
+    public BitmapRowSet and(BitmapRowSet other) {
+        int n = Math.min(words.length, other.words.length);
+        int[] result = new int[n];
+        for (int w = 0; w < n; w++) {
+            result[w] = words[w] & other.words[w];
+        }
+        return create(result);
+    }
+
+    public BitmapRowSet or(BitmapRowSet other) {
+        int[] small = words.length <= other.words.length ? words : other.words;
+        int[] result = Arrays.copyOf(small == words ? other.words : words, Math.max(words.length, other.words.length));
+        for (int w = 0; w < small.length; w++) {
+            result[w] |= small[w];
+        }
+        return create(result);
+    }
+
+    public BitmapRowSet andNot(BitmapRowSet other) {
+        int[] result = Arrays.copyOf(words, words.length);
+        int n = Math.min(words.length, other.words.length);
+        for (int w = 0; w < n; w++) {
+            result[w] &= ~other.words[w];
+        }
+        return create(result);
+    }
+
+    /**
+     * Switch to a sorted array when the set is too sparse.
+     */
+    @Override
+    public RowSet compact() {
+        if (cardinality > words.length) {
+            return this;
+        }
+        return new ArrayRowSet(toRowArray(), cardinality);
+    }
+
+    private static BitmapRowSet create(int[] words) {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        int cardinality = 0;
+        for (int w = 0; w < length; w++) {
+            cardinality += Integer.bitCount(words[w]);
+        }
+        return new BitmapRowSet(length == words.length ? words : Arrays.copyOf(words, length), cardinality);
+    }
+}
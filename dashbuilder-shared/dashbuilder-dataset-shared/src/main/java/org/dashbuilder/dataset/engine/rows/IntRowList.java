@@ -0,0 +1,236 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.rows;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * A growable list of row numbers backed by an <tt>int</tt> array. Unlike {@link RowSet}, rows can be stored in
+ * any order (e.g: the result of a sort operation).
+ */
+public class IntRowList extends RowList implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    protected int[] rows;
+    protected int size;
+
+    public IntRowList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntRowList(int capacity) {
+        this.rows = new int[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Creates a list on top of the given array (no copy is done).
+     */
+    public IntRowList(int[] rows, int size) {
+        this.rows = rows;
+        this.size = size;
+    }
+
+    /**
+     * Creates a list containing the rows in the range [from, to).
+     */
+    public static IntRowList range(int from, int to) {
+        IntRowList result = new IntRowList(Math.max(to - from, 0));
+        for (int row = from; row < to; row++) {
+            result.rows[result.size++] = row;
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getRow(int index) {
+        checkIndex(index);
+        return rows[index];
+    }
+
+    public void setRow(int index, int row) {
+        checkIndex(index);
+        rows[index] = row;
+    }
+
+    public void addRow(int row) {
+        if (size == rows.length) {
+            ensureCapacity(size + 1);
+        }
+        rows[size++] = row;
+    }
+
+    @Override
+    public boolean add(Integer row) {
+        addRow(row);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, Integer row) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(rows, index, rows, index + 1, size - index);
+        rows[index] = row;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Integer> c) {
+        ensureCapacity(size + c.size());
+        if (c instanceof IntRowList) {
+            IntRowList other = (IntRowList) c;
+            System.arraycopy(other.rows, 0, rows, size, other.size);
+            size += other.size;
+        } else if (c instanceof RowList) {
+            RowIterator it = ((RowList) c).rowIterator();
+            while (it.hasNext()) {
+                rows[size++] = it.nextRow();
+            }
+        } else {
+            for (Integer row : c) {
+                rows[size++] = row;
+            }
+        }
+        modCount++;
+        return !c.isEmpty();
+    }
+
+    @Override
+    public Integer set(int index, Integer row) {
+        int old = getRow(index);
+        rows[index] = row;
+        return old;
+    }
+
+    @Override
+    public Integer remove(int index) {
+        int old = getRow(index);
+        System.arraycopy(rows, index + 1, rows, index, size - index - 1);
+        size--;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        modCount++;
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > rows.length) {
+            int newCapacity = Math.max(capacity, Math.max(DEFAULT_CAPACITY, rows.length + (rows.length >> 1)));
+            rows = Arrays.copyOf(rows, newCapacity);
+        }
+    }
+
+    /**
+     * Releases any unused storage room.
+     */
+    public void trimToSize() {
+        if (rows.length > size) {
+            rows = Arrays.copyOf(rows, size);
+        }
+    }
+
+    @Override
+    public long getEstimatedSize() {
+        return rows.length * 4L;
+    }
+
+    @Override
+    public boolean isAscending() {
+        for (int i = 1; i < size; i++) {
+            if (rows[i] <= rows[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int[] toRowArray() {
+        return Arrays.copyOf(rows, size);
+    }
+
+    /**
+     * Sorts the rows according to the given comparator. The sort is stable, rows considered equal by the
+     * comparator keep their current order.
+     */
+    public void sortRows(RowComparator comparator) {
+        if (size < 2) {
+            return;
+        }
+        int[] buffer = Arrays.copyOf(rows, size);
+        mergeSort(buffer, rows, 0, size, comparator);
+        modCount++;
+    }
+
+    /**
+     * Sorts <tt>dest[from, to)</tt> using <tt>src</tt> (which must contain the same values) as working area.
+     */
+    private static void mergeSort(int[] src, int[] dest, int from, int to, RowComparator comparator) {
+        int length = to - from;
+        if (length < INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int row = dest[i];
+                int j = i - 1;
+                while (j >= from && comparator.compareRows(dest[j], row) > 0) {
+                    dest[j + 1] = dest[j];
+                    j--;
+                }
+                dest[j + 1] = row;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(dest, src, from, mid, comparator);
+        mergeSort(dest, src, mid, to, comparator);
+
+        // Already in order => just copy
+        if (comparator.compareRows(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, from, dest, from, length);
+            return;
+        }
+        for (int i = from, p = from, q = mid; i < to; i++) {
+            if (q >= to || (p < mid && comparator.compareRows(src[p], src[q]) <= 0)) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    protected void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
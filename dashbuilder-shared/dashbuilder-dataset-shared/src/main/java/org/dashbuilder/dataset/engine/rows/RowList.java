@@ -0,0 +1,168 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.rows;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Base class for the lists of row numbers used by the data set operation engine and its indexes. Rows are kept
+ * in primitive storage, so the {@link List} interface implemented is just a view on top of it. Components
+ * aware of this class can use {@link #getRow(int)} and {@link #rowIterator()} to avoid boxing.
+ */
+public abstract class RowList extends AbstractList<Integer> {
+
+    /**
+     * Get the row number at the given position.
+     */
+    public abstract int getRow(int index);
+
+    /**
+     * Get the (estimated) size in bytes of the row storage.
+     */
+    public abstract long getEstimatedSize();
+
+    /**
+     * Check whether the rows are sorted in ascending order and contain no duplicates.
+     */
+    public abstract boolean isAscending();
+
+    @Override
+    public Integer get(int index) {
+        return getRow(index);
+    }
+
+    @Override
+    public Iterator<Integer> iterator() {
+        return rowIterator();
+    }
+
+    public RowIterator rowIterator() {
+        return new ListRowIterator(this);
+    }
+
+    public int[] toRowArray() {
+        int[] result = new int[size()];
+        RowIterator it = rowIterator();
+        for (int i = 0; it.hasNext(); i++) {
+            result[i] = it.nextRow();
+        }
+        return result;
+    }
+
+    /**
+     * Creates a new list containing the same rows in reverse order.
+     */
+    public IntRowList reverse() {
+        int n = size();
+        int[] result = new int[n];
+        RowIterator it = rowIterator();
+        for (int i = n - 1; it.hasNext(); i--) {
+            result[i] = it.nextRow();
+        }
+        return new IntRowList(result, n);
+    }
+
+    /**
+     * Get a primitive iterator over any list of rows.
+     */
+    public static RowIterator rowIterator(List<Integer> rows) {
+        if (rows instanceof RowList) {
+            return ((RowList) rows).rowIterator();
+        }
+        final Iterator<Integer> it = rows.iterator();
+        return new RowIterator() {
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+            public Integer next() {
+                return it.next();
+            }
+            public int nextRow() {
+                return it.next();
+            }
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Turns the given list into a row list.
+     * @return The list itself if it's already a row list or a compact copy otherwise.
+     */
+    public static RowList valueOf(List<Integer> rows) {
+        if (rows == null) {
+            return null;
+        }
+        if (rows instanceof RowList) {
+            return (RowList) rows;
+        }
+        IntRowList result = new IntRowList(rows.size());
+        result.addAll(rows);
+        return compact(result);
+    }
+
+    /**
+     * Get the cheapest storage for the given rows. Ascending lists are turned into a {@link RowSet}.
+     */
+    public static RowList compact(RowList rows) {
+        if (rows == null || rows instanceof RowSet) {
+            return rows;
+        }
+        if (rows.isAscending()) {
+            return RowSet.of(rows.toRowArray(), rows.size());
+        }
+        if (rows instanceof IntRowList) {
+            ((IntRowList) rows).trimToSize();
+        }
+        return rows;
+    }
+
+    /**
+     * Iterator for the random access row lists.
+     */
+    protected static class ListRowIterator implements RowIterator {
+
+        private RowList rows;
+        private int index = 0;
+
+        public ListRowIterator(RowList rows) {
+            this.rows = rows;
+        }
+
+        public boolean hasNext() {
+            return index < rows.size();
+        }
+
+        public Integer next() {
+            return nextRow();
+        }
+
+        public int nextRow() {
+            if (index >= rows.size()) {
+                throw new NoSuchElementException();
+            }
+            return rows.getRow(index++);
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2016 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.dashbuilder.dataset.engine.rows;
+
+/**
+ * An immutable set of row numbers sorted in ascending order. Two implementations are available: a sorted
+ * <tt>int</tt> array ({@link ArrayRowSet}) for sparse selections and a bitmap ({@link BitmapRowSet}) for the
+ * dense ones. The set operations (AND, OR, NOT) work directly on the bitmaps whenever possible.
+ */
+public abstract class RowSet extends RowList {
+
+    /**
+     * Check if the given row belongs to the set.
+     */
+    public abstract boolean containsRow(int row);
+
+    /**
+     * Get the greatest row number in the set or -1 if empty.
+     */
+    public abstract int getLastRow();
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Integer && containsRow((Integer) o);
+    }
+
+    @Override
+    public boolean isAscending() {
+        return true;
+    }
+
+    public BitmapRowSet toBitmap() {
+        return BitmapRowSet.of(toRowArray(), size());
+    }
+
+    /**
+     * Get the rows present in both this and the given set.
+     */
+    public RowSet and(RowSet other) {
+        if (this instanceof BitmapRowSet && other instanceof BitmapRowSet) {
+            return ((BitmapRowSet) this).and((BitmapRowSet) other).compact();
+        }
+        // Probe the smallest set against the other one
+        RowSet small = size() <= other.size() ? this : other;
+        RowSet large = small == this ? other : this;
+        IntRowList result = new IntRowList(small.size());
+        RowIterator it = small.rowIterator();
+        while (it.hasNext()) {
+            int row = it.nextRow();
+            if (large.containsRow(row)) {
+                result.addRow(row);
+            }
+        }
+        return of(result.rows, result.size);
+    }
+
+    /**
+     * Get the rows present in this or in the given set.
+     */
+    public RowSet or(RowSet other) {
+        if (other.isEmpty()) return this;
+        if (isEmpty()) return other;
+        if (this instanceof ArrayRowSet && other instanceof ArrayRowSet) {
+            return ((ArrayRowSet) this).merge((ArrayRowSet) other);
+        }
+        return toBitmapSet(this).or(toBitmapSet(other)).compact();
+    }
+
+    /**
+     * Get the rows present in this set but not in the given one.
+     */
+    public RowSet andNot(RowSet other) {
+        if (other.isEmpty() || isEmpty()) return this;
+        if (this instanceof BitmapRowSet && other instanceof BitmapRowSet) {
+            return ((BitmapRowSet) this).andNot((BitmapRowSet) other).compact();
+        }
+        IntRowList result = new IntRowList(size());
+        RowIterator it = rowIterator();
+        while (it.hasNext()) {
+            int row = it.nextRow();
+            if (!other.containsRow(row)) {
+                result.addRow(row);
+            }
+        }
+        return of(result.rows, result.size);
+    }
+
+    /**
+     * Get the rows in the range [0, rowCount) not present in this set.
+     */
+    public RowSet not(int rowCount) {
+        return all(rowCount).andNot(this);
+    }
+
+    /**
+     * Get the cheapest representation for this set.
+     */
+    public RowSet compact() {
+        return this;
+    }
+
+    /**
+     * Creates a set containing all the rows in the range [0, rowCount).
+     */
+    public static RowSet all(int rowCount) {
+        return BitmapRowSet.all(rowCount);
+    }
+
+    public static RowSet empty() {
+        return new ArrayRowSet(new int[0], 0);
+    }
+
+    /**
+     * Creates a set from the first <tt>size</tt> rows of an array sorted in ascending order.
+     */
+    public static RowSet of(int[] sortedRows, int size) {
+        if (size == 0) {
+            return empty();
+        }
+        int words = BitmapRowSet.wordIndex(sortedRows[size - 1]) + 1;
+        if (words < size) {
+            return BitmapRowSet.of(sortedRows, size);
+        }
+        int[] rows = sortedRows;
+        if (rows.length != size) {
+            rows = new int[size];
+            System.arraycopy(sortedRows, 0, rows, 0, size);
+        }
+        return new ArrayRowSet(rows, size);
+    }
+
+    private static BitmapRowSet toBitmapSet(RowSet set) {
+        return set instanceof BitmapRowSet ? (BitmapRowSet) set : set.toBitmap();
+    }
+}
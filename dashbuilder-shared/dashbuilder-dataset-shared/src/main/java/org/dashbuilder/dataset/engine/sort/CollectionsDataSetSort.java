@@ -15,16 +15,16 @@
  */
 package org.dashbuilder.dataset.engine.sort;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 import org.dashbuilder.dataset.DataColumn;
 import org.dashbuilder.dataset.DataSet;
+import org.dashbuilder.dataset.engine.rows.IntRowList;
 import org.dashbuilder.dataset.sort.ColumnSort;
 
 /**
- * A basic sort algorithm takes relies on the default <tt>Collections.sort()</tt> implementation.
+ * A basic sort algorithm based on a stable merge sort over the row numbers (same contract as the
+ * <tt>Collections.sort()</tt> implementation but with no boxing involved).
  */
 public class CollectionsDataSetSort implements DataSetSortAlgorithm {
 
@@ -44,16 +44,15 @@ public class CollectionsDataSetSort implements DataSetSortAlgorithm {
             comparator.criteria(column, columnSort.getOrder());
         }
         // Create the row number list to sort.
-        List<Integer> rows = new ArrayList<Integer>();
+        IntRowList rows;
         if (rowNumbers != null) {
+            rows = new IntRowList(rowNumbers.size());
             rows.addAll(rowNumbers);
         } else {
-            for (int i=0; i<dataSet.getRowCount(); i++) {
-                rows.add(i);
-            }
+            rows = IntRowList.range(0, dataSet.getRowCount());
         }
         // Sort the row numbers.
-        Collections.sort(rows, comparator);
+        rows.sortRows(comparator);
         return rows;
     }
 }
@@ -21,12 +21,13 @@ import java.util.List;
 
 import org.dashbuilder.comparator.ComparatorUtils;
 import org.dashbuilder.dataset.DataColumn;
+import org.dashbuilder.dataset.engine.rows.RowComparator;
 import org.dashbuilder.dataset.sort.SortOrder;
 
 /**
  * A comparator of data set rows.
  */
-public class DataSetRowComparator implements Comparator<Integer> {
+public class DataSetRowComparator implements Comparator<Integer>, RowComparator {
 
     protected List<DataColumn> columns = new ArrayList<DataColumn>();
     protected List<SortOrder> orders = new ArrayList<SortOrder>();
@@ -46,6 +47,10 @@ public class DataSetRowComparator implements Comparator<Integer> {
         else if (row1 != null && row2 == null) return 1;
         else if (row1 == null) return 0;
 
+        return compareRows(row1, row2);
+    }
+
+    public int compareRows(int row1, int row2) {
         // Compare the two rows.
         for (int i=0; i<columns.size(); i++) {
             DataColumn column = columns.get(i);